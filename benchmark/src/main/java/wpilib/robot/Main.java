@@ -57,4 +57,11 @@ public class Main {
   public Pose2d[] travelingSalesmanTwist() {
     return TravelingSalesmanBenchmark.twist();
   }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public StructGeneratorBenchmark.Outer structGeneratorRoundTrip() {
+    return StructGeneratorBenchmark.roundTrip();
+  }
 }
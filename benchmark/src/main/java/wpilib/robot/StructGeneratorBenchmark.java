@@ -0,0 +1,43 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package wpilib.robot;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.wpilib.util.struct.Struct;
+import org.wpilib.util.struct.StructGenerator;
+import org.wpilib.util.struct.StructSerializable;
+
+public final class StructGeneratorBenchmark {
+  private StructGeneratorBenchmark() {
+    // Utility class.
+  }
+
+  public record Inner(int a, boolean b, double c, short d) implements StructSerializable {
+    public static final Struct<Inner> struct = StructGenerator.genRecord(Inner.class);
+  }
+
+  public record Outer(Inner x, Inner y, long z, double w) implements StructSerializable {
+    public static final Struct<Outer> struct = StructGenerator.genRecord(Outer.class);
+  }
+
+  private static final Outer kValue =
+      new Outer(new Inner(1, true, 2.0, (short) 3), new Inner(4, false, 5.0, (short) 6), 7, 8.0);
+
+  private static final ByteBuffer kBuffer =
+      ByteBuffer.allocate(Outer.struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * Packs and unpacks a generated record struct with nested records.
+   *
+   * @return The unpacked value.
+   */
+  public static Outer roundTrip() {
+    kBuffer.clear();
+    Outer.struct.pack(kBuffer, kValue);
+    kBuffer.rewind();
+    return Outer.struct.unpack(kBuffer);
+  }
+}
@@ -5,7 +5,6 @@
 package org.wpilib.command3.proto;
 
 import org.wpilib.command3.Command;
-import org.wpilib.command3.Mechanism;
 import org.wpilib.command3.Scheduler;
 import org.wpilib.command3.proto.ProtobufCommands.ProtobufCommand;
 import org.wpilib.util.protobuf.Protobuf;
@@ -13,12 +12,23 @@ import us.hebi.quickbuf.Descriptors;
 
 /** Protobuf serde for running commands. */
 public class CommandProto implements Protobuf<Command, ProtobufCommand> {
+  private static final MechanismProto kMechanismProto = new MechanismProto();
+
   private final Scheduler m_scheduler;
 
   public CommandProto(Scheduler scheduler) {
     m_scheduler = scheduler;
   }
 
+  /**
+   * Gets the scheduler used to look up command state.
+   *
+   * @return scheduler
+   */
+  public Scheduler getScheduler() {
+    return m_scheduler;
+  }
+
   @Override
   public Class<Command> getTypeClass() {
     return Command.class;
@@ -52,10 +62,7 @@ public class CommandProto implements Protobuf<Command, ProtobufCommand> {
     msg.setName(command.name());
     msg.setPriority(command.priority());
 
-    Protobuf.packArray(
-        msg.getMutableRequirements(),
-        command.requirements().toArray(new Mechanism[0]),
-        new MechanismProto());
+    Protobuf.packCollection(msg.getMutableRequirements(), command.requirements(), kMechanismProto);
 
     if (m_scheduler.isRunning(command)) {
       msg.setLastTimeMs(m_scheduler.lastCommandRuntimeMs(command));
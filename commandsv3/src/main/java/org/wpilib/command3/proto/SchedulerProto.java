@@ -4,7 +4,6 @@
 
 package org.wpilib.command3.proto;
 
-import org.wpilib.command3.Command;
 import org.wpilib.command3.Scheduler;
 import org.wpilib.command3.proto.ProtobufCommands.ProtobufScheduler;
 import org.wpilib.util.protobuf.Protobuf;
@@ -41,18 +40,23 @@ public class SchedulerProto implements Protobuf<Scheduler, ProtobufScheduler> {
   public void pack(ProtobufScheduler msg, Scheduler scheduler) {
     msg.clear();
 
-    var commandProto = new CommandProto(scheduler);
+    // the command serializer is bound to a scheduler, so it's only recreated when that changes
+    CommandProto commandProto = m_commandProto;
+    if (commandProto == null || commandProto.getScheduler() != scheduler) {
+      commandProto = new CommandProto(scheduler);
+      m_commandProto = commandProto;
+    }
 
-    Protobuf.packArray(
-        msg.getMutableQueuedCommands(),
-        scheduler.getQueuedCommands().toArray(new Command[0]),
-        commandProto);
+    Protobuf.packCollection(
+        msg.getMutableQueuedCommands(), scheduler.getQueuedCommands(), commandProto);
 
-    Protobuf.packArray(
-        msg.getMutableRunningCommands(),
-        scheduler.getRunningCommands().toArray(new Command[0]),
-        commandProto);
+    Protobuf.packCollection(
+        msg.getMutableRunningCommands(), scheduler.getRunningCommands(), commandProto);
 
     msg.setLastTimeMs(scheduler.lastRuntimeMs());
   }
+
+  // pack() may be called from any thread that publishes the scheduler; volatile makes a serializer
+  // created on one thread safely visible to the others. A racing pack() at worst makes a spare.
+  private volatile CommandProto m_commandProto;
 }
@@ -74,6 +74,17 @@ public class BooleanArrayLogEntry extends DataLogEntry {
     m_log.appendBooleanArray(m_entry, value, 0);
   }
 
+  /**
+   * Stages a record into a batch, to be appended to the log when the batch is committed.
+   *
+   * @param batch Batch to stage into
+   * @param value Value to record
+   * @param timestamp Time stamp (0 to indicate the time the batch is committed)
+   */
+  public void append(DataLogBatch batch, boolean[] value, long timestamp) {
+    batch.appendBooleanArray(m_entry, value, timestamp);
+  }
+
   /**
    * Updates the last value and appends a record to the log if it has changed.
    *
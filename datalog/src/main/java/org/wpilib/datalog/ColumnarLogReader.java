@@ -0,0 +1,372 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+
+/**
+ * Reader for columnar log files written by {@link ColumnarLogWriter}. The file is memory mapped and
+ * columns are read directly from the mapping, so accessing one series only touches the bytes of
+ * that series.
+ *
+ * <p>Each series corresponds to one data log entry and has a timestamp column and one or more value
+ * columns with the same number of rows. The file must be closed to release the mapping.
+ */
+public final class ColumnarLogReader implements AutoCloseable {
+  static final long kMagic = 0x00534C4F43495057L; // "WPICOLS\0" little endian
+  static final int kVersion = 1;
+  static final int kHeaderSize = 24;
+
+  static final ValueLayout.OfInt kInt =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  static final ValueLayout.OfLong kLong =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  static final ValueLayout.OfFloat kFloat =
+      ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  static final ValueLayout.OfDouble kDouble =
+      ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  /** Column value types. */
+  public enum ColumnType {
+    /** Boolean, stored as one byte per value. */
+    BOOLEAN(1),
+    /** 64-bit integer. */
+    INTEGER(8),
+    /** 32-bit float. */
+    FLOAT(4),
+    /** 64-bit double. */
+    DOUBLE(8);
+
+    /** The size (in bytes) of each value. */
+    public final int size;
+
+    ColumnType(int size) {
+      this.size = size;
+    }
+  }
+
+  /** A column of values. */
+  public static final class Column {
+    Column(String name, ColumnType type, MemorySegment data) {
+      m_name = name;
+      m_type = type;
+      m_data = data;
+    }
+
+    /**
+     * Gets the column name. For struct entries, this is the flattened field path (e.g.
+     * "translation.x"); for other entries, it is "value".
+     *
+     * @return name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Gets the column value type.
+     *
+     * @return type
+     */
+    public ColumnType getType() {
+      return m_type;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return number of rows
+     */
+    public long size() {
+      return m_data.byteSize() / m_type.size;
+    }
+
+    /**
+     * Gets the raw column data. Values are stored contiguously in little endian order.
+     *
+     * @return column data
+     */
+    public MemorySegment getData() {
+      return m_data;
+    }
+
+    /**
+     * Gets a boolean value. The column type must be BOOLEAN.
+     *
+     * @param row row index
+     * @return value
+     */
+    public boolean getBoolean(long row) {
+      return m_data.get(ValueLayout.JAVA_BYTE, row) != 0;
+    }
+
+    /**
+     * Gets an integer value. The column type must be INTEGER.
+     *
+     * @param row row index
+     * @return value
+     */
+    public long getInteger(long row) {
+      return m_data.get(kLong, row * 8);
+    }
+
+    /**
+     * Gets a float value. The column type must be FLOAT.
+     *
+     * @param row row index
+     * @return value
+     */
+    public float getFloat(long row) {
+      return m_data.get(kFloat, row * 4);
+    }
+
+    /**
+     * Gets a value of any column type, converted to a double. Booleans are converted to 0 or 1.
+     *
+     * @param row row index
+     * @return value
+     */
+    public double getDouble(long row) {
+      return switch (m_type) {
+        case BOOLEAN -> m_data.get(ValueLayout.JAVA_BYTE, row) != 0 ? 1.0 : 0.0;
+        case INTEGER -> m_data.get(kLong, row * 8);
+        case FLOAT -> m_data.get(kFloat, row * 4);
+        case DOUBLE -> m_data.get(kDouble, row * 8);
+      };
+    }
+
+    /**
+     * Computes summary statistics over a range of rows, with values converted to double.
+     *
+     * @param startRow first row (inclusive)
+     * @param endRow last row (exclusive)
+     * @return statistics
+     */
+    public DoubleSummaryStatistics summarize(long startRow, long endRow) {
+      DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+      for (long row = startRow; row < endRow; row++) {
+        stats.accept(getDouble(row));
+      }
+      return stats;
+    }
+
+    private final String m_name;
+    private final ColumnType m_type;
+    private final MemorySegment m_data;
+  }
+
+  /** A series of values for one data log entry. */
+  public static final class Series {
+    Series(String name, String type, MemorySegment timestamps, List<Column> columns) {
+      m_name = name;
+      m_type = type;
+      m_timestamps = timestamps;
+      m_columns = Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Gets the entry name.
+     *
+     * @return name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Gets the entry data type string, e.g. "double" or "struct:Pose2d".
+     *
+     * @return type
+     */
+    public String getType() {
+      return m_type;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return number of rows
+     */
+    public long size() {
+      return m_timestamps.byteSize() / 8;
+    }
+
+    /**
+     * Gets a timestamp.
+     *
+     * @param row row index
+     * @return Timestamp, in integer microseconds
+     */
+    public long getTimestamp(long row) {
+      return m_timestamps.get(kLong, row * 8);
+    }
+
+    /**
+     * Gets the raw timestamp column data (little endian 64-bit integers).
+     *
+     * @return timestamp column data
+     */
+    public MemorySegment getTimestamps() {
+      return m_timestamps;
+    }
+
+    /**
+     * Finds the first row with a timestamp at or after the given timestamp. Rows are assumed to be
+     * in timestamp order, as written by DataLog.
+     *
+     * @param timestamp timestamp, in integer microseconds
+     * @return row index; size() if all rows are before the timestamp
+     */
+    public long lowerBound(long timestamp) {
+      long lo = 0;
+      long hi = size();
+      while (lo < hi) {
+        long mid = (lo + hi) >>> 1;
+        if (getTimestamp(mid) < timestamp) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+
+    /**
+     * Gets the value columns.
+     *
+     * @return columns
+     */
+    public List<Column> getColumns() {
+      return m_columns;
+    }
+
+    /**
+     * Gets a value column by name.
+     *
+     * @param name column name
+     * @return column, or null if not found
+     */
+    public Column getColumn(String name) {
+      for (Column column : m_columns) {
+        if (column.getName().equals(name)) {
+          return column;
+        }
+      }
+      return null;
+    }
+
+    private final String m_name;
+    private final String m_type;
+    private final MemorySegment m_timestamps;
+    private final List<Column> m_columns;
+  }
+
+  /**
+   * Opens a columnar log file.
+   *
+   * @param path file path
+   * @throws IOException if the file cannot be read or is not a valid columnar log
+   */
+  public ColumnarLogReader(Path path) throws IOException {
+    m_arena = Arena.ofShared();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      m_seg = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), m_arena);
+      m_series = readDirectory();
+    } catch (IOException | RuntimeException ex) {
+      m_arena.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Gets all series.
+   *
+   * @return series
+   */
+  public List<Series> getSeries() {
+    return m_series;
+  }
+
+  /**
+   * Gets a series by entry name.
+   *
+   * @param name entry name
+   * @return series, or null if not found
+   */
+  public Series getSeries(String name) {
+    for (Series series : m_series) {
+      if (series.getName().equals(name)) {
+        return series;
+      }
+    }
+    return null;
+  }
+
+  /** Unmaps the file. Series and columns obtained from this reader may not be used afterwards. */
+  @Override
+  public void close() {
+    m_arena.close();
+  }
+
+  private List<Series> readDirectory() throws IOException {
+    try {
+      if (m_seg.byteSize() < kHeaderSize
+          || m_seg.get(kLong, 0) != kMagic
+          || m_seg.get(kInt, 8) != kVersion) {
+        throw new IOException("not a columnar log");
+      }
+      long pos = m_seg.get(kLong, 16);
+      int numSeries = m_seg.get(kInt, pos);
+      pos += 4;
+      List<Series> seriesList = new ArrayList<>();
+      for (int i = 0; i < numSeries; i++) {
+        String name = readString(pos);
+        pos += 4 + m_seg.get(kInt, pos);
+        String type = readString(pos);
+        pos += 4 + m_seg.get(kInt, pos);
+        long rows = m_seg.get(kLong, pos);
+        long timestampOffset = m_seg.get(kLong, pos + 8);
+        int numColumns = m_seg.get(kInt, pos + 16);
+        pos += 20;
+        List<Column> columns = new ArrayList<>();
+        for (int j = 0; j < numColumns; j++) {
+          String columnName = readString(pos);
+          pos += 4 + m_seg.get(kInt, pos);
+          ColumnType columnType = ColumnType.values()[m_seg.get(ValueLayout.JAVA_BYTE, pos)];
+          long offset = m_seg.get(kLong, pos + 1);
+          pos += 9;
+          columns.add(
+              new Column(columnName, columnType, m_seg.asSlice(offset, rows * columnType.size)));
+        }
+        seriesList.add(new Series(name, type, m_seg.asSlice(timestampOffset, rows * 8), columns));
+      }
+      return Collections.unmodifiableList(seriesList);
+    } catch (IndexOutOfBoundsException ex) {
+      throw new IOException("invalid columnar log", ex);
+    }
+  }
+
+  private String readString(long pos) {
+    int len = m_seg.get(kInt, pos);
+    byte[] arr = m_seg.asSlice(pos + 4, len).toArray(ValueLayout.JAVA_BYTE);
+    return new String(arr, StandardCharsets.UTF_8);
+  }
+
+  private final Arena m_arena;
+  private final MemorySegment m_seg;
+  private final List<Series> m_series;
+}
@@ -0,0 +1,361 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.wpilib.datalog.ColumnarLogReader.kDouble;
+import static org.wpilib.datalog.ColumnarLogReader.kFloat;
+import static org.wpilib.datalog.ColumnarLogReader.kInt;
+import static org.wpilib.datalog.ColumnarLogReader.kLong;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.wpilib.datalog.ColumnarLogReader.ColumnType;
+import org.wpilib.util.struct.BadSchemaException;
+import org.wpilib.util.struct.StructDescriptor;
+import org.wpilib.util.struct.StructDescriptorDatabase;
+import org.wpilib.util.struct.StructFieldDescriptor;
+import org.wpilib.util.struct.StructFieldType;
+
+/**
+ * Converts a data log into a columnar file that can be read with {@link ColumnarLogReader}.
+ *
+ * <p>Each entry with a "boolean", "int64", "float", "double", or non-array "struct:" type becomes
+ * a series with a timestamp column and one value column. Struct entries are flattened into one
+ * column per primitive field using the struct schemas in the log; nested struct fields are named
+ * with a "." separator (e.g. "translation.x") and array fields with an index suffix (e.g.
+ * "values[2]"). Other entry types, char fields, and entries whose schema is not in the log are
+ * skipped. Entries that are finished and restarted with the same name and type are appended to the
+ * same series.
+ *
+ * <p>Conversion takes two passes through the log: the first counts records and collects schemas,
+ * and the second writes values directly into the memory-mapped output file.
+ */
+public final class ColumnarLogWriter {
+  private static final String kSchemaPrefix = "/.schema/struct:";
+
+  private ColumnarLogWriter() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /** A value column and where to read it from each record. */
+  static final class FieldColumn {
+    FieldColumn(String name, ColumnType type, StructFieldType fieldType, int offset, int size) {
+      m_name = name;
+      m_type = type;
+      m_fieldType = fieldType;
+      m_offset = offset;
+      m_size = size;
+    }
+
+    final String m_name;
+    final ColumnType m_type;
+    final StructFieldType m_fieldType;
+    final int m_offset;
+    final int m_size;
+    int m_bitShift;
+    int m_bitWidth;
+    long m_fileOffset;
+  }
+
+  /** Output series for one entry name and type. */
+  private static final class Series {
+    Series(String key, String name, String type) {
+      m_key = key;
+      m_name = name;
+      m_type = type;
+    }
+
+    final String m_key;
+    final String m_name;
+    final String m_type;
+    final List<FieldColumn> m_columns = new ArrayList<>();
+    int m_recordSize;
+    long m_capacity;
+    long m_rows;
+    long m_timestampOffset;
+  }
+
+  /**
+   * Converts a data log to a columnar file.
+   *
+   * @param reader data log reader
+   * @param path output file path; overwritten if it exists
+   * @throws IOException if the output file cannot be written
+   */
+  public static void convert(DataLogReader reader, Path path) throws IOException {
+    // first pass: collect schemas and count records
+    Map<String, Series> seriesByKey = new LinkedHashMap<>();
+    Map<Integer, Series> active = new HashMap<>();
+    Map<Integer, String> schemaEntries = new HashMap<>();
+    StructDescriptorDatabase structs = new StructDescriptorDatabase();
+    DataLogCursor cursor = reader.cursor();
+    while (cursor.next()) {
+      if (cursor.isControl()) {
+        applyControl(cursor, active, schemaEntries, seriesByKey, true);
+        continue;
+      }
+      Series series = active.get(cursor.getEntry());
+      if (series != null) {
+        series.m_capacity++;
+        continue;
+      }
+      String structName = schemaEntries.get(cursor.getEntry());
+      if (structName != null) {
+        try {
+          structs.add(structName, cursor.toRecord().getString());
+        } catch (BadSchemaException ex) {
+          // skip entries using this struct
+        }
+      }
+    }
+
+    // resolve columns and lay out the file
+    List<Series> seriesList = new ArrayList<>();
+    Map<String, Series> resolved = new HashMap<>();
+    for (Series series : seriesByKey.values()) {
+      if (series.m_capacity > 0 && resolveColumns(series, structs)) {
+        seriesList.add(series);
+        resolved.put(series.m_key, series);
+      }
+    }
+    long offset = ColumnarLogReader.kHeaderSize;
+    long directorySize = 4;
+    for (Series series : seriesList) {
+      series.m_timestampOffset = offset;
+      offset = align(offset + series.m_capacity * 8);
+      for (FieldColumn column : series.m_columns) {
+        column.m_fileOffset = offset;
+        offset = align(offset + series.m_capacity * column.m_type.size);
+      }
+      directorySize += stringSize(series.m_name) + stringSize(series.m_type) + 20;
+      for (FieldColumn column : series.m_columns) {
+        directorySize += stringSize(column.m_name) + 9;
+      }
+    }
+    long directoryOffset = offset;
+
+    try (FileChannel channel =
+            FileChannel.open(
+                path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Arena arena = Arena.ofConfined()) {
+      MemorySegment out =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, directoryOffset + directorySize, arena);
+
+      // second pass: write values
+      active.clear();
+      schemaEntries.clear();
+      cursor = reader.cursor();
+      while (cursor.next()) {
+        if (cursor.isControl()) {
+          applyControl(cursor, active, schemaEntries, resolved, false);
+          continue;
+        }
+        Series series = active.get(cursor.getEntry());
+        if (series != null && series.m_rows < series.m_capacity) {
+          writeRow(out, series, cursor);
+        }
+      }
+
+      // write header and directory
+      out.set(kLong, 0, ColumnarLogReader.kMagic);
+      out.set(kInt, 8, ColumnarLogReader.kVersion);
+      out.set(kInt, 12, 0);
+      out.set(kLong, 16, directoryOffset);
+      long pos = directoryOffset;
+      out.set(kInt, pos, seriesList.size());
+      pos += 4;
+      for (Series series : seriesList) {
+        pos = putString(out, pos, series.m_name);
+        pos = putString(out, pos, series.m_type);
+        out.set(kLong, pos, series.m_rows);
+        out.set(kLong, pos + 8, series.m_timestampOffset);
+        out.set(kInt, pos + 16, series.m_columns.size());
+        pos += 20;
+        for (FieldColumn column : series.m_columns) {
+          pos = putString(out, pos, column.m_name);
+          out.set(ValueLayout.JAVA_BYTE, pos, (byte) column.m_type.ordinal());
+          out.set(kLong, pos + 1, column.m_fileOffset);
+          pos += 9;
+        }
+      }
+      out.force();
+    }
+  }
+
+  /**
+   * Applies a control record to the active entry maps. If create is true, series are created for
+   * newly started entries; otherwise only existing series are used.
+   */
+  private static void applyControl(
+      DataLogCursor cursor,
+      Map<Integer, Series> active,
+      Map<Integer, String> schemaEntries,
+      Map<String, Series> seriesByKey,
+      boolean create) {
+    try {
+      if (cursor.isStart()) {
+        DataLogRecord.StartRecordData data = cursor.toRecord().getStartData();
+        active.remove(data.entry);
+        schemaEntries.remove(data.entry);
+        if ("structschema".equals(data.type) && data.name.startsWith(kSchemaPrefix)) {
+          schemaEntries.put(data.entry, data.name.substring(kSchemaPrefix.length()));
+        } else if (isSupportedType(data.type)) {
+          String key = data.name + '\0' + data.type;
+          Series series =
+              create
+                  ? seriesByKey.computeIfAbsent(key, k -> new Series(k, data.name, data.type))
+                  : seriesByKey.get(key);
+          if (series != null) {
+            active.put(data.entry, series);
+          }
+        }
+      } else if (cursor.isFinish()) {
+        int entry = cursor.toRecord().getFinishEntry();
+        active.remove(entry);
+        schemaEntries.remove(entry);
+      }
+    } catch (InputMismatchException ex) {
+      // ignore invalid control records
+    }
+  }
+
+  /** Determines the value columns of a series. Returns false if the series cannot be exported. */
+  private static boolean resolveColumns(Series series, StructDescriptorDatabase structs) {
+    switch (series.m_type) {
+      case "boolean" -> {
+        series.m_recordSize = 1;
+        series.m_columns.add(
+            new FieldColumn("value", ColumnType.BOOLEAN, StructFieldType.BOOL, 0, 1));
+      }
+      case "int64" -> {
+        series.m_recordSize = 8;
+        series.m_columns.add(
+            new FieldColumn("value", ColumnType.INTEGER, StructFieldType.INT64, 0, 8));
+      }
+      case "float" -> {
+        series.m_recordSize = 4;
+        series.m_columns.add(
+            new FieldColumn("value", ColumnType.FLOAT, StructFieldType.FLOAT, 0, 4));
+      }
+      case "double" -> {
+        series.m_recordSize = 8;
+        series.m_columns.add(
+            new FieldColumn("value", ColumnType.DOUBLE, StructFieldType.DOUBLE, 0, 8));
+      }
+      default -> {
+        StructDescriptor desc = structs.find(series.m_type.substring("struct:".length()));
+        if (desc == null || !desc.isValid()) {
+          return false;
+        }
+        series.m_recordSize = desc.getSize();
+        addStructColumns(series.m_columns, desc, "", 0);
+      }
+    }
+    return !series.m_columns.isEmpty();
+  }
+
+  static void addStructColumns(
+      List<FieldColumn> columns, StructDescriptor desc, String prefix, int baseOffset) {
+    for (StructFieldDescriptor field : desc.getFields()) {
+      StructFieldType type = field.getType();
+      if (type == StructFieldType.CHAR) {
+        continue;
+      }
+      for (int i = 0; i < field.getArraySize(); i++) {
+        String name = prefix + field.getName() + (field.isArray() ? "[" + i + "]" : "");
+        int offset = baseOffset + field.getOffset() + i * field.getSize();
+        if (type == StructFieldType.STRUCT) {
+          addStructColumns(columns, field.getStruct(), name + ".", offset);
+          continue;
+        }
+        ColumnType columnType =
+            switch (type) {
+              case BOOL -> ColumnType.BOOLEAN;
+              case FLOAT -> ColumnType.FLOAT;
+              case DOUBLE -> ColumnType.DOUBLE;
+              default -> ColumnType.INTEGER;
+            };
+        FieldColumn column = new FieldColumn(name, columnType, type, offset, field.getSize());
+        column.m_bitShift = field.getBitShift();
+        column.m_bitWidth = field.getBitWidth();
+        columns.add(column);
+      }
+    }
+  }
+
+  private static void writeRow(MemorySegment out, Series series, DataLogCursor cursor) {
+    if (cursor.getSize() != series.m_recordSize) {
+      return;
+    }
+    MemorySegment in = cursor.getSegment();
+    long data = cursor.getDataOffset();
+    long row = series.m_rows++;
+    out.set(kLong, series.m_timestampOffset + row * 8, cursor.getTimestamp());
+    for (FieldColumn column : series.m_columns) {
+      long src = data + column.m_offset;
+      long dst = column.m_fileOffset + row * column.m_type.size;
+      switch (column.m_fieldType) {
+        case FLOAT -> out.set(kFloat, dst, in.get(kFloat, src));
+        case DOUBLE -> out.set(kDouble, dst, in.get(kDouble, src));
+        case BOOL ->
+            out.set(ValueLayout.JAVA_BYTE, dst, (byte) (readInt(in, src, column) != 0 ? 1 : 0));
+        default -> out.set(kLong, dst, readInt(in, src, column));
+      }
+    }
+  }
+
+  /** Reads an integer or bool field, applying bitfield shift, mask, and sign extension. */
+  static long readInt(MemorySegment in, long src, FieldColumn column) {
+    long val = 0;
+    for (int i = 0; i < column.m_size; i++) {
+      val |= (in.get(ValueLayout.JAVA_BYTE, src + i) & 0xffL) << (i * 8);
+    }
+    int shift = column.m_bitShift;
+    int width = column.m_bitWidth;
+    if (column.m_fieldType.isInt) {
+      return (val << (64 - shift - width)) >> (64 - width);
+    } else {
+      return width == 64 ? val : (val >>> shift) & ((1L << width) - 1);
+    }
+  }
+
+  private static boolean isSupportedType(String type) {
+    return switch (type) {
+      case "boolean", "int64", "float", "double" -> true;
+      default -> type.startsWith("struct:") && !type.endsWith("[]");
+    };
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+
+  private static long stringSize(String str) {
+    return 4 + str.getBytes(StandardCharsets.UTF_8).length;
+  }
+
+  private static long putString(MemorySegment out, long pos, String str) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.set(kInt, pos, bytes.length);
+    MemorySegment.copy(MemorySegment.ofArray(bytes), 0, out, pos + 4, bytes.length);
+    return pos + 4 + bytes.length;
+  }
+}
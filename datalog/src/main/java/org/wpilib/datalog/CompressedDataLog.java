@@ -0,0 +1,296 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Block compressed data log container.
+ *
+ * <p>A compressed data log wraps an ordinary data log: the raw log bytes (header and records) are
+ * split into fixed-size blocks and each block is compressed independently with Deflate. The
+ * container layout is:
+ *
+ * <ul>
+ *   <li>16-byte header: "WPILOGZ\0", 4-byte version (1), 4-byte uncompressed block size
+ *   <li>blocks: 4-byte compressed size, 4-byte uncompressed size, compressed data. A block whose
+ *       compressed size equals its uncompressed size is stored without compression.
+ *   <li>block index (written on close): per block, 8-byte container offset, 4-byte compressed size,
+ *       4-byte uncompressed size
+ *   <li>16-byte footer: 8-byte index offset, 4-byte block count, "WLZI"
+ * </ul>
+ *
+ * <p>All integers are little endian. If the footer is missing (e.g. the writer did not close the
+ * container), the blocks are found by scanning their headers and a truncated final block is
+ * ignored.
+ *
+ * <p>{@link DataLogReader} detects compressed logs and decompresses them transparently, with blocks
+ * decompressed in parallel. The reader needs random access to the whole uncompressed log, so the
+ * log is decompressed up front: logs of up to {@link #kMaxInMemorySize} bytes uncompressed are
+ * decompressed into memory, and larger logs into a memory-mapped temporary file (deleted once it
+ * is no longer mapped), so the operating system can page out the parts not being read.
+ * Each block may be at most the block size given in the header, which bounds the uncompressed size
+ * of a malformed or malicious container to its block count times the block size.
+ *
+ * <p>Compressed logs are written with {@link CompressedDataLogOutputStream}
+ * (e.g. wrapped by a {@link DataLogWriter}) or by compressing an existing log file with {@link
+ * #compress(Path, Path)}.
+ */
+public final class CompressedDataLog {
+  /** The default uncompressed block size. */
+  public static final int kDefaultBlockSize = 128 * 1024;
+
+  /**
+   * The largest uncompressed log size that is decompressed into memory. Larger logs are
+   * decompressed into a memory-mapped temporary file.
+   */
+  public static final long kMaxInMemorySize = 64L * 1024 * 1024;
+
+  static final long kMagic = 0x005A474F4C495057L; // "WPILOGZ\0" little endian
+  static final int kVersion = 1;
+  static final int kHeaderSize = 16;
+  static final int kBlockHeaderSize = 8;
+  static final int kIndexEntrySize = 16;
+  static final int kFooterSize = 16;
+  static final int kFooterMagic = 0x495A4C57; // "WLZI" little endian
+
+  private static final ValueLayout.OfInt kInt =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfLong kLong =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private CompressedDataLog() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Compresses a data log file.
+   *
+   * @param in input (uncompressed) data log file
+   * @param out output compressed data log file
+   * @throws IOException if unable to read or write a file
+   */
+  public static void compress(Path in, Path out) throws IOException {
+    compress(in, out, kDefaultBlockSize, Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Compresses a data log file.
+   *
+   * @param in input (uncompressed) data log file
+   * @param out output compressed data log file
+   * @param blockSize uncompressed block size in bytes
+   * @param level Deflate compression level (0-9, or -1 for the default)
+   * @throws IOException if unable to read or write a file
+   */
+  public static void compress(Path in, Path out, int blockSize, int level) throws IOException {
+    try (InputStream is = Files.newInputStream(in);
+        OutputStream os =
+            new CompressedDataLogOutputStream(Files.newOutputStream(out), blockSize, level)) {
+      is.transferTo(os);
+    }
+  }
+
+  /**
+   * Returns true if the contents are a compressed data log.
+   *
+   * @param seg contents
+   * @return True if compressed
+   */
+  static boolean isCompressed(MemorySegment seg) {
+    return seg.byteSize() >= kHeaderSize && seg.get(kLong, 0) == kMagic;
+  }
+
+  /**
+   * Decompresses a compressed data log. Blocks are decompressed in parallel.
+   *
+   * @param seg compressed contents
+   * @return uncompressed data log contents
+   * @throws InputMismatchException if the container is malformed
+   * @throws UncheckedIOException if the log is too large to decompress into memory and a temporary
+   *     file cannot be created
+   */
+  static MemorySegment decompress(MemorySegment seg) {
+    return decompress(seg, kMaxInMemorySize);
+  }
+
+  /**
+   * Decompresses a compressed data log. Blocks are decompressed in parallel.
+   *
+   * @param seg compressed contents
+   * @param maxInMemorySize largest uncompressed size to decompress into memory
+   * @return uncompressed data log contents
+   * @throws InputMismatchException if the container is malformed
+   * @throws UncheckedIOException if a temporary file cannot be created
+   */
+  static MemorySegment decompress(MemorySegment seg, long maxInMemorySize) {
+    if (seg.get(kInt, 8) != kVersion) {
+      throw new InputMismatchException("unsupported compressed data log version");
+    }
+    int blockSize = seg.get(kInt, 12);
+    if (blockSize <= 0) {
+      throw new InputMismatchException("invalid compressed data log block size");
+    }
+    long[] index = readIndex(seg);
+    final long[] blocks = index != null ? index : scanBlocks(seg);
+    int count = blocks.length;
+
+    // prefix sum of uncompressed sizes gives each block's output offset
+    long[] outOffsets = new long[count + 1];
+    for (int i = 0; i < count; i++) {
+      int size = seg.get(kInt, blocks[i] + 4);
+      if (size > blockSize) {
+        throw new InputMismatchException("compressed data log block larger than block size");
+      }
+      outOffsets[i + 1] = outOffsets[i] + size;
+    }
+    long total = outOffsets[count];
+    MemorySegment out =
+        total <= maxInMemorySize ? Arena.ofAuto().allocate(Math.max(total, 1)) : mapTempFile(total);
+
+    IntStream.range(0, count)
+        .parallel()
+        .forEach(
+            i -> {
+              long pos = blocks[i];
+              int compressedSize = seg.get(kInt, pos);
+              int size = seg.get(kInt, pos + 4);
+              MemorySegment src = seg.asSlice(pos + kBlockHeaderSize, compressedSize);
+              MemorySegment dst = out.asSlice(outOffsets[i], size);
+              if (compressedSize == size) {
+                dst.copyFrom(src);
+              } else {
+                inflate(src, dst);
+              }
+            });
+    return out.asSlice(0, outOffsets[count]).asReadOnly();
+  }
+
+  /**
+   * Maps a new temporary file of the given size. The file is deleted when the channel is closed
+   * (or, on platforms that don't allow deleting a mapped file, when the mapping is released); the
+   * mapping stays valid until it is garbage collected.
+   */
+  private static MemorySegment mapTempFile(long size) {
+    Path path = null;
+    try {
+      path = Files.createTempFile("wpilog", ".tmp");
+      try (FileChannel channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.DELETE_ON_CLOSE)) {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size, Arena.ofAuto());
+      }
+    } catch (IOException ex) {
+      if (path != null) {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException deleteEx) {
+          ex.addSuppressed(deleteEx);
+        }
+      }
+      throw new UncheckedIOException("could not create temporary file for data log", ex);
+    }
+  }
+
+  private static void inflate(MemorySegment src, MemorySegment dst) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(src.asByteBuffer());
+      ByteBuffer dstBuf = dst.asByteBuffer();
+      while (dstBuf.hasRemaining() && !inflater.finished()) {
+        int n = inflater.inflate(dstBuf);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+      }
+      if (dstBuf.hasRemaining() || !inflater.finished()) {
+        throw new InputMismatchException("corrupt compressed data log block");
+      }
+    } catch (DataFormatException ex) {
+      throw new InputMismatchException("corrupt compressed data log block: " + ex.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Reads the block index from the footer.
+   *
+   * @return Block container offsets, or null if there is no valid index
+   */
+  private static long[] readIndex(MemorySegment seg) {
+    long size = seg.byteSize();
+    if (size < kHeaderSize + kFooterSize || seg.get(kInt, size - 4) != kFooterMagic) {
+      return null;
+    }
+    long indexOffset = seg.get(kLong, size - kFooterSize);
+    int count = seg.get(kInt, size - 8);
+    if (count < 0
+        || indexOffset < kHeaderSize
+        || size - kFooterSize - indexOffset != (long) count * kIndexEntrySize) {
+      return null;
+    }
+    long[] blocks = new long[count];
+    for (int i = 0; i < count; i++) {
+      long entry = indexOffset + (long) i * kIndexEntrySize;
+      long pos = seg.get(kLong, entry);
+      int compressedSize = seg.get(kInt, entry + 8);
+      int uncompressedSize = seg.get(kInt, entry + 12);
+      if (pos < kHeaderSize
+          || compressedSize < 0
+          || uncompressedSize < 0
+          || pos + kBlockHeaderSize + compressedSize > indexOffset
+          || seg.get(kInt, pos) != compressedSize
+          || seg.get(kInt, pos + 4) != uncompressedSize) {
+        return null;
+      }
+      blocks[i] = pos;
+    }
+    return blocks;
+  }
+
+  private static long[] scanBlocks(MemorySegment seg) {
+    long size = seg.byteSize();
+    long[] blocks = new long[64];
+    int count = 0;
+    long pos = kHeaderSize;
+    while (pos + kBlockHeaderSize <= size) {
+      int compressedSize = seg.get(kInt, pos);
+      int uncompressedSize = seg.get(kInt, pos + 4);
+      if (compressedSize < 0
+          || uncompressedSize < 0
+          || pos + kBlockHeaderSize + compressedSize > size) {
+        break;
+      }
+      if (count == blocks.length) {
+        blocks = Arrays.copyOf(blocks, blocks.length * 2);
+      }
+      blocks[count++] = pos;
+      pos += kBlockHeaderSize + compressedSize;
+    }
+    return Arrays.copyOf(blocks, count);
+  }
+}
@@ -0,0 +1,187 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream that writes a block compressed data log container (see {@link CompressedDataLog}).
+ * Raw data log bytes written to this stream are collected into fixed-size blocks and each full
+ * block is compressed and written to the underlying stream. It is intended to be used as the output
+ * stream of a {@link DataLogWriter}:
+ *
+ * <pre>{@code
+ * OutputStream os = new CompressedDataLogOutputStream(new FileOutputStream("robot.wpilogz"));
+ * DataLogWriter log = new DataLogWriter(os);
+ * ...
+ * log.flush();
+ * log.close();
+ * os.close();
+ * }</pre>
+ *
+ * <p>flush() does not write a partially filled block, as small blocks compress poorly; at most one
+ * block of data is lost if the stream is not closed. close() writes the final block and the block
+ * index.
+ */
+public class CompressedDataLogOutputStream extends OutputStream {
+  /**
+   * Constructs a compressed output stream with the default block size and compression level.
+   *
+   * @param out underlying output stream
+   */
+  public CompressedDataLogOutputStream(OutputStream out) {
+    this(out, CompressedDataLog.kDefaultBlockSize, Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * Constructs a compressed output stream.
+   *
+   * @param out underlying output stream
+   * @param blockSize uncompressed block size in bytes
+   * @param level Deflate compression level (0-9, or -1 for the default)
+   */
+  public CompressedDataLogOutputStream(OutputStream out, int blockSize, int level) {
+    if (blockSize <= 0) {
+      throw new IllegalArgumentException("blockSize must be positive");
+    }
+    m_out = out;
+    m_block = new byte[blockSize];
+    m_compressed = new byte[blockSize + CompressedDataLog.kBlockHeaderSize];
+    m_deflater = new Deflater(level);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    m_block[m_blockLen++] = (byte) b;
+    if (m_blockLen == m_block.length) {
+      writeBlock();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    while (len > 0) {
+      int n = Math.min(len, m_block.length - m_blockLen);
+      System.arraycopy(b, off, m_block, m_blockLen, n);
+      m_blockLen += n;
+      off += n;
+      len -= n;
+      if (m_blockLen == m_block.length) {
+        writeBlock();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    m_out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (m_closed) {
+      return;
+    }
+    try {
+      ensureHeader();
+      if (m_blockLen > 0) {
+        writeBlock();
+      }
+      ByteBuffer buf =
+          ByteBuffer.allocate(
+                  m_blockCount * CompressedDataLog.kIndexEntrySize + CompressedDataLog.kFooterSize)
+              .order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < m_blockCount; i++) {
+        buf.putLong(m_index[i * 2]);
+        buf.putInt((int) (m_index[i * 2 + 1] >>> 32));
+        buf.putInt((int) m_index[i * 2 + 1]);
+      }
+      buf.putLong(m_pos);
+      buf.putInt(m_blockCount);
+      buf.putInt(CompressedDataLog.kFooterMagic);
+      m_out.write(buf.array());
+      m_out.flush();
+    } finally {
+      m_closed = true;
+      m_deflater.end();
+      m_out.close();
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (m_closed) {
+      throw new IOException("stream closed");
+    }
+  }
+
+  private void ensureHeader() throws IOException {
+    if (m_pos != 0) {
+      return;
+    }
+    ByteBuffer buf =
+        ByteBuffer.allocate(CompressedDataLog.kHeaderSize).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putLong(CompressedDataLog.kMagic);
+    buf.putInt(CompressedDataLog.kVersion);
+    buf.putInt(m_block.length);
+    m_out.write(buf.array());
+    m_pos = CompressedDataLog.kHeaderSize;
+  }
+
+  private void writeBlock() throws IOException {
+    ensureHeader();
+
+    // compress after the block header; fall back to storing the block if it doesn't shrink
+    int limit = CompressedDataLog.kBlockHeaderSize + m_blockLen;
+    m_deflater.reset();
+    m_deflater.setInput(m_block, 0, m_blockLen);
+    m_deflater.finish();
+    int compressedLen = CompressedDataLog.kBlockHeaderSize;
+    while (!m_deflater.finished() && compressedLen < limit) {
+      compressedLen += m_deflater.deflate(m_compressed, compressedLen, limit - compressedLen);
+    }
+    if (!m_deflater.finished() || compressedLen >= limit) {
+      System.arraycopy(m_block, 0, m_compressed, CompressedDataLog.kBlockHeaderSize, m_blockLen);
+      compressedLen = limit;
+    }
+    int dataLen = compressedLen - CompressedDataLog.kBlockHeaderSize;
+
+    ByteBuffer header = ByteBuffer.wrap(m_compressed).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(0, dataLen);
+    header.putInt(4, m_blockLen);
+    m_out.write(m_compressed, 0, compressedLen);
+
+    if (m_blockCount * 2 == m_index.length) {
+      m_index = Arrays.copyOf(m_index, m_index.length * 2);
+    }
+    m_index[m_blockCount * 2] = m_pos;
+    m_index[m_blockCount * 2 + 1] = ((long) dataLen << 32) | m_blockLen;
+    m_blockCount++;
+    m_pos += compressedLen;
+    m_blockLen = 0;
+  }
+
+  private final OutputStream m_out;
+  private final byte[] m_block;
+  private final byte[] m_compressed;
+  private final Deflater m_deflater;
+  private int m_blockLen;
+  private long m_pos;
+  private int m_blockCount;
+
+  // pairs of (container offset, compressed size << 32 | uncompressed size)
+  private long[] m_index = new long[64];
+  private boolean m_closed;
+}
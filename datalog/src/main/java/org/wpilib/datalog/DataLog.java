@@ -434,6 +434,16 @@ public class DataLog implements AutoCloseable {
     DataLogJNI.appendStringArray(m_impl, entry, arr, timestamp);
   }
 
+  /**
+   * Appends all records staged in a batch to the log with a single native call. The batch is not
+   * cleared.
+   *
+   * @param batch Batch of records
+   */
+  public void appendBatch(DataLogBatch batch) {
+    DataLogJNI.appendBatch(m_impl, batch.getBuffer(), batch.getSize());
+  }
+
   /**
    * Gets the JNI implementation handle.
    *
@@ -0,0 +1,296 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A batch of records staged in Java and appended to a DataLog with a single native call. Staging
+ * many values into a batch and committing it once avoids a JNI crossing (and a lock acquisition)
+ * per value, which matters when logging hundreds of signals every loop.
+ *
+ * <p>Records are stored in a reusable direct buffer. Each record consists of a 4-byte entry index,
+ * an 8-byte timestamp, and a 4-byte payload size (all little endian), followed by the payload in
+ * the same encoding used by the DataLog append functions. A timestamp of 0 is replaced by the
+ * current time when the batch is committed, not when the record is staged.
+ *
+ * <p>Typical usage:
+ *
+ * <pre>{@code
+ * batch.appendDouble(entryA, a, now);
+ * speedEntry.append(batch, speed, now);
+ * batch.commit(log);
+ * }</pre>
+ *
+ * <p>This class is not thread safe.
+ */
+public final class DataLogBatch {
+  private static final int kHeaderSize = 16;
+
+  /** Constructs an empty batch with a default initial capacity. */
+  public DataLogBatch() {
+    this(4096);
+  }
+
+  /**
+   * Constructs an empty batch.
+   *
+   * @param capacity initial buffer capacity in bytes; the buffer grows as needed
+   */
+  public DataLogBatch(int capacity) {
+    m_buf = ByteBuffer.allocateDirect(Math.max(capacity, kHeaderSize));
+    m_buf.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Stages a raw record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param data Byte array to record; will stage entire array contents
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendRaw(int entry, byte[] data, long timestamp) {
+    appendRaw(entry, data, 0, data.length, timestamp);
+  }
+
+  /**
+   * Stages a raw record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param data Byte array to record
+   * @param start Start position of data (in byte array)
+   * @param len Length of data (must be less than or equal to data.length - start)
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendRaw(int entry, byte[] data, int start, int len, long timestamp) {
+    startRecord(entry, timestamp, len);
+    m_buf.put(data, start, len);
+    m_count++;
+  }
+
+  /**
+   * Stages a raw record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param data Buffer to record; will stage from data.position() to data.limit()
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendRaw(int entry, ByteBuffer data, long timestamp) {
+    int pos = data.position();
+    int len = data.limit() - pos;
+    startRecord(entry, timestamp, len);
+    m_buf.put(m_buf.position(), data, pos, len);
+    m_buf.position(m_buf.position() + len);
+    m_count++;
+  }
+
+  /**
+   * Stages a boolean record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param value Boolean value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendBoolean(int entry, boolean value, long timestamp) {
+    startRecord(entry, timestamp, 1);
+    m_buf.put((byte) (value ? 1 : 0));
+    m_count++;
+  }
+
+  /**
+   * Stages an integer record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param value Integer value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendInteger(int entry, long value, long timestamp) {
+    startRecord(entry, timestamp, 8);
+    m_buf.putLong(value);
+    m_count++;
+  }
+
+  /**
+   * Stages a float record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param value Float value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendFloat(int entry, float value, long timestamp) {
+    startRecord(entry, timestamp, 4);
+    m_buf.putFloat(value);
+    m_count++;
+  }
+
+  /**
+   * Stages a double record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param value Double value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendDouble(int entry, double value, long timestamp) {
+    startRecord(entry, timestamp, 8);
+    m_buf.putDouble(value);
+    m_count++;
+  }
+
+  /**
+   * Stages a string record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param value String value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendString(int entry, String value, long timestamp) {
+    appendRaw(entry, value.getBytes(StandardCharsets.UTF_8), timestamp);
+  }
+
+  /**
+   * Stages a boolean array record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param arr Boolean array to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendBooleanArray(int entry, boolean[] arr, long timestamp) {
+    startRecord(entry, timestamp, arr.length);
+    for (boolean value : arr) {
+      m_buf.put((byte) (value ? 1 : 0));
+    }
+    m_count++;
+  }
+
+  /**
+   * Stages an integer array record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param arr Integer array to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendIntegerArray(int entry, long[] arr, long timestamp) {
+    startRecord(entry, timestamp, arr.length * 8);
+    m_buf.asLongBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 8);
+    m_count++;
+  }
+
+  /**
+   * Stages a float array record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param arr Float array to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendFloatArray(int entry, float[] arr, long timestamp) {
+    startRecord(entry, timestamp, arr.length * 4);
+    m_buf.asFloatBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 4);
+    m_count++;
+  }
+
+  /**
+   * Stages a double array record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param arr Double array to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendDoubleArray(int entry, double[] arr, long timestamp) {
+    startRecord(entry, timestamp, arr.length * 8);
+    m_buf.asDoubleBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 8);
+    m_count++;
+  }
+
+  /**
+   * Stages a string array record.
+   *
+   * @param entry Entry index, as returned by DataLog.start()
+   * @param arr String array to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void appendStringArray(int entry, String[] arr, long timestamp) {
+    byte[][] encoded = new byte[arr.length][];
+    int size = 4;
+    for (int i = 0; i < arr.length; i++) {
+      encoded[i] = arr[i].getBytes(StandardCharsets.UTF_8);
+      size += 4 + encoded[i].length;
+    }
+    startRecord(entry, timestamp, size);
+    m_buf.putInt(arr.length);
+    for (byte[] str : encoded) {
+      m_buf.putInt(str.length);
+      m_buf.put(str);
+    }
+    m_count++;
+  }
+
+  /**
+   * Appends all staged records to a data log and clears the batch.
+   *
+   * @param log data log
+   */
+  public void commit(DataLog log) {
+    log.appendBatch(this);
+    clear();
+  }
+
+  /** Discards all staged records. The buffer is retained for reuse. */
+  public void clear() {
+    m_buf.clear();
+    m_count = 0;
+  }
+
+  /**
+   * Gets the number of staged records.
+   *
+   * @return Number of records
+   */
+  public int getCount() {
+    return m_count;
+  }
+
+  /**
+   * Gets the number of staged bytes, including record headers.
+   *
+   * @return Number of bytes
+   */
+  public int getSize() {
+    return m_buf.position();
+  }
+
+  /**
+   * Gets the underlying buffer. Staged records start at position 0 and end at the current position.
+   *
+   * @return Buffer
+   */
+  ByteBuffer getBuffer() {
+    return m_buf;
+  }
+
+  private void startRecord(int entry, long timestamp, int size) {
+    int required = kHeaderSize + size;
+    if (m_buf.remaining() < required) {
+      int capacity = m_buf.capacity();
+      while (capacity - m_buf.position() < required) {
+        capacity = Math.multiplyExact(capacity, 2);
+      }
+      ByteBuffer buf = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+      m_buf.flip();
+      buf.put(m_buf);
+      m_buf = buf;
+    }
+    m_buf.putInt(entry);
+    m_buf.putLong(timestamp);
+    m_buf.putInt(size);
+  }
+
+  private ByteBuffer m_buf;
+  private int m_count;
+}
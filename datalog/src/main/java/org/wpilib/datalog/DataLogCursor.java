@@ -0,0 +1,442 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.InputMismatchException;
+
+/**
+ * Allocation-free cursor over the records in a data log. Unlike {@link DataLogIterator}, the
+ * cursor does not create an object per record; instead it is a reusable view of the current
+ * record, and array and string values are decoded into caller-supplied buffers.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * DataLogCursor cursor = reader.cursor();
+ * double[] values = new double[16];
+ * while (cursor.next()) {
+ *   if (cursor.getEntry() == myEntry) {
+ *     int count = cursor.getDoubleArray(values);
+ *     ...
+ *   }
+ * }
+ * }</pre>
+ */
+public final class DataLogCursor {
+  private static final int kControlStart = 0;
+  private static final int kControlFinish = 1;
+  private static final int kControlSetMetadata = 2;
+
+  private static final char kReplacementChar = '\uFFFD'; // Unicode replacement character
+
+  private static final ValueLayout.OfInt kInt =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfLong kLong =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfFloat kFloat =
+      ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfDouble kDouble =
+      ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  DataLogCursor(DataLogReader reader, MemorySegment segment, long pos) {
+    m_reader = reader;
+    m_seg = segment;
+    m_next = pos;
+    m_pos = -1;
+  }
+
+  /**
+   * Advances to the next record.
+   *
+   * @return True if the cursor is on a record, false if the end of the log was reached
+   */
+  public boolean next() {
+    if (!m_reader.isRecordComplete(m_next)) {
+      m_pos = -1;
+      return false;
+    }
+    m_pos = m_next;
+    m_entry = m_reader.getRecordEntry(m_pos);
+    m_timestamp = m_reader.getRecordTimestamp(m_pos);
+    m_dataOffset = m_reader.getRecordDataOffset(m_pos);
+    m_next = m_reader.getNextRecord(m_pos);
+    m_size = m_next - m_dataOffset;
+    return true;
+  }
+
+  /**
+   * Gets the offset of the current record in the log. This can be used to later return to the
+   * record with {@link DataLogReader#cursor(long)}.
+   *
+   * @return record offset, or -1 if the cursor is not on a record
+   */
+  public long getPosition() {
+    return m_pos;
+  }
+
+  /**
+   * Gets the entry ID of the current record.
+   *
+   * @return entry ID
+   */
+  public int getEntry() {
+    return m_entry;
+  }
+
+  /**
+   * Gets the timestamp of the current record.
+   *
+   * @return Timestamp, in integer microseconds
+   */
+  public long getTimestamp() {
+    return m_timestamp;
+  }
+
+  /**
+   * Gets the size of the raw data of the current record.
+   *
+   * @return size
+   */
+  public long getSize() {
+    return m_size;
+  }
+
+  /**
+   * Returns true if the current record is a control record.
+   *
+   * @return True if control record, false if normal data record.
+   */
+  public boolean isControl() {
+    return m_entry == 0;
+  }
+
+  /**
+   * Returns true if the current record is a start control record.
+   *
+   * @return True if start control record, false otherwise.
+   */
+  public boolean isStart() {
+    return m_entry == 0 && m_size >= 17 && getByte(0) == kControlStart;
+  }
+
+  /**
+   * Returns true if the current record is a finish control record.
+   *
+   * @return True if finish control record, false otherwise.
+   */
+  public boolean isFinish() {
+    return m_entry == 0 && m_size == 5 && getByte(0) == kControlFinish;
+  }
+
+  /**
+   * Returns true if the current record is a set metadata control record.
+   *
+   * @return True if set metadata control record, false otherwise.
+   */
+  public boolean isSetMetadata() {
+    return m_entry == 0 && m_size >= 9 && getByte(0) == kControlSetMetadata;
+  }
+
+  /**
+   * Creates a record object for the current record. This allocates, so it is intended for
+   * infrequent records such as control records.
+   *
+   * @return record
+   */
+  public DataLogRecord toRecord() {
+    return m_reader.getRecord(m_pos);
+  }
+
+  /**
+   * Decodes the current record as a boolean.
+   *
+   * @return boolean value
+   * @throws InputMismatchException on error
+   */
+  public boolean getBoolean() {
+    checkSize(1);
+    return getByte(0) != 0;
+  }
+
+  /**
+   * Decodes the current record as an integer.
+   *
+   * @return integer value
+   * @throws InputMismatchException on error
+   */
+  public long getInteger() {
+    checkSize(8);
+    return m_seg.get(kLong, m_dataOffset);
+  }
+
+  /**
+   * Decodes the current record as a float.
+   *
+   * @return float value
+   * @throws InputMismatchException on error
+   */
+  public float getFloat() {
+    checkSize(4);
+    return m_seg.get(kFloat, m_dataOffset);
+  }
+
+  /**
+   * Decodes the current record as a double.
+   *
+   * @return double value
+   * @throws InputMismatchException on error
+   */
+  public double getDouble() {
+    checkSize(8);
+    return m_seg.get(kDouble, m_dataOffset);
+  }
+
+  /**
+   * Decodes the current record as a boolean array into a caller-supplied array. If the array is
+   * too small, only the first arr.length elements are decoded.
+   *
+   * @param arr array to decode into
+   * @return number of elements in the record (may be larger than arr.length)
+   */
+  public int getBooleanArray(boolean[] arr) {
+    int count = (int) m_size;
+    int len = Math.min(count, arr.length);
+    for (int i = 0; i < len; i++) {
+      arr[i] = getByte(i) != 0;
+    }
+    return count;
+  }
+
+  /**
+   * Decodes the current record as an integer array into a caller-supplied array. If the array is
+   * too small, only the first arr.length elements are decoded.
+   *
+   * @param arr array to decode into
+   * @return number of elements in the record (may be larger than arr.length)
+   * @throws InputMismatchException if the data size is not a multiple of 8
+   */
+  public int getIntegerArray(long[] arr) {
+    int count = getElementCount(8);
+    MemorySegment.copy(m_seg, kLong, m_dataOffset, arr, 0, Math.min(count, arr.length));
+    return count;
+  }
+
+  /**
+   * Decodes the current record as a float array into a caller-supplied array. If the array is too
+   * small, only the first arr.length elements are decoded.
+   *
+   * @param arr array to decode into
+   * @return number of elements in the record (may be larger than arr.length)
+   * @throws InputMismatchException if the data size is not a multiple of 4
+   */
+  public int getFloatArray(float[] arr) {
+    int count = getElementCount(4);
+    MemorySegment.copy(m_seg, kFloat, m_dataOffset, arr, 0, Math.min(count, arr.length));
+    return count;
+  }
+
+  /**
+   * Decodes the current record as a double array into a caller-supplied array. If the array is
+   * too small, only the first arr.length elements are decoded.
+   *
+   * @param arr array to decode into
+   * @return number of elements in the record (may be larger than arr.length)
+   * @throws InputMismatchException if the data size is not a multiple of 8
+   */
+  public int getDoubleArray(double[] arr) {
+    int count = getElementCount(8);
+    MemorySegment.copy(m_seg, kDouble, m_dataOffset, arr, 0, Math.min(count, arr.length));
+    return count;
+  }
+
+  /**
+   * Decodes the current record as a string into a caller-supplied string builder. The builder is
+   * cleared first.
+   *
+   * @param sb string builder to decode into
+   */
+  public void getString(StringBuilder sb) {
+    sb.setLength(0);
+    decodeUtf8(m_dataOffset, m_size, sb);
+  }
+
+  /**
+   * Gets the number of strings in the current record, decoded as a string array.
+   *
+   * @return number of strings
+   * @throws InputMismatchException on error
+   */
+  public int getStringArraySize() {
+    checkSize(4);
+    long size = Integer.toUnsignedLong(m_seg.get(kInt, m_dataOffset));
+    if (size > (m_size - 4) / 4) {
+      throw new InputMismatchException("invalid size");
+    }
+    return (int) size;
+  }
+
+  /** Receives the elements of a string array record. */
+  @FunctionalInterface
+  public interface StringArrayConsumer {
+    /**
+     * Accepts an element. The builder is reused for every element, so its contents must be copied
+     * if they are needed after this call returns.
+     *
+     * @param index element index
+     * @param value element value
+     */
+    void accept(int index, CharSequence value);
+  }
+
+  /**
+   * Decodes the current record as a string array, passing each element to a consumer in order.
+   *
+   * @param sb string builder reused to decode each element
+   * @param consumer element consumer
+   * @throws InputMismatchException on error
+   */
+  public void forEachString(StringBuilder sb, StringArrayConsumer consumer) {
+    int count = getStringArraySize();
+    long pos = 4;
+    for (int i = 0; i < count; i++) {
+      long len = getInnerStringSize(pos);
+      sb.setLength(0);
+      decodeUtf8(m_dataOffset + pos + 4, len, sb);
+      consumer.accept(i, sb);
+      pos += 4 + len;
+    }
+  }
+
+  /**
+   * Decodes the current record as a string array, passing each element to a consumer in order.
+   *
+   * @param consumer element consumer
+   * @throws InputMismatchException on error
+   */
+  public void forEachString(StringArrayConsumer consumer) {
+    forEachString(m_scratch, consumer);
+  }
+
+  MemorySegment getSegment() {
+    return m_seg;
+  }
+
+  long getDataOffset() {
+    return m_dataOffset;
+  }
+
+  private long getInnerStringSize(long pos) {
+    if (pos + 4 > m_size) {
+      throw new InputMismatchException();
+    }
+    long len = Integer.toUnsignedLong(m_seg.get(kInt, m_dataOffset + pos));
+    if (len > m_size - pos - 4) {
+      throw new InputMismatchException("invalid string size");
+    }
+    return len;
+  }
+
+  /**
+   * Gets a little-endian view of the current record's data, positioned at the start of the data
+   * with the limit at its end. The view is owned by the cursor and reused for later records, so it
+   * is only valid until the next call to next().
+   *
+   * @return data buffer
+   */
+  ByteBuffer getDataBuffer() {
+    if (m_buf == null
+        || m_dataOffset < m_bufStart
+        || m_dataOffset + m_size > m_bufStart + m_buf.capacity()) {
+      // views are limited to 2 GB, so larger logs are viewed a window at a time
+      long segSize = m_seg.byteSize();
+      m_bufStart = segSize <= Integer.MAX_VALUE ? 0 : m_dataOffset;
+      long len = Math.min(segSize - m_bufStart, Integer.MAX_VALUE);
+      m_buf = m_seg.asSlice(m_bufStart, len).asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    int start = (int) (m_dataOffset - m_bufStart);
+    return m_buf.limit(start + (int) m_size).position(start);
+  }
+
+  private byte getByte(long offset) {
+    return m_seg.get(ValueLayout.JAVA_BYTE, m_dataOffset + offset);
+  }
+
+  private void checkSize(long size) {
+    if (m_pos < 0 || m_size < size) {
+      throw new InputMismatchException();
+    }
+  }
+
+  private int getElementCount(int elementSize) {
+    if (m_pos < 0 || (m_size % elementSize) != 0) {
+      throw new InputMismatchException("data size is not a multiple of " + elementSize);
+    }
+    return (int) (m_size / elementSize);
+  }
+
+  /** Decodes UTF-8 without allocating; malformed sequences decode to U+FFFD. */
+  private void decodeUtf8(long offset, long len, StringBuilder sb) {
+    long end = offset + len;
+    long pos = offset;
+    while (pos < end) {
+      int b0 = m_seg.get(ValueLayout.JAVA_BYTE, pos++) & 0xff;
+      if (b0 < 0x80) {
+        sb.append((char) b0);
+        continue;
+      }
+      int extra;
+      int cp;
+      if (b0 >= 0xc2 && b0 < 0xe0) {
+        extra = 1;
+        cp = b0 & 0x1f;
+      } else if (b0 >= 0xe0 && b0 < 0xf0) {
+        extra = 2;
+        cp = b0 & 0x0f;
+      } else if (b0 >= 0xf0 && b0 < 0xf5) {
+        extra = 3;
+        cp = b0 & 0x07;
+      } else {
+        sb.append(kReplacementChar);
+        continue;
+      }
+      long seqStart = pos;
+      boolean valid = pos + extra <= end;
+      for (int i = 0; valid && i < extra; i++) {
+        int b = m_seg.get(ValueLayout.JAVA_BYTE, pos + i) & 0xff;
+        valid = (b & 0xc0) == 0x80;
+        cp = (cp << 6) | (b & 0x3f);
+      }
+      // reject overlong encodings, surrogates, and out of range code points
+      if (valid) {
+        valid =
+            (extra != 2 || (cp >= 0x800 && (cp < 0xd800 || cp > 0xdfff)))
+                && (extra != 3 || (cp >= 0x10000 && cp <= 0x10ffff));
+      }
+      if (valid) {
+        sb.appendCodePoint(cp);
+        pos += extra;
+      } else {
+        sb.append(kReplacementChar);
+        pos = seqStart;
+      }
+    }
+  }
+
+  private final DataLogReader m_reader;
+  private final MemorySegment m_seg;
+  private final StringBuilder m_scratch = new StringBuilder();
+  private long m_pos;
+  private long m_next;
+  private int m_entry;
+  private long m_timestamp;
+  private long m_dataOffset;
+  private long m_size;
+  private ByteBuffer m_buf;
+  private long m_bufStart;
+}
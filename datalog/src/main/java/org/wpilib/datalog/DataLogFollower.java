@@ -0,0 +1,99 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Incrementally reads a data log file that is still being written (e.g. by
+ * DataLogBackgroundWriter), in the manner of `tail -f`. Each call to poll() maps the current extent
+ * of the file and delivers only the records that were completed since the previous call. A
+ * partially written record at the end of the file is left for a later poll.
+ *
+ * <p>Records passed to the callback remain valid after poll() returns. This class is not thread
+ * safe.
+ */
+public class DataLogFollower implements AutoCloseable {
+  /**
+   * Opens a data log file for following. No records are read until poll() is called.
+   *
+   * @param filename filename
+   * @throws IOException if unable to open file
+   */
+  public DataLogFollower(String filename) throws IOException {
+    m_channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ);
+  }
+
+  /**
+   * Delivers all records completed since the last poll to a callback, in log order.
+   *
+   * @param action callback
+   * @return Number of records delivered
+   * @throws IOException if unable to read the file
+   * @throws IllegalStateException if the file is not a data log
+   */
+  public int poll(Consumer<? super DataLogRecord> action) throws IOException {
+    long size = m_channel.size();
+    if (size <= m_pos || size < 12) {
+      return 0;
+    }
+
+    DataLogReader reader =
+        new DataLogReader(m_channel.map(FileChannel.MapMode.READ_ONLY, 0, size, Arena.ofAuto()));
+    if (m_pos == 0) {
+      // wait until the complete header has been written
+      if (!reader.isValid()) {
+        throw new IllegalStateException("not a data log");
+      }
+      long first = reader.getFirstRecord();
+      if (size < first) {
+        return 0;
+      }
+      m_extraHeader = reader.getExtraHeader();
+      m_pos = first;
+    }
+
+    int count = 0;
+    while (reader.isRecordComplete(m_pos)) {
+      DataLogRecord record = reader.getRecord(m_pos);
+      m_pos = reader.getNextRecord(m_pos);
+      action.accept(record);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Gets the extra header data. Returns null until the header has been read by poll().
+   *
+   * @return Extra header data
+   */
+  public String getExtraHeader() {
+    return m_extraHeader;
+  }
+
+  /**
+   * Gets the file offset up to which records have been delivered.
+   *
+   * @return File offset
+   */
+  public long getPosition() {
+    return m_pos;
+  }
+
+  @Override
+  public void close() throws IOException {
+    m_channel.close();
+  }
+
+  private final FileChannel m_channel;
+  private long m_pos;
+  private String m_extraHeader;
+}
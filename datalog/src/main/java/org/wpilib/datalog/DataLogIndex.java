@@ -0,0 +1,346 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Index of the records in a data log. Contains the offsets of all control (start, finish, and set
+ * metadata) records, the offsets of the data records of each entry, and a sparse table mapping
+ * timestamps to record offsets.
+ *
+ * <p>Building an index requires a full pass through the log. The index can be saved to a sidecar
+ * file and loaded again later; a saved index is checked against the size and header of the log it
+ * is loaded for.
+ */
+public final class DataLogIndex {
+  private static final long kMagic = 0x5849474F4C495057L; // "WPILOGIX" little endian
+  private static final int kVersion = 1;
+
+  /** Default number of records between entries in the sparse timestamp table. */
+  public static final int kDefaultSparseStride = 1024;
+
+  private DataLogIndex(
+      long logSize,
+      long headerCrc,
+      long[] controlOffsets,
+      long[] sparseTimestamps,
+      long[] sparseOffsets,
+      Map<Integer, long[]> entryOffsets) {
+    m_logSize = logSize;
+    m_headerCrc = headerCrc;
+    m_controlOffsets = controlOffsets;
+    m_sparseTimestamps = sparseTimestamps;
+    m_sparseOffsets = sparseOffsets;
+    m_entryOffsets = entryOffsets;
+  }
+
+  /**
+   * Builds an index by reading through the entire log.
+   *
+   * @param reader data log reader
+   * @return index
+   */
+  public static DataLogIndex build(DataLogReader reader) {
+    return build(reader, kDefaultSparseStride);
+  }
+
+  /**
+   * Builds an index by reading through the entire log.
+   *
+   * @param reader data log reader
+   * @param sparseStride number of records between entries in the sparse timestamp table
+   * @return index
+   */
+  public static DataLogIndex build(DataLogReader reader, int sparseStride) {
+    if (sparseStride <= 0) {
+      throw new IllegalArgumentException("sparseStride must be positive");
+    }
+    OffsetList controlOffsets = new OffsetList();
+    OffsetList sparseTimestamps = new OffsetList();
+    OffsetList sparseOffsets = new OffsetList();
+    Map<Integer, OffsetList> entryOffsets = new HashMap<>();
+
+    long size = reader.size();
+    long maxTimestamp = Long.MIN_VALUE;
+    int count = 0;
+    for (long pos = reader.getFirstRecord(); pos < size; pos = reader.getNextRecord(pos)) {
+      if (!reader.isRecordComplete(pos)) {
+        break;
+      }
+      int entry = reader.getRecordEntry(pos);
+      long timestamp = reader.getRecordTimestamp(pos);
+      // sample the max timestamp of all preceding records
+      if (count % sparseStride == 0) {
+        sparseTimestamps.add(maxTimestamp);
+        sparseOffsets.add(pos);
+      }
+      maxTimestamp = Math.max(maxTimestamp, timestamp);
+      if (entry == 0) {
+        controlOffsets.add(pos);
+      } else {
+        entryOffsets.computeIfAbsent(entry, k -> new OffsetList()).add(pos);
+      }
+      count++;
+    }
+
+    Map<Integer, long[]> entries = new HashMap<>(entryOffsets.size() * 2);
+    entryOffsets.forEach((entry, offsets) -> entries.put(entry, offsets.toArray()));
+    return new DataLogIndex(
+        size,
+        headerCrc(reader),
+        controlOffsets.toArray(),
+        sparseTimestamps.toArray(),
+        sparseOffsets.toArray(),
+        entries);
+  }
+
+  /**
+   * Reads an index from a sidecar file.
+   *
+   * @param path sidecar file path
+   * @param reader data log reader the index was built for
+   * @return index
+   * @throws IOException if the file cannot be read, is not a valid index, or does not match the
+   *     log
+   */
+  public static DataLogIndex read(Path path, DataLogReader reader) throws IOException {
+    ByteBuffer buf;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize > Integer.MAX_VALUE) {
+        throw new IOException("index file too large");
+      }
+      buf = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+      while (buf.hasRemaining()) {
+        if (channel.read(buf) < 0) {
+          break;
+        }
+      }
+      buf.flip();
+    }
+
+    try {
+      if (buf.getLong() != kMagic || buf.getInt() != kVersion) {
+        throw new IOException("not a data log index");
+      }
+      long logSize = buf.getLong();
+      long headerCrc = buf.getLong();
+      if (logSize != reader.size() || headerCrc != headerCrc(reader)) {
+        throw new IOException("data log index does not match log");
+      }
+      long[] controlOffsets = readLongs(buf);
+      long[] sparseTimestamps = readLongs(buf);
+      long[] sparseOffsets = readLongs(buf);
+      if (sparseTimestamps.length != sparseOffsets.length) {
+        throw new IOException("invalid data log index");
+      }
+      int numEntries = buf.getInt();
+      Map<Integer, long[]> entryOffsets = new HashMap<>(Math.max(numEntries, 0) * 2);
+      for (int i = 0; i < numEntries; i++) {
+        int entry = buf.getInt();
+        entryOffsets.put(entry, readLongs(buf));
+      }
+      return new DataLogIndex(
+          logSize, headerCrc, controlOffsets, sparseTimestamps, sparseOffsets, entryOffsets);
+    } catch (RuntimeException ex) {
+      throw new IOException("invalid data log index", ex);
+    }
+  }
+
+  /**
+   * Writes the index to a sidecar file.
+   *
+   * @param path sidecar file path
+   * @throws IOException if the file cannot be written
+   */
+  public void write(Path path) throws IOException {
+    long size = 8 + 4 + 8 + 8 + 4 + 4 + 4 + 4;
+    size += 8L * (m_controlOffsets.length + m_sparseTimestamps.length + m_sparseOffsets.length);
+    for (long[] offsets : m_entryOffsets.values()) {
+      size += 4 + 4 + 8L * offsets.length;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("index too large");
+    }
+
+    ByteBuffer buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putLong(kMagic);
+    buf.putInt(kVersion);
+    buf.putLong(m_logSize);
+    buf.putLong(m_headerCrc);
+    writeLongs(buf, m_controlOffsets);
+    writeLongs(buf, m_sparseTimestamps);
+    writeLongs(buf, m_sparseOffsets);
+    buf.putInt(m_entryOffsets.size());
+    for (Map.Entry<Integer, long[]> entry : m_entryOffsets.entrySet()) {
+      buf.putInt(entry.getKey());
+      writeLongs(buf, entry.getValue());
+    }
+    buf.flip();
+
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+    }
+  }
+
+  /**
+   * Loads the index for a log from a sidecar file. If the sidecar file does not exist or does not
+   * match the log, the index is rebuilt and the sidecar file is rewritten.
+   *
+   * @param path sidecar file path
+   * @param reader data log reader
+   * @return index
+   * @throws IOException if the sidecar file cannot be written
+   */
+  public static DataLogIndex loadOrBuild(Path path, DataLogReader reader) throws IOException {
+    try {
+      return read(path, reader);
+    } catch (IOException ex) {
+      DataLogIndex index = build(reader);
+      index.write(path);
+      return index;
+    }
+  }
+
+  /**
+   * Gets the conventional sidecar file path for a log file (the log filename with ".idx"
+   * appended).
+   *
+   * @param logFilename log filename
+   * @return sidecar file path
+   */
+  public static Path getSidecarPath(String logFilename) {
+    return Path.of(logFilename + ".idx");
+  }
+
+  /**
+   * Gets the offsets of all control (start, finish, and set metadata) records, in log order.
+   *
+   * @return record offsets
+   */
+  public long[] getControlRecordOffsets() {
+    return m_controlOffsets.clone();
+  }
+
+  /**
+   * Gets the entry IDs that have at least one data record.
+   *
+   * @return entry IDs, in ascending order
+   */
+  public int[] getEntries() {
+    int[] entries = m_entryOffsets.keySet().stream().mapToInt(Integer::intValue).toArray();
+    Arrays.sort(entries);
+    return entries;
+  }
+
+  /**
+   * Gets the offsets of the data records for an entry ID, in log order. Note entry IDs may be
+   * reused after a finish control record, in which case records for all entries that used the ID
+   * are returned.
+   *
+   * @param entry entry ID
+   * @return record offsets; empty if the entry has no data records
+   */
+  public long[] getRecordOffsets(int entry) {
+    return getRecordOffsetsNoCopy(entry).clone();
+  }
+
+  long[] getRecordOffsetsNoCopy(int entry) {
+    return m_entryOffsets.getOrDefault(entry, kEmpty);
+  }
+
+  long[] getControlRecordOffsetsNoCopy() {
+    return m_controlOffsets;
+  }
+
+  /**
+   * Finds a record offset at which to start scanning for the first record with a timestamp at or
+   * after the given timestamp. All records before the returned offset have smaller timestamps.
+   *
+   * @param timestamp timestamp, in integer microseconds
+   * @return record offset, or -1 to start from the first record
+   */
+  long getSeekStart(long timestamp) {
+    // m_sparseTimestamps holds the max timestamp of all records before each offset, so it is
+    // non-decreasing; find the last sample strictly before the timestamp
+    int lo = 0;
+    int hi = m_sparseTimestamps.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (m_sparseTimestamps[mid] < timestamp) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo == 0 ? -1 : m_sparseOffsets[lo - 1];
+  }
+
+  private static long headerCrc(DataLogReader reader) {
+    CRC32 crc = new CRC32();
+    crc.update(reader.getHeaderBuffer());
+    return crc.getValue();
+  }
+
+  private static long[] readLongs(ByteBuffer buf) throws IOException {
+    int len = buf.getInt();
+    if (len < 0 || len > buf.remaining() / 8) {
+      throw new IOException("invalid data log index");
+    }
+    long[] arr = new long[len];
+    buf.asLongBuffer().get(arr);
+    buf.position(buf.position() + 8 * len);
+    return arr;
+  }
+
+  private static void writeLongs(ByteBuffer buf, long[] arr) {
+    buf.putInt(arr.length);
+    buf.asLongBuffer().put(arr);
+    buf.position(buf.position() + 8 * arr.length);
+  }
+
+  /** Growable array of longs. */
+  private static final class OffsetList {
+    void add(long value) {
+      if (m_size == m_data.length) {
+        m_data = Arrays.copyOf(m_data, m_data.length * 2);
+      }
+      m_data[m_size++] = value;
+    }
+
+    long[] toArray() {
+      return Arrays.copyOf(m_data, m_size);
+    }
+
+    private long[] m_data = new long[16];
+    private int m_size;
+  }
+
+  private static final long[] kEmpty = new long[0];
+
+  private final long m_logSize;
+  private final long m_headerCrc;
+  private final long[] m_controlOffsets;
+  private final long[] m_sparseTimestamps;
+  private final long[] m_sparseOffsets;
+  private final Map<Integer, long[]> m_entryOffsets;
+}
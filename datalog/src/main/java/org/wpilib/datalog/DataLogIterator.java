@@ -10,14 +10,14 @@ import java.util.function.Consumer;
 
 /** DataLogReader iterator. */
 public class DataLogIterator implements Iterator<DataLogRecord> {
-  DataLogIterator(DataLogReader reader, int pos) {
+  DataLogIterator(DataLogReader reader, long pos) {
     m_reader = reader;
     m_pos = pos;
   }
 
   @Override
   public void forEachRemaining(Consumer<? super DataLogRecord> action) {
-    int size = m_reader.size();
+    long size = m_reader.size();
     for (; m_pos < size; m_pos = m_reader.getNextRecord(m_pos)) {
       DataLogRecord record;
       try {
@@ -42,5 +42,5 @@ public class DataLogIterator implements Iterator<DataLogRecord> {
   }
 
   private final DataLogReader m_reader;
-  private int m_pos;
+  private long m_pos;
 }
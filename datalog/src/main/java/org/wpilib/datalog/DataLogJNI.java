@@ -253,6 +253,43 @@ public class DataLogJNI {
   static native void appendRawBuffer(
       long impl, int entry, ByteBuffer data, int start, int len, long timestamp);
 
+  /**
+   * Appends a batch of records to the log. See {@link DataLogBatch} for the batch format.
+   *
+   * @param impl data log implementation handle
+   * @param data Byte array containing the batch
+   * @param len Length of the batch
+   */
+  static native void appendBatch(long impl, byte[] data, int len);
+
+  /**
+   * Appends a batch of records to the log. See {@link DataLogBatch} for the batch format.
+   *
+   * @param impl data log implementation handle
+   * @param data ByteBuffer containing the batch, starting at position 0
+   * @param len Length of the batch
+   */
+  static void appendBatch(long impl, ByteBuffer data, int len) {
+    if (len < 0) {
+      throw new IndexOutOfBoundsException("len must be >= 0");
+    }
+    if (len > data.capacity()) {
+      throw new IndexOutOfBoundsException("len must be within buffer capacity");
+    }
+    if (data.isDirect()) {
+      appendBatchBuffer(impl, data, len);
+    } else if (data.hasArray()) {
+      if (data.arrayOffset() != 0) {
+        throw new UnsupportedOperationException("ByteBuffer must not have an array offset");
+      }
+      appendBatch(impl, data.array(), len);
+    } else {
+      throw new UnsupportedOperationException("ByteBuffer must be direct or have a backing array");
+    }
+  }
+
+  static native void appendBatchBuffer(long impl, ByteBuffer data, int len);
+
   /**
    * Appends a boolean record to the log.
    *
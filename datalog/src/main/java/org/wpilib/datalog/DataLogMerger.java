@@ -0,0 +1,253 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Merges several data logs (e.g. a robot log, a coprocessor log, and a driver station log) into a
+ * single time-ordered data log.
+ *
+ * <p>Each input log can be given a clock offset, which is added to all of its timestamps, and a
+ * name prefix, which is prepended to all of its entry names (except struct and protobuf schema
+ * entries, whose names are significant). Entry IDs are remapped so entries from different inputs
+ * don't collide.
+ *
+ * <p>The merge is streaming: it is a k-way merge using a heap with one record per input, and
+ * records are copied directly from the input logs to the output stream. Memory use is proportional
+ * to the number of inputs and entries, not the size of the logs. Each input is assumed to be in
+ * timestamp order; records within one input are always written in their original order.
+ */
+public final class DataLogMerger {
+  private static final int kControlStart = 0;
+  private static final int kControlFinish = 1;
+  private static final int kControlSetMetadata = 2;
+
+  private static final int kBufferSize = 64 * 1024;
+
+  private static final class Input {
+    Input(int index, DataLogReader reader, long offset, String prefix) {
+      m_index = index;
+      m_cursor = reader.cursor();
+      m_offset = offset;
+      m_prefix = prefix;
+    }
+
+    boolean next() {
+      if (!m_cursor.next()) {
+        return false;
+      }
+      m_timestamp = Math.max(m_cursor.getTimestamp() + m_offset, 0);
+      return true;
+    }
+
+    final int m_index;
+    final DataLogCursor m_cursor;
+    final long m_offset;
+    final String m_prefix;
+    final Map<Integer, Integer> m_entries = new HashMap<>();
+    long m_timestamp;
+  }
+
+  /** Constructs a merger with no inputs. */
+  public DataLogMerger() {}
+
+  /**
+   * Adds an input log with no clock offset or name prefix.
+   *
+   * @param reader input log
+   */
+  public void addLog(DataLogReader reader) {
+    addLog(reader, 0, "");
+  }
+
+  /**
+   * Adds an input log.
+   *
+   * @param reader input log
+   * @param offset clock offset, in integer microseconds, added to all timestamps in this log;
+   *     timestamps that would be negative are clamped to 0
+   * @param prefix prefix prepended to all entry names in this log
+   */
+  public void addLog(DataLogReader reader, long offset, String prefix) {
+    if (!reader.isValid()) {
+      throw new IllegalArgumentException("not a valid data log");
+    }
+    m_inputs.add(new Input(m_inputs.size(), reader, offset, prefix));
+  }
+
+  /**
+   * Writes the merged log to an output stream. The stream is not closed. Each input log can only be
+   * merged once.
+   *
+   * @param os output stream
+   * @param extraHeader extra header data for the merged log
+   * @return Number of records written
+   * @throws IOException if unable to write to the output stream
+   */
+  public long merge(OutputStream os, String extraHeader) throws IOException {
+    m_os = os;
+    m_bufLen = 0;
+    m_nextEntry = 1;
+    long count = 0;
+
+    byte[] header = extraHeader.getBytes(StandardCharsets.UTF_8);
+    write(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1});
+    writeInt(header.length);
+    write(header);
+
+    PriorityQueue<Input> heap =
+        new PriorityQueue<>(
+            Math.max(m_inputs.size(), 1),
+            Comparator.<Input>comparingLong(input -> input.m_timestamp)
+                .thenComparingInt(input -> input.m_index));
+    for (Input input : m_inputs) {
+      if (input.next()) {
+        heap.add(input);
+      }
+    }
+    while (!heap.isEmpty()) {
+      Input input = heap.poll();
+      if (copyRecord(input)) {
+        count++;
+      }
+      if (input.next()) {
+        heap.add(input);
+      }
+    }
+
+    m_os.write(m_buf, 0, m_bufLen);
+    m_os.flush();
+    m_os = null;
+    return count;
+  }
+
+  private boolean copyRecord(Input input) throws IOException {
+    DataLogCursor cursor = input.m_cursor;
+    if (!cursor.isControl()) {
+      Integer entry = input.m_entries.get(cursor.getEntry());
+      if (entry == null) {
+        return false;
+      }
+      writeRecordHeader(entry, input.m_timestamp, cursor.getSize());
+      write(cursor.getSegment(), cursor.getDataOffset(), cursor.getSize());
+      return true;
+    }
+
+    if (cursor.isStart()) {
+      DataLogRecord.StartRecordData data = cursor.toRecord().getStartData();
+      int entry = m_nextEntry++;
+      input.m_entries.put(data.entry, entry);
+      String name = data.name.startsWith("/.schema/") ? data.name : input.m_prefix + data.name;
+      byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+      byte[] typeBytes = data.type.getBytes(StandardCharsets.UTF_8);
+      byte[] metadataBytes = data.metadata.getBytes(StandardCharsets.UTF_8);
+      writeRecordHeader(
+          0,
+          input.m_timestamp,
+          17 + nameBytes.length + typeBytes.length + metadataBytes.length);
+      writeByte(kControlStart);
+      writeInt(entry);
+      writeInt(nameBytes.length);
+      write(nameBytes);
+      writeInt(typeBytes.length);
+      write(typeBytes);
+      writeInt(metadataBytes.length);
+      write(metadataBytes);
+    } else if (cursor.isFinish()) {
+      Integer entry = input.m_entries.remove(cursor.toRecord().getFinishEntry());
+      if (entry == null) {
+        return false;
+      }
+      writeRecordHeader(0, input.m_timestamp, 5);
+      writeByte(kControlFinish);
+      writeInt(entry);
+    } else if (cursor.isSetMetadata()) {
+      DataLogRecord.MetadataRecordData data = cursor.toRecord().getSetMetadataData();
+      Integer entry = input.m_entries.get(data.entry);
+      if (entry == null) {
+        return false;
+      }
+      // metadata string is copied as-is after the control type and entry ID
+      writeRecordHeader(0, input.m_timestamp, cursor.getSize());
+      writeByte(kControlSetMetadata);
+      writeInt(entry);
+      write(cursor.getSegment(), cursor.getDataOffset() + 5, cursor.getSize() - 5);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  private void writeRecordHeader(int entry, long timestamp, long size) throws IOException {
+    int entryLen = varIntLength(entry & 0xffffffffL);
+    int sizeLen = varIntLength(size);
+    int timestampLen = varIntLength(timestamp);
+    writeByte((entryLen - 1) | ((sizeLen - 1) << 2) | ((timestampLen - 1) << 4));
+    writeVarInt(entry & 0xffffffffL, entryLen);
+    writeVarInt(size, sizeLen);
+    writeVarInt(timestamp, timestampLen);
+  }
+
+  private static int varIntLength(long value) {
+    int len = 1;
+    while (len < 8 && (value >>> (len * 8)) != 0) {
+      len++;
+    }
+    return len;
+  }
+
+  private void writeVarInt(long value, int len) throws IOException {
+    for (int i = 0; i < len; i++) {
+      writeByte((int) (value >>> (i * 8)));
+    }
+  }
+
+  private void writeInt(int value) throws IOException {
+    writeVarInt(value & 0xffffffffL, 4);
+  }
+
+  private void writeByte(int value) throws IOException {
+    if (m_bufLen == m_buf.length) {
+      m_os.write(m_buf, 0, m_bufLen);
+      m_bufLen = 0;
+    }
+    m_buf[m_bufLen++] = (byte) value;
+  }
+
+  private void write(byte[] data) throws IOException {
+    write(MemorySegment.ofArray(data), 0, data.length);
+  }
+
+  private void write(MemorySegment seg, long offset, long len) throws IOException {
+    while (len > 0) {
+      if (m_bufLen == m_buf.length) {
+        m_os.write(m_buf, 0, m_bufLen);
+        m_bufLen = 0;
+      }
+      int n = (int) Math.min(len, m_buf.length - m_bufLen);
+      MemorySegment.copy(seg, ValueLayout.JAVA_BYTE, offset, m_buf, m_bufLen, n);
+      m_bufLen += n;
+      offset += n;
+      len -= n;
+    }
+  }
+
+  private final List<Input> m_inputs = new ArrayList<>();
+  private final byte[] m_buf = new byte[kBufferSize];
+  private int m_bufLen;
+  private OutputStream m_os;
+  private int m_nextEntry;
+}
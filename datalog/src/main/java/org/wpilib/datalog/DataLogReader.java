@@ -5,17 +5,40 @@
 package org.wpilib.datalog;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 
-/** Data log reader (reads logs written by the DataLog class). */
+/**
+ * Data log reader (reads logs written by the DataLog class).
+ *
+ * <p>The log contents are accessed through a {@link MemorySegment}, so files larger than 2 GB can
+ * be read. Records are not copied; each {@link DataLogRecord} is a view into the underlying
+ * segment.
+ *
+ * <p>Block compressed logs (see {@link CompressedDataLog}) are detected and decompressed when the
+ * reader is constructed, with blocks decompressed in parallel. Logs of up to {@link
+ * CompressedDataLog#kMaxInMemorySize} bytes uncompressed are decompressed into memory; larger logs
+ * are decompressed into a memory-mapped temporary file, so their memory use is bounded by what
+ * the operating system keeps paged in rather than by the log size.
+ */
 public class DataLogReader implements Iterable<DataLogRecord> {
+  private static final ValueLayout.OfShort kShort =
+      ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final ValueLayout.OfInt kInt =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
   /**
    * Constructs from the bytes between the byte buffer's current position and limit. The reader does
    * not modify the buffer's position, limit, or byte order.
@@ -23,23 +46,42 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    * @param buffer byte buffer
    */
   public DataLogReader(ByteBuffer buffer) {
-    m_buf = buffer.slice().asReadOnlyBuffer();
-    m_buf.order(ByteOrder.LITTLE_ENDIAN);
+    this(MemorySegment.ofBuffer(buffer));
+  }
+
+  /**
+   * Constructs from a memory segment. The reader does not modify the segment contents.
+   *
+   * @param segment memory segment
+   * @throws java.util.InputMismatchException if the segment is a malformed compressed log
+   * @throws java.io.UncheckedIOException if a large compressed log cannot be decompressed to a
+   *     temporary file
+   */
+  public DataLogReader(MemorySegment segment) {
+    m_seg = open(segment);
   }
 
   /**
-   * Constructs from a file.
+   * Constructs from a file. The file is memory mapped; the mapping is released when the reader and
+   * all records obtained from it are no longer reachable.
    *
    * @param filename filename
    * @throws IOException if unable to open/read file
+   * @throws java.util.InputMismatchException if the file is a malformed compressed log
+   * @throws java.io.UncheckedIOException if a large compressed log cannot be decompressed to a
+   *     temporary file
    */
   public DataLogReader(String filename) throws IOException {
-    RandomAccessFile f = new RandomAccessFile(filename, "r");
-    FileChannel channel = f.getChannel();
-    m_buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
-    m_buf.order(ByteOrder.LITTLE_ENDIAN);
-    channel.close();
-    f.close();
+    try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+      m_seg = open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto()));
+    }
+  }
+
+  private static MemorySegment open(MemorySegment segment) {
+    if (CompressedDataLog.isCompressed(segment)) {
+      return CompressedDataLog.decompress(segment);
+    }
+    return segment.asReadOnly();
   }
 
   /**
@@ -48,14 +90,14 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    * @return True if valid, false otherwise
    */
   public boolean isValid() {
-    return m_buf.remaining() >= 12
-        && m_buf.get(0) == 'W'
-        && m_buf.get(1) == 'P'
-        && m_buf.get(2) == 'I'
-        && m_buf.get(3) == 'L'
-        && m_buf.get(4) == 'O'
-        && m_buf.get(5) == 'G'
-        && m_buf.getShort(6) >= 0x0100;
+    return m_seg.byteSize() >= 12
+        && getByte(0) == 'W'
+        && getByte(1) == 'P'
+        && getByte(2) == 'I'
+        && getByte(3) == 'L'
+        && getByte(4) == 'O'
+        && getByte(5) == 'G'
+        && m_seg.get(kShort, 6) >= 0x0100;
   }
 
   /**
@@ -65,10 +107,10 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    *     1.0 will be 0x0100)
    */
   public short getVersion() {
-    if (m_buf.remaining() < 12) {
+    if (m_seg.byteSize() < 12) {
       return 0;
     }
-    return m_buf.getShort(6);
+    return m_seg.get(kShort, 6);
   }
 
   /**
@@ -77,19 +119,15 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    * @return Extra header data
    */
   public String getExtraHeader() {
-    ByteBuffer buf = m_buf.duplicate();
-    buf.order(ByteOrder.LITTLE_ENDIAN);
-    buf.position(8);
-    int size = buf.getInt();
-    byte[] arr = new byte[size];
-    buf.get(arr);
+    int size = m_seg.get(kInt, 8);
+    byte[] arr = m_seg.asSlice(12, size).toArray(ValueLayout.JAVA_BYTE);
     return new String(arr, StandardCharsets.UTF_8);
   }
 
   @Override
   public void forEach(Consumer<? super DataLogRecord> action) {
-    int size = m_buf.remaining();
-    for (int pos = 12 + m_buf.getInt(8); pos < size; pos = getNextRecord(pos)) {
+    long size = m_seg.byteSize();
+    for (long pos = getFirstRecord(); pos < size; pos = getNextRecord(pos)) {
       DataLogRecord record;
       try {
         record = getRecord(pos);
@@ -102,54 +140,207 @@ public class DataLogReader implements Iterable<DataLogRecord> {
 
   @Override
   public DataLogIterator iterator() {
-    return new DataLogIterator(this, 12 + m_buf.getInt(8));
+    return new DataLogIterator(this, getFirstRecord());
+  }
+
+  /**
+   * Returns an allocation-free cursor positioned before the first record.
+   *
+   * @return cursor
+   */
+  public DataLogCursor cursor() {
+    return new DataLogCursor(this, m_seg, getFirstRecord());
+  }
+
+  /**
+   * Returns an allocation-free cursor positioned before the record at the given offset. The offset
+   * must be the start of a record, e.g. as returned by {@link DataLogCursor#getPosition()} or
+   * {@link DataLogIndex#getRecordOffsets(int)}.
+   *
+   * @param offset record offset
+   * @return cursor
+   */
+  public DataLogCursor cursor(long offset) {
+    return new DataLogCursor(this, m_seg, offset);
+  }
+
+  /**
+   * Gets the index for this log. If no index has been set, one is built by reading through the
+   * entire log.
+   *
+   * @return index
+   */
+  public DataLogIndex getIndex() {
+    if (m_index == null) {
+      m_index = DataLogIndex.build(this);
+    }
+    return m_index;
+  }
+
+  /**
+   * Sets the index for this log, e.g. one loaded with {@link DataLogIndex#loadOrBuild}.
+   *
+   * @param index index
+   */
+  public void setIndex(DataLogIndex index) {
+    m_index = index;
+  }
+
+  /**
+   * Returns an iterator starting at the first record with a timestamp at or after the given
+   * timestamp. Records are assumed to be in timestamp order, as written by DataLog. Uses the index
+   * (see {@link #getIndex()}).
+   *
+   * @param timestamp timestamp, in integer microseconds
+   * @return iterator
+   */
+  public DataLogIterator seek(long timestamp) {
+    long pos = getIndex().getSeekStart(timestamp);
+    if (pos < 0) {
+      pos = getFirstRecord();
+    }
+    long size = size();
+    while (pos < size && isRecordComplete(pos) && getRecordTimestamp(pos) < timestamp) {
+      pos = getNextRecord(pos);
+    }
+    return new DataLogIterator(this, pos);
+  }
+
+  /**
+   * Gets all control (start, finish, and set metadata) records. Uses the index (see {@link
+   * #getIndex()}).
+   *
+   * @return control records, in log order
+   */
+  public List<DataLogRecord> getControlRecords() {
+    long[] offsets = getIndex().getControlRecordOffsetsNoCopy();
+    List<DataLogRecord> records = new ArrayList<>(offsets.length);
+    for (long pos : offsets) {
+      records.add(getRecord(pos));
+    }
+    return records;
+  }
+
+  /**
+   * Gets the data records for an entry ID with timestamps in the range [startTime, endTime]. The
+   * records of each entry are assumed to be in timestamp order, as written by DataLog. Uses the
+   * index (see {@link #getIndex()}).
+   *
+   * @param entry entry ID
+   * @param startTime start timestamp (inclusive), in integer microseconds
+   * @param endTime end timestamp (inclusive), in integer microseconds
+   * @return data records, in log order
+   */
+  public List<DataLogRecord> recordsFor(int entry, long startTime, long endTime) {
+    long[] offsets = getIndex().getRecordOffsetsNoCopy(entry);
+    int lo = 0;
+    int hi = offsets.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (getRecordTimestamp(offsets[mid]) < startTime) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    List<DataLogRecord> records = new ArrayList<>();
+    for (int i = lo; i < offsets.length; i++) {
+      if (getRecordTimestamp(offsets[i]) > endTime) {
+        break;
+      }
+      records.add(getRecord(offsets[i]));
+    }
+    return records;
+  }
+
+  byte getByte(long pos) {
+    return m_seg.get(ValueLayout.JAVA_BYTE, pos);
   }
 
-  private long readVarInt(int pos, int len) {
+  private long readVarInt(long pos, int len) {
     long val = 0;
     for (int i = 0; i < len; i++) {
-      val |= ((long) (m_buf.get(pos + i) & 0xff)) << (i * 8);
+      val |= ((long) (getByte(pos + i) & 0xff)) << (i * 8);
     }
     return val;
   }
 
-  DataLogRecord getRecord(int pos) {
+  long getFirstRecord() {
+    return 12 + Integer.toUnsignedLong(m_seg.get(kInt, 8));
+  }
+
+  DataLogRecord getRecord(long pos) {
     try {
-      int lenbyte = m_buf.get(pos) & 0xff;
+      int lenbyte = getByte(pos) & 0xff;
       int entryLen = (lenbyte & 0x3) + 1;
       int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
       int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
       int headerLen = 1 + entryLen + sizeLen + timestampLen;
       int entry = (int) readVarInt(pos + 1, entryLen);
-      int size = (int) readVarInt(pos + 1 + entryLen, sizeLen);
+      long size = readVarInt(pos + 1 + entryLen, sizeLen);
       long timestamp = readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
-      // build a slice of the data contents
-      ByteBuffer data = m_buf.duplicate();
-      data.position(pos + headerLen);
-      data.limit(pos + headerLen + size);
-      return new DataLogRecord(entry, timestamp, data.slice());
+      // build a view of the data contents
+      ByteBuffer data = m_seg.asSlice(pos + headerLen, size).asByteBuffer();
+      return new DataLogRecord(entry, timestamp, data);
     } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
       throw new NoSuchElementException();
     }
   }
 
-  int getNextRecord(int pos) {
-    int lenbyte = m_buf.get(pos) & 0xff;
+  int getRecordEntry(long pos) {
+    int lenbyte = getByte(pos) & 0xff;
+    return (int) readVarInt(pos + 1, (lenbyte & 0x3) + 1);
+  }
+
+  long getRecordTimestamp(long pos) {
+    int lenbyte = getByte(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    return readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
+  }
+
+  long getRecordDataOffset(long pos) {
+    int lenbyte = getByte(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    return pos + 1 + entryLen + sizeLen + timestampLen;
+  }
+
+  boolean isRecordComplete(long pos) {
+    long size = m_seg.byteSize();
+    if (pos >= size) {
+      return false;
+    }
+    int lenbyte = getByte(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    if (pos + 1 + entryLen + sizeLen + timestampLen > size) {
+      return false;
+    }
+    return getNextRecord(pos) <= size;
+  }
+
+  long getNextRecord(long pos) {
+    int lenbyte = getByte(pos) & 0xff;
     int entryLen = (lenbyte & 0x3) + 1;
     int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
     int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
     int headerLen = 1 + entryLen + sizeLen + timestampLen;
 
-    int size = 0;
-    for (int i = 0; i < sizeLen; i++) {
-      size |= (m_buf.get(pos + 1 + entryLen + i) & 0xff) << (i * 8);
-    }
-    return pos + headerLen + size;
+    return pos + headerLen + readVarInt(pos + 1 + entryLen, sizeLen);
+  }
+
+  long size() {
+    return m_seg.byteSize();
   }
 
-  int size() {
-    return m_buf.remaining();
+  ByteBuffer getHeaderBuffer() {
+    return m_seg.asSlice(0, Math.min(getFirstRecord(), m_seg.byteSize())).asByteBuffer();
   }
 
-  private final ByteBuffer m_buf;
+  private final MemorySegment m_seg;
+  private DataLogIndex m_index;
 }
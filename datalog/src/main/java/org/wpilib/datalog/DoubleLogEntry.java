@@ -72,6 +72,17 @@ public class DoubleLogEntry extends DataLogEntry {
     m_log.appendDouble(m_entry, value, 0);
   }
 
+  /**
+   * Stages a record into a batch, to be appended to the log when the batch is committed.
+   *
+   * @param batch Batch to stage into
+   * @param value Value to record
+   * @param timestamp Time stamp (0 to indicate the time the batch is committed)
+   */
+  public void append(DataLogBatch batch, double value, long timestamp) {
+    batch.appendDouble(m_entry, value, timestamp);
+  }
+
   /**
    * Updates the last value and appends a record to the log if it has changed.
    *
@@ -0,0 +1,308 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decodes a data log in parallel. The log is split into chunks at record boundaries; the records in
+ * each chunk are decoded concurrently on a fork-join pool, and the per-chunk results are combined
+ * in log order.
+ *
+ * <p>Split points are found by resynchronizing on the record headers near each chunk boundary.
+ * Split points are verified against the actual record boundaries before decoding, so a false
+ * resynchronization only costs an extra sequential scan of the affected chunk.
+ *
+ * <p>Entry start, finish, and set metadata control records are merged in log order, so each data
+ * record is decoded with the entry information that was current at that point in the log. Data
+ * records for entries that have not been started are skipped.
+ */
+public final class ParallelDataLogDecoder {
+  /** Default chunk size, in bytes. */
+  public static final long kDefaultChunkSize = 4L * 1024 * 1024;
+
+  /** Number of consecutive valid record headers required to accept a split point. */
+  private static final int kResyncRecords = 8;
+
+  private static final int kControlStart = 0;
+  private static final int kControlSetMetadata = 2;
+
+  private ParallelDataLogDecoder() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Accumulates decoded data records into a per-chunk result container.
+   *
+   * @param <A> result container type
+   */
+  @FunctionalInterface
+  public interface RecordAccumulator<A> {
+    /**
+     * Accumulates a data record.
+     *
+     * @param container result container for the chunk containing the record
+     * @param entry start data for the record's entry (with the current metadata)
+     * @param record data record
+     */
+    void accept(A container, DataLogRecord.StartRecordData entry, DataLogRecord record);
+  }
+
+  /**
+   * Decodes a data log in parallel using the common fork-join pool and the default chunk size.
+   *
+   * @param <A> result container type
+   * @param reader data log reader
+   * @param supplier creates an empty result container for each chunk
+   * @param accumulator adds a data record to a result container
+   * @param combiner combines two result containers; the first argument contains earlier records
+   * @return combined result
+   */
+  public static <A> A decode(
+      DataLogReader reader,
+      Supplier<A> supplier,
+      RecordAccumulator<A> accumulator,
+      BinaryOperator<A> combiner) {
+    return decode(
+        reader, kDefaultChunkSize, ForkJoinPool.commonPool(), supplier, accumulator, combiner);
+  }
+
+  /**
+   * Decodes a data log in parallel.
+   *
+   * @param <A> result container type
+   * @param reader data log reader
+   * @param chunkSize approximate chunk size, in bytes
+   * @param pool fork-join pool to run on
+   * @param supplier creates an empty result container for each chunk
+   * @param accumulator adds a data record to a result container
+   * @param combiner combines two result containers; the first argument contains earlier records
+   * @return combined result
+   */
+  public static <A> A decode(
+      DataLogReader reader,
+      long chunkSize,
+      ForkJoinPool pool,
+      Supplier<A> supplier,
+      RecordAccumulator<A> accumulator,
+      BinaryOperator<A> combiner) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive");
+    }
+    long first = reader.getFirstRecord();
+    long size = reader.size();
+    int numChunks = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (size - first) / chunkSize));
+
+    // find approximate split points; the last start is the end of the log
+    long[] starts = new long[numChunks + 1];
+    starts[0] = first;
+    starts[numChunks] = size;
+    invokeChunks(
+        pool,
+        numChunks - 1,
+        i -> {
+          long guess = first + (i + 1) * chunkSize;
+          starts[i + 1] = resync(reader, guess, Math.min(guess + chunkSize, size));
+          return null;
+        });
+
+    // scan record headers for control records and the actual chunk ends
+    List<ChunkScan> scans =
+        invokeChunks(pool, numChunks, i -> scan(reader, starts[i], starts[i + 1]));
+
+    // verify split points in order, rescanning after any false resynchronization
+    for (int i = 0; i < numChunks - 1; i++) {
+      long end = scans.get(i).m_end;
+      if (end != starts[i + 1]) {
+        starts[i + 1] = end;
+        scans.set(i + 1, scan(reader, end, starts[i + 2]));
+      }
+    }
+
+    // merge control records in order to get the entry state at the start of each chunk
+    List<Map<Integer, DataLogRecord.StartRecordData>> entryStates = new ArrayList<>(numChunks);
+    Map<Integer, DataLogRecord.StartRecordData> entries = new HashMap<>();
+    for (ChunkScan scan : scans) {
+      entryStates.add(new HashMap<>(entries));
+      for (long pos : scan.m_controlOffsets) {
+        applyControl(entries, reader.getRecord(pos));
+      }
+    }
+
+    // decode the chunks
+    List<A> results =
+        invokeChunks(
+            pool,
+            numChunks,
+            i -> {
+              A container = supplier.get();
+              Map<Integer, DataLogRecord.StartRecordData> chunkEntries = entryStates.get(i);
+              long end = scans.get(i).m_end;
+              for (long pos = starts[i]; pos < end; pos = reader.getNextRecord(pos)) {
+                if (!reader.isRecordComplete(pos)) {
+                  break;
+                }
+                DataLogRecord record = reader.getRecord(pos);
+                if (record.isControl()) {
+                  applyControl(chunkEntries, record);
+                } else {
+                  DataLogRecord.StartRecordData entry = chunkEntries.get(record.getEntry());
+                  if (entry != null) {
+                    accumulator.accept(container, entry, record);
+                  }
+                }
+              }
+              return container;
+            });
+
+    A result = results.get(0);
+    for (int i = 1; i < numChunks; i++) {
+      result = combiner.apply(result, results.get(i));
+    }
+    return result;
+  }
+
+  /** Result of scanning the record headers of a chunk. */
+  private static final class ChunkScan {
+    ChunkScan(List<Long> controlOffsets, long end) {
+      m_controlOffsets = controlOffsets;
+      m_end = end;
+    }
+
+    final List<Long> m_controlOffsets;
+
+    /** Offset of the first record boundary at or after the scan target, or the log end. */
+    final long m_end;
+  }
+
+  private static ChunkScan scan(DataLogReader reader, long start, long target) {
+    List<Long> controlOffsets = new ArrayList<>();
+    long pos = start;
+    while (pos < target) {
+      if (!reader.isRecordComplete(pos)) {
+        // truncated record; treat as end of log
+        pos = reader.size();
+        break;
+      }
+      if (reader.getRecordEntry(pos) == 0) {
+        controlOffsets.add(pos);
+      }
+      pos = reader.getNextRecord(pos);
+    }
+    return new ChunkScan(controlOffsets, pos);
+  }
+
+  /**
+   * Finds the first offset in [start, limit) that looks like the start of a chain of valid records.
+   * Returns start if none is found; the caller verifies split points.
+   */
+  private static long resync(DataLogReader reader, long start, long limit) {
+    for (long pos = start; pos < limit; pos++) {
+      if (isPlausibleChain(reader, pos)) {
+        return pos;
+      }
+    }
+    return start;
+  }
+
+  private static boolean isPlausibleChain(DataLogReader reader, long pos) {
+    long size = reader.size();
+    for (int i = 0; i < kResyncRecords; i++) {
+      if (pos == size) {
+        return true;
+      }
+      // the top bit of the length byte is unused
+      if ((reader.getByte(pos) & 0x80) != 0 || !reader.isRecordComplete(pos)) {
+        return false;
+      }
+      if (reader.getRecordEntry(pos) == 0) {
+        // control records have a 1-byte type and at least a 4-byte entry ID
+        long dataOffset = reader.getRecordDataOffset(pos);
+        long next = reader.getNextRecord(pos);
+        if (next - dataOffset < 5) {
+          return false;
+        }
+        int type = reader.getByte(dataOffset);
+        if (type < kControlStart || type > kControlSetMetadata) {
+          return false;
+        }
+      }
+      pos = reader.getNextRecord(pos);
+    }
+    return true;
+  }
+
+  private static void applyControl(
+      Map<Integer, DataLogRecord.StartRecordData> entries, DataLogRecord record) {
+    try {
+      if (record.isStart()) {
+        DataLogRecord.StartRecordData data = record.getStartData();
+        entries.put(data.entry, data);
+      } else if (record.isFinish()) {
+        entries.remove(record.getFinishEntry());
+      } else if (record.isSetMetadata()) {
+        DataLogRecord.MetadataRecordData data = record.getSetMetadataData();
+        DataLogRecord.StartRecordData entry = entries.get(data.entry);
+        if (entry != null) {
+          entries.put(
+              data.entry,
+              new DataLogRecord.StartRecordData(
+                  entry.entry, entry.name, entry.type, data.metadata));
+        }
+      }
+    } catch (InputMismatchException ex) {
+      // ignore invalid control records
+    }
+  }
+
+  /** Runs fn for each chunk index on the pool and returns the results in chunk order. */
+  private static <T> List<T> invokeChunks(ForkJoinPool pool, int numChunks, IntFunction<T> fn) {
+    List<T> results = new ArrayList<>(numChunks);
+    for (int i = 0; i < numChunks; i++) {
+      results.add(null);
+    }
+    if (numChunks > 0) {
+      pool.invoke(new ChunkAction<>(fn, results, 0, numChunks));
+    }
+    return results;
+  }
+
+  private static final class ChunkAction<T> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    ChunkAction(IntFunction<T> fn, List<T> results, int lo, int hi) {
+      m_fn = fn;
+      m_results = results;
+      m_lo = lo;
+      m_hi = hi;
+    }
+
+    @Override
+    protected void compute() {
+      if (m_hi - m_lo == 1) {
+        m_results.set(m_lo, m_fn.apply(m_lo));
+        return;
+      }
+      int mid = (m_lo + m_hi) >>> 1;
+      invokeAll(
+          new ChunkAction<>(m_fn, m_results, m_lo, mid),
+          new ChunkAction<>(m_fn, m_results, mid, m_hi));
+    }
+
+    private final transient IntFunction<T> m_fn;
+    private final transient List<T> m_results;
+    private final int m_lo;
+    private final int m_hi;
+  }
+}
@@ -100,6 +100,17 @@ public class RawLogEntry extends DataLogEntry {
     append(value, 0);
   }
 
+  /**
+   * Stages a record into a batch, to be appended to the log when the batch is committed.
+   *
+   * @param batch Batch to stage into
+   * @param value Value to record
+   * @param timestamp Time stamp (0 to indicate the time the batch is committed)
+   */
+  public void append(DataLogBatch batch, byte[] value, long timestamp) {
+    batch.appendRaw(m_entry, value, timestamp);
+  }
+
   /**
    * Appends a record to the log.
    *
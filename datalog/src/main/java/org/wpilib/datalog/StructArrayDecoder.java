@@ -0,0 +1,234 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.wpilib.datalog.ColumnarLogReader.kDouble;
+import static org.wpilib.datalog.ColumnarLogReader.kFloat;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Set;
+import org.wpilib.datalog.ColumnarLogWriter.FieldColumn;
+import org.wpilib.util.struct.BadSchemaException;
+import org.wpilib.util.struct.Struct;
+import org.wpilib.util.struct.StructDescriptor;
+import org.wpilib.util.struct.StructDescriptorDatabase;
+
+/**
+ * Bulk decoder for struct array records (e.g. "struct:SwerveModuleState[]") that avoids creating
+ * new arrays and objects for every record.
+ *
+ * <p>Two decoding modes are provided:
+ *
+ * <ul>
+ *   <li>{@link #readInto(DataLogCursor, Object[])} decodes into a caller-provided array of objects,
+ *       reusing the existing objects with {@link Struct#unpackInto} when the struct supports it.
+ *   <li>{@link #readColumns(DataLogCursor, double[][])} decodes directly into structure-of-arrays
+ *       columns, one double[] per numeric field (flattened the same way as {@link
+ *       ColumnarLogWriter}), without creating any objects. This works for immutable types such as
+ *       Pose2d.
+ * </ul>
+ *
+ * <p>Both modes return the number of elements in the record; if the caller's arrays are smaller,
+ * only the leading elements are decoded.
+ *
+ * @param <T> object type
+ */
+public final class StructArrayDecoder<T> {
+  /**
+   * Constructs a decoder.
+   *
+   * @param struct struct serializer
+   * @throws IllegalArgumentException if the struct's schema cannot be parsed
+   */
+  public StructArrayDecoder(Struct<T> struct) {
+    m_struct = struct;
+    m_structSize = struct.getSize();
+    m_mutable = !struct.isImmutable();
+
+    StructDescriptorDatabase structs = new StructDescriptorDatabase();
+    try {
+      addSchemas(structs, struct, new HashSet<>());
+    } catch (BadSchemaException ex) {
+      throw new IllegalArgumentException("invalid struct schema: " + ex.getMessage(), ex);
+    }
+    StructDescriptor desc = structs.find(struct.getTypeName());
+    if (desc == null || !desc.isValid()) {
+      throw new IllegalArgumentException("struct schema has unresolved nested structs");
+    }
+    List<FieldColumn> columns = new ArrayList<>();
+    ColumnarLogWriter.addStructColumns(columns, desc, "", 0);
+    m_columns = columns.toArray(new FieldColumn[0]);
+    List<String> names = new ArrayList<>(m_columns.length);
+    for (FieldColumn column : m_columns) {
+      names.add(column.m_name);
+    }
+    m_columnNames = Collections.unmodifiableList(names);
+  }
+
+  private static void addSchemas(
+      StructDescriptorDatabase structs, Struct<?> struct, Set<String> seen)
+      throws BadSchemaException {
+    if (!seen.add(struct.getTypeName())) {
+      return;
+    }
+    for (Struct<?> nested : struct.getNested()) {
+      addSchemas(structs, nested, seen);
+    }
+    structs.add(struct.getTypeName(), struct.getSchema());
+  }
+
+  /**
+   * Gets the struct serializer.
+   *
+   * @return struct serializer
+   */
+  public Struct<T> getStruct() {
+    return m_struct;
+  }
+
+  /**
+   * Gets the number of elements in the current record of a cursor.
+   *
+   * @param cursor cursor
+   * @return number of elements
+   * @throws InputMismatchException if the record size is not a multiple of the struct size
+   */
+  public int getCount(DataLogCursor cursor) {
+    return getCount(cursor.getSize());
+  }
+
+  /**
+   * Decodes the current record of a cursor into an array of objects. Existing objects in the array
+   * are updated in place if the struct is mutable; null elements, and all elements of immutable
+   * structs, are replaced with new objects.
+   *
+   * @param cursor cursor
+   * @param out array of objects
+   * @return number of elements in the record
+   * @throws InputMismatchException if the record size is not a multiple of the struct size
+   */
+  public int readInto(DataLogCursor cursor, T[] out) {
+    int count = getCount(cursor);
+    readInto(cursor.getDataBuffer(), out, count);
+    return count;
+  }
+
+  /**
+   * Decodes a record into an array of objects. Existing objects in the array are updated in place
+   * if the struct is mutable; null elements, and all elements of immutable structs, are replaced
+   * with new objects.
+   *
+   * @param record record
+   * @param out array of objects
+   * @return number of elements in the record
+   * @throws InputMismatchException if the record size is not a multiple of the struct size
+   */
+  public int readInto(DataLogRecord record, T[] out) {
+    ByteBuffer buf = record.getRawBuffer();
+    int count = getCount(buf.remaining());
+    readInto(buf, out, count);
+    return count;
+  }
+
+  /**
+   * Gets the names of the columns filled by readColumns(). Nested struct fields are named with "."
+   * and array fields with "[i]" (e.g. "angle.value"); char fields are omitted.
+   *
+   * @return column names
+   */
+  public List<String> getColumnNames() {
+    return m_columnNames;
+  }
+
+  /**
+   * Gets the number of columns filled by readColumns().
+   *
+   * @return number of columns
+   */
+  public int getColumnCount() {
+    return m_columns.length;
+  }
+
+  /**
+   * Decodes the current record of a cursor into structure-of-arrays columns. columns[c][i] is set
+   * to the value of column c (in the order of getColumnNames()) of element i, converted to double.
+   * Booleans are converted to 0 or 1.
+   *
+   * @param cursor cursor
+   * @param columns columns; must have at least getColumnCount() arrays
+   * @return number of elements in the record
+   * @throws InputMismatchException if the record size is not a multiple of the struct size
+   */
+  public int readColumns(DataLogCursor cursor, double[][] columns) {
+    int count = getCount(cursor);
+    MemorySegment seg = cursor.getSegment();
+    long data = cursor.getDataOffset();
+    for (int c = 0; c < m_columns.length; c++) {
+      FieldColumn column = m_columns[c];
+      double[] arr = columns[c];
+      int n = Math.min(count, arr.length);
+      long src = data + column.m_offset;
+      switch (column.m_fieldType) {
+        case DOUBLE -> {
+          for (int i = 0; i < n; i++, src += m_structSize) {
+            arr[i] = seg.get(kDouble, src);
+          }
+        }
+        case FLOAT -> {
+          for (int i = 0; i < n; i++, src += m_structSize) {
+            arr[i] = seg.get(kFloat, src);
+          }
+        }
+        case BOOL -> {
+          for (int i = 0; i < n; i++, src += m_structSize) {
+            arr[i] = ColumnarLogWriter.readInt(seg, src, column) != 0 ? 1.0 : 0.0;
+          }
+        }
+        default -> {
+          for (int i = 0; i < n; i++, src += m_structSize) {
+            arr[i] = ColumnarLogWriter.readInt(seg, src, column);
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  private int getCount(long size) {
+    if (m_structSize == 0 || size % m_structSize != 0) {
+      throw new InputMismatchException();
+    }
+    return (int) (size / m_structSize);
+  }
+
+  private void readInto(ByteBuffer buf, T[] out, int count) {
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    int n = Math.min(count, out.length);
+    for (int i = 0; i < n; i++) {
+      if (m_mutable && out[i] != null) {
+        try {
+          m_struct.unpackInto(out[i], buf);
+          continue;
+        } catch (UnsupportedOperationException ex) {
+          m_mutable = false;
+        }
+      }
+      out[i] = m_struct.unpack(buf);
+    }
+  }
+
+  private final Struct<T> m_struct;
+  private final int m_structSize;
+  private final FieldColumn[] m_columns;
+  private final List<String> m_columnNames;
+  private boolean m_mutable;
+}
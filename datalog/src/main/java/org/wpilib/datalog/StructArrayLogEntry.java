@@ -8,8 +8,9 @@ import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
+import org.wpilib.util.struct.ConcurrentStructBuffer;
 import org.wpilib.util.struct.Struct;
-import org.wpilib.util.struct.StructBuffer;
+import org.wpilib.util.struct.StructColumns;
 
 /**
  * Log struct-encoded array values.
@@ -20,7 +21,7 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
   private StructArrayLogEntry(
       DataLog log, String name, Struct<T> struct, String metadata, long timestamp) {
     super(log, name, struct.getTypeString() + "[]", metadata, timestamp);
-    m_buf = StructBuffer.create(struct);
+    m_buf = ConcurrentStructBuffer.create(struct);
     m_immutable = struct.isImmutable();
     m_cloneable = struct.isCloneable();
     log.addSchema(struct, timestamp);
@@ -91,9 +92,7 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
    * @param nelem number of elements
    */
   public void reserve(int nelem) {
-    synchronized (m_buf) {
-      m_buf.reserve(nelem);
-    }
+    m_buf.release(m_buf.acquire(nelem));
   }
 
   /**
@@ -103,9 +102,11 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
    * @param timestamp Time stamp (0 to indicate now)
    */
   public void append(T[] value, long timestamp) {
-    synchronized (m_buf) {
-      ByteBuffer bb = m_buf.writeArray(value);
+    ByteBuffer bb = m_buf.writeArray(value);
+    try {
       m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+    } finally {
+      m_buf.release(bb);
     }
   }
 
@@ -125,9 +126,11 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
    * @param timestamp Time stamp (0 to indicate now)
    */
   public void append(Collection<T> value, long timestamp) {
-    synchronized (m_buf) {
-      ByteBuffer bb = m_buf.writeArray(value);
+    ByteBuffer bb = m_buf.writeArray(value);
+    try {
       m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+    } finally {
+      m_buf.release(bb);
     }
   }
 
@@ -140,6 +143,28 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
     append(value, 0);
   }
 
+  /**
+   * Appends a record to the log from structure-of-arrays columns. No per-element objects are
+   * created.
+   *
+   * @param value Value to record
+   * @param timestamp Time stamp (0 to indicate now)
+   */
+  public void append(StructColumns<T> value, long timestamp) {
+    ByteBuffer bb = value.write();
+    m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+  }
+
+  /**
+   * Appends a record to the log from structure-of-arrays columns. No per-element objects are
+   * created.
+   *
+   * @param value Value to record
+   */
+  public void append(StructColumns<T> value) {
+    append(value, 0);
+  }
+
   /**
    * Updates the last value and appends a record to the log if it has changed.
    *
@@ -160,13 +185,22 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
         try {
           copyToLast(value);
           ByteBuffer bb = m_buf.writeArray(value);
-          m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          try {
+            m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          } finally {
+            m_buf.release(bb);
+          }
           return;
         } catch (CloneNotSupportedException e) {
           // fall through
         }
       }
-      doUpdate(m_buf.writeArray(value), timestamp);
+      ByteBuffer bb = m_buf.writeArray(value);
+      try {
+        doUpdate(bb, timestamp);
+      } finally {
+        m_buf.release(bb);
+      }
     }
   }
 
@@ -200,13 +234,22 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
         try {
           copyToLast(value);
           ByteBuffer bb = m_buf.writeArray(value);
-          m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          try {
+            m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          } finally {
+            m_buf.release(bb);
+          }
           return;
         } catch (CloneNotSupportedException e) {
           // fall through
         }
       }
-      doUpdate(m_buf.writeArray(value), timestamp);
+      ByteBuffer bb = m_buf.writeArray(value);
+      try {
+        doUpdate(bb, timestamp);
+      } finally {
+        m_buf.release(bb);
+      }
     }
   }
 
@@ -372,7 +415,7 @@ public final class StructArrayLogEntry<T> extends DataLogEntry {
     m_lastValueLen = value.size();
   }
 
-  private final StructBuffer<T> m_buf;
+  private final ConcurrentStructBuffer<T> m_buf;
   private ByteBuffer m_lastValueBuf;
   private final boolean m_immutable;
   private final boolean m_cloneable;
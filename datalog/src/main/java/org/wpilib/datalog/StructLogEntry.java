@@ -5,8 +5,8 @@
 package org.wpilib.datalog;
 
 import java.nio.ByteBuffer;
+import org.wpilib.util.struct.ConcurrentStructBuffer;
 import org.wpilib.util.struct.Struct;
-import org.wpilib.util.struct.StructBuffer;
 
 /**
  * Log struct-encoded values.
@@ -17,7 +17,7 @@ public final class StructLogEntry<T> extends DataLogEntry {
   private StructLogEntry(
       DataLog log, String name, Struct<T> struct, String metadata, long timestamp) {
     super(log, name, struct.getTypeString(), metadata, timestamp);
-    m_buf = StructBuffer.create(struct);
+    m_buf = ConcurrentStructBuffer.create(struct);
     m_immutable = struct.isImmutable();
     m_cloneable = struct.isCloneable();
     log.addSchema(struct, timestamp);
@@ -89,9 +89,11 @@ public final class StructLogEntry<T> extends DataLogEntry {
    * @param timestamp Time stamp (0 to indicate now)
    */
   public void append(T value, long timestamp) {
-    synchronized (m_buf) {
-      ByteBuffer bb = m_buf.write(value);
+    ByteBuffer bb = m_buf.write(value);
+    try {
       m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+    } finally {
+      m_buf.release(bb);
     }
   }
 
@@ -126,13 +128,22 @@ public final class StructLogEntry<T> extends DataLogEntry {
             m_lastValue = m_buf.getStruct().clone(value);
           }
           ByteBuffer bb = m_buf.write(value);
-          m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          try {
+            m_log.appendRaw(m_entry, bb, 0, bb.position(), timestamp);
+          } finally {
+            m_buf.release(bb);
+          }
           return;
         } catch (CloneNotSupportedException e) {
           // fall through
         }
       }
-      doUpdate(m_buf.write(value), timestamp);
+      ByteBuffer bb = m_buf.write(value);
+      try {
+        doUpdate(bb, timestamp);
+      } finally {
+        m_buf.release(bb);
+      }
     }
   }
 
@@ -213,7 +224,7 @@ public final class StructLogEntry<T> extends DataLogEntry {
     }
   }
 
-  private final StructBuffer<T> m_buf;
+  private final ConcurrentStructBuffer<T> m_buf;
   private ByteBuffer m_lastValueBuf;
   private final boolean m_immutable;
   private final boolean m_cloneable;
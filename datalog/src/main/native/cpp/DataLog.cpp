@@ -352,6 +352,29 @@ void DataLog::AppendRaw2(int entry,
   }
 }
 
+void DataLog::AppendBatch(std::span<const uint8_t> batch) {
+  std::scoped_lock lock{m_mutex};
+  while (batch.size() >= kBatchHeaderSize) {
+    if (m_paused) {
+      [[unlikely]] return;
+    }
+    int entry = static_cast<int32_t>(
+        wpi::util::support::endian::read32le(batch.data()));
+    uint64_t timestamp = wpi::util::support::endian::read64le(batch.data() + 4);
+    uint32_t size = wpi::util::support::endian::read32le(batch.data() + 12);
+    batch = batch.subspan(kBatchHeaderSize);
+    if (size > batch.size()) {
+      // truncated record; drop it and the remainder
+      return;
+    }
+    if (entry > 0) {
+      StartRecord(entry, timestamp, size, 0);
+      AppendImpl(batch.subspan(0, size));
+    }
+    batch = batch.subspan(size);
+  }
+}
+
 void DataLog::AppendBoolean(int entry, bool value, int64_t timestamp) {
   if (entry <= 0) {
     return;
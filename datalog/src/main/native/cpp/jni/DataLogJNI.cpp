@@ -479,6 +479,72 @@ Java_org_wpilib_datalog_DataLogJNI_appendRawBuffer
                                               timestamp);
 }
 
+/*
+ * Class:     org_wpilib_datalog_DataLogJNI
+ * Method:    appendBatch
+ * Signature: (J[BI)V
+ */
+JNIEXPORT void JNICALL
+Java_org_wpilib_datalog_DataLogJNI_appendBatch
+  (JNIEnv* env, jclass, jlong impl, jbyteArray data, jint length)
+{
+  if (impl == 0) {
+    wpi::ThrowNullPointerException(env, "impl is null");
+    return;
+  }
+  if (!data) {
+    wpi::ThrowNullPointerException(env, "data is null");
+    return;
+  }
+  if (length < 0) {
+    wpi::ThrowIndexOobException(env, "length must be >= 0");
+    return;
+  }
+  CriticalJSpan<const jbyte> cdata{env, data};
+  size_t lengthSize = static_cast<size_t>(length);
+  if (lengthSize > cdata.size()) {
+    wpi::ThrowIndexOobException(env, "len must be within array length");
+    return;
+  }
+  reinterpret_cast<DataLog*>(impl)->AppendBatch(
+      cdata.uarray().subspan(0, lengthSize));
+}
+
+/*
+ * Class:     org_wpilib_datalog_DataLogJNI
+ * Method:    appendBatchBuffer
+ * Signature: (JLjava/lang/Object;I)V
+ */
+JNIEXPORT void JNICALL
+Java_org_wpilib_datalog_DataLogJNI_appendBatchBuffer
+  (JNIEnv* env, jclass, jlong impl, jobject data, jint length)
+{
+  if (impl == 0) {
+    wpi::ThrowNullPointerException(env, "impl is null");
+    return;
+  }
+  if (!data) {
+    wpi::ThrowNullPointerException(env, "data is null");
+    return;
+  }
+  if (length < 0) {
+    wpi::ThrowIndexOobException(env, "length must be >= 0");
+    return;
+  }
+  auto cdata =
+      JSpan<const jbyte>::Create(env, data, 0, static_cast<size_t>(length));
+  if (!cdata) {
+    if (cdata.error() == JSpan<const jbyte>::DirectBufferError::OUT_OF_BOUNDS) {
+      wpi::ThrowIndexOobException(env, "len must be within buffer capacity");
+    } else {
+      wpi::ThrowIllegalArgumentException(env,
+                                         "data must be a native ByteBuffer");
+    }
+    return;
+  }
+  reinterpret_cast<DataLog*>(impl)->AppendBatch(cdata->uarray());
+}
+
 /*
  * Class:     org_wpilib_datalog_DataLogJNI
  * Method:    appendBoolean
@@ -244,6 +244,23 @@ class DataLog {
   void AppendRaw2(int entry, std::span<const std::span<const uint8_t>> data,
                   int64_t timestamp);
 
+  /**
+   * Size of the header preceding each record in a batch passed to
+   * AppendBatch().
+   */
+  static constexpr size_t kBatchHeaderSize = 16;
+
+  /**
+   * Appends a batch of raw records to the log while holding the log lock only
+   * once. The batch is a sequence of records, each consisting of a 4-byte
+   * entry index, an 8-byte timestamp (may be 0 to indicate now), and a 4-byte
+   * payload size (all little endian), followed by the payload bytes. Records
+   * with entry indices <= 0 are skipped; a truncated final record is dropped.
+   *
+   * @param batch Batch of records
+   */
+  void AppendBatch(std::span<const uint8_t> batch);
+
   /**
    * Appends a boolean record to the log.
    *
@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarLogTest {
+  @Test
+  void exportsPrimitiveEntries(@TempDir Path dir) throws IOException {
+    Path path = dir.resolve("test.wpicol");
+    ColumnarLogWriter.convert(new DataLogReader(TestLogs.createLog(100)), path);
+
+    try (ColumnarLogReader reader = new ColumnarLogReader(path)) {
+      assertEquals(2, reader.getSeries().size());
+      ColumnarLogReader.Series series = reader.getSeries("b");
+      assertEquals("double", series.getType());
+      assertEquals(100, series.size());
+      assertEquals(15, series.getTimestamp(1));
+      ColumnarLogReader.Column column = series.getColumn("value");
+      assertEquals(ColumnarLogReader.ColumnType.DOUBLE, column.getType());
+      assertEquals(-1.0, column.getDouble(1));
+
+      long start = series.lowerBound(100);
+      long end = series.lowerBound(150);
+      assertEquals(10, start);
+      assertEquals(15, end);
+      assertEquals(-60.0, column.summarize(start, end).getSum());
+      assertNull(reader.getSeries("c"));
+    }
+  }
+
+  @Test
+  void flattensStructEntries(@TempDir Path dir) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    TestLogs.putRecord(
+        buf, 0, 0, TestLogs.startData(1, "/.schema/struct:Inner", "structschema"));
+    TestLogs.putRecord(
+        buf, 1, 0, "double x; int16 y; bool a:1; uint8 b:3".getBytes(StandardCharsets.UTF_8));
+    TestLogs.putRecord(
+        buf, 0, 0, TestLogs.startData(2, "/.schema/struct:Outer", "structschema"));
+    TestLogs.putRecord(
+        buf, 2, 0, "Inner in; float arr[2]; char name[4]".getBytes(StandardCharsets.UTF_8));
+    TestLogs.putRecord(buf, 0, 0, TestLogs.startData(3, "outer", "struct:Outer"));
+    for (int i = 0; i < 3; i++) {
+      ByteBuffer data = ByteBuffer.allocate(23).order(ByteOrder.LITTLE_ENDIAN);
+      data.putDouble(i * 1.5);
+      data.putShort((short) -i);
+      data.put((byte) ((i % 2) | (i << 1)));
+      data.putFloat(i);
+      data.putFloat(-i);
+      data.put("name".getBytes(StandardCharsets.UTF_8));
+      TestLogs.putRecord(buf, 3, 100 + i, data.array());
+    }
+    // wrong size record is skipped
+    TestLogs.putRecord(buf, 3, 200, new byte[4]);
+    buf.flip();
+
+    Path path = dir.resolve("test.wpicol");
+    ColumnarLogWriter.convert(new DataLogReader(buf), path);
+
+    try (ColumnarLogReader reader = new ColumnarLogReader(path)) {
+      ColumnarLogReader.Series series = reader.getSeries("outer");
+      assertEquals("struct:Outer", series.getType());
+      assertEquals(3, series.size());
+      List<String> names =
+          series.getColumns().stream().map(ColumnarLogReader.Column::getName).toList();
+      assertEquals(List.of("in.x", "in.y", "in.a", "in.b", "arr[0]", "arr[1]"), names);
+
+      assertEquals(3.0, series.getColumn("in.x").getDouble(2));
+      assertEquals(-2, series.getColumn("in.y").getInteger(2));
+      assertTrue(series.getColumn("in.a").getBoolean(1));
+      assertFalse(series.getColumn("in.a").getBoolean(2));
+      assertEquals(2, series.getColumn("in.b").getInteger(2));
+      assertEquals(-2.0f, series.getColumn("arr[1]").getFloat(2));
+      assertEquals(102, series.getTimestamp(2));
+    }
+  }
+}
@@ -0,0 +1,122 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompressedDataLogTest {
+  private static byte[] toArray(ByteBuffer buf) {
+    byte[] arr = new byte[buf.remaining()];
+    buf.duplicate().get(arr);
+    return arr;
+  }
+
+  private static List<String> describe(DataLogReader reader) {
+    List<String> out = new ArrayList<>();
+    reader.forEach(
+        record ->
+            out.add(
+                record.getEntry()
+                    + "@"
+                    + record.getTimestamp()
+                    + ":"
+                    + Arrays.toString(toArray(record.getRawBuffer()))));
+    return out;
+  }
+
+  @Test
+  void roundTrips() throws IOException {
+    byte[] raw = toArray(TestLogs.createLog(2000));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CompressedDataLogOutputStream os =
+        new CompressedDataLogOutputStream(bytes, 4096, Deflater.DEFAULT_COMPRESSION)) {
+      os.write(raw);
+    }
+    byte[] compressed = bytes.toByteArray();
+    assertTrue(compressed.length * 3 < raw.length);
+
+    DataLogReader expected = new DataLogReader(ByteBuffer.wrap(raw));
+    DataLogReader actual = new DataLogReader(ByteBuffer.wrap(compressed));
+    assertTrue(actual.isValid());
+    assertEquals(raw.length, actual.size());
+    assertEquals(describe(expected), describe(actual));
+  }
+
+  @Test
+  void decompressesToTempFile() throws IOException {
+    byte[] raw = toArray(TestLogs.createLog(2000));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CompressedDataLogOutputStream os =
+        new CompressedDataLogOutputStream(bytes, 4096, Deflater.DEFAULT_COMPRESSION)) {
+      os.write(raw);
+    }
+    MemorySegment compressed = MemorySegment.ofArray(bytes.toByteArray());
+
+    // too large to decompress into memory
+    MemorySegment mapped = CompressedDataLog.decompress(compressed, raw.length - 1);
+    assertTrue(mapped.isMapped());
+    assertEquals(
+        describe(new DataLogReader(ByteBuffer.wrap(raw))), describe(new DataLogReader(mapped)));
+    assertFalse(CompressedDataLog.decompress(compressed, raw.length).isMapped());
+  }
+
+  @Test
+  void rejectsOversizedBlock() throws IOException {
+    byte[] raw = toArray(TestLogs.createLog(100));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (CompressedDataLogOutputStream os =
+        new CompressedDataLogOutputStream(bytes, 1024, Deflater.DEFAULT_COMPRESSION)) {
+      os.write(raw);
+    }
+    ByteBuffer compressed = ByteBuffer.wrap(bytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    // claim a smaller block size than the blocks were written with
+    compressed.putInt(12, 512);
+    assertThrows(InputMismatchException.class, () -> new DataLogReader(compressed));
+  }
+
+  @Test
+  void readsWithoutIndex() throws IOException {
+    byte[] raw = toArray(TestLogs.createLog(500));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CompressedDataLogOutputStream os =
+        new CompressedDataLogOutputStream(bytes, 1024, Deflater.BEST_SPEED);
+    os.write(raw);
+    // not closed: only complete blocks are written
+    DataLogReader reader = new DataLogReader(ByteBuffer.wrap(bytes.toByteArray()));
+    assertEquals(raw.length / 1024 * 1024, reader.size());
+    assertTrue(reader.isValid());
+  }
+
+  @Test
+  void compressesFile(@TempDir Path dir) throws IOException {
+    Path in = dir.resolve("test.wpilog");
+    Path out = dir.resolve("test.wpilogz");
+    byte[] raw = toArray(TestLogs.createLog(100));
+    Files.write(in, raw);
+    CompressedDataLog.compress(in, out);
+
+    DataLogReader expected = new DataLogReader(in.toString());
+    DataLogReader actual = new DataLogReader(out.toString());
+    assertEquals(describe(expected), describe(actual));
+  }
+}
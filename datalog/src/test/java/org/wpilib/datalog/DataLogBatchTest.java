@@ -0,0 +1,44 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+
+class DataLogBatchTest {
+  @Test
+  void encodesRecords() {
+    DataLogBatch batch = new DataLogBatch(16);
+    batch.appendDouble(3, 1.5, 100);
+    batch.appendString(4, "hi", 0);
+    batch.appendIntegerArray(5, new long[] {7, 8}, 200);
+    assertEquals(3, batch.getCount());
+    assertEquals(16 * 3 + 8 + 2 + 16, batch.getSize());
+
+    ByteBuffer buf = batch.getBuffer().duplicate().order(ByteOrder.LITTLE_ENDIAN).flip();
+    assertEquals(3, buf.getInt());
+    assertEquals(100, buf.getLong());
+    assertEquals(8, buf.getInt());
+    assertEquals(1.5, buf.getDouble());
+    assertEquals(4, buf.getInt());
+    assertEquals(0, buf.getLong());
+    assertEquals(2, buf.getInt());
+    assertEquals('h', buf.get());
+    assertEquals('i', buf.get());
+    assertEquals(5, buf.getInt());
+    assertEquals(200, buf.getLong());
+    assertEquals(16, buf.getInt());
+    assertEquals(7, buf.getLong());
+    assertEquals(8, buf.getLong());
+    assertEquals(0, buf.remaining());
+
+    batch.clear();
+    assertEquals(0, batch.getCount());
+    assertEquals(0, batch.getSize());
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DataLogCursorTest {
+  @Test
+  void matchesIterator() {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(50));
+    DataLogCursor cursor = reader.cursor();
+    for (DataLogRecord record : reader) {
+      assertTrue(cursor.next());
+      assertEquals(record.getEntry(), cursor.getEntry());
+      assertEquals(record.getTimestamp(), cursor.getTimestamp());
+      assertEquals(record.isStart(), cursor.isStart());
+      if (!record.isControl()) {
+        assertEquals(record.getDouble(), cursor.getDouble());
+      }
+    }
+  }
+
+  @Test
+  void decodesIntoBuffers() {
+    ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    ByteBuffer doubles = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+    doubles.putDouble(1.5).putDouble(-2.5).putDouble(3.5);
+    TestLogs.putRecord(buf, 1, 1, doubles.array());
+    TestLogs.putRecord(buf, 2, 2, "héllo ✓ 😀".getBytes(StandardCharsets.UTF_8));
+    ByteBuffer strings = ByteBuffer.allocate(18).order(ByteOrder.LITTLE_ENDIAN);
+    strings.putInt(2).putInt(3).put("abc".getBytes(StandardCharsets.UTF_8));
+    strings.putInt(3).put("xyz".getBytes(StandardCharsets.UTF_8));
+    TestLogs.putRecord(buf, 3, 3, strings.array());
+    TestLogs.putRecord(buf, 4, 4, new byte[] {'a', (byte) 0xff, 'b'});
+    buf.flip();
+
+    DataLogCursor cursor = new DataLogReader(buf).cursor();
+
+    assertTrue(cursor.next());
+    double[] arr = new double[2];
+    assertEquals(3, cursor.getDoubleArray(arr));
+    assertArrayEquals(new double[] {1.5, -2.5}, arr);
+
+    assertTrue(cursor.next());
+    StringBuilder sb = new StringBuilder("previous");
+    cursor.getString(sb);
+    assertEquals("héllo ✓ 😀", sb.toString());
+
+    assertTrue(cursor.next());
+    assertEquals(2, cursor.getStringArraySize());
+    List<String> values = new ArrayList<>();
+    cursor.forEachString((i, value) -> values.add(value.toString()));
+    assertEquals(List.of("abc", "xyz"), values);
+
+    assertTrue(cursor.next());
+    cursor.getString(sb);
+    assertEquals("a�b", sb.toString());
+
+    assertFalse(cursor.next());
+    assertEquals(-1, cursor.getPosition());
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogFollowerTest {
+  private static void append(Path path, byte[] data, int start, int end) throws IOException {
+    Files.write(
+        path,
+        Arrays.copyOfRange(data, start, end),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+
+  @Test
+  void deliversOnlyCompleteNewRecords(@TempDir Path dir) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 2, 0, 0, 0, 'h', 'i'});
+    int headerEnd = buf.position();
+    TestLogs.putRecord(buf, 0, 0, TestLogs.startData(1, "a", "double"));
+    TestLogs.putRecord(buf, 1, 10, TestLogs.doubleData(1.0));
+    int secondEnd = buf.position();
+    TestLogs.putRecord(buf, 1, 20, TestLogs.doubleData(2.0));
+    int thirdEnd = buf.position();
+    byte[] log = new byte[thirdEnd];
+    buf.flip();
+    buf.get(log);
+
+    Path path = dir.resolve("test.wpilog");
+    List<DataLogRecord> records = new ArrayList<>();
+    append(path, log, 0, 10);
+    try (DataLogFollower follower = new DataLogFollower(path.toString())) {
+      assertEquals(0, follower.poll(records::add));
+
+      // header plus a partial record
+      append(path, log, 10, headerEnd + 5);
+      assertEquals(0, follower.poll(records::add));
+      assertEquals("hi", follower.getExtraHeader());
+
+      append(path, log, headerEnd + 5, secondEnd + 3);
+      assertEquals(2, follower.poll(records::add));
+      assertEquals(secondEnd, follower.getPosition());
+
+      assertEquals(0, follower.poll(records::add));
+
+      append(path, log, secondEnd + 3, thirdEnd);
+      assertEquals(1, follower.poll(records::add));
+    }
+
+    assertEquals(3, records.size());
+    assertEquals("a", records.get(0).getStartData().name);
+    assertEquals(1.0, records.get(1).getDouble());
+    assertEquals(2.0, records.get(2).getDouble());
+    assertEquals(20, records.get(2).getTimestamp());
+  }
+}
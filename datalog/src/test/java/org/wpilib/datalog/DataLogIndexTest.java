@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogIndexTest {
+  @Test
+  void indexesControlAndEntryRecords() {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(100));
+    DataLogIndex index = DataLogIndex.build(reader, 16);
+
+    assertEquals(2, index.getControlRecordOffsets().length);
+    assertArrayEquals(new int[] {1, 2}, index.getEntries());
+    assertEquals(100, index.getRecordOffsets(1).length);
+    assertEquals(100, index.getRecordOffsets(2).length);
+    assertEquals(0, index.getRecordOffsets(3).length);
+
+    reader.setIndex(index);
+    List<DataLogRecord> control = reader.getControlRecords();
+    assertEquals("a", control.get(0).getStartData().name);
+    assertEquals("b", control.get(1).getStartData().name);
+  }
+
+  @Test
+  void seekFindsFirstRecordAtOrAfterTimestamp() {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(100));
+    reader.setIndex(DataLogIndex.build(reader, 16));
+
+    DataLogRecord record = reader.seek(503).next();
+    assertEquals(2, record.getEntry());
+    assertEquals(505, record.getTimestamp());
+
+    record = reader.seek(510).next();
+    assertEquals(1, record.getEntry());
+    assertEquals(510, record.getTimestamp());
+
+    assertFalse(reader.seek(10000).hasNext());
+  }
+
+  @Test
+  void recordsForReturnsTimeRange() {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(100));
+
+    List<DataLogRecord> records = reader.recordsFor(2, 100, 150);
+    assertEquals(5, records.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(2, records.get(i).getEntry());
+      assertEquals(105 + 10 * i, records.get(i).getTimestamp());
+      assertEquals(-(10 + i), records.get(i).getDouble());
+    }
+    assertTrue(reader.recordsFor(1, 2000, 3000).isEmpty());
+  }
+
+  @Test
+  void sidecarRoundTrip(@TempDir Path dir) throws IOException {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(100));
+    DataLogIndex index = DataLogIndex.build(reader, 16);
+    Path sidecar = dir.resolve("test.wpilog.idx");
+    index.write(sidecar);
+
+    DataLogIndex loaded = DataLogIndex.read(sidecar, reader);
+    assertArrayEquals(index.getControlRecordOffsets(), loaded.getControlRecordOffsets());
+    assertArrayEquals(index.getEntries(), loaded.getEntries());
+    assertArrayEquals(index.getRecordOffsets(1), loaded.getRecordOffsets(1));
+    assertArrayEquals(index.getRecordOffsets(2), loaded.getRecordOffsets(2));
+  }
+
+  @Test
+  void sidecarRejectsDifferentLog(@TempDir Path dir) throws IOException {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(100));
+    Path sidecar = dir.resolve("test.wpilog.idx");
+    DataLogIndex.build(reader).write(sidecar);
+
+    DataLogReader other = new DataLogReader(TestLogs.createLog(50));
+    assertThrows(IOException.class, () -> DataLogIndex.read(sidecar, other));
+
+    DataLogIndex rebuilt = DataLogIndex.loadOrBuild(sidecar, other);
+    assertEquals(50, rebuilt.getRecordOffsets(1).length);
+    assertEquals(50, DataLogIndex.read(sidecar, other).getRecordOffsets(1).length);
+  }
+}
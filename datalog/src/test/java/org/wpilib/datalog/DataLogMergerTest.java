@@ -0,0 +1,58 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DataLogMergerTest {
+  @Test
+  void mergesInTimeOrder() throws IOException {
+    DataLogMerger merger = new DataLogMerger();
+    merger.addLog(new DataLogReader(TestLogs.createLog(20)), 0, "robot/");
+    merger.addLog(new DataLogReader(TestLogs.createLog(20)), 3, "coproc/");
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    assertEquals(84, merger.merge(os, "merged"));
+
+    DataLogReader reader = new DataLogReader(ByteBuffer.wrap(os.toByteArray()));
+    assertTrue(reader.isValid());
+    assertEquals("merged", reader.getExtraHeader());
+
+    Map<Integer, String> names = new HashMap<>();
+    long[] lastTimestamp = {0};
+    int[] count = {0};
+    reader.forEach(
+        record -> {
+          assertTrue(record.getTimestamp() >= lastTimestamp[0]);
+          lastTimestamp[0] = record.getTimestamp();
+          count[0]++;
+          if (record.isStart()) {
+            DataLogRecord.StartRecordData data = record.getStartData();
+            names.put(data.entry, data.name);
+          } else if (!record.isControl()) {
+            String name = names.get(record.getEntry());
+            long i = record.getTimestamp() / 10;
+            switch (name) {
+              case "robot/a" -> assertEquals(record.getTimestamp(), 10 * i);
+              case "robot/b", "coproc/a" -> {}
+              case "coproc/b" -> {
+                assertEquals(record.getTimestamp(), 10 * i + 8);
+                assertEquals(-i, record.getDouble());
+              }
+              default -> throw new AssertionError(name);
+            }
+          }
+        });
+    assertEquals(84, count[0]);
+    assertEquals(4, names.size());
+  }
+}
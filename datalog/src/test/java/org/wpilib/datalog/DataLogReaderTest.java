@@ -9,9 +9,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class DataLogReaderTest {
   @Test
@@ -45,4 +53,42 @@ class DataLogReaderTest {
     assertEquals(10, buffer.position());
     assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
   }
+
+  @Test
+  void readsFromMemorySegment() {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment segment = arena.allocate(20);
+      segment.copyFrom(
+          MemorySegment.ofArray(
+              new byte[] {
+                'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0, 0, 1, 4, 0, 'D', 'A', 'T', 'A'
+              }));
+
+      DataLogReader reader = new DataLogReader(segment);
+
+      assertTrue(reader.isValid());
+      DataLogRecord record = reader.iterator().next();
+      assertEquals(1, record.getEntry());
+      assertArrayEquals(new byte[] {'D', 'A', 'T', 'A'}, record.getRaw());
+    }
+  }
+
+  @Test
+  void readsFromFile(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("test.wpilog");
+    Files.write(
+        file,
+        new byte[] {
+          'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 2, 0, 0, 0, 'h', 'i', 0, 1, 4, 0, 'D', 'A', 'T', 'A'
+        });
+
+    DataLogReader reader = new DataLogReader(file.toString());
+
+    assertTrue(reader.isValid());
+    assertEquals("hi", reader.getExtraHeader());
+    List<DataLogRecord> records = new ArrayList<>();
+    reader.forEach(records::add);
+    assertEquals(1, records.size());
+    assertArrayEquals(new byte[] {'D', 'A', 'T', 'A'}, records.get(0).getRaw());
+  }
 }
@@ -0,0 +1,68 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelDataLogDecoderTest {
+  private static List<String> decode(DataLogReader reader, long chunkSize) {
+    return ParallelDataLogDecoder.decode(
+        reader,
+        chunkSize,
+        ForkJoinPool.commonPool(),
+        ArrayList::new,
+        (list, entry, record) ->
+            list.add(entry.name + "@" + record.getTimestamp() + "=" + record.getDouble()),
+        (a, b) -> {
+          a.addAll(b);
+          return a;
+        });
+  }
+
+  @Test
+  void matchesSequentialDecode() {
+    DataLogReader reader = new DataLogReader(TestLogs.createLog(1000));
+
+    List<String> expected = decode(reader, Long.MAX_VALUE);
+    assertEquals(2000, expected.size());
+    for (long chunkSize : new long[] {1, 7, 100, 1000, 4096}) {
+      assertEquals(expected, decode(reader, chunkSize));
+    }
+  }
+
+  @Test
+  void tracksEntryRestartsAcrossChunks() {
+    ByteBuffer buf = ByteBuffer.allocate(100000).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    Random random = new Random(42);
+    byte[] finish = {1, 1, 0, 0, 0};
+    for (int i = 0; i < 20; i++) {
+      TestLogs.putRecord(buf, 0, 100L * i, TestLogs.startData(1, "entry" + i, "double"));
+      for (int j = 0; j < 20; j++) {
+        // random payloads exercise false resynchronization
+        TestLogs.putRecord(buf, 1, 100L * i + j, TestLogs.doubleData(random.nextDouble()));
+      }
+      TestLogs.putRecord(buf, 0, 100L * i + 50, finish);
+      TestLogs.putRecord(buf, 1, 100L * i + 60, TestLogs.doubleData(0));
+    }
+    buf.flip();
+    DataLogReader reader = new DataLogReader(buf);
+
+    List<String> expected = decode(reader, Long.MAX_VALUE);
+    assertEquals(400, expected.size());
+    assertEquals("entry19@1900=", expected.get(380).substring(0, 13));
+    for (long chunkSize : new long[] {3, 64, 500}) {
+      assertEquals(expected, decode(reader, chunkSize));
+    }
+  }
+}
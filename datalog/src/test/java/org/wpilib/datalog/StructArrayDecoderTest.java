@@ -0,0 +1,124 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.struct.Struct;
+
+class StructArrayDecoderTest {
+  static final class Point {
+    double x;
+    int y;
+  }
+
+  static final class PointStruct implements Struct<Point> {
+    @Override
+    public Class<Point> getTypeClass() {
+      return Point.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "Point";
+    }
+
+    @Override
+    public int getSize() {
+      return 12;
+    }
+
+    @Override
+    public String getSchema() {
+      return "double x; int32 y";
+    }
+
+    @Override
+    public Point unpack(ByteBuffer bb) {
+      Point out = new Point();
+      unpackInto(out, bb);
+      return out;
+    }
+
+    @Override
+    public void unpackInto(Point out, ByteBuffer bb) {
+      out.x = bb.getDouble();
+      out.y = bb.getInt();
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, Point value) {
+      bb.putDouble(value.x);
+      bb.putInt(value.y);
+    }
+  }
+
+  private static DataLogCursor createCursor() {
+    ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    ByteBuffer data = ByteBuffer.allocate(36).order(ByteOrder.LITTLE_ENDIAN);
+    for (int i = 0; i < 3; i++) {
+      data.putDouble(i * 0.5).putInt(-i);
+    }
+    TestLogs.putRecord(buf, 1, 1, data.array());
+    buf.flip();
+    DataLogCursor cursor = new DataLogReader(buf).cursor();
+    assertTrue(cursor.next());
+    return cursor;
+  }
+
+  @Test
+  void readsIntoExistingObjects() {
+    StructArrayDecoder<Point> decoder = new StructArrayDecoder<>(new PointStruct());
+    Point[] pool = {new Point(), null};
+    Point first = pool[0];
+    assertEquals(3, decoder.readInto(createCursor(), pool));
+    assertSame(first, pool[0]);
+    assertEquals(0.5, pool[1].x);
+    assertEquals(-1, pool[1].y);
+  }
+
+  @Test
+  void readsSuccessiveRecords() {
+    ByteBuffer buf = ByteBuffer.allocate(1024).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    for (int i = 1; i <= 3; i++) {
+      ByteBuffer data = ByteBuffer.allocate(12 * i).order(ByteOrder.LITTLE_ENDIAN);
+      for (int j = 0; j < i; j++) {
+        data.putDouble(i).putInt(j);
+      }
+      TestLogs.putRecord(buf, 1, i, data.array());
+    }
+    buf.flip();
+
+    // the cursor's data view is reused, so each record must be bounded to its own data
+    StructArrayDecoder<Point> decoder = new StructArrayDecoder<>(new PointStruct());
+    DataLogCursor cursor = new DataLogReader(buf).cursor();
+    Point[] pool = new Point[4];
+    for (int i = 1; i <= 3; i++) {
+      assertTrue(cursor.next());
+      assertEquals(i, decoder.readInto(cursor, pool));
+      assertEquals(i, pool[i - 1].x);
+      assertEquals(i - 1, pool[i - 1].y);
+    }
+  }
+
+  @Test
+  void readsColumns() {
+    StructArrayDecoder<Point> decoder = new StructArrayDecoder<>(new PointStruct());
+    assertEquals(List.of("x", "y"), decoder.getColumnNames());
+    double[][] columns = new double[2][4];
+    assertEquals(3, decoder.readColumns(createCursor(), columns));
+    assertArrayEquals(new double[] {0, 0.5, 1.0, 0}, columns[0]);
+    assertArrayEquals(new double[] {0, -1, -2, 0}, columns[1]);
+  }
+}
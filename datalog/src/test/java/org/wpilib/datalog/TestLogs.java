@@ -0,0 +1,56 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/** Helpers for building raw data logs in tests without the native DataLog. */
+final class TestLogs {
+  private TestLogs() {}
+
+  static void putRecord(ByteBuffer buf, int entry, long timestamp, byte[] data) {
+    buf.put((byte) 0x7f);
+    buf.putInt(entry);
+    buf.putInt(data.length);
+    buf.putLong(timestamp);
+    buf.put(data);
+  }
+
+  static byte[] startData(int entry, String name, String type) {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buf =
+        ByteBuffer.allocate(17 + nameBytes.length + typeBytes.length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    buf.put((byte) 0);
+    buf.putInt(entry);
+    buf.putInt(nameBytes.length);
+    buf.put(nameBytes);
+    buf.putInt(typeBytes.length);
+    buf.put(typeBytes);
+    buf.putInt(0);
+    return buf.array();
+  }
+
+  static byte[] doubleData(double value) {
+    return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble(value).array();
+  }
+
+  /** Creates a log with two double entries; entry 1 at t=10*i, entry 2 at t=10*i+5. */
+  static ByteBuffer createLog(int count) {
+    ByteBuffer buf = ByteBuffer.allocate(1024 + count * 2 * 25).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(new byte[] {'W', 'P', 'I', 'L', 'O', 'G', 0, 1, 0, 0, 0, 0});
+    putRecord(buf, 0, 0, startData(1, "a", "double"));
+    putRecord(buf, 0, 0, startData(2, "b", "double"));
+    for (int i = 0; i < count; i++) {
+      putRecord(buf, 1, 10L * i, doubleData(i));
+      putRecord(buf, 2, 10L * i + 5, doubleData(-i));
+    }
+    buf.flip();
+    return buf;
+  }
+}
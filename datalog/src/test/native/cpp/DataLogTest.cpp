@@ -6,6 +6,7 @@
 #include <chrono>
 #include <future>
 #include <memory>
+#include <span>
 #include <string>
 #include <thread>
 #include <utility>
@@ -15,6 +16,7 @@
 
 #include "wpi/datalog/DataLogReader.hpp"
 #include "wpi/datalog/DataLogWriter.hpp"
+#include "wpi/util/Endian.hpp"
 #include "wpi/util/Logger.hpp"
 #include "wpi/util/MemoryBuffer.hpp"
 #include "wpi/util/raw_ostream.hpp"
@@ -782,3 +784,80 @@ TEST_CASE_METHOD(DataLogTest, "DataLogTest StructFixedArrayC",
     entry.Append(arr, 7);
   }
 }
+
+static void AddBatchRecord(std::vector<uint8_t>& batch, int entry,
+                           int64_t timestamp, uint32_t size,
+                           std::span<const uint8_t> payload) {
+  size_t pos = batch.size();
+  batch.resize(pos + wpi::log::DataLog::kBatchHeaderSize);
+  wpi::util::support::endian::write32le(batch.data() + pos, entry);
+  wpi::util::support::endian::write64le(batch.data() + pos + 4, timestamp);
+  wpi::util::support::endian::write32le(batch.data() + pos + 12, size);
+  batch.insert(batch.end(), payload.begin(), payload.end());
+}
+
+TEST_CASE("DataLogTest AppendBatch", "[datalog][data-log]") {
+  std::vector<uint8_t> output;
+  wpi::log::DataLogWriter writer{
+      std::make_unique<wpi::util::raw_uvector_ostream>(output)};
+  int a = writer.Start("a", "raw", {}, 1);
+  int b = writer.Start("b", "raw", {}, 1);
+
+  std::vector<uint8_t> batch;
+  AddBatchRecord(batch, a, 100, 3, std::array<uint8_t, 3>{1, 2, 3});
+  // entry ids <= 0 are skipped
+  AddBatchRecord(batch, 0, 200, 1, std::array<uint8_t, 1>{9});
+  AddBatchRecord(batch, -1, 250, 0, {});
+  // a timestamp of 0 means now
+  AddBatchRecord(batch, b, 0, 1, std::array<uint8_t, 1>{4});
+  AddBatchRecord(batch, a, 300, 0, {});
+  // a truncated final record is dropped
+  AddBatchRecord(batch, a, 400, 10, std::array<uint8_t, 2>{5, 6});
+  writer.AppendBatch(batch);
+  writer.Flush();
+
+  wpi::log::DataLogReader reader{
+      wpi::util::MemoryBuffer::GetMemBufferCopy(output, "batch")};
+  REQUIRE(reader.IsValid());
+  std::vector<wpi::log::DataLogRecord> records;
+  for (const auto& record : reader) {
+    if (!record.IsControl()) {
+      records.push_back(record);
+    }
+  }
+  REQUIRE(records.size() == 3u);
+  CHECK(records[0].GetEntry() == a);
+  CHECK(records[0].GetTimestamp() == 100);
+  auto raw = records[0].GetRaw();
+  CHECK(std::vector<uint8_t>(raw.begin(), raw.end()) ==
+        std::vector<uint8_t>({1, 2, 3}));
+  CHECK(records[1].GetEntry() == b);
+  CHECK(records[1].GetTimestamp() > 0);
+  REQUIRE(records[1].GetSize() == 1u);
+  CHECK(records[1].GetRaw()[0] == 4);
+  CHECK(records[2].GetEntry() == a);
+  CHECK(records[2].GetTimestamp() == 300);
+  CHECK(records[2].GetSize() == 0u);
+}
+
+TEST_CASE("DataLogTest AppendBatchShortBuffer", "[datalog][data-log]") {
+  std::vector<uint8_t> output;
+  wpi::log::DataLogWriter writer{
+      std::make_unique<wpi::util::raw_uvector_ostream>(output)};
+  int a = writer.Start("a", "raw", {}, 1);
+
+  // too short to hold a record header
+  std::vector<uint8_t> batch;
+  AddBatchRecord(batch, a, 100, 0, {});
+  batch.resize(wpi::log::DataLog::kBatchHeaderSize - 1);
+  writer.AppendBatch(batch);
+  writer.AppendBatch({});
+  writer.Flush();
+
+  wpi::log::DataLogReader reader{
+      wpi::util::MemoryBuffer::GetMemBufferCopy(output, "short-batch")};
+  REQUIRE(reader.IsValid());
+  for (const auto& record : reader) {
+    CHECK(record.IsControl());
+  }
+}
@@ -0,0 +1,378 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.javacplugin;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import org.wpilib.annotation.GenerateStruct;
+
+/**
+ * Generates {@code Struct} implementations for records and enums annotated with {@link
+ * GenerateStruct}. The generated code reads and writes each field with straight-line ByteBuffer
+ * calls and invokes the record constructor directly, so it performs the same as a hand-written
+ * struct. The schema uses the same field types as {@code StructGenerator}.
+ */
+public class GenerateStructProcessor extends AbstractProcessor {
+  /** How to serialize one record component or enum field. */
+  private record Field(
+      String name,
+      String javaType,
+      String schemaType,
+      int size,
+      String getter,
+      String putter,
+      String nestedStruct) {
+    Field(String name, String javaType, String schemaType, int size, String getter, String putter) {
+      this(name, javaType, schemaType, size, getter, putter, null);
+    }
+
+    /** Struct-typed fields have no fixed schema type or size; they use a nested struct instead. */
+    boolean isNested() {
+      return nestedStruct != null;
+    }
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    return Set.of("org.wpilib.annotation.GenerateStruct");
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(GenerateStruct.class)) {
+      if (!(element instanceof TypeElement type)
+          || (type.getKind() != ElementKind.RECORD && type.getKind() != ElementKind.ENUM)) {
+        printError(element, "@GenerateStruct can only be used on records and enums");
+        continue;
+      }
+      if (type.getModifiers().contains(Modifier.PRIVATE)) {
+        printError(element, "@GenerateStruct types must not be private");
+        continue;
+      }
+
+      List<Field> fields = new ArrayList<>();
+      boolean ok = true;
+      if (type.getKind() == ElementKind.RECORD) {
+        for (RecordComponentElement component : type.getRecordComponents()) {
+          String name = component.getSimpleName().toString();
+          ok &= addField(fields, component, component.asType(), name, "value." + name + "()");
+        }
+      } else {
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+          if (field.getKind() == ElementKind.ENUM_CONSTANT
+              || field.getModifiers().contains(Modifier.STATIC)) {
+            continue;
+          }
+          if (field.getModifiers().contains(Modifier.PRIVATE)) {
+            printError(field, "@GenerateStruct enum fields must not be private");
+            ok = false;
+            continue;
+          }
+          String name = field.getSimpleName().toString();
+          ok &= addField(fields, field, field.asType(), name, "value." + name);
+        }
+      }
+      if (!ok) {
+        continue;
+      }
+
+      try {
+        writeStruct(type, fields);
+      } catch (IOException e) {
+        printError(element, "Could not write struct file: " + e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  private boolean addField(
+      List<Field> fields, Element element, TypeMirror type, String name, String accessor) {
+    String javaType = type.toString();
+    TypeMirror prim = type;
+    if (!type.getKind().isPrimitive() && type.getKind() == TypeKind.DECLARED) {
+      try {
+        prim = processingEnv.getTypeUtils().unboxedType(type);
+      } catch (IllegalArgumentException e) {
+        prim = type;
+      }
+    }
+    String put = "bb.put%s(" + accessor + ")";
+    Field field =
+        switch (prim.getKind()) {
+          case BOOLEAN ->
+              new Field(
+                  name,
+                  javaType,
+                  "bool",
+                  1,
+                  "bb.get() != 0",
+                  "bb.put((byte) (" + accessor + " ? 1 : 0))");
+          case BYTE -> new Field(name, javaType, "uint8", 1, "bb.get()", put.formatted(""));
+          // two bytes, matching the layout StructGenerator uses for char
+          case CHAR -> new Field(name, javaType, "char", 2, "bb.getChar()", put.formatted("Char"));
+          case SHORT ->
+              new Field(name, javaType, "int16", 2, "bb.getShort()", put.formatted("Short"));
+          case INT -> new Field(name, javaType, "int32", 4, "bb.getInt()", put.formatted("Int"));
+          case LONG -> new Field(name, javaType, "int64", 8, "bb.getLong()", put.formatted("Long"));
+          case FLOAT ->
+              new Field(name, javaType, "float32", 4, "bb.getFloat()", put.formatted("Float"));
+          case DOUBLE ->
+              new Field(name, javaType, "float64", 8, "bb.getDouble()", put.formatted("Double"));
+          case DECLARED -> nestedField(type, name, accessor);
+          default -> null;
+        };
+    if (field == null) {
+      printError(
+          element,
+          "Unsupported struct field type "
+              + javaType
+              + "; must be a primitive, a type with a static struct field, or a type annotated"
+              + " with @GenerateStruct");
+      return false;
+    }
+    fields.add(field);
+    return true;
+  }
+
+  private Field nestedField(TypeMirror type, String name, String accessor) {
+    TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+    String structExpr = null;
+    for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+      if (field.getSimpleName().contentEquals("struct")
+          && field.getModifiers().contains(Modifier.STATIC)
+          && !field.getModifiers().contains(Modifier.PRIVATE)) {
+        structExpr = element.getQualifiedName() + ".struct";
+        break;
+      }
+    }
+    if (structExpr == null && element.getAnnotation(GenerateStruct.class) != null) {
+      structExpr = "new " + structClassName(element) + "()";
+    }
+    if (structExpr == null) {
+      return null;
+    }
+    String structField = nestedStructField(name);
+    return new Field(
+        name,
+        element.getQualifiedName().toString(),
+        null,
+        0,
+        structField + ".unpack(bb)",
+        structField + ".pack(bb, " + accessor + ")",
+        structExpr);
+  }
+
+  private static String nestedStructField(String name) {
+    return "k_" + name + "Struct";
+  }
+
+  private static String localName(String name) {
+    return "f_" + name;
+  }
+
+  private static String packageName(TypeElement type) {
+    Element enclosing = type.getEnclosingElement();
+    while (!(enclosing instanceof PackageElement)) {
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return ((PackageElement) enclosing).getQualifiedName().toString();
+  }
+
+  /**
+   * Gets the fully qualified name of the struct class generated for a type, such as {@code
+   * "frc.robot.Outer_ModuleStateStruct"} for a record nested in {@code Outer}. The generated class
+   * is top-level, so the enclosing type names are joined with underscores, which unlike {@code $}
+   * may be used in source code.
+   */
+  private static String structClassName(TypeElement type) {
+    Deque<String> nesting = new ArrayDeque<>();
+    Element enclosing = type;
+    while (!(enclosing instanceof PackageElement)) {
+      nesting.addFirst(enclosing.getSimpleName().toString());
+      enclosing = enclosing.getEnclosingElement();
+    }
+    String packageName = ((PackageElement) enclosing).getQualifiedName().toString();
+    String className = String.join("_", nesting) + "Struct";
+    return packageName.isEmpty() ? className : packageName + "." + className;
+  }
+
+  private void writeStruct(TypeElement type, List<Field> fields) throws IOException {
+    String packageName = packageName(type);
+    String structClassName = structClassName(type);
+    String simpleClassName =
+        packageName.isEmpty()
+            ? structClassName
+            : structClassName.substring(packageName.length() + 1);
+    String typeName = type.getQualifiedName().toString();
+    String structName = type.getAnnotation(GenerateStruct.class).name();
+    if (structName.isEmpty()) {
+      structName = type.getSimpleName().toString();
+    }
+    boolean isEnum = type.getKind() == ElementKind.ENUM;
+
+    // schema and size are compile-time constants, except for the parts from nested structs
+    List<String> schemaParts = new ArrayList<>();
+    StringBuilder schema = new StringBuilder();
+    StringBuilder size = new StringBuilder();
+    int fixedSize = 0;
+    if (isEnum) {
+      schema.append("enum {");
+      int ordinal = 0;
+      for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        if (field.getKind() == ElementKind.ENUM_CONSTANT) {
+          if (ordinal != 0) {
+            schema.append(',');
+          }
+          schema.append(field.getSimpleName()).append('=').append(ordinal++);
+        }
+      }
+      schema.append("} int8 variant;");
+      fixedSize = 1;
+    }
+    for (Field field : fields) {
+      if (field.isNested()) {
+        if (!schema.isEmpty()) {
+          schemaParts.add(quote(schema.toString()));
+        }
+        schemaParts.add(nestedStructField(field.name) + ".getTypeName()");
+        schema.setLength(0);
+        schema.append(' ').append(field.name).append(';');
+        size.append(" + ").append(nestedStructField(field.name)).append(".getSize()");
+      } else {
+        schema.append(field.schemaType).append(' ').append(field.name).append(';');
+        fixedSize += field.size;
+      }
+    }
+    if (!schema.isEmpty() || schemaParts.isEmpty()) {
+      schemaParts.add(quote(schema.toString()));
+    }
+    String schemaExpr = String.join(" + ", schemaParts);
+
+    try (var out =
+        new PrintWriter(
+            processingEnv.getFiler().createSourceFile(structClassName, type).openWriter())) {
+      if (!packageName.isEmpty()) {
+        out.println("package " + packageName + ";");
+        out.println();
+      }
+      out.println("import java.nio.ByteBuffer;");
+      out.println("import org.wpilib.util.struct.Struct;");
+      out.println();
+      out.println("/** Struct serializer for {@link " + typeName + "}. */");
+      out.printf("public final class %s implements Struct<%s> {%n", simpleClassName, typeName);
+      for (Field field : fields) {
+        if (field.isNested()) {
+          out.printf(
+              "  private static final Struct<%s> %s = %s;%n",
+              field.javaType, nestedStructField(field.name), field.nestedStruct);
+        }
+      }
+      if (isEnum) {
+        out.printf("  private static final %s[] kValues = %s.values();%n", typeName, typeName);
+      }
+      out.printf("  private static final String kSchema = %s;%n", schemaExpr);
+      out.printf("  private static final int kSize = %d%s;%n", fixedSize, size);
+      out.println();
+
+      out.println("  @Override");
+      out.println("  public Class<" + typeName + "> getTypeClass() {");
+      out.println("    return " + typeName + ".class;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public String getTypeName() {");
+      out.println("    return " + quote(structName) + ";");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public int getSize() {");
+      out.println("    return kSize;");
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public String getSchema() {");
+      out.println("    return kSchema;");
+      out.println("  }");
+      out.println();
+
+      List<String> nested =
+          fields.stream().filter(Field::isNested).map(f -> nestedStructField(f.name)).toList();
+      if (!nested.isEmpty()) {
+        out.println("  @Override");
+        out.println("  public Struct<?>[] getNested() {");
+        out.println("    return new Struct<?>[] {" + String.join(", ", nested) + "};");
+        out.println("  }");
+        out.println();
+      }
+
+      out.println("  @Override");
+      out.println("  public " + typeName + " unpack(ByteBuffer bb) {");
+      if (isEnum) {
+        out.println("    int ordinal = bb.get();");
+        out.println("    bb.position(bb.position() + kSize - 1);");
+        out.println(
+            "    return ordinal >= 0 && ordinal < kValues.length ? kValues[ordinal] : null;");
+      } else {
+        // locals are prefixed so components named e.g. bb or kSize don't shadow generated names
+        for (Field field : fields) {
+          out.printf("    %s %s = %s;%n", field.javaType, localName(field.name), field.getter);
+        }
+        String args = String.join(", ", fields.stream().map(f -> localName(f.name)).toList());
+        out.println("    return new " + typeName + "(" + args + ");");
+      }
+      out.println("  }");
+      out.println();
+
+      out.println("  @Override");
+      out.println("  public void pack(ByteBuffer bb, " + typeName + " value) {");
+      if (isEnum) {
+        out.println("    bb.put((byte) value.ordinal());");
+      }
+      for (Field field : fields) {
+        out.println("    " + field.putter + ";");
+      }
+      out.println("  }");
+      out.println();
+      out.println("  @Override");
+      out.println("  public boolean isImmutable() {");
+      out.println("    return true;");
+      out.println("  }");
+      out.println("}");
+    }
+  }
+
+  private static String quote(String str) {
+    return "\"" + str.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private void printError(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -0,0 +1,289 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.javacplugin;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.wpilib.javacplugin.CompileTestUtils.kJavaVersionOptions;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.struct.Struct;
+import org.wpilib.util.struct.StructGenerator;
+
+class GenerateStructProcessorTest {
+  @Test
+  void record() {
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+
+        class Example {
+          @GenerateStruct
+          record Inner(int a, boolean b) {}
+
+          @GenerateStruct(name = "Outer")
+          record Outer(double x, Float y, Inner inner) {
+            public static final Example_OuterStruct struct = new Example_OuterStruct();
+          }
+        }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation).generatedSourceFile("frc.robot.Example_InnerStruct");
+    assertThat(compilation)
+        .generatedSourceFile("frc.robot.Example_OuterStruct")
+        .contentsAsUtf8String()
+        .contains(
+            "kSchema = \"float64 x;float32 y;\" + k_innerStruct.getTypeName() + \" inner;\";");
+  }
+
+  @Test
+  void roundTripMatchesStructGenerator() throws ReflectiveOperationException, IOException {
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+        import org.wpilib.util.struct.StructSerializable;
+
+        public class Example {
+          @GenerateStruct
+          public record Inner(int a, boolean b, char c) implements StructSerializable {
+            public static final Example_InnerStruct struct = new Example_InnerStruct();
+          }
+
+          @GenerateStruct
+          public enum Mode implements StructSerializable {
+            A, B, C;
+
+            public static final Example_ModeStruct struct = new Example_ModeStruct();
+          }
+
+          @GenerateStruct
+          public record Outer(
+              double x, Float y, short s, long l, byte u, Inner inner, Mode mode) {}
+        }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+    assertThat(compilation).succeededWithoutWarnings();
+
+    ClassLoader loader = loadClasses(compilation);
+    Class<?> innerClass = loader.loadClass("frc.robot.Example$Inner");
+    Class<?> modeClass = loader.loadClass("frc.robot.Example$Mode");
+    @SuppressWarnings("unchecked")
+    Class<Record> outerClass = (Class<Record>) loader.loadClass("frc.robot.Example$Outer");
+    Object inner =
+        innerClass.getConstructor(int.class, boolean.class, char.class).newInstance(-3, true, 'q');
+    Record value =
+        outerClass
+            .getConstructor(
+                double.class,
+                Float.class,
+                short.class,
+                long.class,
+                byte.class,
+                innerClass,
+                modeClass)
+            .newInstance(
+                1.5, 2.5f, (short) -4, 1L << 40, (byte) 7, inner, modeClass.getEnumConstants()[2]);
+
+    @SuppressWarnings("unchecked")
+    Struct<Record> generated =
+        (Struct<Record>)
+            loader.loadClass("frc.robot.Example_OuterStruct").getConstructor().newInstance();
+    Struct<Record> reflected = StructGenerator.genRecord(outerClass);
+    assertEquals(reflected.getTypeName(), generated.getTypeName());
+    assertEquals(reflected.getSchema(), generated.getSchema());
+    assertEquals(reflected.getSize(), generated.getSize());
+
+    ByteBuffer generatedBuf =
+        ByteBuffer.allocate(generated.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    generated.pack(generatedBuf, value);
+    ByteBuffer reflectedBuf =
+        ByteBuffer.allocate(reflected.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    reflected.pack(reflectedBuf, value);
+    assertArrayEquals(reflectedBuf.array(), generatedBuf.array());
+
+    assertEquals(value, generated.unpack(reflectedBuf.rewind()));
+    assertEquals(value, reflected.unpack(generatedBuf.rewind()));
+  }
+
+  @Test
+  void componentNamesMatchingGeneratedNames() throws ReflectiveOperationException, IOException {
+    // component names that are also names used by the generated code
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+
+        public class Example {
+          @GenerateStruct
+          public record Names(int bb, double value, short kSize, byte kSchema, long frc) {}
+        }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+    assertThat(compilation).succeededWithoutWarnings();
+
+    ClassLoader loader = loadClasses(compilation);
+    @SuppressWarnings("unchecked")
+    Class<Record> namesClass = (Class<Record>) loader.loadClass("frc.robot.Example$Names");
+    Record value =
+        namesClass
+            .getConstructor(int.class, double.class, short.class, byte.class, long.class)
+            .newInstance(1, 2.5, (short) 3, (byte) 4, 5L);
+    @SuppressWarnings("unchecked")
+    Struct<Record> generated =
+        (Struct<Record>)
+            loader.loadClass("frc.robot.Example_NamesStruct").getConstructor().newInstance();
+    assertEquals(
+        "int32 bb;float64 value;int16 kSize;uint8 kSchema;int64 frc;", generated.getSchema());
+    assertEquals(23, generated.getSize());
+
+    ByteBuffer buf = ByteBuffer.allocate(generated.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    generated.pack(buf, value);
+    assertEquals(value, generated.unpack(buf.rewind()));
+  }
+
+  // loads the classes compiled by a test compilation
+  private static ClassLoader loadClasses(Compilation compilation) throws IOException {
+    Map<String, byte[]> classes = new HashMap<>();
+    for (JavaFileObject file : compilation.generatedFiles()) {
+      if (file.getKind() == JavaFileObject.Kind.CLASS) {
+        String path = file.toUri().getPath();
+        String name =
+            path.substring(path.indexOf("/CLASS_OUTPUT/") + 14, path.length() - 6)
+                .replace('/', '.');
+        try (InputStream in = file.openInputStream()) {
+          classes.put(name, in.readAllBytes());
+        }
+      }
+    }
+    return new ClassLoader(GenerateStructProcessorTest.class.getClassLoader()) {
+      @Override
+      protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classes.get(name);
+        if (bytes == null) {
+          throw new ClassNotFoundException(name);
+        }
+        return defineClass(name, bytes, 0, bytes.length);
+      }
+    };
+  }
+
+  @Test
+  void enumWithFields() {
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+
+        @GenerateStruct
+        enum Example {
+          A(1), B(2);
+
+          final int value;
+
+          Example(int value) {
+            this.value = value;
+          }
+        }
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+
+    assertThat(compilation).succeededWithoutWarnings();
+    assertThat(compilation)
+        .generatedSourceFile("frc.robot.ExampleStruct")
+        .contentsAsUtf8String()
+        .contains("kSchema = \"enum {A=0,B=1} int8 variant;int32 value;\"");
+  }
+
+  @Test
+  void unsupportedComponent() {
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+
+        @GenerateStruct
+        record Example(String name) {}
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+
+    assertThat(compilation).failed();
+    assertEquals(1, compilation.errors().size());
+    var error = compilation.errors().get(0);
+    assertEquals(
+        "Unsupported struct field type java.lang.String; must be a primitive, a type with a "
+            + "static struct field, or a type annotated with @GenerateStruct",
+        error.getMessage(null));
+  }
+
+  @Test
+  void notRecord() {
+    String source =
+        """
+        package frc.robot;
+
+        import org.wpilib.annotation.GenerateStruct;
+
+        @GenerateStruct
+        class Example {}
+      """;
+
+    Compilation compilation =
+        javac()
+            .withOptions(kJavaVersionOptions)
+            .withProcessors(new GenerateStructProcessor())
+            .compile(JavaFileObjects.forSourceString("frc.robot.Example", source));
+
+    assertThat(compilation).failed();
+    assertEquals(1, compilation.errors().size());
+    assertEquals(
+        "@GenerateStruct can only be used on records and enums",
+        compilation.errors().get(0).getMessage(null));
+  }
+}
@@ -45,6 +45,16 @@ public interface BooleanArrayPublisher extends Publisher, Consumer<boolean[]> {
    */
   void setDefault(boolean[] value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, boolean[] value) {
+    batch.setBooleanArray(getHandle(), value);
+  }
+
   @Override
   default void accept(boolean[] value) {
     set(value);
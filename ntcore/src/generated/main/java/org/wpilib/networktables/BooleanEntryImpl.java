@@ -56,6 +56,11 @@ final class BooleanEntryImpl extends EntryBase implements BooleanEntry {
     return NetworkTablesJNI.readQueueValuesBoolean(m_handle);
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, boolean[] values) {
+    return NetworkTablesJNI.readQueueIntoBoolean(m_handle, timestamps, values);
+  }
+
   @Override
   public void set(boolean value, long time) {
     NetworkTablesJNI.setBoolean(m_handle, time, value);
@@ -81,4 +81,30 @@ public interface BooleanSubscriber extends Subscriber, BooleanSupplier {
    *     published since the previous call.
    */
   boolean[] readQueueValues();
+
+  /**
+   * Read value changes since the last call to readQueue into caller-provided arrays, oldest
+   * first, without allocating. Reads at most as many values as fit in both arrays; any remaining
+   * values stay queued for the next call.
+   *
+   * <p>The "poll storage" subscribe option can be used to set the queue
+   * depth.
+   *
+   * <p>The default implementation calls {@link #readQueue()} and copies from its result, so it
+   * allocates, and values that don't fit are discarded rather than left queued. The subscribers
+   * returned by {@link BooleanTopic} override it to read directly into the arrays.
+   *
+   * @param timestamps Array to fill with the timestamp of each value
+   * @param values Array to fill with values
+   * @return Number of values read
+   */
+  default int readQueueInto(long[] timestamps, boolean[] values) {
+    TimestampedBoolean[] queue = readQueue();
+    int count = Math.min(queue.length, Math.min(timestamps.length, values.length));
+    for (int i = 0; i < count; i++) {
+      timestamps[i] = queue[i].timestamp;
+      values[i] = queue[i].value;
+    }
+    return count;
+  }
 }
@@ -45,6 +45,16 @@ public interface DoubleArrayPublisher extends Publisher, Consumer<double[]> {
    */
   void setDefault(double[] value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, double[] value) {
+    batch.setDoubleArray(getHandle(), value);
+  }
+
   @Override
   default void accept(double[] value) {
     set(value);
@@ -56,6 +56,11 @@ final class DoubleEntryImpl extends EntryBase implements DoubleEntry {
     return NetworkTablesJNI.readQueueValuesDouble(m_handle);
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, double[] values) {
+    return NetworkTablesJNI.readQueueIntoDouble(m_handle, timestamps, values);
+  }
+
   @Override
   public void set(double value, long time) {
     NetworkTablesJNI.setDouble(m_handle, time, value);
@@ -45,6 +45,16 @@ public interface FloatArrayPublisher extends Publisher, Consumer<float[]> {
    */
   void setDefault(float[] value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, float[] value) {
+    batch.setFloatArray(getHandle(), value);
+  }
+
   @Override
   default void accept(float[] value) {
     set(value);
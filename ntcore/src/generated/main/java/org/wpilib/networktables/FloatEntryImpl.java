@@ -56,6 +56,11 @@ final class FloatEntryImpl extends EntryBase implements FloatEntry {
     return NetworkTablesJNI.readQueueValuesFloat(m_handle);
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, float[] values) {
+    return NetworkTablesJNI.readQueueIntoFloat(m_handle, timestamps, values);
+  }
+
   @Override
   public void set(float value, long time) {
     NetworkTablesJNI.setFloat(m_handle, time, value);
@@ -45,6 +45,16 @@ public interface FloatPublisher extends Publisher, FloatConsumer {
    */
   void setDefault(float value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, float value) {
+    batch.setFloat(getHandle(), value);
+  }
+
   @Override
   default void accept(float value) {
     set(value);
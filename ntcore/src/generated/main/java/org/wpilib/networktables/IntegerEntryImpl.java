@@ -56,6 +56,11 @@ final class IntegerEntryImpl extends EntryBase implements IntegerEntry {
     return NetworkTablesJNI.readQueueValuesInteger(m_handle);
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, long[] values) {
+    return NetworkTablesJNI.readQueueIntoInteger(m_handle, timestamps, values);
+  }
+
   @Override
   public void set(long value, long time) {
     NetworkTablesJNI.setInteger(m_handle, time, value);
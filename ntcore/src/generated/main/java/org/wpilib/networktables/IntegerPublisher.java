@@ -45,6 +45,16 @@ public interface IntegerPublisher extends Publisher, LongConsumer {
    */
   void setDefault(long value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, long value) {
+    batch.setInteger(getHandle(), value);
+  }
+
   @Override
   default void accept(long value) {
     set(value);
@@ -1501,6 +1501,35 @@ public final class NetworkTableInstance implements AutoCloseable {
     NetworkTablesJNI.stopDSClient(m_handle);
   }
 
+  /**
+   * Publishes all values staged in a batch in a single operation and clears the batch. All of the
+   * values get the same timestamp, and local subscribers never observe a partially applied batch.
+   *
+   * @param batch batch of staged values
+   * @param time timestamp; 0 indicates current NT time should be used
+   * @return Number of values successfully published
+   * @throws IllegalArgumentException if a staged value does not match its publisher, or a
+   *     publisher belongs to a different instance
+   */
+  public int publishBatch(PublishBatch batch, long time) {
+    int count = NetworkTablesJNI.setBatch(m_handle, batch.getBuffer(), batch.getSize(), time);
+    batch.clear();
+    return count;
+  }
+
+  /**
+   * Publishes all values staged in a batch in a single operation using current NT time and clears
+   * the batch. Local subscribers never observe a partially applied batch.
+   *
+   * @param batch batch of staged values
+   * @return Number of values successfully published
+   * @throws IllegalArgumentException if a staged value does not match its publisher, or a
+   *     publisher belongs to a different instance
+   */
+  public int publishBatch(PublishBatch batch) {
+    return publishBatch(batch, 0);
+  }
+
   /**
    * Flushes all updated values immediately to the local client/server. This does not flush to the
    * network.
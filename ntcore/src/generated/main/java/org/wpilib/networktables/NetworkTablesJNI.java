@@ -161,6 +161,16 @@ public final class NetworkTablesJNI {
    */
   public static native long getEntryLastChange(int entry);
 
+  /**
+   * Returns the current raw value of a subscriber if the topic's value has been replaced since
+   * the value with the given sequence number.
+   *
+   * @param subentry NT subscriber or entry handle.
+   * @param sequence Sequence number of the last value seen, or -1 for none.
+   * @return Value with its sequence number, or null if unchanged or the handle is invalid.
+   */
+  static native SequencedRaw getAtomicRawIfChanged(int subentry, long sequence);
+
   /**
    * Returns NT entry type.
    *
@@ -1251,6 +1261,94 @@ public final class NetworkTablesJNI {
    */
   public static native NetworkTableValue[] readQueueValue(int subentry);
 
+  /**
+   * Reads queued boolean topic values into caller-provided arrays, oldest first. Reads at most as
+   * many values as fit in both arrays; any remaining values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param values Array to fill with values.
+   * @return Number of values read.
+   */
+  public static native int readQueueIntoBoolean(int subentry, long[] timestamps, boolean[] values);
+
+  /**
+   * Reads queued integer topic values into caller-provided arrays, oldest first. Reads at most as
+   * many values as fit in both arrays; any remaining values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param values Array to fill with values.
+   * @return Number of values read.
+   */
+  public static native int readQueueIntoInteger(int subentry, long[] timestamps, long[] values);
+
+  /**
+   * Reads queued float topic values into caller-provided arrays, oldest first. Reads at most as
+   * many values as fit in both arrays; any remaining values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param values Array to fill with values.
+   * @return Number of values read.
+   */
+  public static native int readQueueIntoFloat(int subentry, long[] timestamps, float[] values);
+
+  /**
+   * Reads queued double topic values into caller-provided arrays, oldest first. Reads at most as
+   * many values as fit in both arrays; any remaining values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param values Array to fill with values.
+   * @return Number of values read.
+   */
+  public static native int readQueueIntoDouble(int subentry, long[] timestamps, double[] values);
+
+  /**
+   * Reads queued raw topic values into caller-provided arrays, oldest first. The values are stored
+   * back to back in data. Reads at most as many values as fit in all three arrays; any remaining
+   * values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param sizes Array to fill with the size of each value.
+   * @param data Array to fill with value contents.
+   * @return Number of values read.
+   */
+  public static native int readQueueIntoRaw(
+      int subentry, long[] timestamps, int[] sizes, byte[] data);
+
+  /**
+   * Reads queued fixed-size raw topic values into a caller-provided buffer, oldest first. The
+   * values are stored back to back starting at index 0. Queued values that are not exactly size
+   * bytes long are discarded. Reads at most as many values as fit in timestamps and in the first
+   * len bytes of data; any remaining values stay queued.
+   *
+   * @param subentry Subentry handle.
+   * @param timestamps Array to fill with value timestamps.
+   * @param data Buffer to fill with value contents.
+   * @param len Number of bytes of data available.
+   * @param size Size of each value in bytes.
+   * @return Number of values read.
+   */
+  public static int readQueueIntoRaw(
+      int subentry, long[] timestamps, ByteBuffer data, int len, int size) {
+    if (len < 0) {
+      throw new IndexOutOfBoundsException("len must be >= 0");
+    }
+    if (len > data.capacity()) {
+      throw new IndexOutOfBoundsException("len must be within buffer capacity");
+    }
+    if (!data.isDirect()) {
+      throw new UnsupportedOperationException("ByteBuffer must be direct");
+    }
+    return readQueueIntoRawBuffer(subentry, timestamps, data, len, size);
+  }
+
+  private static native int readQueueIntoRawBuffer(
+      int subentry, long[] timestamps, ByteBuffer data, int len, int size);
+
   /**
    * Returns entry's NT value.
    *
@@ -1259,6 +1357,58 @@ public final class NetworkTablesJNI {
    */
   public static native NetworkTableValue getValue(int entry);
 
+  /**
+   * Sets the values of multiple publishers in a single operation. See {@link PublishBatch} for the
+   * batch format.
+   *
+   * @param inst Instance handle.
+   * @param data Byte array containing the batch.
+   * @param len Length of the batch.
+   * @param time Time in microseconds for all values; 0 indicates current NT time should be used.
+   * @return Number of values successfully set.
+   */
+  public static native int setBatch(int inst, byte[] data, int len, long time);
+
+  /**
+   * Sets the values of multiple publishers in a single operation. See {@link PublishBatch} for the
+   * batch format.
+   *
+   * @param inst Instance handle.
+   * @param data Buffer containing the batch, starting at position 0.
+   * @param len Length of the batch.
+   * @param time Time in microseconds for all values; 0 indicates current NT time should be used.
+   * @return Number of values successfully set.
+   */
+  public static int setBatch(int inst, ByteBuffer data, int len, long time) {
+    if (len < 0) {
+      throw new IndexOutOfBoundsException("len must be >= 0");
+    }
+    if (len > data.capacity()) {
+      throw new IndexOutOfBoundsException("len must be within buffer capacity");
+    }
+    if (data.isDirect()) {
+      return setBatchBuffer(inst, data, len, time);
+    } else if (data.hasArray()) {
+      if (data.arrayOffset() != 0) {
+        throw new UnsupportedOperationException("ByteBuffer must not have an array offset");
+      }
+      return setBatch(inst, data.array(), len, time);
+    } else {
+      throw new UnsupportedOperationException("ByteBuffer must be direct or have a backing array");
+    }
+  }
+
+  /**
+   * Sets the values of multiple publishers in a single operation.
+   *
+   * @param inst Instance handle.
+   * @param data Native buffer containing the batch, starting at position 0.
+   * @param len Length of the batch.
+   * @param time Time in microseconds for all values; 0 indicates current NT time should be used.
+   * @return Number of values successfully set.
+   */
+  private static native int setBatchBuffer(int inst, ByteBuffer data, int len, long time);
+
   /**
    * Sets entry flags.
    *
@@ -58,6 +58,11 @@ final class RawEntryImpl extends EntryBase implements RawEntry {
     return NetworkTablesJNI.readQueueValuesRaw(m_handle);
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, int[] sizes, byte[] data) {
+    return NetworkTablesJNI.readQueueIntoRaw(m_handle, timestamps, sizes, data);
+  }
+
   @Override
   public void set(byte[] value, int start, int len, long time) {
     NetworkTablesJNI.setRaw(m_handle, time, value, start, len);
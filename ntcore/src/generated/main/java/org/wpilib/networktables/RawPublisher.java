@@ -147,6 +147,16 @@ public interface RawPublisher extends Publisher, Consumer<byte[]> {
    */
   void setDefault(ByteBuffer value, int start, int len);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, byte[] value) {
+    batch.setRaw(getHandle(), value);
+  }
+
   @Override
   default void accept(byte[] value) {
     set(value);
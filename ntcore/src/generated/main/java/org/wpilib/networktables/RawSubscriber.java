@@ -76,4 +76,39 @@ public interface RawSubscriber extends Subscriber, Supplier<byte[]> {
    *     published since the previous call.
    */
   byte[][] readQueueValues();
+
+  /**
+   * Read value changes since the last call to readQueue into caller-provided arrays, oldest
+   * first, without allocating. The values are stored back to back in data. Reads at most as many
+   * values as fit in all three arrays; any remaining values stay queued for the next call.
+   *
+   * <p>The "poll storage" subscribe option can be used to set the queue
+   * depth.
+   *
+   * <p>The default implementation calls {@link #readQueue()} and copies from its result, so it
+   * allocates, and values that don't fit are discarded rather than left queued. The subscribers
+   * returned by {@link RawTopic} override it to read directly into the arrays.
+   *
+   * @param timestamps Array to fill with the timestamp of each value
+   * @param sizes Array to fill with the size of each value
+   * @param data Array to fill with value contents
+   * @return Number of values read
+   */
+  default int readQueueInto(long[] timestamps, int[] sizes, byte[] data) {
+    TimestampedRaw[] queue = readQueue();
+    int max = Math.min(queue.length, Math.min(timestamps.length, sizes.length));
+    int count = 0;
+    int pos = 0;
+    for (; count < max; count++) {
+      byte[] value = queue[count].value;
+      if (value.length > data.length - pos) {
+        break;
+      }
+      System.arraycopy(value, 0, data, pos, value.length);
+      pos += value.length;
+      timestamps[count] = queue[count].timestamp;
+      sizes[count] = value.length;
+    }
+    return count;
+  }
 }
@@ -45,6 +45,16 @@ public interface StringPublisher extends Publisher, Consumer<String> {
    */
   void setDefault(String value);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, String value) {
+    batch.setString(getHandle(), value);
+  }
+
   @Override
   default void accept(String value) {
     set(value);
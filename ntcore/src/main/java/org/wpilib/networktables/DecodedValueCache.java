@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import java.util.function.Function;
+
+/**
+ * Memoizes the most recent raw value of a struct or protobuf subscriber and the object decoded
+ * from it, keyed by the topic's value sequence number. Each read makes a single JNI call, which
+ * only copies the raw value if the topic's value has been replaced since the cached one; while
+ * it hasn't, immutable types also skip decoding it.
+ *
+ * <p>The sequence number changes every time a value is set, so a new value is picked up even if
+ * it was published with the same timestamp as the cached one.
+ *
+ * <p>This class is thread-safe.
+ *
+ * @param <T> value class
+ */
+final class DecodedValueCache<T> {
+  // no sequence number is negative, so the first read always fetches the value
+  private static final SequencedRaw kNoValue = new SequencedRaw(-1, 0, 0, new byte[] {});
+
+  // decoded is only kept for immutable types, as callers may modify mutable objects
+  private record Entry<T>(SequencedRaw raw, TimestampedObject<T> decoded) {}
+
+  private final boolean m_immutable;
+  private final Function<byte[], T> m_decoder;
+  private volatile Entry<T> m_entry = new Entry<>(kNoValue, null);
+
+  /**
+   * Constructor.
+   *
+   * @param immutable true if decoded objects are immutable and may be shared between callers
+   * @param decoder decodes a raw value; returns null if the value cannot be decoded
+   */
+  DecodedValueCache(boolean immutable, Function<byte[], T> decoder) {
+    m_immutable = immutable;
+    m_decoder = decoder;
+  }
+
+  /**
+   * Gets the current value of a subscriber, decoded.
+   *
+   * @param subentry Subscriber or entry handle
+   * @return Timestamped decoded value, or null if no value has been published or the value cannot
+   *     be decoded
+   */
+  TimestampedObject<T> get(int subentry) {
+    Entry<T> entry = update(subentry);
+    if (entry.decoded() != null) {
+      return entry.decoded();
+    }
+    if (entry.raw().value.length == 0) {
+      return null;
+    }
+    TimestampedObject<T> decoded = decode(entry.raw());
+    if (decoded != null && m_immutable) {
+      m_entry = new Entry<>(entry.raw(), decoded);
+    }
+    return decoded;
+  }
+
+  /**
+   * Gets the current raw value of a subscriber.
+   *
+   * @param subentry Subscriber or entry handle
+   * @return Raw value; empty if no value has been published. Must not be modified.
+   */
+  byte[] getRaw(int subentry) {
+    return update(subentry).raw().value;
+  }
+
+  private Entry<T> update(int subentry) {
+    Entry<T> entry = m_entry;
+    SequencedRaw raw = NetworkTablesJNI.getAtomicRawIfChanged(subentry, entry.raw().sequence);
+    if (raw == null) {
+      return entry;
+    }
+    entry = new Entry<>(raw, null);
+    m_entry = entry;
+    return entry;
+  }
+
+  private TimestampedObject<T> decode(SequencedRaw raw) {
+    T value = m_decoder.apply(raw.value);
+    if (value == null) {
+      return null;
+    }
+    return new TimestampedObject<>(raw.timestamp, raw.serverTime, value);
+  }
+}
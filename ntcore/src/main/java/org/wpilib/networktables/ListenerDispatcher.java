@@ -0,0 +1,424 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.wpilib.util.ErrorMessages;
+
+/**
+ * Runs listener callbacks off the shared NetworkTables listener thread. Normally all listener
+ * callbacks of an instance run one at a time on a single thread, so one slow callback delays every
+ * other listener. Wrapping a callback with {@link #wrap(Consumer)} instead queues its events in
+ * the dispatcher and runs the callback on a virtual thread, so the listener thread returns
+ * immediately.
+ *
+ * <pre>{@code
+ * ListenerDispatcher dispatcher =
+ *     ListenerDispatcher.perTopic(4, ListenerDispatcher.OverflowPolicy.COALESCE_LATEST);
+ * NetworkTableListener.createListener(
+ *     visionTopic, EnumSet.of(Kind.VALUE_ALL), dispatcher.wrap(this::onVision));
+ * }</pre>
+ *
+ * <p>Queued events are held in bounded queues. A {@link #perTopic perTopic} dispatcher has a
+ * queue per topic, each drained by its own virtual thread, so a high-frequency topic can't delay
+ * callbacks for other topics; a {@link #singleQueue singleQueue} dispatcher runs all its callbacks
+ * in order from one queue. When a queue is full, the {@link OverflowPolicy} decides which event is
+ * dropped. Listeners that must never be delayed by others should use their own dispatcher.
+ *
+ * <p>The dispatcher keeps counts of submitted, executed, dropped, and coalesced events and of the
+ * queue depth, so backpressure can be monitored.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class ListenerDispatcher implements AutoCloseable {
+  /** What to do with an event that arrives while events for the same queue are pending. */
+  public enum OverflowPolicy {
+    /** If the queue is full, drop the oldest queued event to make room for the new event. */
+    DROP_OLDEST,
+
+    /**
+     * Replace a queued value event for the same topic and callback with the new event, keeping its
+     * place in the queue, so only the latest value is delivered. Otherwise behaves like
+     * DROP_OLDEST.
+     */
+    COALESCE_LATEST
+  }
+
+  private record Pending(Consumer<NetworkTableEvent> listener, NetworkTableEvent event) {}
+
+  // bounded ring of pending events, drained by at most one thread at a time
+  private static final class Lane {
+    final int m_key;
+    final Pending[] m_ring;
+    int m_head;
+    int m_count;
+    boolean m_running;
+
+    Lane(int key, int capacity) {
+      m_key = key;
+      m_ring = new Pending[capacity];
+    }
+  }
+
+  private final boolean m_perTopic;
+  private final int m_capacity;
+  private final OverflowPolicy m_policy;
+
+  private final ReentrantLock m_lock = new ReentrantLock();
+  private final Condition m_idleCond = m_lock.newCondition();
+  private final Map<Integer, Lane> m_lanes = new HashMap<>();
+  private int m_running;
+  private boolean m_closed;
+
+  private int m_depth;
+  private int m_maxDepth;
+  private long m_submitted;
+  private long m_executed;
+  private long m_dropped;
+  private long m_coalesced;
+  private long m_failed;
+
+  private ListenerDispatcher(boolean perTopic, int capacity, OverflowPolicy policy) {
+    ErrorMessages.requireNonNullParam(policy, "policy", "ListenerDispatcher");
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    m_perTopic = perTopic;
+    m_capacity = capacity;
+    m_policy = policy;
+  }
+
+  /**
+   * Creates a dispatcher with a queue and virtual thread per topic. Callbacks for the same topic
+   * run in order; callbacks for different topics run concurrently. Events that aren't about a
+   * topic (connection, log message, and time sync events) share one queue.
+   *
+   * @param capacity maximum number of queued events per topic
+   * @param policy what to do when a topic's queue is full
+   * @return Dispatcher
+   */
+  public static ListenerDispatcher perTopic(int capacity, OverflowPolicy policy) {
+    return new ListenerDispatcher(true, capacity, policy);
+  }
+
+  /**
+   * Creates a dispatcher with a single queue. All callbacks run in order on a virtual thread.
+   *
+   * @param capacity maximum number of queued events
+   * @param policy what to do when the queue is full
+   * @return Dispatcher
+   */
+  public static ListenerDispatcher singleQueue(int capacity, OverflowPolicy policy) {
+    return new ListenerDispatcher(false, capacity, policy);
+  }
+
+  /**
+   * Wraps a listener callback so that it runs on this dispatcher. The returned callback can be
+   * passed to any of the NetworkTableListener and NetworkTableInstance methods that add listeners.
+   *
+   * @param listener Listener function
+   * @return Listener function that queues events to this dispatcher
+   */
+  public Consumer<NetworkTableEvent> wrap(Consumer<NetworkTableEvent> listener) {
+    ErrorMessages.requireNonNullParam(listener, "listener", "wrap");
+    return event -> submit(listener, event);
+  }
+
+  /**
+   * Waits until all queued events have been processed and no callbacks are running.
+   *
+   * @param timeout timeout, in seconds. Set to 0 for non-blocking behavior, or a negative value to
+   *     block indefinitely
+   * @return False if timed out, otherwise true.
+   */
+  public boolean waitForIdle(double timeout) {
+    m_lock.lock();
+    try {
+      long remaining = (long) (timeout * 1e9);
+      while (m_depth > 0 || m_running > 0) {
+        if (timeout < 0) {
+          m_idleCond.await();
+        } else if (remaining <= 0) {
+          return false;
+        } else {
+          remaining = m_idleCond.awaitNanos(remaining);
+        }
+      }
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of events passed to wrapped callbacks.
+   *
+   * @return number of submitted events
+   */
+  public long getSubmitted() {
+    m_lock.lock();
+    try {
+      return m_submitted;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of callbacks that have been run.
+   *
+   * @return number of executed events
+   */
+  public long getExecuted() {
+    m_lock.lock();
+    try {
+      return m_executed;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of events dropped because their queue was full, or because the dispatcher was
+   * closed.
+   *
+   * @return number of dropped events
+   */
+  public long getDropped() {
+    m_lock.lock();
+    try {
+      return m_dropped;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of queued events replaced by a newer event with {@link
+   * OverflowPolicy#COALESCE_LATEST}.
+   *
+   * @return number of coalesced events
+   */
+  public long getCoalesced() {
+    m_lock.lock();
+    try {
+      return m_coalesced;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of callbacks that threw an exception.
+   *
+   * @return number of failed callbacks
+   */
+  public long getFailed() {
+    m_lock.lock();
+    try {
+      return m_failed;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of events currently queued, summed over all queues.
+   *
+   * @return queue depth
+   */
+  public int getQueueDepth() {
+    m_lock.lock();
+    try {
+      return m_depth;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the largest number of events that have been queued at once, summed over all queues.
+   *
+   * @return maximum queue depth
+   */
+  public int getMaxQueueDepth() {
+    m_lock.lock();
+    try {
+      return m_maxDepth;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Discards all queued events. Events submitted afterwards are dropped. Callbacks that are
+   * already running are not interrupted.
+   */
+  @Override
+  public void close() {
+    m_lock.lock();
+    try {
+      m_closed = true;
+      for (Lane lane : m_lanes.values()) {
+        m_dropped += lane.m_count;
+        Arrays.fill(lane.m_ring, null);
+        lane.m_count = 0;
+      }
+      m_depth = 0;
+      m_idleCond.signalAll();
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    m_lock.lock();
+    try {
+      return "ListenerDispatcher["
+          + (m_perTopic ? "perTopic" : "singleQueue")
+          + ", "
+          + m_policy
+          + ": submitted="
+          + m_submitted
+          + ", executed="
+          + m_executed
+          + ", dropped="
+          + m_dropped
+          + ", coalesced="
+          + m_coalesced
+          + ", failed="
+          + m_failed
+          + ", depth="
+          + m_depth
+          + ", maxDepth="
+          + m_maxDepth
+          + "]";
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  private static int getTopic(NetworkTableEvent event) {
+    if (event.valueData != null) {
+      return event.valueData.topic;
+    } else if (event.topicInfo != null) {
+      return event.topicInfo.topic;
+    } else {
+      return 0;
+    }
+  }
+
+  private void submit(Consumer<NetworkTableEvent> listener, NetworkTableEvent event) {
+    Lane start = null;
+    m_lock.lock();
+    try {
+      m_submitted++;
+      if (m_closed) {
+        m_dropped++;
+        return;
+      }
+      int key = m_perTopic ? getTopic(event) : 0;
+      Lane lane = m_lanes.computeIfAbsent(key, k -> new Lane(k, m_capacity));
+      if (!coalesce(lane, listener, event)) {
+        if (lane.m_count == m_capacity) {
+          lane.m_ring[lane.m_head] = null;
+          lane.m_head = (lane.m_head + 1) % m_capacity;
+          lane.m_count--;
+          m_depth--;
+          m_dropped++;
+        }
+        lane.m_ring[(lane.m_head + lane.m_count) % m_capacity] = new Pending(listener, event);
+        lane.m_count++;
+        m_depth++;
+        m_maxDepth = Math.max(m_maxDepth, m_depth);
+      }
+      if (!lane.m_running) {
+        lane.m_running = true;
+        m_running++;
+        start = lane;
+      }
+    } finally {
+      m_lock.unlock();
+    }
+    if (start != null) {
+      Lane lane = start;
+      Thread.ofVirtual().name("NTListenerDispatch").start(() -> drain(lane));
+    }
+  }
+
+  // replaces a queued value event for the same topic and listener; requires m_lock
+  private boolean coalesce(
+      Lane lane, Consumer<NetworkTableEvent> listener, NetworkTableEvent event) {
+    if (m_policy != OverflowPolicy.COALESCE_LATEST || event.valueData == null) {
+      return false;
+    }
+    for (int i = 0; i < lane.m_count; i++) {
+      int index = (lane.m_head + i) % m_capacity;
+      Pending pending = lane.m_ring[index];
+      if (pending.listener() == listener
+          && pending.event().valueData != null
+          && pending.event().valueData.topic == event.valueData.topic) {
+        lane.m_ring[index] = new Pending(listener, event);
+        m_coalesced++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void drain(Lane lane) {
+    boolean ran = false;
+    boolean failed = false;
+    while (true) {
+      Pending pending;
+      m_lock.lock();
+      try {
+        // account for the previous callback here to only take the lock once per event
+        if (ran) {
+          m_executed++;
+          if (failed) {
+            m_failed++;
+          }
+        }
+        if (lane.m_count == 0) {
+          lane.m_running = false;
+          m_lanes.remove(lane.m_key);
+          m_running--;
+          if (m_running == 0 && m_depth == 0) {
+            m_idleCond.signalAll();
+          }
+          return;
+        }
+        pending = lane.m_ring[lane.m_head];
+        lane.m_ring[lane.m_head] = null;
+        lane.m_head = (lane.m_head + 1) % m_capacity;
+        lane.m_count--;
+        m_depth--;
+      } finally {
+        m_lock.unlock();
+      }
+      ran = true;
+      failed = false;
+      try {
+        pending.listener().accept(pending.event());
+      } catch (Throwable throwable) {
+        failed = true;
+        System.err.println(
+            "Unhandled exception during listener callback: " + throwable.toString());
+        throwable.printStackTrace();
+      }
+    }
+  }
+}
@@ -11,6 +11,10 @@ import java.util.function.Consumer;
  * Event listener. This calls back to a callback function when an event matching the specified mask
  * occurs. The callback function is called asynchronously on a separate thread, so it's important to
  * use synchronization or atomics when accessing any shared state from the callback function.
+ *
+ * <p>All listener callbacks of an instance share the same thread, so a slow callback delays the
+ * others. To run a callback on its own thread with a bounded queue, wrap it with {@link
+ * ListenerDispatcher#wrap(Consumer)}.
  */
 public final class NetworkTableListener implements AutoCloseable {
   /**
@@ -33,6 +33,7 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
     m_defaultValue = defaultValue;
     m_buf = buf;
     m_schemaPublished = schemaPublished;
+    m_cache = new DecodedValueCache<>(buf.getProto().isImmutable(), this::decode);
   }
 
   @Override
@@ -42,17 +43,18 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
 
   @Override
   public T get() {
-    return fromRaw(NetworkTablesJNI.getRaw(m_handle, m_emptyRaw), m_defaultValue);
+    return get(m_defaultValue);
   }
 
   @Override
   public T get(T defaultValue) {
-    return fromRaw(NetworkTablesJNI.getRaw(m_handle, m_emptyRaw), defaultValue);
+    TimestampedObject<T> value = m_cache.get(m_handle);
+    return value != null ? value.value : defaultValue;
   }
 
   @Override
   public boolean getInto(T out) {
-    byte[] raw = NetworkTablesJNI.getRaw(m_handle, m_emptyRaw);
+    byte[] raw = m_cache.getRaw(m_handle);
     if (raw.length == 0) {
       return false;
     }
@@ -69,12 +71,13 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
 
   @Override
   public TimestampedObject<T> getAtomic() {
-    return fromRaw(NetworkTablesJNI.getAtomicRaw(m_handle, m_emptyRaw), m_defaultValue);
+    return getAtomic(m_defaultValue);
   }
 
   @Override
   public TimestampedObject<T> getAtomic(T defaultValue) {
-    return fromRaw(NetworkTablesJNI.getAtomicRaw(m_handle, m_emptyRaw), defaultValue);
+    TimestampedObject<T> value = m_cache.get(m_handle);
+    return value != null ? value : new TimestampedObject<>(0, 0, defaultValue);
   }
 
   @Override
@@ -154,6 +157,22 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
     }
   }
 
+  @Override
+  public void set(PublishBatch batch, T value) {
+    try {
+      synchronized (m_buf) {
+        if (!m_schemaPublished) {
+          m_schemaPublished = true;
+          m_topic.getInstance().addSchema(m_buf.getProto());
+        }
+        ByteBuffer bb = m_buf.write(value);
+        batch.setRaw(m_handle, bb, 0, bb.position());
+      }
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
   @Override
   public void setDefault(T value) {
     try {
@@ -188,6 +207,10 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
     }
   }
 
+  private T decode(byte[] raw) {
+    return fromRaw(raw, null);
+  }
+
   private TimestampedObject<T> fromRaw(TimestampedRaw raw, T defaultValue) {
     if (raw.value.length == 0) {
       return new TimestampedObject<>(0, 0, defaultValue);
@@ -205,5 +228,5 @@ final class ProtobufEntryImpl<T> extends EntryBase implements ProtobufEntry<T> {
   private final T m_defaultValue;
   private final ProtobufBuffer<T, ?> m_buf;
   private boolean m_schemaPublished;
-  private static final byte[] m_emptyRaw = new byte[] {};
+  private final DecodedValueCache<T> m_cache;
 }
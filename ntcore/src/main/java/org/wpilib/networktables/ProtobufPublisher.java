@@ -4,7 +4,10 @@
 
 package org.wpilib.networktables;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
+import org.wpilib.util.protobuf.ProtobufBuffer;
 
 /**
  * NetworkTables protobuf-encoded value publisher.
@@ -37,6 +40,25 @@ public interface ProtobufPublisher<T> extends Publisher, Consumer<T> {
    */
   void set(T value, long time);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published. The default
+   * implementation registers the topic's protobuf schema and serializes the value into the batch
+   * through a new {@link ProtobufBuffer}.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, T value) {
+    ProtobufTopic<T> topic = getTopic();
+    try {
+      topic.getInstance().addSchema(topic.getProto());
+      ByteBuffer bb = ProtobufBuffer.create(topic.getProto()).write(value);
+      batch.setRaw(getHandle(), bb, 0, bb.position());
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
   /**
    * Publish a default value. On reconnect, a default value will never be used in preference to a
    * published value.
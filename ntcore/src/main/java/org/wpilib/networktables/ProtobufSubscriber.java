@@ -9,6 +9,10 @@ import java.util.function.Supplier;
 /**
  * NetworkTables protobuf-encoded value subscriber.
  *
+ * <p>The most recently read value is memoized: reading a value that has not been replaced since
+ * the previous read does not fetch its contents again, and for immutable types the previously
+ * decoded object is returned instead of decoding a new one.
+ *
  * @param <T> value class
  */
 @SuppressWarnings("PMD.MissingOverride")
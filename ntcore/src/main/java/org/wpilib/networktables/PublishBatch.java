@@ -0,0 +1,334 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.wpilib.util.struct.Struct;
+
+/**
+ * A batch of values for many publishers, staged in Java and published with a single native call
+ * by {@link NetworkTableInstance#publishBatch(PublishBatch, long)}. Staging values into a batch
+ * avoids a JNI crossing per value, which matters when publishing hundreds of topics every loop,
+ * and all values in the batch are published atomically with the same timestamp.
+ *
+ * <p>Values are usually staged with the publishers' set(PublishBatch, value) methods, e.g.:
+ *
+ * <pre>{@code
+ * speedPub.set(batch, speed);
+ * posePub.set(batch, pose);
+ * inst.publishBatch(batch);
+ * }</pre>
+ *
+ * <p>Records are stored in a reusable direct buffer. Each record consists of a 4-byte publisher
+ * handle, a 4-byte {@link NetworkTableType} value, and a 4-byte payload size (all little endian),
+ * followed by the payload. Numbers are stored little endian; strings are UTF-8; boolean values are
+ * one byte each; string arrays are a 4-byte count followed by a 4-byte length and the UTF-8 bytes
+ * of each string.
+ *
+ * <p>This class is not thread safe.
+ */
+public final class PublishBatch {
+  private static final int kHeaderSize = 12;
+
+  /** Constructs an empty batch with a default initial capacity. */
+  public PublishBatch() {
+    this(4096);
+  }
+
+  /**
+   * Constructs an empty batch.
+   *
+   * @param capacity initial buffer capacity in bytes; the buffer grows as needed
+   */
+  public PublishBatch(int capacity) {
+    m_buf = ByteBuffer.allocateDirect(Math.max(capacity, kHeaderSize));
+    m_buf.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Stages a boolean value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setBoolean(int publisher, boolean value) {
+    startRecord(publisher, NetworkTableType.BOOLEAN, 1);
+    m_buf.put((byte) (value ? 1 : 0));
+  }
+
+  /**
+   * Stages an integer value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setInteger(int publisher, long value) {
+    startRecord(publisher, NetworkTableType.INTEGER, 8);
+    m_buf.putLong(value);
+  }
+
+  /**
+   * Stages a float value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setFloat(int publisher, float value) {
+    startRecord(publisher, NetworkTableType.FLOAT, 4);
+    m_buf.putFloat(value);
+  }
+
+  /**
+   * Stages a double value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setDouble(int publisher, double value) {
+    startRecord(publisher, NetworkTableType.DOUBLE, 8);
+    m_buf.putDouble(value);
+  }
+
+  /**
+   * Stages a string value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setString(int publisher, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    startRecord(publisher, NetworkTableType.STRING, bytes.length);
+    m_buf.put(bytes);
+  }
+
+  /**
+   * Stages a raw value.
+   *
+   * @param publisher publisher handle
+   * @param value value; will stage entire array contents
+   */
+  public void setRaw(int publisher, byte[] value) {
+    setRaw(publisher, value, 0, value.length);
+  }
+
+  /**
+   * Stages a raw value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   * @param start Start position of data (in array)
+   * @param len Length of data (must be less than or equal to value.length - start)
+   */
+  public void setRaw(int publisher, byte[] value, int start, int len) {
+    // check before starting the record, as a header without its payload corrupts the batch
+    Objects.checkFromIndexSize(start, len, value.length);
+    startRecord(publisher, NetworkTableType.RAW, len);
+    m_buf.put(value, start, len);
+  }
+
+  /**
+   * Stages a raw value.
+   *
+   * @param publisher publisher handle
+   * @param value value; will stage from value.position() to value.limit()
+   */
+  public void setRaw(int publisher, ByteBuffer value) {
+    int pos = value.position();
+    setRaw(publisher, value, pos, value.limit() - pos);
+  }
+
+  /**
+   * Stages a raw value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   * @param start Start position of data (in buffer)
+   * @param len Length of data (must be less than or equal to value.limit() - start)
+   */
+  public void setRaw(int publisher, ByteBuffer value, int start, int len) {
+    Objects.checkFromIndexSize(start, len, value.limit());
+    startRecord(publisher, NetworkTableType.RAW, len);
+    m_buf.put(m_buf.position(), value, start, len);
+    m_buf.position(m_buf.position() + len);
+  }
+
+  /**
+   * Stages a boolean array value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setBooleanArray(int publisher, boolean[] value) {
+    startRecord(publisher, NetworkTableType.BOOLEAN_ARRAY, value.length);
+    for (boolean elem : value) {
+      m_buf.put((byte) (elem ? 1 : 0));
+    }
+  }
+
+  /**
+   * Stages an integer array value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setIntegerArray(int publisher, long[] value) {
+    startRecord(publisher, NetworkTableType.INTEGER_ARRAY, value.length * 8);
+    m_buf.asLongBuffer().put(value);
+    m_buf.position(m_buf.position() + value.length * 8);
+  }
+
+  /**
+   * Stages a float array value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setFloatArray(int publisher, float[] value) {
+    startRecord(publisher, NetworkTableType.FLOAT_ARRAY, value.length * 4);
+    m_buf.asFloatBuffer().put(value);
+    m_buf.position(m_buf.position() + value.length * 4);
+  }
+
+  /**
+   * Stages a double array value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setDoubleArray(int publisher, double[] value) {
+    startRecord(publisher, NetworkTableType.DOUBLE_ARRAY, value.length * 8);
+    m_buf.asDoubleBuffer().put(value);
+    m_buf.position(m_buf.position() + value.length * 8);
+  }
+
+  /**
+   * Stages a string array value.
+   *
+   * @param publisher publisher handle
+   * @param value value
+   */
+  public void setStringArray(int publisher, String[] value) {
+    byte[][] encoded = new byte[value.length][];
+    int size = 4;
+    for (int i = 0; i < value.length; i++) {
+      encoded[i] = value[i].getBytes(StandardCharsets.UTF_8);
+      size += 4 + encoded[i].length;
+    }
+    startRecord(publisher, NetworkTableType.STRING_ARRAY, size);
+    m_buf.putInt(value.length);
+    for (byte[] str : encoded) {
+      m_buf.putInt(str.length);
+      m_buf.put(str);
+    }
+  }
+
+  /**
+   * Stages a struct-encoded value. The value is serialized directly into the batch. The struct
+   * schema is not published; prefer {@link StructPublisher#set(PublishBatch, Object)}, which does
+   * so.
+   *
+   * @param <T> value class
+   * @param publisher publisher handle
+   * @param struct struct serialization object
+   * @param value value
+   */
+  public <T> void setStruct(int publisher, Struct<T> struct, T value) {
+    int pos = m_buf.position();
+    startRecord(publisher, NetworkTableType.RAW, struct.getSize());
+    try {
+      struct.pack(m_buf, value);
+    } catch (RuntimeException e) {
+      discardRecord(pos);
+      throw e;
+    }
+  }
+
+  /**
+   * Stages an array of struct-encoded values. The values are serialized directly into the batch.
+   * The struct schema is not published; prefer {@link StructArrayPublisher#set(PublishBatch,
+   * Object[])}, which does so.
+   *
+   * @param <T> value class
+   * @param publisher publisher handle
+   * @param struct struct serialization object
+   * @param value values
+   */
+  public <T> void setStructArray(int publisher, Struct<T> struct, T[] value) {
+    int pos = m_buf.position();
+    int size = Math.multiplyExact(struct.getSize(), value.length);
+    startRecord(publisher, NetworkTableType.RAW, size);
+    try {
+      for (T elem : value) {
+        struct.pack(m_buf, elem);
+      }
+    } catch (RuntimeException e) {
+      discardRecord(pos);
+      throw e;
+    }
+  }
+
+  /** Discards all staged values. The buffer is retained for reuse. */
+  public void clear() {
+    m_buf.clear();
+    m_count = 0;
+  }
+
+  /**
+   * Gets the number of staged values.
+   *
+   * @return Number of values
+   */
+  public int getCount() {
+    return m_count;
+  }
+
+  /**
+   * Gets the number of staged bytes, including record headers.
+   *
+   * @return Number of bytes
+   */
+  public int getSize() {
+    return m_buf.position();
+  }
+
+  /**
+   * Gets the underlying buffer. Staged records start at position 0 and end at the current position.
+   *
+   * @return Buffer
+   */
+  ByteBuffer getBuffer() {
+    return m_buf;
+  }
+
+  private void startRecord(int publisher, NetworkTableType type, int size) {
+    int required = kHeaderSize + size;
+    if (m_buf.remaining() < required) {
+      int capacity = m_buf.capacity();
+      while (capacity - m_buf.position() < required) {
+        capacity = Math.multiplyExact(capacity, 2);
+      }
+      ByteBuffer buf = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+      m_buf.flip();
+      buf.put(m_buf);
+      m_buf = buf;
+    }
+    m_buf.putInt(publisher);
+    m_buf.putInt(type.getValue());
+    m_buf.putInt(size);
+    m_count++;
+  }
+
+  // removes a partially written record starting at pos
+  private void discardRecord(int pos) {
+    m_buf.position(pos);
+    m_count--;
+  }
+
+  private ByteBuffer m_buf;
+  private int m_count;
+}
@@ -0,0 +1,39 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+/**
+ * NetworkTables timestamped raw value with the topic's value sequence number. The sequence number
+ * increases every time the topic's value is replaced, even by an equal value with the same
+ * timestamp.
+ */
+final class SequencedRaw {
+  /**
+   * Create a sequenced value.
+   *
+   * @param sequence value sequence number
+   * @param timestamp timestamp in local time base
+   * @param serverTime timestamp in server time base
+   * @param value value
+   */
+  SequencedRaw(long sequence, long timestamp, long serverTime, byte[] value) {
+    this.sequence = sequence;
+    this.timestamp = timestamp;
+    this.serverTime = serverTime;
+    this.value = value;
+  }
+
+  /** Value sequence number. */
+  final long sequence;
+
+  /** Timestamp in local time base. */
+  final long timestamp;
+
+  /** Timestamp in server time base. May be 0 or 1 for locally set values. */
+  final long serverTime;
+
+  /** Value; empty if the topic has no value or the value is not raw. */
+  final byte[] value;
+}
@@ -6,7 +6,8 @@ package org.wpilib.networktables;
 
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
-import org.wpilib.util.struct.StructBuffer;
+import org.wpilib.util.struct.ConcurrentStructBuffer;
+import org.wpilib.util.struct.StructColumns;
 
 /**
  * NetworkTables struct-encoded value implementation.
@@ -24,7 +25,7 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
    */
   StructArrayEntryImpl(
       StructArrayTopic<T> topic,
-      StructBuffer<T> buf,
+      ConcurrentStructBuffer<T> buf,
       int handle,
       T[] defaultValue,
       boolean schemaPublished) {
@@ -125,14 +126,45 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
   @Override
   public void set(T[] value, long time) {
     try {
-      synchronized (m_buf) {
-        if (!m_schemaPublished) {
-          m_schemaPublished = true;
-          m_topic.getInstance().addSchema(m_buf.getStruct());
-        }
-        ByteBuffer bb = m_buf.writeArray(value);
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
+      }
+      ByteBuffer bb = m_buf.writeArray(value);
+      try {
         NetworkTablesJNI.setRaw(m_handle, time, bb, 0, bb.position());
+      } finally {
+        m_buf.release(bb);
+      }
+    } catch (RuntimeException e) {
+      // ignore
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  @Override
+  public void set(PublishBatch batch, T[] value) {
+    try {
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
+      }
+      batch.setStructArray(m_handle, m_buf.getStruct(), value);
+    } catch (RuntimeException e) {
+      // ignore
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  @Override
+  public void set(StructColumns<T> value, long time) {
+    try {
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
       }
+      ByteBuffer bb = value.write();
+      NetworkTablesJNI.setRaw(m_handle, time, bb, 0, bb.position());
     } catch (RuntimeException e) {
       // ignore
     }
@@ -142,13 +174,15 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
   @Override
   public void setDefault(T[] value) {
     try {
-      synchronized (m_buf) {
-        if (!m_schemaPublished) {
-          m_schemaPublished = true;
-          m_topic.getInstance().addSchema(m_buf.getStruct());
-        }
-        ByteBuffer bb = m_buf.writeArray(value);
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
+      }
+      ByteBuffer bb = m_buf.writeArray(value);
+      try {
         NetworkTablesJNI.setDefaultRaw(m_handle, 0, bb, 0, bb.position());
+      } finally {
+        m_buf.release(bb);
       }
     } catch (RuntimeException e) {
       // ignore
@@ -166,9 +200,7 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
       return defaultValue;
     }
     try {
-      synchronized (m_buf) {
-        return m_buf.readArray(raw);
-      }
+      return m_buf.readArray(raw);
     } catch (RuntimeException e) {
       return defaultValue;
     }
@@ -180,9 +212,7 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
       return new TimestampedObject<>(0, 0, defaultValue);
     }
     try {
-      synchronized (m_buf) {
-        return new TimestampedObject<>(raw.timestamp, raw.serverTime, m_buf.readArray(raw.value));
-      }
+      return new TimestampedObject<>(raw.timestamp, raw.serverTime, m_buf.readArray(raw.value));
     } catch (RuntimeException e) {
       return new TimestampedObject<>(0, 0, defaultValue);
     }
@@ -190,7 +220,7 @@ final class StructArrayEntryImpl<T> extends EntryBase implements StructArrayEntr
 
   private final StructArrayTopic<T> m_topic;
   private final T[] m_defaultValue;
-  private final StructBuffer<T> m_buf;
-  private boolean m_schemaPublished;
+  private final ConcurrentStructBuffer<T> m_buf;
+  private volatile boolean m_schemaPublished;
   private static final byte[] m_emptyRaw = new byte[] {};
 }
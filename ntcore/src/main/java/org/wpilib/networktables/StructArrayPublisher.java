@@ -5,6 +5,8 @@
 package org.wpilib.networktables;
 
 import java.util.function.Consumer;
+import org.wpilib.util.struct.StructBuffer;
+import org.wpilib.util.struct.StructColumns;
 
 /**
  * NetworkTables struct-encoded array value publisher.
@@ -37,6 +39,45 @@ public interface StructArrayPublisher<T> extends Publisher, Consumer<T[]> {
    */
   void set(T[] value, long time);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published. The default
+   * implementation registers the topic's struct schema and serializes the value into the batch.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, T[] value) {
+    StructArrayTopic<T> topic = getTopic();
+    try {
+      topic.getInstance().addSchema(topic.getStruct());
+      batch.setStructArray(getHandle(), topic.getStruct(), value);
+    } catch (RuntimeException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * Publish a new value from structure-of-arrays columns using current NT time. No per-element
+   * objects are created.
+   *
+   * @param value value to publish
+   */
+  default void set(StructColumns<T> value) {
+    set(value, 0);
+  }
+
+  /**
+   * Publish a new value from structure-of-arrays columns. No per-element objects are created by
+   * the publishers returned by {@link StructArrayTopic}; the default implementation decodes the
+   * columns into an array and calls {@link #set(Object[], long)}.
+   *
+   * @param value value to publish
+   * @param time timestamp; 0 indicates current NT time should be used
+   */
+  default void set(StructColumns<T> value, long time) {
+    set(StructBuffer.create(value.getStruct()).readArray(value.write().flip()), time);
+  }
+
   /**
    * Publish a default value. On reconnect, a default value will never be used in preference to a
    * published value.
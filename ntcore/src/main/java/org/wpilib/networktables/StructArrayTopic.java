@@ -4,8 +4,8 @@
 
 package org.wpilib.networktables;
 
+import org.wpilib.util.struct.ConcurrentStructBuffer;
 import org.wpilib.util.struct.Struct;
-import org.wpilib.util.struct.StructBuffer;
 
 /**
  * NetworkTables struct-encoded array value topic.
@@ -65,7 +65,7 @@ public final class StructArrayTopic<T> extends Topic {
   public StructArraySubscriber<T> subscribe(T[] defaultValue, PubSubOption... options) {
     return new StructArrayEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.subscribe(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString() + "[]", options),
         defaultValue,
@@ -89,7 +89,7 @@ public final class StructArrayTopic<T> extends Topic {
     m_inst.addSchema(m_struct);
     return new StructArrayEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.publish(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString() + "[]", options),
         null,
@@ -115,7 +115,7 @@ public final class StructArrayTopic<T> extends Topic {
     m_inst.addSchema(m_struct);
     return new StructArrayEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.publishEx(
             m_handle,
             NetworkTableType.RAW.getValue(),
@@ -146,7 +146,7 @@ public final class StructArrayTopic<T> extends Topic {
   public StructArrayEntry<T> getEntry(T[] defaultValue, PubSubOption... options) {
     return new StructArrayEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.getEntry(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString() + "[]", options),
         defaultValue,
@@ -6,7 +6,8 @@ package org.wpilib.networktables;
 
 import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
-import org.wpilib.util.struct.StructBuffer;
+import org.wpilib.util.struct.ConcurrentStructBuffer;
+import org.wpilib.util.struct.Struct;
 
 /**
  * NetworkTables struct-encoded value implementation.
@@ -23,7 +24,7 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
    */
   StructEntryImpl(
       StructTopic<T> topic,
-      StructBuffer<T> buf,
+      ConcurrentStructBuffer<T> buf,
       int handle,
       T defaultValue,
       boolean schemaPublished) {
@@ -32,6 +33,7 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
     m_defaultValue = defaultValue;
     m_buf = buf;
     m_schemaPublished = schemaPublished;
+    m_cache = new DecodedValueCache<>(buf.getStruct().isImmutable(), this::decode);
   }
 
   @Override
@@ -41,34 +43,34 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
 
   @Override
   public T get() {
-    return fromRaw(NetworkTablesJNI.getRaw(m_handle, m_emptyRaw), m_defaultValue);
+    return get(m_defaultValue);
   }
 
   @Override
   public T get(T defaultValue) {
-    return fromRaw(NetworkTablesJNI.getRaw(m_handle, m_emptyRaw), defaultValue);
+    TimestampedObject<T> value = m_cache.get(m_handle);
+    return value != null ? value.value : defaultValue;
   }
 
   @Override
   public boolean getInto(T out) {
-    byte[] raw = NetworkTablesJNI.getRaw(m_handle, m_emptyRaw);
+    byte[] raw = m_cache.getRaw(m_handle);
     if (raw.length == 0) {
       return false;
     }
-    synchronized (m_buf) {
-      m_buf.readInto(out, raw);
-      return true;
-    }
+    m_buf.readInto(out, raw);
+    return true;
   }
 
   @Override
   public TimestampedObject<T> getAtomic() {
-    return fromRaw(NetworkTablesJNI.getAtomicRaw(m_handle, m_emptyRaw), m_defaultValue);
+    return getAtomic(m_defaultValue);
   }
 
   @Override
   public TimestampedObject<T> getAtomic(T defaultValue) {
-    return fromRaw(NetworkTablesJNI.getAtomicRaw(m_handle, m_emptyRaw), defaultValue);
+    TimestampedObject<T> value = m_cache.get(m_handle);
+    return value != null ? value : new TimestampedObject<>(0, 0, defaultValue);
   }
 
   @Override
@@ -132,18 +134,60 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
     return arr;
   }
 
+  @Override
+  public int readQueueInto(long[] timestamps, T[] values) {
+    int len = Math.min(timestamps.length, values.length);
+    Struct<T> struct = m_buf.getStruct();
+    int size = struct.getSize();
+    if (len == 0 || size == 0) {
+      return 0;
+    }
+    ByteBuffer bb = m_buf.acquire(len);
+    try {
+      int count = NetworkTablesJNI.readQueueIntoRaw(m_handle, timestamps, bb, len * size, size);
+      boolean immutable = struct.isImmutable();
+      for (int i = 0; i < count; i++) {
+        bb.position(i * size);
+        if (immutable || values[i] == null) {
+          values[i] = struct.unpack(bb);
+        } else {
+          struct.unpackInto(values[i], bb);
+        }
+      }
+      return count;
+    } finally {
+      m_buf.release(bb);
+    }
+  }
+
   @SuppressWarnings("PMD.AvoidCatchingGenericException")
   @Override
   public void set(T value, long time) {
     try {
-      synchronized (m_buf) {
-        if (!m_schemaPublished) {
-          m_schemaPublished = true;
-          m_topic.getInstance().addSchema(m_buf.getStruct());
-        }
-        ByteBuffer bb = m_buf.write(value);
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
+      }
+      ByteBuffer bb = m_buf.write(value);
+      try {
         NetworkTablesJNI.setRaw(m_handle, time, bb, 0, bb.position());
+      } finally {
+        m_buf.release(bb);
+      }
+    } catch (RuntimeException e) {
+      // ignore
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  @Override
+  public void set(PublishBatch batch, T value) {
+    try {
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
       }
+      batch.setStruct(m_handle, m_buf.getStruct(), value);
     } catch (RuntimeException e) {
       // ignore
     }
@@ -153,13 +197,15 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
   @Override
   public void setDefault(T value) {
     try {
-      synchronized (m_buf) {
-        if (!m_schemaPublished) {
-          m_schemaPublished = true;
-          m_topic.getInstance().addSchema(m_buf.getStruct());
-        }
-        ByteBuffer bb = m_buf.write(value);
+      if (!m_schemaPublished) {
+        m_schemaPublished = true;
+        m_topic.getInstance().addSchema(m_buf.getStruct());
+      }
+      ByteBuffer bb = m_buf.write(value);
+      try {
         NetworkTablesJNI.setDefaultRaw(m_handle, 0, bb, 0, bb.position());
+      } finally {
+        m_buf.release(bb);
       }
     } catch (RuntimeException e) {
       // ignore
@@ -177,23 +223,23 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
       return defaultValue;
     }
     try {
-      synchronized (m_buf) {
-        return m_buf.read(raw);
-      }
+      return m_buf.read(raw);
     } catch (RuntimeException e) {
       return defaultValue;
     }
   }
 
+  private T decode(byte[] raw) {
+    return fromRaw(raw, null);
+  }
+
   @SuppressWarnings("PMD.AvoidCatchingGenericException")
   private TimestampedObject<T> fromRaw(TimestampedRaw raw, T defaultValue) {
     if (raw.value.length == 0) {
       return new TimestampedObject<>(0, 0, defaultValue);
     }
     try {
-      synchronized (m_buf) {
-        return new TimestampedObject<>(raw.timestamp, raw.serverTime, m_buf.read(raw.value));
-      }
+      return new TimestampedObject<>(raw.timestamp, raw.serverTime, m_buf.read(raw.value));
     } catch (RuntimeException e) {
       return new TimestampedObject<>(0, 0, defaultValue);
     }
@@ -201,7 +247,7 @@ final class StructEntryImpl<T> extends EntryBase implements StructEntry<T> {
 
   private final StructTopic<T> m_topic;
   private final T m_defaultValue;
-  private final StructBuffer<T> m_buf;
-  private boolean m_schemaPublished;
-  private static final byte[] m_emptyRaw = new byte[] {};
+  private final ConcurrentStructBuffer<T> m_buf;
+  private volatile boolean m_schemaPublished;
+  private final DecodedValueCache<T> m_cache;
 }
@@ -37,6 +37,23 @@ public interface StructPublisher<T> extends Publisher, Consumer<T> {
    */
   void set(T value, long time);
 
+  /**
+   * Stage a new value into a batch, to be published when the batch is published. The default
+   * implementation registers the topic's struct schema and serializes the value into the batch.
+   *
+   * @param batch batch to stage into
+   * @param value value to publish
+   */
+  default void set(PublishBatch batch, T value) {
+    StructTopic<T> topic = getTopic();
+    try {
+      topic.getInstance().addSchema(topic.getStruct());
+      batch.setStruct(getHandle(), topic.getStruct(), value);
+    } catch (RuntimeException e) {
+      // ignore
+    }
+  }
+
   /**
    * Publish a default value. On reconnect, a default value will never be used in preference to a
    * published value.
@@ -9,6 +9,10 @@ import java.util.function.Supplier;
 /**
  * NetworkTables struct-encoded value subscriber.
  *
+ * <p>The most recently read value is memoized: reading a value that has not been replaced since
+ * the previous read does not fetch its contents again, and for immutable types the previously
+ * decoded object is returned instead of decoding a new one.
+ *
  * @param <T> value class
  */
 @SuppressWarnings("PMD.MissingOverride")
@@ -91,4 +95,34 @@ public interface StructSubscriber<T> extends Subscriber, Supplier<T> {
    *     previous call.
    */
   T[] readQueueValues();
+
+  /**
+   * Read valid value changes since the last call to readQueue into caller-provided arrays, oldest
+   * first. Each value is unpacked in place into the existing object in values, so polling a
+   * high-rate topic does not allocate once values has been filled. New objects are stored for
+   * null elements and for immutable types. Values that are not the size of the struct are
+   * dropped. Reads at most as many values as fit in both arrays; any remaining values stay queued
+   * for the next call.
+   *
+   * <p>The "poll storage" subscribe option can be used to set the queue depth.
+   *
+   * <p>The default implementation calls {@link #readQueue()} and stores the new objects it returns,
+   * so it allocates, and values that don't fit are discarded rather than left queued. The
+   * subscribers returned by {@link StructTopic} override it to unpack in place.
+   *
+   * @param timestamps Array to fill with the timestamp of each value
+   * @param values Array of objects to replace the contents of
+   * @return Number of values read
+   * @throws UnsupportedOperationException if T is mutable but its Struct does not implement
+   *     unpackInto
+   */
+  default int readQueueInto(long[] timestamps, T[] values) {
+    TimestampedObject<T>[] queue = readQueue();
+    int count = Math.min(queue.length, Math.min(timestamps.length, values.length));
+    for (int i = 0; i < count; i++) {
+      timestamps[i] = queue[i].timestamp;
+      values[i] = queue[i].value;
+    }
+    return count;
+  }
 }
@@ -4,8 +4,8 @@
 
 package org.wpilib.networktables;
 
+import org.wpilib.util.struct.ConcurrentStructBuffer;
 import org.wpilib.util.struct.Struct;
-import org.wpilib.util.struct.StructBuffer;
 
 /**
  * NetworkTables struct-encoded value topic.
@@ -64,7 +64,7 @@ public final class StructTopic<T> extends Topic {
   public StructSubscriber<T> subscribe(T defaultValue, PubSubOption... options) {
     return new StructEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.subscribe(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString(), options),
         defaultValue,
@@ -88,7 +88,7 @@ public final class StructTopic<T> extends Topic {
     m_inst.addSchema(m_struct);
     return new StructEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.publish(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString(), options),
         null,
@@ -114,7 +114,7 @@ public final class StructTopic<T> extends Topic {
     m_inst.addSchema(m_struct);
     return new StructEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.publishEx(
             m_handle,
             NetworkTableType.RAW.getValue(),
@@ -145,7 +145,7 @@ public final class StructTopic<T> extends Topic {
   public StructEntry<T> getEntry(T defaultValue, PubSubOption... options) {
     return new StructEntryImpl<>(
         this,
-        StructBuffer.create(m_struct),
+        ConcurrentStructBuffer.create(m_struct),
         NetworkTablesJNI.getEntry(
             m_handle, NetworkTableType.RAW.getValue(), m_struct.getTypeString(), options),
         defaultValue,
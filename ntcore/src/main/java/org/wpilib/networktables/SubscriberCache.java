@@ -0,0 +1,344 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.wpilib.util.function.FloatSupplier;
+
+/**
+ * A Java-side cache of the current values of many boolean and numeric subscribers. The cache is
+ * refreshed by {@link #update()}, which reads all value changes since the previous update with a
+ * single batched native call; getting a cached value is then a plain array read instead of a JNI
+ * call. This is useful when reading hundreds of values that rarely change (e.g. tuning constants)
+ * every loop.
+ *
+ * <pre>{@code
+ * SubscriberCache cache = new SubscriberCache(inst);
+ * SubscriberCache.CachedDouble kP = cache.add(table.getDoubleTopic("kP").subscribe(0.0));
+ *
+ * // each loop
+ * cache.update();
+ * double p = kP.get();
+ * }</pre>
+ *
+ * <p>The cache does not keep the subscribers active; they must be kept open while the cache is in
+ * use. This class is not thread safe; update() and the getters of the cached values should be
+ * called from the same thread.
+ */
+public final class SubscriberCache implements AutoCloseable {
+  private static final EnumSet<NetworkTableEvent.Kind> kEventKinds =
+      EnumSet.of(NetworkTableEvent.Kind.IMMEDIATE, NetworkTableEvent.Kind.VALUE_ALL);
+
+  private final NetworkTableListenerPoller m_poller;
+  private final Map<Integer, CachedValue> m_listeners = new HashMap<>();
+
+  // current values (as raw bits) and their timestamps, indexed by CachedValue.m_index
+  private long[] m_values = new long[16];
+  private long[] m_times = new long[16];
+  private int m_size;
+
+  private long m_lastUpdate;
+
+  /**
+   * Constructs an empty cache.
+   *
+   * @param inst Instance
+   */
+  public SubscriberCache(NetworkTableInstance inst) {
+    m_poller = new NetworkTableListenerPoller(inst);
+  }
+
+  /**
+   * Adds a boolean subscriber to the cache. The cached value is initialized to the subscriber's
+   * current value.
+   *
+   * @param subscriber Subscriber
+   * @return Cached value
+   */
+  public CachedBoolean add(BooleanSubscriber subscriber) {
+    CachedBoolean cached = new CachedBoolean(this, allocate());
+    cached.setBits(subscriber.get() ? 1 : 0);
+    return register(subscriber, cached);
+  }
+
+  /**
+   * Adds an integer subscriber to the cache. The cached value is initialized to the subscriber's
+   * current value.
+   *
+   * @param subscriber Subscriber
+   * @return Cached value
+   */
+  public CachedInteger add(IntegerSubscriber subscriber) {
+    CachedInteger cached = new CachedInteger(this, allocate());
+    cached.setBits(subscriber.get());
+    return register(subscriber, cached);
+  }
+
+  /**
+   * Adds a float subscriber to the cache. The cached value is initialized to the subscriber's
+   * current value.
+   *
+   * @param subscriber Subscriber
+   * @return Cached value
+   */
+  public CachedFloat add(FloatSubscriber subscriber) {
+    CachedFloat cached = new CachedFloat(this, allocate());
+    cached.setBits(Float.floatToRawIntBits(subscriber.get()));
+    return register(subscriber, cached);
+  }
+
+  /**
+   * Adds a double subscriber to the cache. The cached value is initialized to the subscriber's
+   * current value.
+   *
+   * @param subscriber Subscriber
+   * @return Cached value
+   */
+  public CachedDouble add(DoubleSubscriber subscriber) {
+    CachedDouble cached = new CachedDouble(this, allocate());
+    cached.setBits(Double.doubleToRawLongBits(subscriber.get()));
+    return register(subscriber, cached);
+  }
+
+  /**
+   * Refreshes the cache with all value changes since the previous call.
+   *
+   * @return Number of value changes applied
+   */
+  public int update() {
+    NetworkTableEvent[] events = m_poller.readQueue();
+    m_lastUpdate = NetworkTablesJNI.now();
+    int count = 0;
+    for (NetworkTableEvent event : events) {
+      if (event.valueData == null) {
+        continue;
+      }
+      CachedValue cached = m_listeners.get(event.listener);
+      if (cached != null && cached.store(event.valueData.value)) {
+        m_times[cached.m_index] = event.valueData.value.getTime();
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the time of the most recent call to {@link #update()}.
+   *
+   * @return Time in microseconds, in the same time base as {@link NetworkTablesJNI#now()}; 0 if
+   *     update() has not been called
+   */
+  public long getLastUpdate() {
+    return m_lastUpdate;
+  }
+
+  /**
+   * Gets the number of cached values.
+   *
+   * @return Number of cached values
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /** Stops updating the cache. The cached values keep their last values. */
+  @Override
+  public void close() {
+    m_poller.close();
+    m_listeners.clear();
+  }
+
+  private int allocate() {
+    if (m_size == m_values.length) {
+      m_values = Arrays.copyOf(m_values, m_size * 2);
+      m_times = Arrays.copyOf(m_times, m_size * 2);
+    }
+    return m_size++;
+  }
+
+  private <V extends CachedValue> V register(Subscriber subscriber, V cached) {
+    m_listeners.put(m_poller.addListener(subscriber, kEventKinds), cached);
+    return cached;
+  }
+
+  /** A value in a {@link SubscriberCache}. */
+  public abstract static class CachedValue {
+    final SubscriberCache m_cache;
+    final int m_index;
+
+    CachedValue(SubscriberCache cache, int index) {
+      m_cache = cache;
+      m_index = index;
+    }
+
+    /**
+     * Gets the time of the last value change seen by the cache.
+     *
+     * @return Time in microseconds; 0 if the cache has not seen a published value
+     */
+    public long getLastChange() {
+      return m_cache.m_times[m_index];
+    }
+
+    /**
+     * Returns whether the cache has seen a published value. Until it has, the cached value is the
+     * subscriber's value at the time it was added to the cache (usually its default value).
+     *
+     * @return True if a published value has been seen
+     */
+    public boolean hasValue() {
+      return m_cache.m_times[m_index] != 0;
+    }
+
+    /**
+     * Returns whether the value is stale: the cache has not seen a published value, or the last
+     * value change it has seen is more than maxAge older than the most recent {@link #update()}.
+     *
+     * @param maxAge Maximum age in microseconds
+     * @return True if the value is stale
+     */
+    public boolean isStale(long maxAge) {
+      long time = m_cache.m_times[m_index];
+      return time == 0 || m_cache.m_lastUpdate - time > maxAge;
+    }
+
+    long getBits() {
+      return m_cache.m_values[m_index];
+    }
+
+    void setBits(long bits) {
+      m_cache.m_values[m_index] = bits;
+    }
+
+    // returns false if the value has the wrong type
+    abstract boolean store(NetworkTableValue value);
+  }
+
+  /** A cached boolean value. */
+  public static final class CachedBoolean extends CachedValue implements BooleanSupplier {
+    CachedBoolean(SubscriberCache cache, int index) {
+      super(cache, index);
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @return value
+     */
+    public boolean get() {
+      return getBits() != 0;
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+      return get();
+    }
+
+    @Override
+    boolean store(NetworkTableValue value) {
+      if (!value.isBoolean()) {
+        return false;
+      }
+      setBits(value.getBoolean() ? 1 : 0);
+      return true;
+    }
+  }
+
+  /** A cached integer value. */
+  public static final class CachedInteger extends CachedValue implements LongSupplier {
+    CachedInteger(SubscriberCache cache, int index) {
+      super(cache, index);
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @return value
+     */
+    public long get() {
+      return getBits();
+    }
+
+    @Override
+    public long getAsLong() {
+      return get();
+    }
+
+    @Override
+    boolean store(NetworkTableValue value) {
+      if (!(value.getValue() instanceof Number number)) {
+        return false;
+      }
+      setBits(number.longValue());
+      return true;
+    }
+  }
+
+  /** A cached float value. */
+  public static final class CachedFloat extends CachedValue implements FloatSupplier {
+    CachedFloat(SubscriberCache cache, int index) {
+      super(cache, index);
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @return value
+     */
+    public float get() {
+      return Float.intBitsToFloat((int) getBits());
+    }
+
+    @Override
+    public float getAsFloat() {
+      return get();
+    }
+
+    @Override
+    boolean store(NetworkTableValue value) {
+      if (!(value.getValue() instanceof Number number)) {
+        return false;
+      }
+      setBits(Float.floatToRawIntBits(number.floatValue()));
+      return true;
+    }
+  }
+
+  /** A cached double value. */
+  public static final class CachedDouble extends CachedValue implements DoubleSupplier {
+    CachedDouble(SubscriberCache cache, int index) {
+      super(cache, index);
+    }
+
+    /**
+     * Get the cached value.
+     *
+     * @return value
+     */
+    public double get() {
+      return Double.longBitsToDouble(getBits());
+    }
+
+    @Override
+    public double getAsDouble() {
+      return get();
+    }
+
+    @Override
+    boolean store(NetworkTableValue value) {
+      if (!(value.getValue() instanceof Number number)) {
+        return false;
+      }
+      setBits(Double.doubleToRawLongBits(number.doubleValue()));
+      return true;
+    }
+  }
+}
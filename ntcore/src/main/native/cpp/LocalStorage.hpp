@@ -6,6 +6,7 @@
 
 #include <stdint.h>
 
+#include <algorithm>
 #include <optional>
 #include <span>
 #include <string>
@@ -18,6 +19,7 @@
 #include "wpi/nt/ntcore_cpp.hpp"
 #include "wpi/util/Logger.hpp"
 #include "wpi/util/SmallVector.hpp"
+#include "wpi/util/function_ref.hpp"
 #include "wpi/util/json.hpp"
 #include "wpi/util/mutex.hpp"
 
@@ -333,6 +335,23 @@ class LocalStorage final : public net::ILocalStorage {
     return m_impl.SetEntryValue(pubentryHandle, value);
   }
 
+  // handles not belonging to instance inst are skipped
+  size_t SetEntryValues(int inst, std::span<const NT_Handle> pubentryHandles,
+                        std::span<const Value> values) {
+    std::scoped_lock lock{m_mutex};
+    size_t count = 0;
+    size_t size = (std::min)(pubentryHandles.size(), values.size());
+    for (size_t i = 0; i < size; ++i) {
+      if (Handle{pubentryHandles[i]}.GetInst() != inst) {
+        continue;
+      }
+      if (m_impl.SetEntryValue(pubentryHandles[i], values[i])) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
   bool SetDefaultEntryValue(NT_Handle pubsubentryHandle, const Value& value) {
     std::scoped_lock lock{m_mutex};
     return m_impl.SetDefaultEntryValue(pubsubentryHandle, value);
@@ -373,6 +392,16 @@ class LocalStorage final : public net::ILocalStorage {
     return subscriber->pollStorage.ReadValue(types);
   }
 
+  size_t ReadQueueValue(NT_Handle subentry, unsigned int types,
+                        wpi::util::function_ref<bool(const Value&)> func) {
+    std::scoped_lock lock{m_mutex};
+    auto subscriber = m_impl.GetSubEntry(subentry);
+    if (!subscriber) {
+      return 0;
+    }
+    return subscriber->pollStorage.ReadValue(types, func);
+  }
+
   template <ValidType T>
   std::vector<Timestamped<typename TypeInfo<T>::Value>> ReadQueue(
       NT_Handle subentry) {
@@ -443,6 +472,19 @@ class LocalStorage final : public net::ILocalStorage {
     }
   }
 
+  std::optional<Value> GetEntryValueIfChanged(NT_Handle subentryHandle,
+                                              int64_t* sequence) {
+    std::scoped_lock lock{m_mutex};
+    if (auto subscriber = m_impl.GetSubEntry(subentryHandle)) {
+      auto topic = subscriber->topic;
+      if (topic->lastValueSequence != *sequence) {
+        *sequence = topic->lastValueSequence;
+        return topic->lastValue;
+      }
+    }
+    return std::nullopt;
+  }
+
   //
   // Listener functions
   //
@@ -21,3 +21,21 @@ std::vector<Value> ValueCircularBuffer::ReadValue(unsigned int types) {
   m_storage.reset();
   return rv;
 }
+
+size_t ValueCircularBuffer::ReadValue(
+    unsigned int types, wpi::util::function_ref<bool(const Value&)> func) {
+  size_t count = 0;
+  while (m_storage.size() > 0) {
+    const Value& val = m_storage.front();
+    if (types == 0 || (types & val.type()) != 0) {
+      // leave the value queued if the caller has no room for it
+      if (!func(val)) {
+        break;
+      }
+      ++count;
+    }
+    m_storage.front() = Value{};
+    m_storage.pop_front();
+  }
+  return count;
+}
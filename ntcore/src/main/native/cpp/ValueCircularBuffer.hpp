@@ -11,6 +11,7 @@
 #include "wpi/nt/NetworkTableValue.hpp"
 #include "wpi/nt/ntcore_cpp_types.hpp"
 #include "wpi/util/circular_buffer.hpp"
+#include "wpi/util/function_ref.hpp"
 
 namespace wpi::nt {
 
@@ -24,6 +25,8 @@ class ValueCircularBuffer {
   }
 
   std::vector<Value> ReadValue(unsigned int types);
+  size_t ReadValue(unsigned int types,
+                   wpi::util::function_ref<bool(const Value&)> func);
   template <ValidType T>
   std::vector<Timestamped<typename TypeInfo<T>::Value>> Read();
 
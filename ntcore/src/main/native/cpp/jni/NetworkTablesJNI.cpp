@@ -4,16 +4,22 @@
 
 #include <jni.h>
 
+#include <algorithm>
+#include <bit>
 #include <cassert>
 #include <format>
+#include <span>
 #include <string>
 #include <utility>
 #include <vector>
 
+#include "../Handle.hpp"
+#include "../Value_internal.hpp"
 #include "org_wpilib_networktables_NetworkTablesJNI.h"
 #include "wpi/nt/ntcore.h"
 #include "wpi/nt/ntcore_cpp.hpp"
 #include "wpi/util/ConvertUTF.hpp"
+#include "wpi/util/Endian.hpp"
 #include "wpi/util/jni_util.hpp"
 #include "wpi/util/json.hpp"
 
@@ -38,6 +44,7 @@ static JClass logMessageCls;
 static JClass longCls;
 static JClass optionalLongCls;
 static JClass pubSubOptionsCls;
+static JClass sequencedRawCls;
 static JClass timeSyncEventDataCls;
 static JClass topicInfoCls;
 static JClass valueCls;
@@ -56,6 +63,7 @@ static const JClassInit classes[] = {
     {"java/lang/Long", &longCls},
     {"java/util/OptionalLong", &optionalLongCls},
     {"org/wpilib/networktables/PubSubOptions", &pubSubOptionsCls},
+    {"org/wpilib/networktables/SequencedRaw", &sequencedRawCls},
     {"org/wpilib/networktables/TimeSyncEventData", &timeSyncEventDataCls},
     {"org/wpilib/networktables/TopicInfo", &topicInfoCls},
     {"org/wpilib/networktables/NetworkTableValue", &valueCls},
@@ -365,6 +373,195 @@ static jobjectArray MakeJObject(JNIEnv* env, jobject inst,
   return jarr;
 }
 
+// Parses a batch staged by the Java PublishBatch class and sets all of its
+// values in a single operation.  Each record is a 4-byte publisher handle, a
+// 4-byte NT_Type, and a 4-byte payload size (all little endian), followed by
+// the payload.  Returns the number of values set, or -1 (with an exception
+// thrown) if the batch is malformed or has a handle from another instance.
+// Must not be called from within a JNI critical region, as it throws.
+static jint SetBatch(JNIEnv* env, NT_Inst inst, std::span<const uint8_t> data,
+                     int64_t time) {
+  using namespace wpi::util::support::endian;
+  // all values share one timestamp; Value would otherwise call Now() for each
+  if (time == 0) {
+    time = wpi::nt::Now();
+  }
+  int instIndex = wpi::nt::Handle{inst}.GetInst();
+  std::vector<NT_Handle> handles;
+  std::vector<wpi::nt::Value> values;
+  while (!data.empty()) {
+    if (data.size() < 12) {
+      illegalArgEx.Throw(env, "truncated batch record header");
+      return -1;
+    }
+    NT_Handle handle = read32le(data.data());
+    uint32_t type = read32le(data.data() + 4);
+    uint32_t size = read32le(data.data() + 8);
+    data = data.subspan(12);
+    if (size > data.size()) {
+      illegalArgEx.Throw(env, "truncated batch record");
+      return -1;
+    }
+    auto payload = data.subspan(0, size);
+    data = data.subspan(size);
+    // HandleMap lookups ignore the instance, so a handle from another
+    // instance would otherwise set the value of an unrelated publisher
+    if (wpi::nt::Handle{handle}.GetInst() != instIndex) {
+      illegalArgEx.Throw(
+          env, std::format("batch handle {} is not from instance {}", handle,
+                           inst));
+      return -1;
+    }
+
+    wpi::nt::Value value;
+    switch (type) {
+      case NT_BOOLEAN:
+        if (size != 1) {
+          break;
+        }
+        value = wpi::nt::Value::MakeBoolean(payload[0] != 0, time);
+        break;
+      case NT_INTEGER:
+        if (size != 8) {
+          break;
+        }
+        value = wpi::nt::Value::MakeInteger(
+            static_cast<int64_t>(read64le(payload.data())), time);
+        break;
+      case NT_FLOAT:
+        if (size != 4) {
+          break;
+        }
+        value = wpi::nt::Value::MakeFloat(
+            std::bit_cast<float>(read32le(payload.data())), time);
+        break;
+      case NT_DOUBLE:
+        if (size != 8) {
+          break;
+        }
+        value = wpi::nt::Value::MakeDouble(
+            std::bit_cast<double>(read64le(payload.data())), time);
+        break;
+      case NT_STRING:
+        value = wpi::nt::Value::MakeString(
+            std::string_view{reinterpret_cast<const char*>(payload.data()),
+                             payload.size()},
+            time);
+        break;
+      case NT_RAW:
+        value = wpi::nt::Value::MakeRaw(payload, time);
+        break;
+      case NT_BOOLEAN_ARRAY: {
+        std::vector<int> arr;
+        arr.reserve(size);
+        for (uint8_t elem : payload) {
+          arr.push_back(elem != 0 ? 1 : 0);
+        }
+        value = wpi::nt::Value::MakeBooleanArray(std::move(arr), time);
+        break;
+      }
+      case NT_INTEGER_ARRAY: {
+        if ((size % 8) != 0) {
+          break;
+        }
+        std::vector<int64_t> arr;
+        arr.reserve(size / 8);
+        for (size_t i = 0; i < size; i += 8) {
+          arr.push_back(static_cast<int64_t>(read64le(&payload[i])));
+        }
+        value = wpi::nt::Value::MakeIntegerArray(std::move(arr), time);
+        break;
+      }
+      case NT_FLOAT_ARRAY: {
+        if ((size % 4) != 0) {
+          break;
+        }
+        std::vector<float> arr;
+        arr.reserve(size / 4);
+        for (size_t i = 0; i < size; i += 4) {
+          arr.push_back(std::bit_cast<float>(read32le(&payload[i])));
+        }
+        value = wpi::nt::Value::MakeFloatArray(std::move(arr), time);
+        break;
+      }
+      case NT_DOUBLE_ARRAY: {
+        if ((size % 8) != 0) {
+          break;
+        }
+        std::vector<double> arr;
+        arr.reserve(size / 8);
+        for (size_t i = 0; i < size; i += 8) {
+          arr.push_back(std::bit_cast<double>(read64le(&payload[i])));
+        }
+        value = wpi::nt::Value::MakeDoubleArray(std::move(arr), time);
+        break;
+      }
+      case NT_STRING_ARRAY: {
+        if (size < 4) {
+          break;
+        }
+        uint32_t count = read32le(payload.data());
+        auto elems = payload.subspan(4);
+        std::vector<std::string> arr;
+        for (uint32_t i = 0; i < count; ++i) {
+          if (elems.size() < 4 || read32le(elems.data()) > elems.size() - 4) {
+            arr.clear();
+            break;
+          }
+          uint32_t len = read32le(elems.data());
+          arr.emplace_back(reinterpret_cast<const char*>(elems.data() + 4), len);
+          elems = elems.subspan(4 + len);
+        }
+        if (arr.size() != count) {
+          break;
+        }
+        value = wpi::nt::Value::MakeStringArray(std::move(arr), time);
+        break;
+      }
+      default:
+        break;
+    }
+    if (!value) {
+      illegalArgEx.Throw(
+          env, std::format("invalid batch record for handle {}", handle));
+      return -1;
+    }
+    handles.push_back(handle);
+    values.emplace_back(std::move(value));
+  }
+  return static_cast<jint>(wpi::nt::SetEntryValues(inst, handles, values));
+}
+
+// Reads queued values of the given types into caller-provided timestamp and
+// value arrays, converting each value with get.  Values that don't fit are
+// left in the queue.  Returns the number of values read.
+template <typename T, typename JArray, typename F>
+static jint ReadQueueInto(JNIEnv* env, NT_Handle subentry, unsigned int types,
+                          jlongArray timestamps, JArray values, F&& get) {
+  if (!timestamps) {
+    nullPointerEx.Throw(env, "timestamps is null");
+    return 0;
+  }
+  if (!values) {
+    nullPointerEx.Throw(env, "values is null");
+    return 0;
+  }
+  JSpan<jlong> ctimestamps{env, timestamps};
+  JSpan<T> cvalues{env, values};
+  size_t size = (std::min)(ctimestamps.size(), cvalues.size());
+  size_t count = 0;
+  wpi::nt::ReadQueueValue(subentry, types, [&](const wpi::nt::Value& value) {
+    if (count >= size) {
+      return false;
+    }
+    ctimestamps[count] = value.time();
+    cvalues[count] = get(value);
+    ++count;
+    return true;
+  });
+  return static_cast<jint>(count);
+}
+
 extern "C" {
 
 /*
@@ -455,6 +652,38 @@ Java_org_wpilib_networktables_NetworkTablesJNI_getEntryLastChange
   return wpi::nt::GetEntryLastChange(entry);
 }
 
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    getAtomicRawIfChanged
+ * Signature: (IJ)Lorg/wpilib/networktables/SequencedRaw;
+ */
+JNIEXPORT jobject JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_getAtomicRawIfChanged
+  (JNIEnv* env, jclass, jint subentry, jlong sequence)
+{
+  static jmethodID constructor =
+      env->GetMethodID(sequencedRawCls, "<init>", "(JJJ[B)V");
+  int64_t newSequence = sequence;
+  auto value = wpi::nt::GetEntryValueIfChanged(subentry, &newSequence);
+  if (!value) {
+    return nullptr;
+  }
+  // like GetAtomicRaw(), report a value of another type as no value
+  std::span<const uint8_t> raw;
+  int64_t time = 0;
+  int64_t serverTime = 0;
+  if (value->IsRaw()) {
+    raw = value->GetRaw();
+    time = value->time();
+    serverTime = value->server_time();
+  }
+  JLocal<jbyteArray> val{env, MakeJByteArray(env, raw)};
+  return env->NewObject(sequencedRawCls, constructor,
+                        static_cast<jlong>(newSequence),
+                        static_cast<jlong>(time),
+                        static_cast<jlong>(serverTime), val.obj());
+}
+
 /*
  * Class:     org_wpilib_networktables_NetworkTablesJNI
  * Method:    getType
@@ -990,6 +1219,170 @@ Java_org_wpilib_networktables_NetworkTablesJNI_readQueueValue
   return MakeJObject(env, wpi::nt::ReadQueueValue(subentry));
 }
 
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoBoolean
+ * Signature: (I[J[Z)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoBoolean
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps,
+   jbooleanArray values)
+{
+  return ReadQueueInto<jboolean>(
+      env, subentry, NT_BOOLEAN, timestamps, values,
+      [](const wpi::nt::Value& value) {
+        return static_cast<jboolean>(value.GetBoolean());
+      });
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoInteger
+ * Signature: (I[J[J)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoInteger
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps,
+   jlongArray values)
+{
+  return ReadQueueInto<jlong>(
+      env, subentry, NT_INTEGER | NT_FLOAT | NT_DOUBLE, timestamps, values,
+      [](const wpi::nt::Value& value) {
+        return static_cast<jlong>(wpi::nt::GetNumericAs<int64_t>(value));
+      });
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoFloat
+ * Signature: (I[J[F)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoFloat
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps,
+   jfloatArray values)
+{
+  return ReadQueueInto<jfloat>(
+      env, subentry, NT_INTEGER | NT_FLOAT | NT_DOUBLE, timestamps, values,
+      [](const wpi::nt::Value& value) {
+        return static_cast<jfloat>(wpi::nt::GetNumericAs<float>(value));
+      });
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoDouble
+ * Signature: (I[J[D)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoDouble
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps,
+   jdoubleArray values)
+{
+  return ReadQueueInto<jdouble>(
+      env, subentry, NT_INTEGER | NT_FLOAT | NT_DOUBLE, timestamps, values,
+      [](const wpi::nt::Value& value) {
+        return static_cast<jdouble>(wpi::nt::GetNumericAs<double>(value));
+      });
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoRaw
+ * Signature: (I[J[I[B)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoRaw
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps, jintArray sizes,
+   jbyteArray data)
+{
+  if (!timestamps) {
+    nullPointerEx.Throw(env, "timestamps is null");
+    return 0;
+  }
+  if (!sizes) {
+    nullPointerEx.Throw(env, "sizes is null");
+    return 0;
+  }
+  if (!data) {
+    nullPointerEx.Throw(env, "data is null");
+    return 0;
+  }
+  JSpan<jlong> ctimestamps{env, timestamps};
+  JSpan<jint> csizes{env, sizes};
+  JSpan<jbyte> cdata{env, data};
+  auto out = cdata.uarray();
+  size_t size = (std::min)(ctimestamps.size(), csizes.size());
+  size_t count = 0;
+  wpi::nt::ReadQueueValue(subentry, NT_RAW, [&](const wpi::nt::Value& value) {
+    auto raw = value.GetRaw();
+    if (count >= size || raw.size() > out.size()) {
+      return false;
+    }
+    std::copy(raw.begin(), raw.end(), out.begin());
+    out = out.subspan(raw.size());
+    ctimestamps[count] = value.time();
+    csizes[count] = static_cast<jint>(raw.size());
+    ++count;
+    return true;
+  });
+  return static_cast<jint>(count);
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    readQueueIntoRawBuffer
+ * Signature: (I[JLjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_readQueueIntoRawBuffer
+  (JNIEnv* env, jclass, jint subentry, jlongArray timestamps, jobject data,
+   jint len, jint size)
+{
+  if (!timestamps) {
+    nullPointerEx.Throw(env, "timestamps is null");
+    return 0;
+  }
+  if (!data) {
+    nullPointerEx.Throw(env, "data is null");
+    return 0;
+  }
+  if (len < 0) {
+    illegalArgEx.Throw(env, "len must be >= 0");
+    return 0;
+  }
+  if (size <= 0) {
+    illegalArgEx.Throw(env, "size must be > 0");
+    return 0;
+  }
+  JSpan<jbyte> cdata{env, data, static_cast<size_t>(len)};
+  if (!cdata) {
+    illegalArgEx.Throw(env, "data must be a native ByteBuffer");
+    return 0;
+  }
+  JSpan<jlong> ctimestamps{env, timestamps};
+  auto out = cdata.uarray();
+  size_t max = (std::min)(ctimestamps.size(), out.size() / size);
+  size_t count = 0;
+  wpi::nt::ReadQueueValue(subentry, NT_RAW, [&](const wpi::nt::Value& value) {
+    auto raw = value.GetRaw();
+    if (raw.size() != static_cast<size_t>(size)) {
+      // discard values of the wrong size, as they can't be decoded
+      return true;
+    }
+    if (count >= max) {
+      return false;
+    }
+    std::copy(raw.begin(), raw.end(),
+              out.begin() + count * static_cast<size_t>(size));
+    ctimestamps[count] = value.time();
+    ++count;
+    return true;
+  });
+  return static_cast<jint>(count);
+}
+
 /*
  * Class:     org_wpilib_networktables_NetworkTablesJNI
  * Method:    getValue
@@ -1002,6 +1395,59 @@ Java_org_wpilib_networktables_NetworkTablesJNI_getValue
   return MakeJValue(env, wpi::nt::GetEntryValue(entry));
 }
 
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    setBatch
+ * Signature: (I[BIJ)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_setBatch
+  (JNIEnv* env, jclass, jint inst, jbyteArray data, jint len, jlong time)
+{
+  if (!data) {
+    nullPointerEx.Throw(env, "data is null");
+    return 0;
+  }
+  if (len < 0) {
+    illegalArgEx.Throw(env, "len must be >= 0");
+    return 0;
+  }
+  // not CriticalJSpan: SetBatch takes the storage lock and may throw
+  JSpan<const jbyte> cdata{env, data};
+  if (static_cast<size_t>(len) > cdata.size()) {
+    illegalArgEx.Throw(env, "len must be within array length");
+    return 0;
+  }
+  jint count = SetBatch(env, inst, cdata.uarray().subspan(0, len), time);
+  return count < 0 ? 0 : count;
+}
+
+/*
+ * Class:     org_wpilib_networktables_NetworkTablesJNI
+ * Method:    setBatchBuffer
+ * Signature: (ILjava/nio/ByteBuffer;IJ)I
+ */
+JNIEXPORT jint JNICALL
+Java_org_wpilib_networktables_NetworkTablesJNI_setBatchBuffer
+  (JNIEnv* env, jclass, jint inst, jobject data, jint len, jlong time)
+{
+  if (!data) {
+    nullPointerEx.Throw(env, "data is null");
+    return 0;
+  }
+  if (len < 0) {
+    illegalArgEx.Throw(env, "len must be >= 0");
+    return 0;
+  }
+  JSpan<const jbyte> cdata{env, data, static_cast<size_t>(len)};
+  if (!cdata) {
+    illegalArgEx.Throw(env, "data must be a native ByteBuffer");
+    return 0;
+  }
+  jint count = SetBatch(env, inst, cdata.uarray(), time);
+  return count < 0 ? 0 : count;
+}
+
 /*
  * Class:     org_wpilib_networktables_NetworkTablesJNI
  * Method:    setEntryFlags
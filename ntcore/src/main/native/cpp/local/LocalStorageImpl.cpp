@@ -290,6 +290,7 @@ bool StorageImpl::SetDefaultEntryValue(NT_Handle pubsubentryHandle,
         PublishLocalValue(publisher, newValue, true);
       } else {
         topic->lastValue = newValue;
+        ++topic->lastValueSequence;
       }
       return true;
     }
@@ -834,6 +835,7 @@ bool StorageImpl::SetValue(LocalTopic* topic, const Value& value,
       topic->type = value.type();
       if (topic->IsCached()) {
         topic->lastValue = value;
+        ++topic->lastValueSequence;
         topic->lastValueFromNetwork = false;
       }
       NotifyValue(topic, value, eventFlags, isDuplicate, publisher);
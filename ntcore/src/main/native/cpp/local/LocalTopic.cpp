@@ -65,6 +65,7 @@ wpi::util::json LocalTopic::SetFlags(unsigned int flags) {
   }
   if ((flags & NT_UNCACHED) != 0) {
     lastValue = {};
+    ++lastValueSequence;
     lastValueNetwork = {};
     lastValueFromNetwork = false;
   }
@@ -180,6 +181,7 @@ void LocalTopic::ResetIfDoesNotExist() {
     return;
   }
   lastValue = {};
+  ++lastValueSequence;
   lastValueNetwork = {};
   lastValueFromNetwork = false;
   type = NT_UNASSIGNED;
@@ -220,6 +222,7 @@ void LocalTopic::RefreshFlags() {
 
   if ((m_flags & NT_UNCACHED) != 0) {
     lastValue = {};
+    ++lastValueSequence;
     lastValueNetwork = {};
     lastValueFromNetwork = false;
   }
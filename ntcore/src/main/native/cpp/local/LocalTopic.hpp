@@ -82,6 +82,8 @@ struct LocalTopic {
   bool special;
 
   Value lastValue;  // also stores timestamp
+  // incremented every time lastValue is replaced, even with an equal value
+  int64_t lastValueSequence{0};
   Value lastValueNetwork;
   NT_Type type{NT_UNASSIGNED};
   std::string typeStr;
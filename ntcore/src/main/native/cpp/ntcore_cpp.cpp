@@ -107,6 +107,15 @@ int64_t GetEntryLastChange(NT_Handle subentry) {
   }
 }
 
+std::optional<Value> GetEntryValueIfChanged(NT_Handle subentry,
+                                            int64_t* sequence) {
+  if (auto ii = InstanceImpl::GetHandle(subentry)) {
+    return ii->localStorage.GetEntryValueIfChanged(subentry, sequence);
+  } else {
+    return {};
+  }
+}
+
 Value GetEntryValue(NT_Handle subentry) {
   if (auto ii = InstanceImpl::GetHandle(subentry)) {
     return ii->localStorage.GetEntryValue(subentry);
@@ -131,6 +140,16 @@ bool SetEntryValue(NT_Entry entry, const Value& value) {
   }
 }
 
+size_t SetEntryValues(NT_Inst inst, std::span<const NT_Handle> entries,
+                      std::span<const Value> values) {
+  if (auto ii = InstanceImpl::GetTyped(inst, Handle::INSTANCE)) {
+    return ii->localStorage.SetEntryValues(Handle{inst}.GetInst(), entries,
+                                           values);
+  } else {
+    return 0;
+  }
+}
+
 void SetEntryFlags(NT_Entry entry, unsigned int flags) {
   if (auto ii = InstanceImpl::GetHandle(entry)) {
     ii->localStorage.SetEntryFlags(entry, flags);
@@ -157,6 +176,15 @@ std::vector<Value> ReadQueueValue(NT_Handle subentry, unsigned int types) {
   }
 }
 
+size_t ReadQueueValue(NT_Handle subentry, unsigned int types,
+                      wpi::util::function_ref<bool(const Value&)> func) {
+  if (auto ii = InstanceImpl::GetHandle(subentry)) {
+    return ii->localStorage.ReadQueueValue(subentry, types, func);
+  } else {
+    return 0;
+  }
+}
+
 /*
  * Topic Functions
  */
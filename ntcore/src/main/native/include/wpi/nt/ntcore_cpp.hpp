@@ -19,6 +19,7 @@
 #include "wpi/nt/NetworkTableValue.hpp"
 #include "wpi/nt/ntcore_c.h"
 #include "wpi/nt/ntcore_cpp_types.hpp"
+#include "wpi/util/function_ref.hpp"
 
 namespace wpi::util {
 class json;
@@ -478,6 +479,23 @@ NT_Type GetEntryType(NT_Entry entry);
  */
 int64_t GetEntryLastChange(NT_Handle subentry);
 
+/**
+ * Get Entry Value If Changed.
+ *
+ * Every time the value of a topic is replaced, even by an equal value with the
+ * same timestamp, the topic's value sequence number increases.  This returns
+ * a copy of the current entry value and updates sequence if the sequence
+ * number differs from sequence, so a caller can cheaply detect a new value.
+ *
+ * @param subentry     subscriber or entry handle
+ * @param sequence     sequence number of the value the caller last saw;
+ *                     updated if the value has changed
+ * @return entry value (which may be unassigned), or std::nullopt if unchanged
+ *         or the handle is invalid
+ */
+std::optional<Value> GetEntryValueIfChanged(NT_Handle subentry,
+                                            int64_t* sequence);
+
 /**
  * Get Entry Value.
  *
@@ -514,6 +532,22 @@ bool SetDefaultEntryValue(NT_Entry entry, const Value& value);
  */
 bool SetEntryValue(NT_Entry entry, const Value& value);
 
+/**
+ * Set Entry Values.
+ *
+ * Sets new values for multiple entries or publishers of an instance.  All of
+ * the values are set under a single lock, so local subscribers never observe
+ * a partial update.  Each value is otherwise set as with SetEntryValue().
+ * Handles that don't belong to the instance are ignored.
+ *
+ * @param inst      instance handle
+ * @param entries   entry or publisher handles
+ * @param values    new values; must be the same length as entries
+ * @return Number of values successfully set
+ */
+size_t SetEntryValues(NT_Inst inst, std::span<const NT_Handle> entries,
+                      std::span<const Value> values);
+
 /**
  * Set Entry Flags.
  *
@@ -552,6 +586,24 @@ std::vector<Value> ReadQueueValue(NT_Handle subentry);
  */
 std::vector<Value> ReadQueueValue(NT_Handle subentry, unsigned int types);
 
+/**
+ * Read Entry Queue.
+ *
+ * Passes new entry values since last call to a function, oldest first,
+ * without copying them into a new array.  The function is called with the
+ * storage lock held, so it must not call other ntcore functions.
+ *
+ * @param subentry     subscriber or entry handle
+ * @param types        bitmask of NT_Type values; 0 is treated specially
+ *                     as a "don't care"
+ * @param func         function called with each value; returning false stops
+ *                     reading and leaves that value and all later values in
+ *                     the queue
+ * @return number of values for which func returned true
+ */
+size_t ReadQueueValue(NT_Handle subentry, unsigned int types,
+                      wpi::util::function_ref<bool(const Value&)> func);
+
 /** @} */
 
 /**
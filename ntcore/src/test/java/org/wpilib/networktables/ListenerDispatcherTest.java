@@ -0,0 +1,132 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class ListenerDispatcherTest {
+  private static NetworkTableEvent makeEvent(int topic, double value) {
+    return new NetworkTableEvent(
+        null,
+        1,
+        NetworkTableEvent.Kind.VALUE_LOCAL.getValue(),
+        null,
+        null,
+        new ValueEventData(null, topic, 1, NetworkTableValue.makeDouble(value, 1)),
+        null,
+        null);
+  }
+
+  // listener that blocks on its first call until released
+  private static Consumer<NetworkTableEvent> blockingListener(
+      CountDownLatch started, CountDownLatch release, List<Double> values) {
+    return event -> {
+      values.add(event.valueData.value.getDouble());
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  void testDropOldest() throws InterruptedException {
+    List<Double> values = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (ListenerDispatcher dispatcher =
+        ListenerDispatcher.singleQueue(2, ListenerDispatcher.OverflowPolicy.DROP_OLDEST)) {
+      Consumer<NetworkTableEvent> listener =
+          dispatcher.wrap(blockingListener(started, release, values));
+      listener.accept(makeEvent(1, 1.0));
+      started.await();
+
+      // queue holds 2; 2.0 is dropped
+      listener.accept(makeEvent(1, 2.0));
+      listener.accept(makeEvent(1, 3.0));
+      listener.accept(makeEvent(1, 4.0));
+      assertEquals(2, dispatcher.getQueueDepth());
+
+      release.countDown();
+      assertTrue(dispatcher.waitForIdle(5.0));
+      assertEquals(List.of(1.0, 3.0, 4.0), values);
+      assertEquals(4, dispatcher.getSubmitted());
+      assertEquals(3, dispatcher.getExecuted());
+      assertEquals(1, dispatcher.getDropped());
+      assertEquals(2, dispatcher.getMaxQueueDepth());
+      assertEquals(0, dispatcher.getQueueDepth());
+    }
+  }
+
+  @Test
+  void testCoalesceLatest() throws InterruptedException {
+    List<Double> values = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (ListenerDispatcher dispatcher =
+        ListenerDispatcher.singleQueue(4, ListenerDispatcher.OverflowPolicy.COALESCE_LATEST)) {
+      Consumer<NetworkTableEvent> listener =
+          dispatcher.wrap(blockingListener(started, release, values));
+      listener.accept(makeEvent(1, 1.0));
+      started.await();
+
+      // topic 1 keeps its place in the queue but delivers only its latest value
+      listener.accept(makeEvent(1, 2.0));
+      listener.accept(makeEvent(2, 10.0));
+      listener.accept(makeEvent(1, 3.0));
+      assertEquals(2, dispatcher.getQueueDepth());
+
+      release.countDown();
+      assertTrue(dispatcher.waitForIdle(5.0));
+      assertEquals(List.of(1.0, 3.0, 10.0), values);
+      assertEquals(1, dispatcher.getCoalesced());
+      assertEquals(0, dispatcher.getDropped());
+    }
+  }
+
+  @Test
+  void testPerTopic() throws InterruptedException {
+    List<Double> slowValues = Collections.synchronizedList(new ArrayList<>());
+    List<Double> fastValues = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch fastDone = new CountDownLatch(3);
+    try (ListenerDispatcher dispatcher =
+        ListenerDispatcher.perTopic(4, ListenerDispatcher.OverflowPolicy.DROP_OLDEST)) {
+      Consumer<NetworkTableEvent> slow =
+          dispatcher.wrap(blockingListener(started, release, slowValues));
+      Consumer<NetworkTableEvent> fast =
+          dispatcher.wrap(
+              event -> {
+                fastValues.add(event.valueData.value.getDouble());
+                fastDone.countDown();
+              });
+      slow.accept(makeEvent(1, 1.0));
+      started.await();
+
+      // a blocked callback for topic 1 doesn't delay topic 2
+      fast.accept(makeEvent(2, 1.0));
+      fast.accept(makeEvent(2, 2.0));
+      fast.accept(makeEvent(2, 3.0));
+      fastDone.await();
+      assertEquals(List.of(1.0, 2.0, 3.0), fastValues);
+
+      release.countDown();
+      assertTrue(dispatcher.waitForIdle(5.0));
+      assertEquals(List.of(1.0), slowValues);
+      assertEquals(4, dispatcher.getExecuted());
+    }
+  }
+}
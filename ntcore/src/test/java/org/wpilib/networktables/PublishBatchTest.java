@@ -0,0 +1,317 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.protobuf.Protobuf;
+import org.wpilib.util.protobuf.ProtobufTestPoint;
+import org.wpilib.util.struct.Struct;
+import us.hebi.quickbuf.Descriptors.Descriptor;
+
+class PublishBatchTest {
+  record Point(double x, double y) {}
+
+  private static final Struct<Point> kStruct =
+      new Struct<>() {
+        @Override
+        public Class<Point> getTypeClass() {
+          return Point.class;
+        }
+
+        @Override
+        public String getTypeName() {
+          return "Point";
+        }
+
+        @Override
+        public int getSize() {
+          return DOUBLE_SIZE * 2;
+        }
+
+        @Override
+        public String getSchema() {
+          return "double x; double y";
+        }
+
+        @Override
+        public Point unpack(ByteBuffer bb) {
+          return new Point(bb.getDouble(), bb.getDouble());
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, Point value) {
+          bb.putDouble(value.x());
+          bb.putDouble(value.y());
+        }
+
+        @Override
+        public boolean isImmutable() {
+          return true;
+        }
+      };
+
+  private static final Protobuf<Point, ProtobufTestPoint> kProto =
+      new Protobuf<>() {
+        @Override
+        public Class<Point> getTypeClass() {
+          return Point.class;
+        }
+
+        @Override
+        public Descriptor getDescriptor() {
+          return ProtobufTestPoint.kDescriptor;
+        }
+
+        @Override
+        public ProtobufTestPoint createMessage() {
+          return ProtobufTestPoint.newInstance();
+        }
+
+        @Override
+        public Point unpack(ProtobufTestPoint msg) {
+          return new Point(msg.getX(), msg.getY());
+        }
+
+        @Override
+        public void pack(ProtobufTestPoint msg, Point value) {
+          msg.setX(value.x()).setY(value.y());
+        }
+
+        @Override
+        public boolean isImmutable() {
+          return true;
+        }
+      };
+
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void testAllTypes() {
+    try (BooleanEntry boolEntry = m_inst.getBooleanTopic("bool").getEntry(false);
+        IntegerEntry intEntry = m_inst.getIntegerTopic("int").getEntry(0);
+        FloatEntry floatEntry = m_inst.getFloatTopic("float").getEntry(0);
+        DoubleEntry doubleEntry = m_inst.getDoubleTopic("double").getEntry(0);
+        StringEntry stringEntry = m_inst.getStringTopic("string").getEntry("");
+        RawEntry rawEntry = m_inst.getRawTopic("raw").getEntry("raw", new byte[] {});
+        BooleanArrayEntry boolArrEntry =
+            m_inst.getBooleanArrayTopic("boolArr").getEntry(new boolean[] {});
+        IntegerArrayEntry intArrEntry =
+            m_inst.getIntegerArrayTopic("intArr").getEntry(new long[] {});
+        FloatArrayEntry floatArrEntry =
+            m_inst.getFloatArrayTopic("floatArr").getEntry(new float[] {});
+        DoubleArrayEntry doubleArrEntry =
+            m_inst.getDoubleArrayTopic("doubleArr").getEntry(new double[] {});
+        StringArrayEntry stringArrEntry =
+            m_inst.getStringArrayTopic("stringArr").getEntry(new String[] {})) {
+      PublishBatch batch = new PublishBatch(16);
+      boolEntry.set(batch, true);
+      intEntry.set(batch, -5);
+      floatEntry.set(batch, 1.5f);
+      doubleEntry.set(batch, 2.25);
+      stringEntry.set(batch, "héllo");
+      rawEntry.set(batch, new byte[] {1, 2, 3});
+      boolArrEntry.set(batch, new boolean[] {true, false, true});
+      intArrEntry.set(batch, new long[] {1, Long.MIN_VALUE});
+      floatArrEntry.set(batch, new float[] {0.5f, -1});
+      doubleArrEntry.set(batch, new double[] {3, 4});
+      stringArrEntry.set(batch, new String[] {"a", "", "bc"});
+      assertEquals(11, batch.getCount());
+
+      assertEquals(11, m_inst.publishBatch(batch, 100));
+      assertEquals(0, batch.getCount());
+      assertEquals(0, batch.getSize());
+
+      assertTrue(boolEntry.get());
+      assertEquals(-5, intEntry.get());
+      assertEquals(1.5f, floatEntry.get());
+      assertEquals(2.25, doubleEntry.get());
+      assertEquals("héllo", stringEntry.get());
+      assertArrayEquals(new byte[] {1, 2, 3}, rawEntry.get());
+      assertArrayEquals(new boolean[] {true, false, true}, boolArrEntry.get());
+      assertArrayEquals(new long[] {1, Long.MIN_VALUE}, intArrEntry.get());
+      assertArrayEquals(new float[] {0.5f, -1}, floatArrEntry.get());
+      assertArrayEquals(new double[] {3, 4}, doubleArrEntry.get());
+      assertArrayEquals(new String[] {"a", "", "bc"}, stringArrEntry.get());
+
+      assertEquals(100, boolEntry.getLastChange());
+      assertEquals(100, stringArrEntry.getLastChange());
+    }
+  }
+
+  @Test
+  void testSharedTimestamp() {
+    try (DoubleEntry first = m_inst.getDoubleTopic("first").getEntry(0);
+        StringEntry second = m_inst.getStringTopic("second").getEntry("");
+        DoubleArrayEntry third = m_inst.getDoubleArrayTopic("third").getEntry(new double[] {})) {
+      PublishBatch batch = new PublishBatch();
+      first.set(batch, 1);
+      second.set(batch, "2");
+      third.set(batch, new double[] {3});
+
+      // time 0 uses the current time, resolved once for the whole batch
+      assertEquals(3, m_inst.publishBatch(batch));
+      long time = first.getLastChange();
+      assertNotEquals(0, time);
+      assertEquals(time, second.getLastChange());
+      assertEquals(time, third.getLastChange());
+    }
+  }
+
+  @Test
+  void testWrongTypeNotSet() {
+    try (DoublePublisher pub = m_inst.getDoubleTopic("double").publish();
+        DoubleSubscriber sub = m_inst.getDoubleTopic("double").subscribe(1.0);
+        BooleanEntry other = m_inst.getBooleanTopic("bool").getEntry(false)) {
+      PublishBatch batch = new PublishBatch();
+      batch.setString(pub.getHandle(), "not a double");
+      other.set(batch, true);
+      assertEquals(1, m_inst.publishBatch(batch, 10));
+      assertEquals(1.0, sub.get());
+      assertTrue(other.get());
+    }
+  }
+
+  @Test
+  void testOtherInstanceRejected() {
+    NetworkTableInstance otherInst = NetworkTableInstance.create();
+    try (DoubleEntry entry = m_inst.getDoubleTopic("double").getEntry(1.0);
+        DoubleEntry otherEntry = otherInst.getDoubleTopic("double").getEntry(1.0)) {
+      PublishBatch batch = new PublishBatch();
+      otherEntry.set(batch, 5.0);
+      assertThrows(IllegalArgumentException.class, () -> m_inst.publishBatch(batch, 10));
+      assertEquals(1.0, entry.get());
+      assertEquals(1.0, otherEntry.get());
+    } finally {
+      otherInst.close();
+    }
+  }
+
+  @Test
+  void testMalformedRecords() {
+    int inst = m_inst.getHandle();
+    try (DoubleEntry entry = m_inst.getDoubleTopic("double").getEntry(1.0)) {
+      int handle = entry.getHandle();
+      ByteBuffer buf = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+
+      // truncated header
+      buf.putInt(handle).putInt(NetworkTableType.DOUBLE.getValue());
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, buf.array(), buf.position(), 10));
+
+      // payload shorter than its size
+      buf.clear();
+      buf.putInt(handle).putInt(NetworkTableType.DOUBLE.getValue()).putInt(8).putInt(0);
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, buf.array(), buf.position(), 10));
+
+      // wrong size for type
+      buf.clear();
+      buf.putInt(handle).putInt(NetworkTableType.DOUBLE.getValue()).putInt(4).putFloat(1);
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, buf.array(), buf.position(), 10));
+
+      // unknown type
+      buf.clear();
+      buf.putInt(handle).putInt(0x12345).putInt(0);
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, buf.array(), buf.position(), 10));
+
+      // malformed records don't set any value, even ones before them
+      buf.clear();
+      buf.putInt(handle).putInt(NetworkTableType.DOUBLE.getValue()).putInt(8).putDouble(2);
+      buf.putInt(handle).putInt(NetworkTableType.DOUBLE.getValue()).putInt(2);
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, buf.array(), buf.position(), 10));
+      assertEquals(1.0, entry.get());
+
+      // len beyond the array
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> NetworkTablesJNI.setBatch(inst, new byte[4], 8, 10));
+    }
+  }
+
+  @Test
+  void testRawOutOfBoundsKeepsBatchValid() {
+    try (RawEntry raw = m_inst.getRawTopic("raw").getEntry("raw", new byte[] {});
+        DoubleEntry entry = m_inst.getDoubleTopic("double").getEntry(0)) {
+      PublishBatch batch = new PublishBatch();
+      entry.set(batch, 1.0);
+      int size = batch.getSize();
+      assertThrows(
+          IndexOutOfBoundsException.class,
+          () -> batch.setRaw(raw.getHandle(), new byte[] {1, 2}, 1, 5));
+      assertThrows(
+          IndexOutOfBoundsException.class,
+          () -> batch.setRaw(raw.getHandle(), ByteBuffer.wrap(new byte[] {1, 2}), -1, 1));
+      assertEquals(1, batch.getCount());
+      assertEquals(size, batch.getSize());
+
+      batch.setRaw(raw.getHandle(), new byte[] {1, 2, 3}, 1, 2);
+      assertEquals(2, m_inst.publishBatch(batch, 10));
+      assertEquals(1.0, entry.get());
+      assertArrayEquals(new byte[] {2, 3}, raw.get());
+    }
+  }
+
+  @Test
+  void testStruct() {
+    try (StructPublisher<Point> pub = m_inst.getStructTopic("point", kStruct).publish();
+        StructSubscriber<Point> sub =
+            m_inst.getStructTopic("point", kStruct).subscribe(new Point(0, 0));
+        StructArrayPublisher<Point> arrPub =
+            m_inst.getStructArrayTopic("points", kStruct).publish();
+        StructArraySubscriber<Point> arrSub =
+            m_inst.getStructArrayTopic("points", kStruct).subscribe(new Point[] {})) {
+      PublishBatch batch = new PublishBatch();
+      pub.set(batch, new Point(1, 2));
+      arrPub.set(batch, new Point[] {new Point(3, 4), new Point(5, 6)});
+      assertTrue(m_inst.hasSchema("struct:Point"));
+
+      assertEquals(2, m_inst.publishBatch(batch, 10));
+      assertEquals(new Point(1, 2), sub.get());
+      assertArrayEquals(new Point[] {new Point(3, 4), new Point(5, 6)}, arrSub.get());
+    }
+  }
+
+  @Test
+  void testProtobuf() {
+    try (ProtobufPublisher<Point> pub = m_inst.getProtobufTopic("point", kProto).publish();
+        ProtobufSubscriber<Point> sub =
+            m_inst.getProtobufTopic("point", kProto).subscribe(new Point(0, 0))) {
+      PublishBatch batch = new PublishBatch();
+      pub.set(batch, new Point(1.5, -2));
+      assertTrue(m_inst.hasSchema("proto:test_point.proto"));
+
+      assertEquals(1, m_inst.publishBatch(batch, 10));
+      assertEquals(new Point(1.5, -2), sub.get());
+    }
+  }
+}
@@ -5,6 +5,7 @@
 package org.wpilib.networktables;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.nio.ByteBuffer;
@@ -132,4 +133,31 @@ class RawTest {
     assertThrows(IndexOutOfBoundsException.class, () -> entry.set(bb, 1, -1, 25));
     assertThrows(IndexOutOfBoundsException.class, () -> entry.set(bb, 2, 2, 25));
   }
+
+  @Test
+  void testRawReadQueueInto() {
+    RawTopic topic = m_inst.getRawTopic("test");
+    try (RawSubscriber sub = topic.subscribe("raw", new byte[] {}, PubSubOption.pollStorage(10));
+        RawPublisher pub = topic.publish("raw")) {
+      pub.set(new byte[] {1}, 10);
+      pub.set(new byte[] {2, 3}, 20);
+      pub.set(new byte[] {4, 5, 6}, 30);
+
+      long[] timestamps = new long[2];
+      int[] sizes = new int[2];
+      byte[] data = new byte[4];
+      assertEquals(2, sub.readQueueInto(timestamps, sizes, data));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new int[] {1, 2}, sizes);
+      assertArrayEquals(new byte[] {1, 2, 3, 0}, data);
+
+      // the remaining value doesn't fit, so it stays queued
+      assertEquals(0, sub.readQueueInto(timestamps, sizes, new byte[2]));
+      assertEquals(1, sub.readQueueInto(timestamps, sizes, data));
+      assertEquals(30, timestamps[0]);
+      assertEquals(3, sizes[0]);
+      assertArrayEquals(new byte[] {4, 5, 6, 0}, data);
+      assertEquals(0, sub.readQueueInto(timestamps, sizes, data));
+    }
+  }
 }
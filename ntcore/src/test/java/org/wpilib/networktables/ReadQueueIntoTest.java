@@ -0,0 +1,161 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReadQueueIntoTest {
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void testBoolean() {
+    BooleanTopic topic = m_inst.getBooleanTopic("test");
+    try (BooleanSubscriber sub = topic.subscribe(false, PubSubOption.pollStorage(10));
+        BooleanPublisher pub = topic.publish()) {
+      pub.set(true, 10);
+      pub.set(false, 20);
+      pub.set(true, 30);
+
+      long[] timestamps = new long[2];
+      boolean[] values = new boolean[2];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new boolean[] {true, false}, values);
+
+      // the remaining value stays queued for the next call
+      assertEquals(1, sub.readQueueInto(timestamps, values));
+      assertEquals(30, timestamps[0]);
+      assertTrue(values[0]);
+      assertEquals(0, sub.readQueueInto(timestamps, values));
+    }
+  }
+
+  @Test
+  void testInteger() {
+    IntegerTopic topic = m_inst.getIntegerTopic("test");
+    try (IntegerSubscriber sub = topic.subscribe(0, PubSubOption.pollStorage(10));
+        IntegerPublisher pub = topic.publish()) {
+      pub.set(1, 10);
+      pub.set(2, 20);
+      pub.set(3, 30);
+
+      // reads at most as many values as fit in the shorter array
+      long[] timestamps = new long[4];
+      long[] values = new long[2];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20, 0, 0}, timestamps);
+      assertArrayEquals(new long[] {1, 2}, values);
+      assertEquals(1, sub.readQueueInto(timestamps, values));
+      assertEquals(3, values[0]);
+    }
+  }
+
+  @Test
+  void testFloat() {
+    FloatTopic topic = m_inst.getFloatTopic("test");
+    try (FloatSubscriber sub = topic.subscribe(0, PubSubOption.pollStorage(10));
+        FloatPublisher pub = topic.publish()) {
+      pub.set(1.5f, 10);
+      pub.set(2.5f, 20);
+
+      long[] timestamps = new long[2];
+      float[] values = new float[2];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new float[] {1.5f, 2.5f}, values);
+    }
+  }
+
+  @Test
+  void testDouble() {
+    DoubleTopic topic = m_inst.getDoubleTopic("test");
+    try (DoubleSubscriber sub = topic.subscribe(0, PubSubOption.pollStorage(10));
+        DoublePublisher pub = topic.publish()) {
+      pub.set(1.25, 10);
+      pub.set(2.25, 20);
+
+      long[] timestamps = new long[2];
+      double[] values = new double[2];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new double[] {1.25, 2.25}, values);
+      assertEquals(0, sub.readQueueInto(timestamps, values));
+    }
+  }
+
+  @Test
+  void testEmptyArrays() {
+    DoubleTopic topic = m_inst.getDoubleTopic("test");
+    try (DoubleSubscriber sub = topic.subscribe(0, PubSubOption.pollStorage(10));
+        DoublePublisher pub = topic.publish()) {
+      pub.set(1, 10);
+      assertEquals(0, sub.readQueueInto(new long[0], new double[0]));
+      double[] values = new double[1];
+      assertEquals(1, sub.readQueueInto(new long[1], values));
+      assertEquals(1, values[0]);
+    }
+  }
+
+  @Test
+  void testNumericConversions() {
+    // subscribers of one numeric type convert values published with another, as readQueue does
+    try (IntegerPublisher pub = m_inst.getIntegerTopic("int").publish();
+        DoubleSubscriber doubleSub =
+            m_inst.getDoubleTopic("int").subscribe(0, PubSubOption.pollStorage(10));
+        FloatSubscriber floatSub =
+            m_inst.getFloatTopic("int").subscribe(0, PubSubOption.pollStorage(10))) {
+      pub.set(3, 10);
+      pub.set(-4, 20);
+
+      long[] timestamps = new long[2];
+      double[] doubles = new double[2];
+      assertEquals(2, doubleSub.readQueueInto(timestamps, doubles));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new double[] {3, -4}, doubles);
+
+      float[] floats = new float[2];
+      assertEquals(2, floatSub.readQueueInto(timestamps, floats));
+      assertArrayEquals(new float[] {3, -4}, floats);
+    }
+
+    try (DoublePublisher pub = m_inst.getDoubleTopic("double").publish();
+        IntegerSubscriber sub =
+            m_inst.getIntegerTopic("double").subscribe(0, PubSubOption.pollStorage(10))) {
+      pub.set(2.75, 10);
+      pub.set(-1.5, 20);
+
+      long[] values = new long[2];
+      assertEquals(2, sub.readQueueInto(new long[2], values));
+      assertArrayEquals(new long[] {2, -1}, values);
+    }
+  }
+
+  @Test
+  void testNonNumericIgnored() {
+    // values of other types aren't read as numbers
+    try (GenericEntry entry = m_inst.getTopic("test").getGenericEntry();
+        DoubleSubscriber sub =
+            m_inst.getDoubleTopic("test").subscribe(0, PubSubOption.pollStorage(10))) {
+      entry.setString("a", 10);
+      assertEquals(0, sub.readQueueInto(new long[2], new double[2]));
+    }
+  }
+}
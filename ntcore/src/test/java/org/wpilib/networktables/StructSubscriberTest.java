@@ -0,0 +1,244 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.struct.Struct;
+
+class StructSubscriberTest {
+  record Point(double x, double y) {}
+
+  private static final Struct<Point> kStruct =
+      new Struct<>() {
+        @Override
+        public Class<Point> getTypeClass() {
+          return Point.class;
+        }
+
+        @Override
+        public String getTypeName() {
+          return "Point";
+        }
+
+        @Override
+        public int getSize() {
+          return DOUBLE_SIZE * 2;
+        }
+
+        @Override
+        public String getSchema() {
+          return "double x; double y";
+        }
+
+        @Override
+        public Point unpack(ByteBuffer bb) {
+          return new Point(bb.getDouble(), bb.getDouble());
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, Point value) {
+          bb.putDouble(value.x());
+          bb.putDouble(value.y());
+        }
+
+        @Override
+        public boolean isImmutable() {
+          return true;
+        }
+      };
+
+  static final class MutablePoint {
+    double m_x;
+    double m_y;
+
+    MutablePoint(double x, double y) {
+      m_x = x;
+      m_y = y;
+    }
+  }
+
+  private static final Struct<MutablePoint> kMutableStruct =
+      new Struct<>() {
+        @Override
+        public Class<MutablePoint> getTypeClass() {
+          return MutablePoint.class;
+        }
+
+        @Override
+        public String getTypeName() {
+          return "MutablePoint";
+        }
+
+        @Override
+        public int getSize() {
+          return DOUBLE_SIZE * 2;
+        }
+
+        @Override
+        public String getSchema() {
+          return "double x; double y";
+        }
+
+        @Override
+        public MutablePoint unpack(ByteBuffer bb) {
+          return new MutablePoint(bb.getDouble(), bb.getDouble());
+        }
+
+        @Override
+        public void unpackInto(MutablePoint out, ByteBuffer bb) {
+          out.m_x = bb.getDouble();
+          out.m_y = bb.getDouble();
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, MutablePoint value) {
+          bb.putDouble(value.m_x);
+          bb.putDouble(value.m_y);
+        }
+      };
+
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void testMemoizedGet() {
+    StructTopic<Point> topic = m_inst.getStructTopic("point", kStruct);
+    Point defaultValue = new Point(0, 0);
+    try (StructPublisher<Point> pub = topic.publish();
+        StructSubscriber<Point> sub = topic.subscribe(defaultValue)) {
+      assertSame(defaultValue, sub.get());
+
+      pub.set(new Point(1, 2), 100);
+      Point first = sub.get();
+      assertEquals(new Point(1, 2), first);
+      assertSame(first, sub.get());
+      assertSame(first, sub.getAtomic().value);
+      assertEquals(100, sub.getAtomic().timestamp);
+
+      pub.set(new Point(3, 4), 200);
+      Point second = sub.get();
+      assertNotSame(first, second);
+      assertEquals(new Point(3, 4), second);
+      assertSame(second, sub.get());
+    }
+  }
+  @Test
+  void testSameTimestamp() {
+    StructTopic<Point> topic = m_inst.getStructTopic("point", kStruct);
+    try (StructPublisher<Point> pub = topic.publish();
+        StructSubscriber<Point> sub = topic.subscribe(new Point(0, 0))) {
+      pub.set(new Point(1, 2), 100);
+      assertEquals(new Point(1, 2), sub.get());
+
+      // a new value is picked up even if its timestamp matches the cached value
+      pub.set(new Point(3, 4), 100);
+      assertEquals(new Point(3, 4), sub.get());
+      assertEquals(100, sub.getAtomic().timestamp);
+    }
+  }
+
+  @Test
+  void testDefaultValue() {
+    StructTopic<Point> topic = m_inst.getStructTopic("point", kStruct);
+    try (StructPublisher<Point> pub = topic.publish();
+        StructSubscriber<Point> sub = topic.subscribe(new Point(0, 0))) {
+      // default values have a timestamp of 0
+      pub.setDefault(new Point(1, 2));
+      assertEquals(new Point(1, 2), sub.get());
+      assertEquals(0, sub.getAtomic().timestamp);
+
+      pub.set(new Point(3, 4), 0);
+      assertEquals(new Point(3, 4), sub.get());
+    }
+  }
+
+  @Test
+  void testReadQueueIntoImmutable() {
+    StructTopic<Point> topic = m_inst.getStructTopic("point", kStruct);
+    try (StructSubscriber<Point> sub =
+            topic.subscribe(new Point(0, 0), PubSubOption.pollStorage(10));
+        StructPublisher<Point> pub = topic.publish()) {
+      pub.set(new Point(1, 2), 10);
+      pub.set(new Point(3, 4), 20);
+      pub.set(new Point(5, 6), 30);
+
+      long[] timestamps = new long[2];
+      Point[] values = new Point[3];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertArrayEquals(new Point[] {new Point(1, 2), new Point(3, 4), null}, values);
+
+      // the remaining value stays queued for the next call
+      assertEquals(1, sub.readQueueInto(timestamps, values));
+      assertEquals(30, timestamps[0]);
+      assertEquals(new Point(5, 6), values[0]);
+      assertEquals(0, sub.readQueueInto(timestamps, values));
+    }
+  }
+
+  @Test
+  void testReadQueueIntoMutable() {
+    StructTopic<MutablePoint> topic = m_inst.getStructTopic("point", kMutableStruct);
+    try (StructSubscriber<MutablePoint> sub =
+            topic.subscribe(new MutablePoint(0, 0), PubSubOption.pollStorage(10));
+        StructPublisher<MutablePoint> pub = topic.publish()) {
+      pub.set(new MutablePoint(1, 2), 10);
+      pub.set(new MutablePoint(3, 4), 20);
+
+      // existing elements are unpacked in place; null elements get new objects
+      MutablePoint existing = new MutablePoint(0, 0);
+      MutablePoint[] values = new MutablePoint[] {existing, null};
+      long[] timestamps = new long[2];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertArrayEquals(new long[] {10, 20}, timestamps);
+      assertSame(existing, values[0]);
+      assertEquals(1, existing.m_x);
+      assertEquals(2, existing.m_y);
+      assertNotNull(values[1]);
+      assertEquals(3, values[1].m_x);
+      assertEquals(4, values[1].m_y);
+    }
+  }
+
+  @Test
+  void testReadQueueIntoDropsWrongSize() {
+    StructTopic<Point> topic = m_inst.getStructTopic("point", kStruct);
+    try (StructSubscriber<Point> sub =
+            topic.subscribe(new Point(0, 0), PubSubOption.pollStorage(10));
+        StructPublisher<Point> pub = topic.publish();
+        RawPublisher rawPub = m_inst.getRawTopic("point").publish(kStruct.getTypeString())) {
+      pub.set(new Point(1, 2), 10);
+      rawPub.set(new byte[] {1, 2, 3}, 20);
+      pub.set(new Point(3, 4), 30);
+
+      long[] timestamps = new long[3];
+      Point[] values = new Point[3];
+      assertEquals(2, sub.readQueueInto(timestamps, values));
+      assertEquals(10, timestamps[0]);
+      assertEquals(30, timestamps[1]);
+      assertEquals(new Point(1, 2), values[0]);
+      assertEquals(new Point(3, 4), values[1]);
+      assertEquals(0, sub.readQueueInto(timestamps, values));
+    }
+  }
+}
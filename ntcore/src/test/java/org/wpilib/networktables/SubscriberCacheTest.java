@@ -0,0 +1,59 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SubscriberCacheTest {
+  private NetworkTableInstance m_inst;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void testUpdate() {
+    try (DoublePublisher doublePub = m_inst.getDoubleTopic("double").publish();
+        DoubleSubscriber doubleSub = m_inst.getDoubleTopic("double").subscribe(1.5);
+        BooleanSubscriber boolSub = m_inst.getBooleanTopic("bool").subscribe(true);
+        SubscriberCache cache = new SubscriberCache(m_inst)) {
+      SubscriberCache.CachedDouble cachedDouble = cache.add(doubleSub);
+      SubscriberCache.CachedBoolean cachedBool = cache.add(boolSub);
+      assertEquals(2, cache.size());
+
+      // initialized from the subscribers' defaults
+      assertEquals(1.5, cachedDouble.get());
+      assertTrue(cachedBool.get());
+      assertFalse(cachedDouble.hasValue());
+      assertTrue(cachedDouble.isStale(1000000));
+
+      // values are only refreshed by update()
+      doublePub.set(2.5, 100);
+      assertEquals(1.5, cachedDouble.get());
+      assertEquals(1, cache.update());
+      assertEquals(2.5, cachedDouble.get());
+      assertEquals(100, cachedDouble.getLastChange());
+      assertTrue(cachedDouble.hasValue());
+      assertFalse(cachedBool.hasValue());
+
+      assertEquals(0, cache.update());
+      assertEquals(2.5, cachedDouble.get());
+      assertTrue(cachedDouble.isStale(cache.getLastUpdate() - 101));
+      assertFalse(cachedDouble.isStale(cache.getLastUpdate() - 100));
+    }
+  }
+}
@@ -264,6 +264,34 @@ TEST_CASE_METHOD(LocalStorageTest, "LocalStorageTest EntryNoTypeLocalSet",
                 Value::MakeBoolean(false, 6));
 }
 
+TEST_CASE_METHOD(LocalStorageTest, "LocalStorageTest GetEntryValueIfChanged",
+                 "[ntcore][local-storage]") {
+  auto sub = storage.Subscribe(fooTopic, NT_RAW, "raw", {});
+  auto pub = storage.Publish(fooTopic, NT_RAW, "raw", {}, {});
+
+  int64_t sequence = -1;
+  auto value = storage.GetEntryValueIfChanged(sub, &sequence);
+  REQUIRE(value);
+  CHECK_FALSE(*value);
+  CHECK_FALSE(storage.GetEntryValueIfChanged(sub, &sequence));
+
+  auto val1 = Value::MakeRaw(std::vector<uint8_t>{1, 2}, 5);
+  CHECK(storage.SetEntryValue(pub, val1));
+  value = storage.GetEntryValueIfChanged(sub, &sequence);
+  REQUIRE(value);
+  CHECK(*value == val1);
+  CHECK_FALSE(storage.GetEntryValueIfChanged(sub, &sequence));
+
+  // a different value with the same timestamp is still a change
+  auto val2 = Value::MakeRaw(std::vector<uint8_t>{3, 4}, 5);
+  CHECK(storage.SetEntryValue(pub, val2));
+  value = storage.GetEntryValueIfChanged(sub, &sequence);
+  REQUIRE(value);
+  CHECK(*value == val2);
+  CHECK(value->time() == 5);
+  CHECK_FALSE(storage.GetEntryValueIfChanged(sub, &sequence));
+}
+
 TEST_CASE_METHOD(LocalStorageTest, "LocalStorageTest PubUnpubPub",
                  "[ntcore][local-storage]") {
   auto sub = storage.Subscribe(fooTopic, NT_INTEGER, "int", {});
@@ -0,0 +1,42 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a struct serializer for a record or enum at compile time. The WPILib compiler plugin
+ * will emit a class named after the annotated type with a {@code Struct} suffix (e.g. {@code
+ * ModuleStateStruct} for a {@code ModuleState} record) in the same package, which implements
+ * {@code org.wpilib.util.struct.Struct}. For a nested type, the names of the enclosing types are
+ * joined with underscores (e.g. {@code Drive_ModuleStateStruct} for {@code Drive.ModuleState}).
+ * The generated serializer is equivalent to a hand-written one and does not use reflection.
+ *
+ * <p>Record components and enum instance fields must be primitives (or their boxed types), types
+ * with a static {@code struct} field (e.g. {@code Pose2d}), or other types annotated with
+ * {@code @GenerateStruct}. Enum instance fields must not be private. A char is serialized in two
+ * bytes, the same layout {@code StructGenerator} uses. By convention, the type should expose the
+ * serializer as a static field:
+ *
+ * <pre>{@code
+ * @GenerateStruct
+ * public record ModuleState(double speed, Rotation2d angle) implements StructSerializable {
+ *   public static final ModuleStateStruct struct = new ModuleStateStruct();
+ * }
+ * }</pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateStruct {
+  /**
+   * The struct type name. Defaults to the simple name of the annotated type.
+   *
+   * @return The struct type name.
+   */
+  String name() default "";
+}
@@ -0,0 +1,234 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.cleanup;
+
+import java.lang.ref.Cleaner.Cleanable;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import org.wpilib.util.ErrorMessages;
+
+/**
+ * A pool of interchangeable native handles of one kind, so hot code can reuse handles instead of
+ * paying for a JNI create and destroy call each time.
+ *
+ * <p>Handles are obtained with {@link #acquire()} and returned with {@link #release(long)}. A
+ * released handle is reset and kept for reuse if the pool has room; otherwise it is destroyed. To
+ * also reclaim handles whose owner is garbage collected without being closed, attach them to the
+ * owner with {@link #register(Object, long)} and call {@link Cleanable#clean()} on the result from
+ * the owner's close() method.
+ *
+ * <p>Only pool handles that are fully independent of each other: a handle must not be released
+ * while native code still references it (e.g. from another object's state).
+ *
+ * <p>This class is thread-safe.
+ */
+public final class HandlePool implements AutoCloseable {
+  private final String m_kind;
+  private final LongSupplier m_create;
+  private final LongConsumer m_reset;
+  private final LongConsumer m_destroy;
+  private final long[] m_idle;
+  private int m_idleCount;
+  private boolean m_closed;
+
+  private long m_hits;
+  private long m_misses;
+  private long m_leaks;
+
+  /**
+   * Constructs a handle pool.
+   *
+   * @param kind name of the kind of handle, for diagnostics
+   * @param maxIdle maximum number of released handles to keep for reuse
+   * @param create creates a new handle
+   * @param reset resets a released handle to its just-created state before it is reused
+   * @param destroy destroys a handle
+   */
+  public HandlePool(
+      String kind, int maxIdle, LongSupplier create, LongConsumer reset, LongConsumer destroy) {
+    ErrorMessages.requireNonNullParam(kind, "kind", "HandlePool");
+    ErrorMessages.requireNonNullParam(create, "create", "HandlePool");
+    ErrorMessages.requireNonNullParam(reset, "reset", "HandlePool");
+    ErrorMessages.requireNonNullParam(destroy, "destroy", "HandlePool");
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("maxIdle must be non-negative");
+    }
+    m_kind = kind;
+    m_create = create;
+    m_reset = reset;
+    m_destroy = destroy;
+    m_idle = new long[maxIdle];
+  }
+
+  /**
+   * Constructs a handle pool for handles that don't need to be reset before reuse.
+   *
+   * @param kind name of the kind of handle, for diagnostics
+   * @param maxIdle maximum number of released handles to keep for reuse
+   * @param create creates a new handle
+   * @param destroy destroys a handle
+   */
+  public HandlePool(String kind, int maxIdle, LongSupplier create, LongConsumer destroy) {
+    this(kind, maxIdle, create, handle -> {}, destroy);
+  }
+
+  /**
+   * Gets the name of the kind of handle in this pool.
+   *
+   * @return kind name
+   */
+  public String getKind() {
+    return m_kind;
+  }
+
+  /**
+   * Gets a handle from the pool, creating a new one if the pool is empty.
+   *
+   * @return handle
+   */
+  public long acquire() {
+    synchronized (this) {
+      if (m_idleCount > 0) {
+        m_hits++;
+        return m_idle[--m_idleCount];
+      }
+      m_misses++;
+    }
+    return m_create.getAsLong();
+  }
+
+  /**
+   * Returns a handle to the pool. The handle is reset and kept for reuse if there is room, and
+   * destroyed otherwise. The caller must not use the handle afterwards.
+   *
+   * @param handle handle previously returned by {@link #acquire()}
+   */
+  public void release(long handle) {
+    synchronized (this) {
+      if (!m_closed && m_idleCount < m_idle.length) {
+        m_reset.accept(handle);
+        m_idle[m_idleCount++] = handle;
+        return;
+      }
+    }
+    m_destroy.accept(handle);
+  }
+
+  /**
+   * Registers a handle to be released back to the pool when its owner becomes unreachable. Call
+   * {@link Cleanable#clean()} on the returned object to release the handle explicitly (e.g. from
+   * the owner's close() method); the handle is released at most once.
+   *
+   * @param owner object that owns the handle
+   * @param handle handle previously returned by {@link #acquire()}
+   * @return Cleanable that releases the handle
+   */
+  public Cleanable register(Object owner, long handle) {
+    Reclaimer reclaimer = new Reclaimer(this, handle);
+    Cleanable cleanable = WPICleaner.register(owner, reclaimer);
+    return () -> {
+      reclaimer.m_leaked = false;
+      cleanable.clean();
+    };
+  }
+
+  /**
+   * Gets the number of acquire calls that reused a pooled handle.
+   *
+   * @return number of pool hits
+   */
+  public synchronized long getHits() {
+    return m_hits;
+  }
+
+  /**
+   * Gets the number of acquire calls that created a new handle.
+   *
+   * @return number of pool misses
+   */
+  public synchronized long getMisses() {
+    return m_misses;
+  }
+
+  /**
+   * Gets the number of registered handles that were reclaimed because their owner was garbage
+   * collected without releasing them.
+   *
+   * @return number of leaked handles
+   */
+  public synchronized long getLeaks() {
+    return m_leaks;
+  }
+
+  /**
+   * Gets the number of handles currently available for reuse.
+   *
+   * @return number of idle handles
+   */
+  public synchronized int getIdleCount() {
+    return m_idleCount;
+  }
+
+  /** Destroys all idle handles. Handles that are in use are unaffected. */
+  public void clear() {
+    long[] idle;
+    synchronized (this) {
+      idle = Arrays.copyOf(m_idle, m_idleCount);
+      m_idleCount = 0;
+    }
+    for (long handle : idle) {
+      m_destroy.accept(handle);
+    }
+  }
+
+  /**
+   * Destroys all idle handles. Handles released after this call are destroyed instead of pooled.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      m_closed = true;
+    }
+    clear();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "HandlePool["
+        + m_kind
+        + ": hits="
+        + m_hits
+        + ", misses="
+        + m_misses
+        + ", leaks="
+        + m_leaks
+        + ", idle="
+        + m_idleCount
+        + "]";
+  }
+
+  // Must not reference the owner, or it would never become unreachable
+  private static final class Reclaimer implements Runnable {
+    private final HandlePool m_pool;
+    private final long m_handle;
+    volatile boolean m_leaked = true;
+
+    Reclaimer(HandlePool pool, long handle) {
+      m_pool = pool;
+      m_handle = handle;
+    }
+
+    @Override
+    public void run() {
+      if (m_leaked) {
+        synchronized (m_pool) {
+          m_pool.m_leaks++;
+        }
+      }
+      m_pool.release(m_handle);
+    }
+  }
+}
@@ -0,0 +1,445 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.collections.prefixmap;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.wpilib.util.collections.PrefixMap;
+
+/**
+ * A thread-safe implementation of PrefixMap backed by a compressed radix trie, intended for
+ * hierarchical keys such as NetworkTables topic names and DataLog entry names.
+ *
+ * <p>Each trie edge holds a run of characters rather than a single character, so keys sharing a
+ * path (e.g. "/SmartDashboard/") share the nodes for it. Nodes are immutable: updates copy the
+ * path from the root to the changed node and atomically swap in the new root, so reads never lock
+ * and always see a consistent snapshot. Concurrent writers retry on conflict.
+ *
+ * <p>Lookups by String ({@link #get(String)}, {@link #getLongestMatch(String)}, {@link
+ * #getShortestMatch(String)}, {@link #containsPrefix(String)}, and {@link #forEachMatch(String,
+ * Consumer)}) run in O(key length) and do not allocate. Unlike {@link StringPrefixMap}, keys are
+ * matched by UTF-16 char rather than by code point; the results are the same for well-formed
+ * strings.
+ *
+ * <p>The collection views ({@link #entrySet()}, {@link #keySet()}, {@link #values()}) are
+ * unmodifiable snapshots taken when the method is called.
+ *
+ * @param <V> The type of the value that is to be stored.
+ */
+public class ConcurrentStringPrefixMap<V> extends AbstractMap<String, V> implements PrefixMap<V> {
+  private static final class Node<V> {
+    static final char[] kNoChars = new char[0];
+
+    @SuppressWarnings("rawtypes")
+    static final Node[] kNoChildren = new Node[0];
+
+    // Characters on the edge leading to this node (empty for the root)
+    final String m_label;
+
+    // Value stored for the key ending at this node, or null
+    final V m_value;
+
+    // First character of each child's label, sorted; parallel to m_children
+    final char[] m_firstChars;
+    final Node<V>[] m_children;
+
+    // Number of values in this subtree
+    final int m_size;
+
+    Node(String label, V value, char[] firstChars, Node<V>[] children) {
+      m_label = label;
+      m_value = value;
+      m_firstChars = firstChars;
+      m_children = children;
+      int size = value != null ? 1 : 0;
+      for (Node<V> child : children) {
+        size += child.m_size;
+      }
+      m_size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> Node<V> leaf(String label, V value) {
+      return new Node<>(label, value, kNoChars, kNoChildren);
+    }
+
+    Node<V> child(char ch) {
+      int index = Arrays.binarySearch(m_firstChars, ch);
+      return index >= 0 ? m_children[index] : null;
+    }
+
+    Node<V> withLabel(String label) {
+      return new Node<>(label, m_value, m_firstChars, m_children);
+    }
+
+    Node<V> withValue(V value) {
+      return new Node<>(m_label, value, m_firstChars, m_children);
+    }
+
+    Node<V> withChild(Node<V> child) {
+      char ch = child.m_label.charAt(0);
+      int index = Arrays.binarySearch(m_firstChars, ch);
+      if (index >= 0) {
+        Node<V>[] children = m_children.clone();
+        children[index] = child;
+        return new Node<>(m_label, m_value, m_firstChars, children);
+      }
+      index = -(index + 1);
+      char[] firstChars = new char[m_firstChars.length + 1];
+      Node<V>[] children = Arrays.copyOf(m_children, m_children.length + 1);
+      System.arraycopy(m_firstChars, 0, firstChars, 0, index);
+      System.arraycopy(m_firstChars, index, firstChars, index + 1, m_firstChars.length - index);
+      System.arraycopy(m_children, index, children, index + 1, m_children.length - index);
+      firstChars[index] = ch;
+      children[index] = child;
+      return new Node<>(m_label, m_value, firstChars, children);
+    }
+
+    Node<V> withoutChild(char ch) {
+      int index = Arrays.binarySearch(m_firstChars, ch);
+      char[] firstChars = new char[m_firstChars.length - 1];
+      Node<V>[] children = Arrays.copyOf(m_children, m_children.length - 1);
+      System.arraycopy(m_firstChars, 0, firstChars, 0, index);
+      System.arraycopy(m_firstChars, index + 1, firstChars, index, firstChars.length - index);
+      System.arraycopy(m_children, index + 1, children, index, children.length - index);
+      return new Node<>(m_label, m_value, firstChars, children);
+    }
+  }
+
+  private final AtomicReference<Node<V>> m_root = new AtomicReference<>(Node.leaf("", null));
+
+  /** Constructor. */
+  public ConcurrentStringPrefixMap() {}
+
+  @Override
+  public int size() {
+    return m_root.get().m_size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public void clear() {
+    m_root.set(Node.leaf("", null));
+  }
+
+  @Override
+  public V put(String prefix, V value) {
+    Objects.requireNonNull(prefix, "The prefix may not be null");
+    Objects.requireNonNull(value, "The value may not be null");
+
+    List<V> previous = new ArrayList<>(1);
+    while (true) {
+      previous.clear();
+      Node<V> root = m_root.get();
+      if (m_root.compareAndSet(root, put(root, prefix, 0, value, previous))) {
+        return previous.isEmpty() ? null : previous.get(0);
+      }
+    }
+  }
+
+  @Override
+  public V remove(String prefix) {
+    Objects.requireNonNull(prefix, "The prefix may not be null");
+
+    List<V> previous = new ArrayList<>(1);
+    while (true) {
+      previous.clear();
+      Node<V> root = m_root.get();
+      Node<V> newRoot = remove(root, prefix, 0, previous);
+      if (newRoot == root || m_root.compareAndSet(root, newRoot)) {
+        return previous.isEmpty() ? null : previous.get(0);
+      }
+    }
+  }
+
+  @Override
+  public V remove(Object o) {
+    return PrefixMap.super.remove(o);
+  }
+
+  @Override
+  public V get(String prefix) {
+    Node<V> node = m_root.get();
+    int pos = 0;
+    while (pos < prefix.length()) {
+      node = node.child(prefix.charAt(pos));
+      if (node == null || !prefix.startsWith(node.m_label, pos)) {
+        return null;
+      }
+      pos += node.m_label.length();
+    }
+    return node.m_value;
+  }
+
+  @Override
+  public V get(Object prefix) {
+    return PrefixMap.super.get(prefix);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    return values().contains(value);
+  }
+
+  @Override
+  public boolean containsPrefix(String prefix) {
+    return get(prefix) != null;
+  }
+
+  @Override
+  public boolean containsPrefix(PrimitiveIterator.OfInt prefix) {
+    return containsPrefix(toString(prefix));
+  }
+
+  @Override
+  public V getShortestMatch(String input) {
+    Node<V> node = m_root.get();
+    int pos = 0;
+    while (node.m_value == null && pos < input.length()) {
+      node = node.child(input.charAt(pos));
+      if (node == null || !input.startsWith(node.m_label, pos)) {
+        return null;
+      }
+      pos += node.m_label.length();
+    }
+    return node.m_value;
+  }
+
+  @Override
+  public V getShortestMatch(PrimitiveIterator.OfInt input) {
+    return getShortestMatch(toString(input));
+  }
+
+  @Override
+  public V getLongestMatch(String input) {
+    Node<V> node = m_root.get();
+    V best = node.m_value;
+    int pos = 0;
+    while (pos < input.length()) {
+      node = node.child(input.charAt(pos));
+      if (node == null || !input.startsWith(node.m_label, pos)) {
+        break;
+      }
+      pos += node.m_label.length();
+      if (node.m_value != null) {
+        best = node.m_value;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public V getLongestMatch(PrimitiveIterator.OfInt input) {
+    return getLongestMatch(toString(input));
+  }
+
+  @Override
+  public Iterator<V> getAllMatches(String input) {
+    List<V> matches = new ArrayList<>();
+    forEachMatch(input, matches::add);
+    return matches.iterator();
+  }
+
+  @Override
+  public Iterator<V> getAllMatches(PrimitiveIterator.OfInt input) {
+    return getAllMatches(toString(input));
+  }
+
+  /**
+   * Calls an action for the value of every stored prefix of the input, shortest first. That is,
+   * for each stored prefix for which <code>input.startsWith(prefix)</code> is true.
+   *
+   * @param input The string for which we need the values of the stored prefixes
+   * @param action The action to call for each value
+   */
+  public void forEachMatch(String input, Consumer<? super V> action) {
+    Node<V> node = m_root.get();
+    int pos = 0;
+    while (true) {
+      if (node.m_value != null) {
+        action.accept(node.m_value);
+      }
+      if (pos >= input.length()) {
+        return;
+      }
+      node = node.child(input.charAt(pos));
+      if (node == null || !input.startsWith(node.m_label, pos)) {
+        return;
+      }
+      pos += node.m_label.length();
+    }
+  }
+
+  /**
+   * Calls an action for every stored prefix that starts with the given string (including the
+   * string itself, if stored), in sorted order.
+   *
+   * @param prefix The string that keys must start with
+   * @param action The action to call for each key and value
+   */
+  public void forEachWithPrefix(String prefix, BiConsumer<? super String, ? super V> action) {
+    Node<V> node = m_root.get();
+    int pos = 0;
+    while (pos < prefix.length()) {
+      node = node.child(prefix.charAt(pos));
+      if (node == null) {
+        return;
+      }
+      String label = node.m_label;
+      int len = Math.min(label.length(), prefix.length() - pos);
+      if (!prefix.regionMatches(pos, label, 0, len)) {
+        return;
+      }
+      pos += label.length();
+    }
+    // node's key may extend past the prefix if the prefix ended mid-label
+    StringBuilder key = new StringBuilder(prefix.substring(0, pos - node.m_label.length()));
+    forEach(node, key, action);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    forEach(m_root.get(), new StringBuilder(), action);
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    Set<Map.Entry<String, V>> entries = new LinkedHashSet<>();
+    forEach((key, value) -> entries.add(Map.entry(key, value)));
+    return Collections.unmodifiableSet(entries);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    Set<String> keys = new LinkedHashSet<>();
+    forEach((key, value) -> keys.add(key));
+    return Collections.unmodifiableSet(keys);
+  }
+
+  @Override
+  public Collection<V> values() {
+    List<V> values = new ArrayList<>();
+    forEach((key, value) -> values.add(value));
+    return Collections.unmodifiableList(values);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends V> prefixesAndValues) {
+    prefixesAndValues.forEach(this::put);
+  }
+
+  private static <V> void forEach(
+      Node<V> node, StringBuilder key, BiConsumer<? super String, ? super V> action) {
+    int len = key.length();
+    key.append(node.m_label);
+    if (node.m_value != null) {
+      action.accept(key.toString(), node.m_value);
+    }
+    for (Node<V> child : node.m_children) {
+      forEach(child, key, action);
+    }
+    key.setLength(len);
+  }
+
+  // Returns a copy of node with key[pos:] set to value
+  private static <V> Node<V> put(Node<V> node, String key, int pos, V value, List<V> previous) {
+    if (pos == key.length()) {
+      if (node.m_value != null) {
+        previous.add(node.m_value);
+      }
+      return node.withValue(value);
+    }
+
+    Node<V> child = node.child(key.charAt(pos));
+    if (child == null) {
+      return node.withChild(Node.leaf(key.substring(pos), value));
+    }
+
+    String label = child.m_label;
+    int common = 1;
+    int max = Math.min(label.length(), key.length() - pos);
+    while (common < max && label.charAt(common) == key.charAt(pos + common)) {
+      common++;
+    }
+    if (common == label.length()) {
+      return node.withChild(put(child, key, pos + common, value, previous));
+    }
+
+    // split the child's edge at the first differing character
+    Node<V> split = Node.leaf(label.substring(0, common), null);
+    split = split.withChild(child.withLabel(label.substring(common)));
+    if (pos + common == key.length()) {
+      split = split.withValue(value);
+    } else {
+      split = split.withChild(Node.leaf(key.substring(pos + common), value));
+    }
+    return node.withChild(split);
+  }
+
+  // Returns a copy of node with key[pos:] removed, node itself if key[pos:] is not present, or null
+  // if the node should be deleted
+  private static <V> Node<V> remove(Node<V> node, String key, int pos, List<V> previous) {
+    Node<V> result;
+    if (pos == key.length()) {
+      if (node.m_value == null) {
+        return node;
+      }
+      previous.add(node.m_value);
+      result = node.withValue(null);
+    } else {
+      Node<V> child = node.child(key.charAt(pos));
+      if (child == null || !key.startsWith(child.m_label, pos)) {
+        return node;
+      }
+      Node<V> newChild = remove(child, key, pos + child.m_label.length(), previous);
+      if (newChild == child) {
+        return node;
+      }
+      result =
+          newChild == null ? node.withoutChild(child.m_label.charAt(0)) : node.withChild(newChild);
+    }
+
+    // the root is never deleted or merged
+    if (result.m_label.isEmpty() || result.m_value != null) {
+      return result;
+    }
+    if (result.m_children.length == 0) {
+      return null;
+    }
+    if (result.m_children.length == 1) {
+      Node<V> only = result.m_children[0];
+      return only.withLabel(result.m_label + only.m_label);
+    }
+    return result;
+  }
+
+  private static String toString(PrimitiveIterator.OfInt input) {
+    StringBuilder builder = new StringBuilder();
+    input.forEachRemaining((int cp) -> builder.appendCodePoint(cp));
+    return builder.toString();
+  }
+}
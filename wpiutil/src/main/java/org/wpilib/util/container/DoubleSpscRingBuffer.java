@@ -0,0 +1,119 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A lock-free, fixed-capacity ring buffer of timestamped double values for handing samples from one
+ * producer thread to one consumer thread (e.g. from a high-rate sensor thread to the main robot
+ * loop) without locking or allocation.
+ *
+ * <p>The offer methods must only be called from a single producer thread, and the poll, peek,
+ * drain, and clear methods must only be called from a single consumer thread. When the buffer is
+ * full, new values are rejected rather than overwriting old ones.
+ */
+public class DoubleSpscRingBuffer extends SpscRingBuffer {
+  private final double[] m_data;
+
+  /**
+   * Create a DoubleSpscRingBuffer.
+   *
+   * @param capacity The minimum capacity of the buffer; rounded up to a power of two.
+   */
+  public DoubleSpscRingBuffer(int capacity) {
+    super(capacity);
+    m_data = new double[capacity()];
+  }
+
+  /**
+   * Adds a value with a timestamp of 0. Must only be called from the producer thread.
+   *
+   * @param value The value to add.
+   * @return False if the buffer is full and the value was not added.
+   */
+  public boolean offer(double value) {
+    return offer(value, 0);
+  }
+
+  /**
+   * Adds a timestamped value. Must only be called from the producer thread.
+   *
+   * @param value The value to add.
+   * @param timestamp The timestamp of the value.
+   * @return False if the buffer is full and the value was not added.
+   */
+  public boolean offer(double value, long timestamp) {
+    long tail = producerTail();
+    if (tail < 0) {
+      return false;
+    }
+    int index = (int) tail & m_mask;
+    m_data[index] = value;
+    m_timestamps[index] = timestamp;
+    producerCommit(tail + 1);
+    return true;
+  }
+
+  /**
+   * Returns the oldest value without removing it. Must only be called from the consumer thread.
+   *
+   * @return The oldest value.
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public double peek() {
+    return m_data[(int) consumerHead() & m_mask];
+  }
+
+  /**
+   * Removes and returns the oldest value. Must only be called from the consumer thread.
+   *
+   * @return The oldest value.
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public double poll() {
+    long head = consumerHead();
+    double value = m_data[(int) head & m_mask];
+    consumerCommit(head + 1);
+    return value;
+  }
+
+  /**
+   * Removes values into an array, oldest first, until the buffer is empty or the array is full.
+   * Must only be called from the consumer thread.
+   *
+   * @param values Array to fill with values.
+   * @return Number of values removed.
+   */
+  public int drainTo(double[] values) {
+    return drainTo(values, null);
+  }
+
+  /**
+   * Removes values and their timestamps into arrays, oldest first, until the buffer is empty or the
+   * values array is full. Must only be called from the consumer thread.
+   *
+   * @param values Array to fill with values.
+   * @param timestamps Array to fill with timestamps (may be null); must be at least as long as
+   *     values.
+   * @return Number of values removed.
+   */
+  public int drainTo(double[] values, long[] timestamps) {
+    int count = consumerAvailable(values.length);
+    if (count == 0) {
+      return 0;
+    }
+    long head = consumerHeadUnchecked();
+    int start = (int) head & m_mask;
+    int first = Math.min(count, m_data.length - start);
+    System.arraycopy(m_data, start, values, 0, first);
+    System.arraycopy(m_data, 0, values, first, count - first);
+    if (timestamps != null) {
+      copyTimestamps(head, count, timestamps);
+    }
+    consumerCommit(head + count);
+    return count;
+  }
+}
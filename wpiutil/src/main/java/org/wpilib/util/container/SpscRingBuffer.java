@@ -0,0 +1,191 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+
+/**
+ * Index and timestamp bookkeeping shared by the single-producer, single-consumer ring buffers.
+ *
+ * <p>The producer owns the tail index and the consumer owns the head index; each publishes its
+ * index with release semantics after touching the slot data, and reads the other's index with
+ * acquire semantics. Each side also keeps a cached copy of the other's index so the shared index is
+ * only re-read when the cached value says the buffer is full (producer) or empty (consumer). The
+ * index fields are declared in padded superclasses (see {@link SpscRingBufferFields}) so the two
+ * threads don't write to the same cache line.
+ */
+abstract class SpscRingBuffer extends SpscRingBufferFields.TailPad {
+  private static final VarHandle kHead;
+  private static final VarHandle kTail;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      kHead = lookup.findVarHandle(SpscRingBufferFields.ConsumerFields.class, "m_head", long.class);
+      kTail = lookup.findVarHandle(SpscRingBufferFields.ProducerFields.class, "m_tail", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** Slot index mask (capacity - 1). */
+  protected final int m_mask;
+
+  /** Timestamp of each slot. */
+  protected final long[] m_timestamps;
+
+  /**
+   * Constructs the bookkeeping for a ring buffer.
+   *
+   * @param capacity minimum capacity; rounded up to a power of two
+   */
+  SpscRingBuffer(int capacity) {
+    if (capacity <= 0 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    m_mask = size - 1;
+    m_timestamps = new long[size];
+  }
+
+  /**
+   * Returns the maximum number of elements the buffer can hold. This is the requested capacity
+   * rounded up to a power of two.
+   *
+   * @return capacity
+   */
+  public int capacity() {
+    return m_mask + 1;
+  }
+
+  /**
+   * Returns the number of elements in the buffer. When called concurrently with the producer or
+   * consumer, the result is a snapshot that may be immediately out of date.
+   *
+   * @return number of elements in the buffer
+   */
+  public int size() {
+    long head = (long) kHead.getAcquire(this);
+    long tail = (long) kTail.getAcquire(this);
+    return (int) Math.max(0, Math.min(tail - head, m_mask + 1));
+  }
+
+  /**
+   * Returns true if the buffer is empty. When called concurrently with the producer or consumer,
+   * the result is a snapshot that may be immediately out of date.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Returns the timestamp of the oldest element without removing it. Must only be called from the
+   * consumer thread.
+   *
+   * @return timestamp
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public long peekTimestamp() {
+    return m_timestamps[(int) consumerHead() & m_mask];
+  }
+
+  /** Removes all elements. Must only be called from the consumer thread. */
+  public void clear() {
+    m_tailCache = (long) kTail.getAcquire(this);
+    kHead.setRelease(this, m_tailCache);
+  }
+
+  /**
+   * Starts a producer write.
+   *
+   * @return tail index to write to, or -1 if the buffer is full
+   */
+  protected final long producerTail() {
+    long tail = m_tail;
+    if (tail - m_headCache > m_mask) {
+      m_headCache = (long) kHead.getAcquire(this);
+      if (tail - m_headCache > m_mask) {
+        return -1;
+      }
+    }
+    return tail;
+  }
+
+  /**
+   * Publishes slots written by the producer.
+   *
+   * @param tail new tail index
+   */
+  protected final void producerCommit(long tail) {
+    kTail.setRelease(this, tail);
+  }
+
+  /**
+   * Gets the number of elements available to the consumer, up to a maximum.
+   *
+   * @param max maximum number of elements wanted
+   * @return number of elements available (at most max)
+   */
+  protected final int consumerAvailable(int max) {
+    long avail = m_tailCache - m_head;
+    if (avail < max) {
+      m_tailCache = (long) kTail.getAcquire(this);
+      avail = m_tailCache - m_head;
+    }
+    return (int) Math.min(avail, max);
+  }
+
+  /**
+   * Gets the consumer head index of a non-empty buffer.
+   *
+   * @return head index
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  protected final long consumerHead() {
+    if (consumerAvailable(1) == 0) {
+      throw new NoSuchElementException("buffer is empty");
+    }
+    return m_head;
+  }
+
+  /**
+   * Gets the consumer head index without checking for available elements.
+   *
+   * @return head index
+   */
+  protected final long consumerHeadUnchecked() {
+    return m_head;
+  }
+
+  /**
+   * Releases slots read by the consumer back to the producer.
+   *
+   * @param head new head index
+   */
+  protected final void consumerCommit(long head) {
+    kHead.setRelease(this, head);
+  }
+
+  /**
+   * Copies timestamps of elements being drained.
+   *
+   * @param head head index of first element
+   * @param count number of elements
+   * @param timestamps destination array
+   */
+  protected final void copyTimestamps(long head, int count, long[] timestamps) {
+    int start = (int) head & m_mask;
+    int first = Math.min(count, m_mask + 1 - start);
+    System.arraycopy(m_timestamps, start, timestamps, 0, first);
+    System.arraycopy(m_timestamps, 0, timestamps, first, count - first);
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+/**
+ * Padded index fields of {@link SpscRingBuffer}.
+ *
+ * <p>The consumer writes its head index on every poll and the producer writes its tail index on
+ * every offer; if both shared a cache line, each write would invalidate the line in the other
+ * thread's cache (false sharing). The JVM lays out superclass fields before subclass fields, so
+ * chaining these classes places 120 bytes of padding before, between, and after the two index
+ * groups. That keeps them out of each other's (and the read-mostly subclass fields') 128-byte
+ * aligned block, the unit fetched by adjacent-line prefetchers, regardless of object alignment.
+ */
+final class SpscRingBufferFields {
+  private SpscRingBufferFields() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /** Padding between the object header (and preceding heap objects) and the consumer fields. */
+  abstract static class HeadPad {
+    long m_a00;
+    long m_a01;
+    long m_a02;
+    long m_a03;
+    long m_a04;
+    long m_a05;
+    long m_a06;
+    long m_a07;
+    long m_a08;
+    long m_a09;
+    long m_a10;
+    long m_a11;
+    long m_a12;
+    long m_a13;
+    long m_a14;
+  }
+
+  /** Consumer-owned fields. */
+  abstract static class ConsumerFields extends HeadPad {
+    long m_head;
+    long m_tailCache;
+  }
+
+  /** Padding between the consumer and producer fields. */
+  abstract static class MidPad extends ConsumerFields {
+    long m_b00;
+    long m_b01;
+    long m_b02;
+    long m_b03;
+    long m_b04;
+    long m_b05;
+    long m_b06;
+    long m_b07;
+    long m_b08;
+    long m_b09;
+    long m_b10;
+    long m_b11;
+    long m_b12;
+    long m_b13;
+    long m_b14;
+  }
+
+  /** Producer-owned fields. */
+  abstract static class ProducerFields extends MidPad {
+    long m_tail;
+    long m_headCache;
+  }
+
+  /** Padding between the producer fields and the fields of subclasses. */
+  abstract static class TailPad extends ProducerFields {
+    long m_c00;
+    long m_c01;
+    long m_c02;
+    long m_c03;
+    long m_c04;
+    long m_c05;
+    long m_c06;
+    long m_c07;
+    long m_c08;
+    long m_c09;
+    long m_c10;
+    long m_c11;
+    long m_c12;
+    long m_c13;
+    long m_c14;
+  }
+}
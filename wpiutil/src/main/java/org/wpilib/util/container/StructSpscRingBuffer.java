@@ -0,0 +1,193 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.NoSuchElementException;
+import org.wpilib.util.struct.Struct;
+
+/**
+ * A lock-free, fixed-capacity ring buffer of timestamped struct records for handing samples from
+ * one producer thread to one consumer thread (e.g. odometry samples from a high-rate thread to the
+ * main robot loop). Values are stored in their serialized struct form in a preallocated byte array,
+ * so offering a value does not allocate.
+ *
+ * <p>The offer methods must only be called from a single producer thread, and the poll, peek,
+ * drain, and clear methods must only be called from a single consumer thread. When the buffer is
+ * full, new values are rejected rather than overwriting old ones.
+ *
+ * @param <T> Object type.
+ */
+public class StructSpscRingBuffer<T> extends SpscRingBuffer {
+  private final Struct<T> m_struct;
+  private final int m_structSize;
+  private final byte[] m_data;
+
+  // Each side has its own view, as ByteBuffer positions are not thread-safe
+  private final ByteBuffer m_producerBuf;
+  private final ByteBuffer m_consumerBuf;
+
+  /**
+   * Create a StructSpscRingBuffer.
+   *
+   * @param struct The struct used to serialize values.
+   * @param capacity The minimum capacity of the buffer; rounded up to a power of two.
+   * @throws IllegalArgumentException if the buffer size would exceed Integer.MAX_VALUE bytes
+   */
+  public StructSpscRingBuffer(Struct<T> struct, int capacity) {
+    super(checkCapacity(capacity, struct.getSize()));
+    m_struct = struct;
+    m_structSize = struct.getSize();
+    m_data = new byte[capacity() * m_structSize];
+    m_producerBuf = ByteBuffer.wrap(m_data).order(ByteOrder.LITTLE_ENDIAN);
+    m_consumerBuf = ByteBuffer.wrap(m_data).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  // Runs before the base class allocates, so an oversized buffer fails without allocating
+  private static int checkCapacity(int capacity, int structSize) {
+    // out of range capacities are rejected by the base class
+    if (capacity > 0 && capacity <= (1 << 30)) {
+      int size = Integer.highestOneBit(capacity);
+      if (size < capacity) {
+        size <<= 1;
+      }
+      if ((long) size * structSize > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("capacity * struct size must fit in an int");
+      }
+    }
+    return capacity;
+  }
+
+  /**
+   * Gets the struct used to serialize values.
+   *
+   * @return struct object
+   */
+  public Struct<T> getStruct() {
+    return m_struct;
+  }
+
+  /**
+   * Adds a value with a timestamp of 0. Must only be called from the producer thread.
+   *
+   * @param value The value to add.
+   * @return False if the buffer is full and the value was not added.
+   */
+  public boolean offer(T value) {
+    return offer(value, 0);
+  }
+
+  /**
+   * Adds a timestamped value. Must only be called from the producer thread.
+   *
+   * @param value The value to add.
+   * @param timestamp The timestamp of the value.
+   * @return False if the buffer is full and the value was not added.
+   */
+  public boolean offer(T value, long timestamp) {
+    long tail = producerTail();
+    if (tail < 0) {
+      return false;
+    }
+    int index = (int) tail & m_mask;
+    m_struct.pack(m_producerBuf.position(index * m_structSize), value);
+    m_timestamps[index] = timestamp;
+    producerCommit(tail + 1);
+    return true;
+  }
+
+  /**
+   * Returns the oldest value without removing it. Must only be called from the consumer thread.
+   *
+   * @return The oldest value.
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public T peek() {
+    int index = (int) consumerHead() & m_mask;
+    return m_struct.unpack(m_consumerBuf.position(index * m_structSize));
+  }
+
+  /**
+   * Removes and returns the oldest value. Must only be called from the consumer thread.
+   *
+   * @return The oldest value.
+   * @throws NoSuchElementException if the buffer is empty
+   */
+  public T poll() {
+    long head = consumerHead();
+    T value = m_struct.unpack(m_consumerBuf.position(((int) head & m_mask) * m_structSize));
+    consumerCommit(head + 1);
+    return value;
+  }
+
+  /**
+   * Removes the oldest value, deserializing it into an existing object. Must only be called from
+   * the consumer thread. The struct must support {@link Struct#unpackInto(Object, ByteBuffer)}.
+   *
+   * @param out The object to update.
+   * @throws NoSuchElementException if the buffer is empty
+   * @throws UnsupportedOperationException if the struct does not support unpackInto
+   */
+  public void pollInto(T out) {
+    long head = consumerHead();
+    m_struct.unpackInto(out, m_consumerBuf.position(((int) head & m_mask) * m_structSize));
+    consumerCommit(head + 1);
+  }
+
+  /**
+   * Removes serialized values into a byte buffer, oldest first, until the ring buffer is empty or
+   * the byte buffer is full. The values are written in the same form as {@link
+   * org.wpilib.util.struct.StructBuffer#writeArray(Object[])}, starting at the byte buffer's
+   * position, which is advanced. Must only be called from the consumer thread.
+   *
+   * @param out Byte buffer to write to.
+   * @param timestamps Array to fill with timestamps (may be null); must be large enough to hold the
+   *     number of values that fit in the byte buffer.
+   * @return Number of values removed.
+   */
+  public int drainTo(ByteBuffer out, long[] timestamps) {
+    int count = consumerAvailable(m_structSize == 0 ? 0 : out.remaining() / m_structSize);
+    if (count == 0) {
+      return 0;
+    }
+    long head = consumerHeadUnchecked();
+    int start = (int) head & m_mask;
+    int first = Math.min(count, capacity() - start);
+    out.put(m_data, start * m_structSize, first * m_structSize);
+    out.put(m_data, 0, (count - first) * m_structSize);
+    if (timestamps != null) {
+      copyTimestamps(head, count, timestamps);
+    }
+    consumerCommit(head + count);
+    return count;
+  }
+
+  /**
+   * Removes values into an array, oldest first, until the buffer is empty or the array is full.
+   * Must only be called from the consumer thread.
+   *
+   * @param values Array to fill with values.
+   * @param timestamps Array to fill with timestamps (may be null); must be at least as long as
+   *     values.
+   * @return Number of values removed.
+   */
+  public int drainTo(T[] values, long[] timestamps) {
+    int count = consumerAvailable(values.length);
+    if (count == 0) {
+      return 0;
+    }
+    long head = consumerHeadUnchecked();
+    for (int i = 0; i < count; i++) {
+      int index = (int) (head + i) & m_mask;
+      values[i] = m_struct.unpack(m_consumerBuf.position(index * m_structSize));
+    }
+    if (timestamps != null) {
+      copyTimestamps(head, count, timestamps);
+    }
+    consumerCommit(head + count);
+    return count;
+  }
+}
@@ -6,6 +6,7 @@ package org.wpilib.util.protobuf;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
@@ -247,4 +248,26 @@ public interface Protobuf<T, MessageType extends ProtoMessage<?>> {
       proto.pack(msg.next(), obj);
     }
   }
+
+  /**
+   * Pack a serialized protobuf array message from a collection. Unlike {@link
+   * #packArray(RepeatedMessage, Object[], Protobuf)}, this does not require copying the collection
+   * to an array first. The element messages already in msg are reused.
+   *
+   * @param <T> object type
+   * @param <MessageType> element type of the protobuf array
+   * @param msg protobuf array message
+   * @param values collection of objects
+   * @param proto protobuf implementation
+   */
+  static <T, MessageType extends ProtoMessage<MessageType>> void packCollection(
+      RepeatedMessage<MessageType> msg,
+      Collection<? extends T> values,
+      Protobuf<T, MessageType> proto) {
+    msg.clear();
+    msg.reserve(values.size());
+    for (T obj : values) {
+      proto.pack(msg.next(), obj);
+    }
+  }
 }
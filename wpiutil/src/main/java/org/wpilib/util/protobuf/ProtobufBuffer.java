@@ -13,6 +13,13 @@ import us.hebi.quickbuf.ProtoSource;
 /**
  * Reusable buffer for serialization/deserialization to/from a protobuf.
  *
+ * <p>A single message instance is kept and cleared between uses (retaining its nested and repeated
+ * sub-messages), and values are serialized directly into a reusable direct ByteBuffer, so once the
+ * buffer and message have grown to fit, writes do not allocate. For reads, {@link #readInto} and
+ * {@link #readMessage} avoid creating new objects: readInto() updates an existing mutable object,
+ * and readMessage() returns the decoded reusable message itself so fields can be inspected without
+ * building an object graph.
+ *
  * @param <T> object type
  * @param <MessageType> protobuf message type
  */
@@ -89,10 +96,7 @@ public final class ProtobufBuffer<T, MessageType extends ProtoMessage<?>> {
    * @throws IOException if deserialization failed
    */
   public T read(byte[] buf, int start, int len) throws IOException {
-    m_msg.clearQuick();
-    m_source.setInput(buf, start, len);
-    m_msg.mergeFrom(m_source);
-    return m_proto.unpack(m_msg);
+    return m_proto.unpack(readMessage(buf, start, len));
   }
 
   /**
@@ -114,10 +118,7 @@ public final class ProtobufBuffer<T, MessageType extends ProtoMessage<?>> {
    * @throws IOException if deserialization failed
    */
   public T read(ByteBuffer buf) throws IOException {
-    m_msg.clearQuick();
-    m_source.setInput(buf);
-    m_msg.mergeFrom(m_source);
-    return m_proto.unpack(m_msg);
+    return m_proto.unpack(readMessage(buf));
   }
 
   /**
@@ -131,10 +132,7 @@ public final class ProtobufBuffer<T, MessageType extends ProtoMessage<?>> {
    * @throws UnsupportedOperationException if the object is immutable
    */
   public void readInto(T out, byte[] buf, int start, int len) throws IOException {
-    m_msg.clearQuick();
-    m_source.setInput(buf, start, len);
-    m_msg.mergeFrom(m_source);
-    m_proto.unpackInto(out, m_msg);
+    m_proto.unpackInto(out, readMessage(buf, start, len));
   }
 
   /**
@@ -158,10 +156,51 @@ public final class ProtobufBuffer<T, MessageType extends ProtoMessage<?>> {
    * @throws UnsupportedOperationException if the object is immutable
    */
   public void readInto(T out, ByteBuffer buf) throws IOException {
+    m_proto.unpackInto(out, readMessage(buf));
+  }
+
+  /**
+   * Deserializes a byte array into the reusable message. The returned message is owned by this
+   * buffer and is only valid until the next read or write call.
+   *
+   * @param buf byte array
+   * @param start starting location within byte array
+   * @param len length of serialized data
+   * @return decoded message
+   * @throws IOException if deserialization failed
+   */
+  public MessageType readMessage(byte[] buf, int start, int len) throws IOException {
+    m_msg.clearQuick();
+    m_source.setInput(buf, start, len);
+    m_msg.mergeFrom(m_source);
+    return m_msg;
+  }
+
+  /**
+   * Deserializes a byte array into the reusable message. The returned message is owned by this
+   * buffer and is only valid until the next read or write call.
+   *
+   * @param buf byte array
+   * @return decoded message
+   * @throws IOException if deserialization failed
+   */
+  public MessageType readMessage(byte[] buf) throws IOException {
+    return readMessage(buf, 0, buf.length);
+  }
+
+  /**
+   * Deserializes a ByteBuffer into the reusable message. The returned message is owned by this
+   * buffer and is only valid until the next read or write call.
+   *
+   * @param buf byte buffer
+   * @return decoded message
+   * @throws IOException if deserialization failed
+   */
+  public MessageType readMessage(ByteBuffer buf) throws IOException {
     m_msg.clearQuick();
     m_source.setInput(buf);
     m_msg.mergeFrom(m_source);
-    m_proto.unpackInto(out, m_msg);
+    return m_msg;
   }
 
   private ByteBuffer m_buf;
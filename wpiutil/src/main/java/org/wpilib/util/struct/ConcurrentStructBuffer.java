@@ -0,0 +1,252 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe buffer for serialization/deserialization to/from a raw struct. Unlike {@link
+ * StructBuffer}, this can be used by multiple threads at the same time without locking.
+ *
+ * <p>Each write returns a scratch buffer that is owned by the caller until it is passed to {@link
+ * #release(ByteBuffer)}. Scratch buffers are pooled in power-of-two size classes (1, 2, 4, ...
+ * elements), with a few lock-free slots per size class, so in the steady state writes don't
+ * allocate and concurrent writers never block each other. If a pool slot is not available, a new
+ * buffer is allocated (and later discarded when released), so writers never wait.
+ *
+ * <p>Reads don't need scratch space and are always thread-safe.
+ *
+ * @param <T> Object type.
+ */
+public final class ConcurrentStructBuffer<T> {
+  // number of size classes; arrays larger than the largest size class are not pooled
+  private static final int kSizeClasses = 24;
+
+  // number of pooled buffers per size class; must be a power of 2
+  private static final int kSlots = 4;
+
+  private ConcurrentStructBuffer(Struct<T> struct) {
+    m_struct = struct;
+    m_structSize = struct.getSize();
+    m_maxElements = m_structSize == 0 ? Integer.MAX_VALUE : Integer.MAX_VALUE / m_structSize;
+  }
+
+  /**
+   * Returns a ConcurrentStructBuffer for the given struct.
+   *
+   * @param struct A struct.
+   * @param <T> Object type.
+   * @return A ConcurrentStructBuffer for the given struct.
+   */
+  public static <T> ConcurrentStructBuffer<T> create(Struct<T> struct) {
+    return new ConcurrentStructBuffer<>(struct);
+  }
+
+  /**
+   * Gets the struct object of the stored type.
+   *
+   * @return struct object
+   */
+  public Struct<T> getStruct() {
+    return m_struct;
+  }
+
+  /**
+   * Gets the type string.
+   *
+   * @return type string
+   */
+  public String getTypeString() {
+    return m_struct.getTypeString();
+  }
+
+  /**
+   * Gets a scratch buffer with space for at least the given number of elements. The returned
+   * ByteBuffer is a little-endian direct byte buffer with position 0 and limit equal to its
+   * capacity. It should be returned with {@link #release(ByteBuffer)} when no longer needed.
+   *
+   * @param nelem number of elements
+   * @return byte buffer
+   * @throws IllegalArgumentException if the buffer size would exceed Integer.MAX_VALUE bytes
+   */
+  public ByteBuffer acquire(int nelem) {
+    if (nelem > m_maxElements) {
+      throw new IllegalArgumentException("nelem * struct size must fit in an int");
+    }
+    int sizeClass = sizeClass(nelem);
+    // a size class that doesn't fit in an int is left unpooled and allocated at the exact size
+    if (sizeClass < kSizeClasses && (1 << sizeClass) <= m_maxElements) {
+      int start = slotStart();
+      for (int i = 0; i < kSlots; i++) {
+        int slot = sizeClass * kSlots + ((start + i) & (kSlots - 1));
+        if (m_pool.get(slot) != null) {
+          ByteBuffer buf = m_pool.getAndSet(slot, null);
+          if (buf != null) {
+            return buf.clear();
+          }
+        }
+      }
+      nelem = 1 << sizeClass;
+    }
+    return ByteBuffer.allocateDirect(nelem * m_structSize).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Returns a scratch buffer previously obtained from this object to the pool. The buffer must not
+   * be used after it is released.
+   *
+   * @param buf byte buffer
+   */
+  public void release(ByteBuffer buf) {
+    if (m_structSize == 0) {
+      return;
+    }
+    int nelem = buf.capacity() / m_structSize;
+    // only pool buffers that are exactly a size class
+    if (Integer.bitCount(nelem) != 1) {
+      return;
+    }
+    int sizeClass = Integer.numberOfTrailingZeros(nelem);
+    if (sizeClass >= kSizeClasses) {
+      return;
+    }
+    int start = slotStart();
+    for (int i = 0; i < kSlots; i++) {
+      int slot = sizeClass * kSlots + ((start + i) & (kSlots - 1));
+      if (m_pool.get(slot) == null && m_pool.compareAndSet(slot, null, buf)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Serializes a value to a scratch ByteBuffer. The returned ByteBuffer is a direct byte buffer
+   * with the position set to the end of the serialized data. It should be returned with {@link
+   * #release(ByteBuffer)} when no longer needed.
+   *
+   * @param value value
+   * @return byte buffer
+   */
+  public ByteBuffer write(T value) {
+    ByteBuffer buf = acquire(1);
+    m_struct.pack(buf, value);
+    return buf;
+  }
+
+  /**
+   * Serializes a collection of values to a scratch ByteBuffer. The returned ByteBuffer is a direct
+   * byte buffer with the position set to the end of the serialized data. It should be returned with
+   * {@link #release(ByteBuffer)} when no longer needed.
+   *
+   * @param values values
+   * @return byte buffer
+   */
+  public ByteBuffer writeArray(Collection<T> values) {
+    ByteBuffer buf = acquire(values.size());
+    for (T v : values) {
+      m_struct.pack(buf, v);
+    }
+    return buf;
+  }
+
+  /**
+   * Serializes an array of values to a scratch ByteBuffer. The returned ByteBuffer is a direct byte
+   * buffer with the position set to the end of the serialized data. It should be returned with
+   * {@link #release(ByteBuffer)} when no longer needed.
+   *
+   * @param values values
+   * @return byte buffer
+   */
+  public ByteBuffer writeArray(T[] values) {
+    ByteBuffer buf = acquire(values.length);
+    for (T v : values) {
+      m_struct.pack(buf, v);
+    }
+    return buf;
+  }
+
+  /**
+   * Deserializes a value from a byte array, creating a new object.
+   *
+   * @param buf byte array
+   * @return new object
+   */
+  public T read(byte[] buf) {
+    return read(ByteBuffer.wrap(buf));
+  }
+
+  /**
+   * Deserializes a value from a ByteBuffer, creating a new object.
+   *
+   * @param buf byte buffer
+   * @return new object
+   */
+  public T read(ByteBuffer buf) {
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    return m_struct.unpack(buf);
+  }
+
+  /**
+   * Deserializes a value from a byte array into a mutable object.
+   *
+   * @param out object (will be updated with deserialized contents)
+   * @param buf byte array
+   * @throws UnsupportedOperationException if T is immutable
+   */
+  public void readInto(T out, byte[] buf) {
+    m_struct.unpackInto(out, ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN));
+  }
+
+  /**
+   * Deserializes an array of values from a byte array, creating an array of new objects.
+   *
+   * @param buf byte array
+   * @return new object array
+   */
+  public T[] readArray(byte[] buf) {
+    return readArray(ByteBuffer.wrap(buf));
+  }
+
+  /**
+   * Deserializes an array of values from a ByteBuffer, creating an array of new objects.
+   *
+   * @param buf byte buffer
+   * @return new object array
+   */
+  public T[] readArray(ByteBuffer buf) {
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    int len = buf.limit() - buf.position();
+    if ((len % m_structSize) != 0) {
+      throw new RuntimeException("buffer size not a multiple of struct size");
+    }
+    int nelem = len / m_structSize;
+    @SuppressWarnings("unchecked")
+    T[] arr = (T[]) Array.newInstance(m_struct.getTypeClass(), nelem);
+    for (int i = 0; i < nelem; i++) {
+      arr[i] = m_struct.unpack(buf);
+    }
+    return arr;
+  }
+
+  private static int sizeClass(int nelem) {
+    return nelem <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(nelem - 1);
+  }
+
+  // spread threads across the slots of a size class to reduce contention
+  private static int slotStart() {
+    return (int) Thread.currentThread().threadId();
+  }
+
+  private final Struct<T> m_struct;
+  private final int m_structSize;
+  // largest element count whose buffer size fits in an int
+  private final int m_maxElements;
+  private final AtomicReferenceArray<ByteBuffer> m_pool =
+      new AtomicReferenceArray<>(kSizeClasses * kSlots);
+}
@@ -0,0 +1,361 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Structure-of-arrays storage for an array of structs. Each numeric field of the struct (including
+ * fields of nested structs and elements of array fields) is stored in its own double[] column,
+ * so large arrays (e.g. a cloud of 10,000 poses) can be built and serialized without creating an
+ * object per element.
+ *
+ * <p>Columns are named with "." for nested struct fields and "[i]" for array field elements, e.g.
+ * "translation.x" and "rotation.value" for Pose2d. Char fields are not stored and are serialized
+ * as zero bytes. Integer fields are truncated and boolean fields are true if non-zero.
+ *
+ * <p>The serialized form produced by {@link #write()} is identical to {@link
+ * StructBuffer#writeArray(Object[])} for the same values, so it can be published or logged with the
+ * struct array type string (see {@link #getTypeString()}).
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <T> Object type.
+ */
+public final class StructColumns<T> {
+  private static final class Column {
+    Column(String name, StructFieldAccessor accessor) {
+      m_name = name;
+      m_accessor = accessor;
+      m_field = accessor.getField();
+      m_offset = accessor.getOffset();
+    }
+
+    final String m_name;
+    final StructFieldAccessor m_accessor;
+    final StructFieldDescriptor m_field;
+    final int m_offset;
+    double[] m_values;
+  }
+
+  private StructColumns(Struct<T> struct, int capacity) {
+    m_struct = struct;
+    m_structSize = struct.getSize();
+
+    StructDescriptorDatabase structs = new StructDescriptorDatabase();
+    try {
+      addSchemas(structs, struct, new HashSet<>());
+    } catch (BadSchemaException ex) {
+      throw new IllegalArgumentException("invalid struct schema: " + ex.getMessage(), ex);
+    }
+    StructDescriptor desc = structs.find(struct.getTypeName());
+    if (desc == null || !desc.isValid()) {
+      throw new IllegalArgumentException("struct schema has unresolved nested structs");
+    }
+    if (desc.getSize() != m_structSize) {
+      throw new IllegalArgumentException("struct schema size does not match struct size");
+    }
+
+    List<Column> columns = new ArrayList<>();
+    addColumns(columns, desc, desc, "");
+    m_columns = columns.toArray(new Column[0]);
+    List<String> names = new ArrayList<>(m_columns.length);
+    boolean needsClear = false;
+    for (Column column : m_columns) {
+      names.add(column.m_name);
+      column.m_values = new double[capacity];
+      needsClear |= column.m_field.isBitField();
+    }
+    // char fields aren't stored, and bitfields are or'ed together, so both need zeroed output
+    needsClear |= hasChars(desc);
+    m_columnNames = Collections.unmodifiableList(names);
+    m_needsClear = needsClear;
+    m_buf = ByteBuffer.allocateDirect(capacity * m_structSize).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Creates an empty StructColumns for the given struct.
+   *
+   * @param struct A struct.
+   * @param <T> Object type.
+   * @return A StructColumns for the given struct.
+   * @throws IllegalArgumentException if the struct's schema cannot be parsed
+   */
+  public static <T> StructColumns<T> create(Struct<T> struct) {
+    return create(struct, 0);
+  }
+
+  /**
+   * Creates an empty StructColumns for the given struct, with space for a number of elements.
+   *
+   * @param struct A struct.
+   * @param capacity initial number of elements to allocate space for
+   * @param <T> Object type.
+   * @return A StructColumns for the given struct.
+   * @throws IllegalArgumentException if the struct's schema cannot be parsed
+   */
+  public static <T> StructColumns<T> create(Struct<T> struct, int capacity) {
+    return new StructColumns<>(struct, capacity);
+  }
+
+  private static void addSchemas(
+      StructDescriptorDatabase structs, Struct<?> struct, Set<String> seen)
+      throws BadSchemaException {
+    if (!seen.add(struct.getTypeName())) {
+      return;
+    }
+    for (Struct<?> nested : struct.getNested()) {
+      addSchemas(structs, nested, seen);
+    }
+    structs.add(struct.getTypeName(), struct.getSchema());
+  }
+
+  private static void addColumns(
+      List<Column> columns, StructDescriptor root, StructDescriptor desc, String prefix) {
+    for (StructFieldDescriptor field : desc.getFields()) {
+      if (field.getType() == StructFieldType.CHAR) {
+        continue;
+      }
+      for (int i = 0; i < field.getArraySize(); i++) {
+        String name = prefix + field.getName() + (field.isArray() ? "[" + i + "]" : "");
+        if (field.getType() == StructFieldType.STRUCT) {
+          addColumns(columns, root, field.getStruct(), name + ".");
+        } else {
+          columns.add(new Column(name, StructFieldAccessor.create(root, name)));
+        }
+      }
+    }
+  }
+
+  private static boolean hasChars(StructDescriptor desc) {
+    for (StructFieldDescriptor field : desc.getFields()) {
+      if (field.getType() == StructFieldType.CHAR
+          || (field.getStruct() != null && hasChars(field.getStruct()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the struct object of the stored type.
+   *
+   * @return struct object
+   */
+  public Struct<T> getStruct() {
+    return m_struct;
+  }
+
+  /**
+   * Gets the type string of the serialized struct array (e.g. "struct:Pose2d[]").
+   *
+   * @return type string
+   */
+  public String getTypeString() {
+    return m_struct.getTypeString() + "[]";
+  }
+
+  /**
+   * Gets the names of the columns, in column index order.
+   *
+   * @return column names
+   */
+  public List<String> getColumnNames() {
+    return m_columnNames;
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return number of columns
+   */
+  public int getColumnCount() {
+    return m_columns.length;
+  }
+
+  /**
+   * Gets the index of a column.
+   *
+   * @param name column name
+   * @return column index, or -1 if there is no column with that name
+   */
+  public int getColumnIndex(String name) {
+    return m_columnNames.indexOf(name);
+  }
+
+  /**
+   * Gets the values of a column. The returned array is the backing storage and may be modified
+   * directly; it has at least {@link #size()} elements. It is replaced with a larger array when the
+   * size grows beyond the current capacity.
+   *
+   * @param index column index
+   * @return column values
+   */
+  public double[] getColumn(int index) {
+    return m_columns[index].m_values;
+  }
+
+  /**
+   * Gets the values of a column. The returned array is the backing storage and may be modified
+   * directly; it has at least {@link #size()} elements. It is replaced with a larger array when the
+   * size grows beyond the current capacity.
+   *
+   * @param name column name
+   * @return column values
+   * @throws IllegalArgumentException if there is no column with that name
+   */
+  public double[] getColumn(String name) {
+    int index = getColumnIndex(name);
+    if (index == -1) {
+      throw new IllegalArgumentException("no column named '" + name + "'");
+    }
+    return getColumn(index);
+  }
+
+  /**
+   * Gets the number of elements.
+   *
+   * @return number of elements
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * Sets the number of elements. If the size is increased beyond the current capacity, the columns
+   * are reallocated (preserving existing values); new elements are zero.
+   *
+   * @param size number of elements
+   */
+  public void setSize(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must be non-negative");
+    }
+    if (m_columns.length > 0 && size > m_columns[0].m_values.length) {
+      int capacity = Math.max(size, m_columns[0].m_values.length * 2);
+      for (Column column : m_columns) {
+        column.m_values = Arrays.copyOf(column.m_values, capacity);
+      }
+    }
+    m_size = size;
+  }
+
+  /**
+   * Serializes the elements to a ByteBuffer. The returned ByteBuffer is a direct byte buffer with
+   * the position set to the end of the serialized data. It is reused by later calls.
+   *
+   * @return byte buffer
+   */
+  public ByteBuffer write() {
+    int len = m_size * m_structSize;
+    if (len > m_buf.capacity()) {
+      m_buf = ByteBuffer.allocateDirect(len * 2).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    ByteBuffer buf = m_buf.clear();
+    if (m_needsClear) {
+      for (int i = 0; i < len; i++) {
+        buf.put(i, (byte) 0);
+      }
+    }
+    for (Column column : m_columns) {
+      writeColumn(buf, column);
+    }
+    return buf.position(len);
+  }
+
+  /**
+   * Deserializes a struct array from a byte array, replacing all elements.
+   *
+   * @param buf byte array
+   * @throws IllegalArgumentException if the data size is not a multiple of the struct size
+   */
+  public void read(byte[] buf) {
+    read(ByteBuffer.wrap(buf));
+  }
+
+  /**
+   * Deserializes a struct array from a ByteBuffer, replacing all elements. The data is read from
+   * the buffer's position to its limit; the position is not changed.
+   *
+   * @param buf byte buffer
+   * @throws IllegalArgumentException if the data size is not a multiple of the struct size
+   */
+  public void read(ByteBuffer buf) {
+    int len = buf.remaining();
+    if (m_structSize == 0 || (len % m_structSize) != 0) {
+      throw new IllegalArgumentException("buffer size not a multiple of struct size");
+    }
+    int nelem = len / m_structSize;
+    setSize(nelem);
+    for (Column column : m_columns) {
+      column.m_accessor.getDoubles(buf, buf.position(), column.m_values, 0, nelem);
+    }
+  }
+
+  private void writeColumn(ByteBuffer buf, Column column) {
+    double[] values = column.m_values;
+    StructFieldDescriptor field = column.m_field;
+    int dst = column.m_offset;
+    switch (field.getType()) {
+      case DOUBLE -> {
+        for (int i = 0; i < m_size; i++, dst += m_structSize) {
+          buf.putDouble(dst, values[i]);
+        }
+      }
+      case FLOAT -> {
+        for (int i = 0; i < m_size; i++, dst += m_structSize) {
+          buf.putFloat(dst, (float) values[i]);
+        }
+      }
+      case BOOL -> {
+        for (int i = 0; i < m_size; i++, dst += m_structSize) {
+          writeInt(buf, dst, field, values[i] != 0 ? 1 : 0);
+        }
+      }
+      default -> {
+        for (int i = 0; i < m_size; i++, dst += m_structSize) {
+          writeInt(buf, dst, field, (long) values[i]);
+        }
+      }
+    }
+  }
+
+  // assumes bitfield bits have been cleared
+  private static void writeInt(ByteBuffer buf, int dst, StructFieldDescriptor field, long value) {
+    if (field.isBitField()) {
+      value = (value & field.getBitMask()) << field.getBitShift();
+      switch (field.getSize()) {
+        case 1 -> buf.put(dst, (byte) (buf.get(dst) | value));
+        case 2 -> buf.putShort(dst, (short) (buf.getShort(dst) | value));
+        case 4 -> buf.putInt(dst, (int) (buf.getInt(dst) | value));
+        case 8 -> buf.putLong(dst, buf.getLong(dst) | value);
+        default -> throw new IllegalStateException("invalid field size");
+      }
+      return;
+    }
+    switch (field.getSize()) {
+      case 1 -> buf.put(dst, (byte) value);
+      case 2 -> buf.putShort(dst, (short) value);
+      case 4 -> buf.putInt(dst, (int) value);
+      case 8 -> buf.putLong(dst, value);
+      default -> throw new IllegalStateException("invalid field size");
+    }
+  }
+
+  private final Struct<T> m_struct;
+  private final int m_structSize;
+  private final Column[] m_columns;
+  private final List<String> m_columnNames;
+  private final boolean m_needsClear;
+  private ByteBuffer m_buf;
+  private int m_size;
+}
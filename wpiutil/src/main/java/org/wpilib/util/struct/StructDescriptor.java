@@ -36,6 +36,16 @@ public class StructDescriptor {
     return m_schema;
   }
 
+  /**
+   * Gets the fingerprint of the struct schema. Structs with the same schema text have the same
+   * fingerprint (see {@link StructSchemaCache#fingerprint(String)}).
+   *
+   * @return fingerprint
+   */
+  public long getFingerprint() {
+    return m_fingerprint;
+  }
+
   /**
    * Returns whether the struct is valid (e.g. the struct is fully defined and field offsets
    * computed).
@@ -150,6 +160,7 @@ public class StructDescriptor {
 
   private final String m_name;
   String m_schema;
+  long m_fingerprint;
   final Set<StructDescriptor> m_references = new HashSet<>();
   final List<StructFieldDescriptor> m_fields = new ArrayList<>();
   final Map<String, StructFieldDescriptor> m_fieldsByName = new HashMap<>();
@@ -10,7 +10,6 @@ import java.util.Stack;
 import org.wpilib.util.struct.parser.ParseException;
 import org.wpilib.util.struct.parser.ParsedDeclaration;
 import org.wpilib.util.struct.parser.ParsedSchema;
-import org.wpilib.util.struct.parser.Parser;
 
 /** Database of raw struct dynamic descriptors. */
 public class StructDescriptorDatabase {
@@ -27,10 +26,10 @@ public class StructDescriptorDatabase {
    * @throws BadSchemaException if schema invalid
    */
   public StructDescriptor add(String name, String schema) throws BadSchemaException {
-    Parser parser = new Parser(schema);
+    long fingerprint = StructSchemaCache.fingerprint(schema);
     ParsedSchema parsed;
     try {
-      parsed = parser.parse();
+      parsed = StructSchemaCache.parse(schema, fingerprint);
     } catch (ParseException e) {
       throw new BadSchemaException("parse error", e);
     }
@@ -38,7 +37,9 @@ public class StructDescriptorDatabase {
     // turn parsed schema into descriptors
     StructDescriptor theStruct = m_structs.computeIfAbsent(name, StructDescriptor::new);
     theStruct.m_schema = schema;
+    theStruct.m_fingerprint = fingerprint;
     theStruct.m_fields.clear();
+    theStruct.m_fieldsByName.clear();
     boolean isValid = true;
     for (ParsedDeclaration decl : parsed.declarations) {
       StructFieldType type = StructFieldType.fromString(decl.typeString);
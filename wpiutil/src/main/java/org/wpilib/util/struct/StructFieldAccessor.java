@@ -0,0 +1,370 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Compiled read accessor for a single struct field. All checks that DynamicStruct performs on
+ * every access (field type, descriptor validity, array bounds, and bitfield layout) are done once
+ * when the accessor is created, leaving only a little-endian VarHandle read (plus a shift for
+ * bitfields) per access.
+ *
+ * <p>Accessors read from a ByteBuffer containing serialized data starting at a given absolute
+ * offset; the buffer's position, limit, and byte order are ignored. The bulk methods read the same
+ * field from a packed array of structs (e.g. the data of a "struct:Pose2d[]" value) in a single
+ * loop.
+ *
+ * <p>Accessors can also be created for fields of nested structs with a path such as
+ * "translation.x" or "modules[2].angle.value"; the offsets of the nested structs are resolved once.
+ */
+public final class StructFieldAccessor {
+  private static final VarHandle kShort =
+      MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle kInt =
+      MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle kLong =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle kFloat =
+      MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle kDouble =
+      MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+
+  // how the raw storage is read; bitfields and unsigned values are handled after the read
+  private static final int kByte = 1;
+  private static final int kShortRead = 2;
+  private static final int kIntRead = 4;
+  private static final int kLongRead = 8;
+  private static final int kFloatRead = 5;
+  private static final int kDoubleRead = 9;
+
+  private StructFieldAccessor(StructDescriptor root, StructFieldDescriptor field, int offset) {
+    m_root = root;
+    m_field = field;
+    m_offset = offset;
+    m_stride = root.getSize();
+    m_read =
+        switch (field.getType()) {
+          case FLOAT -> kFloatRead;
+          case DOUBLE -> kDoubleRead;
+          default -> field.m_size;
+        };
+    m_unsigned = field.isUint() || field.getType() == StructFieldType.BOOL;
+    m_shift = field.m_bitShift;
+    m_mask = field.getBitMask();
+    m_signShift = 64 - field.getBitWidth();
+  }
+
+  /**
+   * Creates an accessor for a field of a struct. For array fields, the first element is read.
+   *
+   * @param field field descriptor
+   * @return accessor
+   * @throws UnsupportedOperationException if field is of struct type
+   * @throws IllegalStateException if struct descriptor is invalid
+   */
+  public static StructFieldAccessor create(StructFieldDescriptor field) {
+    return create(field, 0);
+  }
+
+  /**
+   * Creates an accessor for an element of an array field of a struct.
+   *
+   * @param field field descriptor
+   * @param arrIndex array index (must be less than field array size)
+   * @return accessor
+   * @throws UnsupportedOperationException if field is of struct type
+   * @throws IllegalStateException if struct descriptor is invalid
+   * @throws ArrayIndexOutOfBoundsException if array index is out of bounds
+   */
+  public static StructFieldAccessor create(StructFieldDescriptor field, int arrIndex) {
+    StructDescriptor root = field.getParent();
+    if (!root.isValid()) {
+      throw new IllegalStateException("struct descriptor is not valid");
+    }
+    return create(root, field, arrIndex, 0);
+  }
+
+  /**
+   * Creates an accessor for a field of a struct or of one of its nested structs. The path is a
+   * sequence of field names separated by ".", each of which may have an array index in brackets,
+   * e.g. "modules[2].angle.value".
+   *
+   * @param desc struct descriptor
+   * @param path field path
+   * @return accessor
+   * @throws IllegalArgumentException if the path does not name a non-struct field
+   * @throws IllegalStateException if struct descriptor is invalid
+   * @throws ArrayIndexOutOfBoundsException if an array index is out of bounds
+   */
+  public static StructFieldAccessor create(StructDescriptor desc, String path) {
+    if (!desc.isValid()) {
+      throw new IllegalStateException("struct descriptor is not valid");
+    }
+    StructDescriptor struct = desc;
+    int offset = 0;
+    String[] parts = path.split("\\.", -1);
+    for (int i = 0; i < parts.length; i++) {
+      String name = parts[i];
+      int arrIndex = 0;
+      int bracket = name.indexOf('[');
+      if (bracket != -1) {
+        if (!name.endsWith("]")) {
+          throw new IllegalArgumentException("invalid array index in '" + path + "'");
+        }
+        try {
+          arrIndex = Integer.parseInt(name.substring(bracket + 1, name.length() - 1));
+        } catch (NumberFormatException ex) {
+          throw new IllegalArgumentException("invalid array index in '" + path + "'", ex);
+        }
+        name = name.substring(0, bracket);
+      }
+      StructFieldDescriptor field = struct.findFieldByName(name);
+      if (field == null) {
+        throw new IllegalArgumentException("no field '" + name + "' in '" + path + "'");
+      }
+      if (i == parts.length - 1) {
+        if (field.getType() == StructFieldType.STRUCT) {
+          throw new IllegalArgumentException("'" + path + "' is a struct field");
+        }
+        return create(desc, field, arrIndex, offset);
+      }
+      if (field.getType() != StructFieldType.STRUCT) {
+        throw new IllegalArgumentException("'" + name + "' in '" + path + "' is not a struct");
+      }
+      checkIndex(field, arrIndex);
+      struct = field.getStruct();
+      offset += field.m_offset + arrIndex * struct.getSize();
+    }
+    throw new IllegalArgumentException("empty field path");
+  }
+
+  private static StructFieldAccessor create(
+      StructDescriptor root, StructFieldDescriptor field, int arrIndex, int offset) {
+    if (field.getType() == StructFieldType.STRUCT) {
+      throw new UnsupportedOperationException("field is struct type");
+    }
+    checkIndex(field, arrIndex);
+    return new StructFieldAccessor(
+        root, field, offset + field.m_offset + arrIndex * field.m_size);
+  }
+
+  private static void checkIndex(StructFieldDescriptor field, int arrIndex) {
+    if (arrIndex < 0 || arrIndex >= field.m_arraySize) {
+      throw new ArrayIndexOutOfBoundsException(
+          "arrIndex (" + arrIndex + ") is larger than array size (" + field.m_arraySize + ")");
+    }
+  }
+
+  /**
+   * Gets the descriptor of the struct the accessor reads from. For nested fields, this is the
+   * outermost struct.
+   *
+   * @return struct descriptor
+   */
+  public StructDescriptor getStruct() {
+    return m_root;
+  }
+
+  /**
+   * Gets the descriptor of the field the accessor reads.
+   *
+   * @return field descriptor
+   */
+  public StructFieldDescriptor getField() {
+    return m_field;
+  }
+
+  /**
+   * Gets the offset of the field from the start of the struct, in bytes.
+   *
+   * @return number of bytes
+   */
+  public int getOffset() {
+    return m_offset;
+  }
+
+  /**
+   * Reads the field as an integer. Float and double fields are truncated. Unsigned fields are
+   * zero-extended, and signed fields are sign-extended, in the same way as {@link
+   * DynamicStruct#getIntField(StructFieldDescriptor)}.
+   *
+   * @param data serialized data
+   * @param offset absolute offset of the start of the struct in data
+   * @return field value
+   * @throws IndexOutOfBoundsException if the field is outside of data
+   */
+  public long getInt(ByteBuffer data, int offset) {
+    return switch (m_read) {
+      case kFloatRead -> (long) (float) kFloat.get(data, offset + m_offset);
+      case kDoubleRead -> (long) (double) kDouble.get(data, offset + m_offset);
+      default -> toInt(readRaw(data, offset + m_offset));
+    };
+  }
+
+  /**
+   * Reads the field as a boolean. Numeric fields are true if non-zero.
+   *
+   * @param data serialized data
+   * @param offset absolute offset of the start of the struct in data
+   * @return field value
+   * @throws IndexOutOfBoundsException if the field is outside of data
+   */
+  public boolean getBool(ByteBuffer data, int offset) {
+    return getDouble(data, offset) != 0;
+  }
+
+  /**
+   * Reads the field as a double. Integer fields are converted as for {@link #getInt(ByteBuffer,
+   * int)}, and boolean fields are read as 0 or 1.
+   *
+   * @param data serialized data
+   * @param offset absolute offset of the start of the struct in data
+   * @return field value
+   * @throws IndexOutOfBoundsException if the field is outside of data
+   */
+  public double getDouble(ByteBuffer data, int offset) {
+    return switch (m_read) {
+      case kFloatRead -> (float) kFloat.get(data, offset + m_offset);
+      case kDoubleRead -> (double) kDouble.get(data, offset + m_offset);
+      default -> toInt(readRaw(data, offset + m_offset));
+    };
+  }
+
+  /**
+   * Reads the field from a dynamic struct as a double.
+   *
+   * @param struct dynamic struct
+   * @return field value
+   * @throws IllegalArgumentException if struct is not of the accessor's struct type
+   */
+  public double getDouble(DynamicStruct struct) {
+    if (!struct.getDescriptor().equals(m_root)) {
+      throw new IllegalArgumentException("struct is not of the accessor's struct type");
+    }
+    return getDouble(struct.getBuffer(), 0);
+  }
+
+  /**
+   * Reads the field from a dynamic struct as an integer.
+   *
+   * @param struct dynamic struct
+   * @return field value
+   * @throws IllegalArgumentException if struct is not of the accessor's struct type
+   */
+  public long getInt(DynamicStruct struct) {
+    if (!struct.getDescriptor().equals(m_root)) {
+      throw new IllegalArgumentException("struct is not of the accessor's struct type");
+    }
+    return getInt(struct.getBuffer(), 0);
+  }
+
+  /**
+   * Reads the field from each element of a packed array of structs into a double array. The
+   * elements are read from data starting at offset, each struct size bytes apart, and converted as
+   * for {@link #getDouble(ByteBuffer, int)}.
+   *
+   * @param data serialized struct array data
+   * @param offset absolute offset of the first struct in data
+   * @param out output array
+   * @param outOffset index of the first output element in out
+   * @param count number of structs to read
+   * @throws IndexOutOfBoundsException if a field is outside of data, or if out is too small
+   */
+  public void getDoubles(ByteBuffer data, int offset, double[] out, int outOffset, int count) {
+    if (outOffset < 0 || count < 0 || outOffset + count > out.length) {
+      throw new IndexOutOfBoundsException("output range outside of array");
+    }
+    int src = offset + m_offset;
+    int end = outOffset + count;
+    switch (m_read) {
+      case kFloatRead -> {
+        for (int i = outOffset; i < end; i++, src += m_stride) {
+          out[i] = (float) kFloat.get(data, src);
+        }
+      }
+      case kDoubleRead -> {
+        for (int i = outOffset; i < end; i++, src += m_stride) {
+          out[i] = (double) kDouble.get(data, src);
+        }
+      }
+      default -> {
+        for (int i = outOffset; i < end; i++, src += m_stride) {
+          out[i] = toInt(readRaw(data, src));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the field from each element of a packed array of structs into a double array. The
+   * number of elements is determined by the remaining bytes in data, starting from its position.
+   *
+   * @param data serialized struct array data
+   * @param out output array; if smaller than the number of elements, only the leading elements are
+   *     read
+   * @return number of elements in data
+   */
+  public int getDoubles(ByteBuffer data, double[] out) {
+    int count = m_stride == 0 ? 0 : data.remaining() / m_stride;
+    getDoubles(data, data.position(), out, 0, Math.min(count, out.length));
+    return count;
+  }
+
+  /**
+   * Reads the field from each element of a packed array of structs into a long array. The
+   * elements are read from data starting at offset, each struct size bytes apart, and converted as
+   * for {@link #getInt(ByteBuffer, int)}.
+   *
+   * @param data serialized struct array data
+   * @param offset absolute offset of the first struct in data
+   * @param out output array
+   * @param outOffset index of the first output element in out
+   * @param count number of structs to read
+   * @throws IndexOutOfBoundsException if a field is outside of data, or if out is too small
+   */
+  public void getInts(ByteBuffer data, int offset, long[] out, int outOffset, int count) {
+    if (outOffset < 0 || count < 0 || outOffset + count > out.length) {
+      throw new IndexOutOfBoundsException("output range outside of array");
+    }
+    int src = offset;
+    int end = outOffset + count;
+    for (int i = outOffset; i < end; i++, src += m_stride) {
+      out[i] = getInt(data, src);
+    }
+  }
+
+  private long readRaw(ByteBuffer data, int index) {
+    return switch (m_read) {
+      case kByte -> data.get(index);
+      case kShortRead -> (short) kShort.get(data, index);
+      case kIntRead -> (int) kInt.get(data, index);
+      case kLongRead -> (long) kLong.get(data, index);
+      default -> throw new IllegalStateException("invalid field size");
+    };
+  }
+
+  private long toInt(long val) {
+    if (m_unsigned) {
+      return (val >>> m_shift) & m_mask;
+    } else {
+      // see DynamicStruct.getFieldImpl()
+      return (val << (m_signShift - m_shift)) >> m_signShift;
+    }
+  }
+
+  private final StructDescriptor m_root;
+  private final StructFieldDescriptor m_field;
+  private final int m_offset;
+  private final int m_stride;
+  private final int m_read;
+  private final boolean m_unsigned;
+  private final int m_shift;
+  private final long m_mask;
+  private final int m_signShift;
+}
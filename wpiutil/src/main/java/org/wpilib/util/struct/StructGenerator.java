@@ -4,8 +4,11 @@
 
 package org.wpilib.util.struct;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.RecordComponent;
 import java.nio.ByteBuffer;
@@ -19,81 +22,295 @@ public final class StructGenerator {
     throw new UnsupportedOperationException("This is a utility class!");
   }
 
-  /**
-   * A functional interface representing a method that retrives a value from a {@link ByteBuffer}.
-   */
-  @FunctionalInterface
-  private interface Unpacker<T> {
-    T unpack(ByteBuffer buffer);
-  }
+  private record PrimType(String name, int size, MethodHandle getter, MethodHandle putter) {}
 
-  /** A functional interface representing a method that packs a value into a {@link ByteBuffer}. */
-  @FunctionalInterface
-  private interface Packer<T> {
-    ByteBuffer pack(ByteBuffer buffer, T value);
+  /** A map of primitive types to their schema types. */
+  private static final HashMap<Class<?>, PrimType> primitiveTypeMap = new HashMap<>();
 
-    static <T> Packer<T> fromStruct(Struct<T> struct) {
-      return (buffer, value) -> {
-        struct.pack(buffer, value);
-        return buffer;
-      };
-    }
-  }
+  /** (int, int)int that adds its arguments; used to offset the buffer index of each field. */
+  private static final MethodHandle addIntHandle;
 
-  private record PrimType<T>(String name, int size, Unpacker<T> unpacker, Packer<T> packer) {}
+  /** (Struct, ByteBuffer, int)Object that unpacks a nested struct at an absolute index. */
+  private static final MethodHandle unpackNestedHandle;
 
-  /** A map of primitive types to their schema types. */
-  private static final HashMap<Class<?>, PrimType<?>> primitiveTypeMap = new HashMap<>();
+  /** (Struct, ByteBuffer, int, Object)void that packs a nested struct at an absolute index. */
+  private static final MethodHandle packNestedHandle;
+
+  /** (Object[], ByteBuffer, int)Object that unpacks an enum variant from its ordinal. */
+  private static final MethodHandle unpackEnumHandle;
+
+  /** (ByteBuffer, int, Object)void that packs an enum ordinal. */
+  private static final MethodHandle packEnumHandle;
 
-  private static <T> void addPrimType(
-      Class<T> boxedClass,
-      Class<T> primitiveClass,
+  private static void addPrimType(
+      Class<?> boxedClass,
+      Class<?> primitiveClass,
       String name,
       int size,
-      Unpacker<T> unpacker,
-      Packer<T> packer) {
-    PrimType<T> primType = new PrimType<>(name, size, unpacker, packer);
+      MethodHandle getter,
+      MethodHandle putter) {
+    PrimType primType = new PrimType(name, size, getter, putter);
     primitiveTypeMap.put(boxedClass, primType);
     primitiveTypeMap.put(primitiveClass, primType);
   }
 
+  private static void addPrimType(
+      Class<?> boxedClass, Class<?> primitiveClass, String name, int size, String accessorSuffix)
+      throws ReflectiveOperationException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle getter =
+        lookup.findVirtual(
+            ByteBuffer.class,
+            "get" + accessorSuffix,
+            MethodType.methodType(primitiveClass, int.class));
+    MethodHandle putter =
+        lookup.findVirtual(
+            ByteBuffer.class,
+            "put" + accessorSuffix,
+            MethodType.methodType(ByteBuffer.class, int.class, primitiveClass));
+    addPrimType(
+        boxedClass,
+        primitiveClass,
+        name,
+        size,
+        getter,
+        putter.asType(putter.type().changeReturnType(void.class)));
+  }
+
   // Add primitive types to the map
   static {
-    addPrimType(
-        Integer.class, int.class, "int32", Integer.BYTES, ByteBuffer::getInt, ByteBuffer::putInt);
-    addPrimType(
-        Double.class,
-        double.class,
-        "float64",
-        Double.BYTES,
-        ByteBuffer::getDouble,
-        ByteBuffer::putDouble);
-    addPrimType(
-        Float.class,
-        float.class,
-        "float32",
-        Float.BYTES,
-        ByteBuffer::getFloat,
-        ByteBuffer::putFloat);
-    addPrimType(
-        Boolean.class,
-        boolean.class,
-        "bool",
-        Byte.BYTES,
-        buffer -> buffer.get() != 0,
-        (buffer, value) -> buffer.put((byte) (value ? 1 : 0)));
-    addPrimType(
-        Character.class,
-        char.class,
-        "char",
-        Character.BYTES,
-        ByteBuffer::getChar,
-        ByteBuffer::putChar);
-    addPrimType(Byte.class, byte.class, "uint8", Byte.BYTES, ByteBuffer::get, ByteBuffer::put);
-    addPrimType(
-        Short.class, short.class, "int16", Short.BYTES, ByteBuffer::getShort, ByteBuffer::putShort);
-    addPrimType(
-        Long.class, long.class, "int64", Long.BYTES, ByteBuffer::getLong, ByteBuffer::putLong);
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      addPrimType(Integer.class, int.class, "int32", Integer.BYTES, "Int");
+      addPrimType(Double.class, double.class, "float64", Double.BYTES, "Double");
+      addPrimType(Float.class, float.class, "float32", Float.BYTES, "Float");
+      addPrimType(
+          Boolean.class,
+          boolean.class,
+          "bool",
+          Byte.BYTES,
+          lookup.findStatic(
+              StructGenerator.class,
+              "getBool",
+              MethodType.methodType(boolean.class, ByteBuffer.class, int.class)),
+          lookup.findStatic(
+              StructGenerator.class,
+              "putBool",
+              MethodType.methodType(void.class, ByteBuffer.class, int.class, boolean.class)));
+      addPrimType(Character.class, char.class, "char", Character.BYTES, "Char");
+      addPrimType(Byte.class, byte.class, "uint8", Byte.BYTES, "");
+      addPrimType(Short.class, short.class, "int16", Short.BYTES, "Short");
+      addPrimType(Long.class, long.class, "int64", Long.BYTES, "Long");
+
+      addIntHandle =
+          lookup.findStatic(
+              Integer.class, "sum", MethodType.methodType(int.class, int.class, int.class));
+      unpackNestedHandle =
+          lookup.findStatic(
+              StructGenerator.class,
+              "unpackNested",
+              MethodType.methodType(Object.class, Struct.class, ByteBuffer.class, int.class));
+      packNestedHandle =
+          lookup.findStatic(
+              StructGenerator.class,
+              "packNested",
+              MethodType.methodType(
+                  void.class, Struct.class, ByteBuffer.class, int.class, Object.class));
+      unpackEnumHandle =
+          lookup.findStatic(
+              StructGenerator.class,
+              "unpackEnum",
+              MethodType.methodType(Object.class, Object[].class, ByteBuffer.class, int.class));
+      packEnumHandle =
+          lookup.findStatic(
+              StructGenerator.class,
+              "packEnum",
+              MethodType.methodType(void.class, ByteBuffer.class, int.class, Object.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static boolean getBool(ByteBuffer buffer, int index) {
+    return buffer.get(index) != 0;
+  }
+
+  private static void putBool(ByteBuffer buffer, int index, boolean value) {
+    buffer.put(index, (byte) (value ? 1 : 0));
+  }
+
+  private static Object unpackNested(Struct<?> struct, ByteBuffer buffer, int index) {
+    buffer.position(index);
+    return struct.unpack(buffer);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void packNested(Struct<?> struct, ByteBuffer buffer, int index, Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Component is null");
+    }
+    buffer.position(index);
+    ((Struct<Object>) struct).pack(buffer, value);
+  }
+
+  private static Object unpackEnum(Object[] variants, ByteBuffer buffer, int index) {
+    int ordinal = buffer.get(index);
+    return ordinal >= 0 && ordinal < variants.length ? variants[ordinal] : null;
+  }
+
+  private static void packEnum(ByteBuffer buffer, int index, Object value) {
+    buffer.put(index, (byte) ((Enum<?>) value).ordinal());
+  }
+
+  /**
+   * Adapts an absolute getter (ByteBuffer, int)P to read a field at an offset from the index.
+   *
+   * @param getter absolute getter
+   * @param offset field offset
+   * @param type field type; P is converted (boxed or cast) to this type
+   * @return (ByteBuffer, int)type
+   */
+  private static MethodHandle fieldGetter(MethodHandle getter, int offset, Class<?> type) {
+    MethodHandle get =
+        MethodHandles.filterArguments(
+            getter, 1, MethodHandles.insertArguments(addIntHandle, 1, offset));
+    return get.asType(get.type().changeReturnType(type));
+  }
+
+  /**
+   * Adapts an absolute putter (ByteBuffer, int, P)void to write a field, obtained from the object
+   * being packed with an accessor, at an offset from the index.
+   *
+   * @param putter absolute putter
+   * @param offset field offset
+   * @param accessor (O)F accessor; F is converted (unboxed or cast) to P
+   * @return (ByteBuffer, int, Object)void
+   */
+  private static MethodHandle fieldPutter(MethodHandle putter, int offset, MethodHandle accessor) {
+    MethodHandle put =
+        MethodHandles.filterArguments(
+            putter, 1, MethodHandles.insertArguments(addIntHandle, 1, offset));
+    MethodHandle get =
+        accessor.asType(MethodType.methodType(put.type().parameterType(2), Object.class));
+    return MethodHandles.filterArguments(put, 2, get);
+  }
+
+  /**
+   * Combines field putters into a single (ByteBuffer, int, Object)void handle that invokes them in
+   * order.
+   */
+  private static MethodHandle combinePutters(List<MethodHandle> putters) {
+    MethodHandle pack =
+        MethodHandles.empty(
+            MethodType.methodType(void.class, ByteBuffer.class, int.class, Object.class));
+    for (int i = putters.size() - 1; i >= 0; i--) {
+      pack = MethodHandles.foldArguments(pack, putters.get(i));
+    }
+    return pack;
+  }
+
+  /**
+   * Combines field getters with a constructor into a single (ByteBuffer, int)Object handle.
+   *
+   * @param constructor constructor taking all fields in order
+   * @param getters (ByteBuffer, int)F field getters, one per constructor parameter
+   * @return (ByteBuffer, int)Object
+   */
+  private static MethodHandle combineGetters(MethodHandle constructor, List<MethodHandle> getters) {
+    MethodHandle target = constructor;
+    for (int i = getters.size() - 1; i >= 0; i--) {
+      target = MethodHandles.collectArguments(target, i, getters.get(i));
+    }
+    // every getter takes the same (buffer, index) arguments
+    int[] reorder = new int[getters.size() * 2];
+    for (int i = 0; i < getters.size(); i++) {
+      reorder[i * 2 + 1] = 1;
+    }
+    return MethodHandles.permuteArguments(
+        target.asType(target.type().changeReturnType(Object.class)),
+        MethodType.methodType(Object.class, ByteBuffer.class, int.class),
+        reorder);
+  }
+
+  /**
+   * A struct implemented by method handles, with no reflection or boxing of primitive fields on
+   * each call. This is a record so the JIT can treat the handles as constants (record fields are
+   * trusted final), allowing them to be fully inlined when the struct is held in a static final
+   * field.
+   */
+  private record GeneratedStruct<T>(
+      Class<T> typeClass,
+      String schema,
+      int size,
+      Struct<?>[] nested,
+      MethodHandle packer,
+      MethodHandle unpacker)
+      implements Struct<T> {
+    @Override
+    public Class<T> getTypeClass() {
+      return typeClass;
+    }
+
+    @Override
+    public String getTypeName() {
+      return typeClass.getSimpleName();
+    }
+
+    @Override
+    public String getSchema() {
+      return schema;
+    }
+
+    @Override
+    public int getSize() {
+      return size;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public void pack(ByteBuffer buffer, T value) {
+      int pos = buffer.position();
+      try {
+        packer.invokeExact(buffer, pos, (Object) value);
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        System.err.println(
+            "Could not pack struct: " + typeClass.getSimpleName() + "\n    " + e.getMessage());
+        for (int i = 0; i < size; i++) {
+          buffer.put(pos + i, (byte) 0);
+        }
+      }
+      buffer.position(pos + size);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "PMD.AvoidCatchingGenericException"})
+    public T unpack(ByteBuffer buffer) {
+      int pos = buffer.position();
+      T value;
+      try {
+        value = (T) unpacker.invokeExact(buffer, pos);
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        System.err.println(
+            "Could not unpack struct: " + typeClass.getSimpleName() + "\n    " + e.getMessage());
+        value = null;
+      }
+      buffer.position(pos + size);
+      return value;
+    }
+
+    @Override
+    public Struct<?>[] getNested() {
+      return nested.clone();
+    }
+
+    @Override
+    public boolean isImmutable() {
+      return true;
+    }
   }
 
   /**
@@ -253,13 +470,14 @@ public final class StructGenerator {
    * @param recordClass The class of the record.
    * @return The generated struct.
    */
-  @SuppressWarnings({"unchecked", "PMD.AvoidAccessibilityAlteration"})
+  @SuppressWarnings("PMD.AvoidAccessibilityAlteration")
   public static <R extends Record> Struct<R> genRecord(final Class<R> recordClass) {
     final RecordComponent[] components = recordClass.getRecordComponents();
     final SchemaBuilder schemaBuilder = new SchemaBuilder();
     final ArrayList<Struct<?>> nestedStructs = new ArrayList<>();
-    final ArrayList<Unpacker<?>> unpackers = new ArrayList<>();
-    final ArrayList<Packer<?>> packers = new ArrayList<>();
+    final ArrayList<MethodHandle> getters = new ArrayList<>();
+    final ArrayList<MethodHandle> putters = new ArrayList<>();
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
 
     int size = 0;
     boolean failed = false;
@@ -269,12 +487,15 @@ public final class StructGenerator {
       final String name = component.getName();
       component.getAccessor().setAccessible(true);
 
+      final MethodHandle getter;
+      final MethodHandle putter;
+      final int fieldSize;
       if (primitiveTypeMap.containsKey(type)) {
-        PrimType<?> primType = primitiveTypeMap.get(type);
+        PrimType primType = primitiveTypeMap.get(type);
         schemaBuilder.addField(name, primType.name);
-        size += primType.size;
-        unpackers.add(primType.unpacker);
-        packers.add(primType.packer);
+        fieldSize = primType.size;
+        getter = primType.getter;
+        putter = primType.putter;
       } else {
         Struct<?> struct;
         if (customStructTypeMap.containsKey(type)) {
@@ -301,109 +522,60 @@ public final class StructGenerator {
           continue;
         }
         schemaBuilder.addField(name, struct.getTypeName());
-        size += struct.getSize();
+        fieldSize = struct.getSize();
         nestedStructs.add(struct);
         nestedStructs.addAll(List.of(struct.getNested()));
-        unpackers.add(struct::unpack);
-        packers.add(Packer.fromStruct(struct));
+        getter = unpackNestedHandle.bindTo(struct);
+        putter = packNestedHandle.bindTo(struct);
       }
+
+      try {
+        getters.add(fieldGetter(getter, size, type));
+        putters.add(fieldPutter(putter, size, lookup.unreflect(component.getAccessor())));
+      } catch (IllegalAccessException e) {
+        System.err.println(
+            "Could not access record component: "
+                + recordClass.getSimpleName()
+                + "#"
+                + name
+                + "\n    "
+                + e.getMessage());
+        failed = true;
+      }
+      size += fieldSize;
     }
 
     if (failed) {
       return noopStruct(recordClass);
     }
 
-    final int frozenSize = size;
-    final String schema = schemaBuilder.build();
-    return new Struct<>() {
-      @Override
-      public Class<R> getTypeClass() {
-        return recordClass;
-      }
-
-      @Override
-      public String getTypeName() {
-        return recordClass.getSimpleName();
-      }
-
-      @Override
-      public String getSchema() {
-        return schema;
-      }
-
-      @Override
-      public int getSize() {
-        return frozenSize;
-      }
-
-      @Override
-      public void pack(ByteBuffer buffer, R value) {
-        boolean failed = false;
-        int startingPosition = buffer.position();
-        for (int i = 0; i < components.length; i++) {
-          Packer<Object> packer = (Packer<Object>) packers.get(i);
-          try {
-            Object componentValue = components[i].getAccessor().invoke(value);
-            if (componentValue == null) {
-              throw new IllegalArgumentException("Component is null");
-            }
-            packer.pack(buffer, componentValue);
-          } catch (IllegalAccessException
-              | IllegalArgumentException
-              | InvocationTargetException e) {
-            System.err.println(
-                "Could not pack record component: "
-                    + recordClass.getSimpleName()
-                    + "#"
-                    + components[i].getName()
-                    + "\n    "
-                    + e.getMessage());
-            failed = true;
-            break;
-          }
-        }
-        if (failed) {
-          buffer.position(startingPosition);
-          for (int i = 0; i < frozenSize; i++) {
-            buffer.put((byte) 0);
-          }
-        }
-      }
-
-      @Override
-      public R unpack(ByteBuffer buffer) {
-        try {
-          Object[] args = new Object[components.length];
-          Class<?>[] argTypes = new Class<?>[components.length];
-          for (int i = 0; i < components.length; i++) {
-            args[i] = unpackers.get(i).unpack(buffer);
-            argTypes[i] = components[i].getType();
-          }
-          return recordClass.getConstructor(argTypes).newInstance(args);
-        } catch (InstantiationException
-            | IllegalAccessException
-            | InvocationTargetException
-            | NoSuchMethodException
-            | SecurityException e) {
-          System.err.println(
-              "Could not unpack record: "
-                  + recordClass.getSimpleName()
-                  + "\n    "
-                  + e.getMessage());
-          return null;
-        }
-      }
-
-      @Override
-      public Struct<?>[] getNested() {
-        return nestedStructs.toArray(new Struct<?>[0]);
+    final MethodHandle constructor;
+    try {
+      Class<?>[] argTypes = new Class<?>[components.length];
+      for (int i = 0; i < components.length; i++) {
+        argTypes[i] = components[i].getType();
       }
+      Constructor<R> ctor = recordClass.getDeclaredConstructor(argTypes);
+      // records declared outside this package (e.g. package-private robot code records) are not
+      // accessible to our lookup otherwise
+      ctor.setAccessible(true);
+      constructor = lookup.unreflectConstructor(ctor);
+    } catch (IllegalAccessException | NoSuchMethodException | SecurityException e) {
+      System.err.println(
+          "Could not access record constructor: "
+              + recordClass.getSimpleName()
+              + "\n    "
+              + e.getMessage());
+      return noopStruct(recordClass);
+    }
 
-      @Override
-      public boolean isImmutable() {
-        return true;
-      }
-    };
+    return new GeneratedStruct<>(
+        recordClass,
+        schemaBuilder.build(),
+        size,
+        nestedStructs.toArray(new Struct<?>[0]),
+        combinePutters(putters),
+        combineGetters(constructor, getters));
   }
 
   /**
@@ -415,15 +587,15 @@ public final class StructGenerator {
    * @param enumClass The class of the enum.
    * @return The generated struct.
    */
-  @SuppressWarnings({"unchecked", "PMD.AvoidAccessibilityAlteration"})
+  @SuppressWarnings("PMD.AvoidAccessibilityAlteration")
   public static <E extends Enum<E>> Struct<E> genEnum(Class<E> enumClass) {
     final E[] enumVariants = enumClass.getEnumConstants();
     final Field[] allEnumFields = enumClass.getDeclaredFields();
     final SchemaBuilder schemaBuilder = new SchemaBuilder();
     final SchemaBuilder.EnumFieldBuilder enumFieldBuilder =
         new SchemaBuilder.EnumFieldBuilder("variant");
-    final HashMap<Integer, E> enumMap = new HashMap<>();
-    final ArrayList<Packer<?>> packers = new ArrayList<>();
+    final ArrayList<MethodHandle> putters = new ArrayList<>();
+    final MethodHandles.Lookup lookup = MethodHandles.lookup();
 
     if (enumVariants == null || enumVariants.length == 0) {
       System.err.println(
@@ -437,13 +609,10 @@ public final class StructGenerator {
     int size = 0;
 
     for (final E constant : enumVariants) {
-      final String name = constant.name();
-      final int ordinal = constant.ordinal();
-
-      enumFieldBuilder.addVariant(name, ordinal);
-      enumMap.put(ordinal, constant);
+      enumFieldBuilder.addVariant(constant.name(), constant.ordinal());
     }
     schemaBuilder.addEnumField(enumFieldBuilder);
+    putters.add(packEnumHandle);
     size += 1;
 
     final List<Field> enumFields =
@@ -458,11 +627,13 @@ public final class StructGenerator {
       final String name = field.getName();
       field.setAccessible(true);
 
+      final MethodHandle putter;
+      final int fieldSize;
       if (primitiveTypeMap.containsKey(type)) {
-        PrimType<?> primType = primitiveTypeMap.get(type);
+        PrimType primType = primitiveTypeMap.get(type);
         schemaBuilder.addField(name, primType.name);
-        size += primType.size;
-        packers.add(primType.packer);
+        fieldSize = primType.size;
+        putter = primType.putter;
       } else {
         Struct<?> struct;
         if (customStructTypeMap.containsKey(type)) {
@@ -489,85 +660,35 @@ public final class StructGenerator {
           continue;
         }
         schemaBuilder.addField(name, struct.getTypeName());
-        size += struct.getSize();
-        packers.add(Packer.fromStruct(struct));
+        fieldSize = struct.getSize();
+        putter = packNestedHandle.bindTo(struct);
       }
+
+      try {
+        putters.add(fieldPutter(putter, size, lookup.unreflectGetter(field)));
+      } catch (IllegalAccessException e) {
+        System.err.println(
+            "Could not access enum field: "
+                + enumClass.getSimpleName()
+                + "#"
+                + name
+                + "\n    "
+                + e.getMessage());
+        failed = true;
+      }
+      size += fieldSize;
     }
 
     if (failed) {
       return noopStruct(enumClass);
     }
 
-    final int frozenSize = size;
-    final String schema = schemaBuilder.build();
-    return new Struct<>() {
-      @Override
-      public Class<E> getTypeClass() {
-        return enumClass;
-      }
-
-      @Override
-      public String getTypeName() {
-        return enumClass.getSimpleName();
-      }
-
-      @Override
-      public String getSchema() {
-        return schema;
-      }
-
-      @Override
-      public int getSize() {
-        return frozenSize;
-      }
-
-      @Override
-      public void pack(ByteBuffer buffer, E value) {
-        boolean failed = false;
-        int startingPosition = buffer.position();
-        buffer.put((byte) value.ordinal());
-        for (int i = 0; i < enumFields.size(); i++) {
-          Packer<Object> packer = (Packer<Object>) packers.get(i);
-          Field field = enumFields.get(i);
-          try {
-            Object fieldValue = field.get(value);
-            if (fieldValue == null) {
-              throw new IllegalArgumentException("Field is null");
-            }
-            packer.pack(buffer, fieldValue);
-          } catch (IllegalArgumentException | IllegalAccessException e) {
-            System.err.println(
-                "Could not pack enum field: "
-                    + enumClass.getSimpleName()
-                    + "#"
-                    + field.getName()
-                    + "\n    "
-                    + e.getMessage());
-            failed = true;
-            break;
-          }
-        }
-        if (failed) {
-          buffer.position(startingPosition);
-          for (int i = 0; i < frozenSize; i++) {
-            buffer.put((byte) 0);
-          }
-        }
-      }
-
-      final byte[] m_spongeBuffer = new byte[frozenSize - 1];
-
-      @Override
-      public E unpack(ByteBuffer buffer) {
-        int ordinal = buffer.get();
-        buffer.get(m_spongeBuffer);
-        return enumMap.getOrDefault(ordinal, null);
-      }
-
-      @Override
-      public boolean isImmutable() {
-        return true;
-      }
-    };
+    return new GeneratedStruct<>(
+        enumClass,
+        schemaBuilder.build(),
+        size,
+        new Struct<?>[0],
+        combinePutters(putters),
+        unpackEnumHandle.bindTo(enumVariants));
   }
 }
@@ -0,0 +1,134 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.wpilib.util.struct.parser.ParseException;
+import org.wpilib.util.struct.parser.ParsedDeclaration;
+import org.wpilib.util.struct.parser.ParsedSchema;
+import org.wpilib.util.struct.parser.Parser;
+
+/**
+ * Process-wide cache of parsed struct schemas, keyed by a fingerprint of the schema text.
+ *
+ * <p>Every {@link StructDescriptorDatabase} (and therefore every NetworkTables and DataLog consumer
+ * that decodes structs dynamically) parses schemas through this cache, so the same schema text
+ * (e.g. for Pose3d) is only parsed once per process no matter how many logs or connections it
+ * appears in. Cached parse results are never modified. Descriptors themselves are not shared, as
+ * the layout of nested structs depends on the other schemas in each database.
+ */
+public final class StructSchemaCache {
+  // upper bound on cached schemas; beyond this, schemas are parsed without caching
+  private static final int kMaxEntries = 4096;
+
+  private record Entry(String schema, ParsedSchema parsed) {}
+
+  private static final Map<Long, Entry> s_cache = new ConcurrentHashMap<>();
+
+  private StructSchemaCache() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Computes the fingerprint of a schema. The fingerprint is a 64-bit FNV-1a hash of the UTF-8
+   * encoding of the schema text; it is stable across processes and languages, so it may be
+   * persisted or sent over the network.
+   *
+   * @param schema structure schema
+   * @return fingerprint
+   */
+  public static long fingerprint(String schema) {
+    // encodes inline rather than with getBytes() so fingerprinting doesn't allocate
+    long hash = 0xcbf29ce484222325L;
+    int len = schema.length();
+    for (int i = 0; i < len; i++) {
+      int cp = schema.charAt(i);
+      if (cp < 0x80) {
+        hash = fnv(hash, cp);
+      } else if (cp < 0x800) {
+        hash = fnv(hash, 0xc0 | (cp >>> 6));
+        hash = fnv(hash, 0x80 | (cp & 0x3f));
+      } else if (Character.isSurrogate((char) cp)) {
+        if (Character.isHighSurrogate((char) cp)
+            && i + 1 < len
+            && Character.isLowSurrogate(schema.charAt(i + 1))) {
+          cp = Character.toCodePoint((char) cp, schema.charAt(++i));
+          hash = fnv(hash, 0xf0 | (cp >>> 18));
+          hash = fnv(hash, 0x80 | ((cp >>> 12) & 0x3f));
+          hash = fnv(hash, 0x80 | ((cp >>> 6) & 0x3f));
+          hash = fnv(hash, 0x80 | (cp & 0x3f));
+        } else {
+          // unpaired surrogate; String.getBytes(UTF_8) replaces it with '?'
+          hash = fnv(hash, '?');
+        }
+      } else {
+        hash = fnv(hash, 0xe0 | (cp >>> 12));
+        hash = fnv(hash, 0x80 | ((cp >>> 6) & 0x3f));
+        hash = fnv(hash, 0x80 | (cp & 0x3f));
+      }
+    }
+    return hash;
+  }
+
+  private static long fnv(long hash, int b) {
+    return (hash ^ b) * 0x100000001b3L;
+  }
+
+  /**
+   * Returns whether a schema with the given fingerprint has been parsed and cached.
+   *
+   * @param fingerprint schema fingerprint
+   * @return true if cached
+   */
+  public static boolean contains(long fingerprint) {
+    return s_cache.containsKey(fingerprint);
+  }
+
+  /**
+   * Gets the number of cached schemas.
+   *
+   * @return number of cached schemas
+   */
+  public static int size() {
+    return s_cache.size();
+  }
+
+  /** Removes all cached schemas. Descriptors that have already been created are not affected. */
+  public static void clear() {
+    s_cache.clear();
+  }
+
+  /**
+   * Parses a schema, returning the cached result if the same schema text has been parsed before.
+   * The returned object must not be modified.
+   *
+   * @param schema structure schema
+   * @param fingerprint fingerprint of schema (from {@link #fingerprint(String)})
+   * @return parsed schema
+   * @throws ParseException if the schema could not be parsed
+   */
+  static ParsedSchema parse(String schema, long fingerprint) throws ParseException {
+    Entry entry = s_cache.get(fingerprint);
+    if (entry != null && entry.schema.equals(schema)) {
+      return entry.parsed;
+    }
+
+    ParsedSchema parsed = new Parser(schema).parse();
+    for (ParsedDeclaration decl : parsed.declarations) {
+      if (decl.enumValues != null) {
+        decl.enumValues = Collections.unmodifiableMap(decl.enumValues);
+      }
+    }
+    parsed.declarations = Collections.unmodifiableList(parsed.declarations);
+
+    // on a fingerprint collision, keep the existing entry
+    if (entry == null && s_cache.size() < kMaxEntries) {
+      s_cache.putIfAbsent(fingerprint, new Entry(schema, parsed));
+    }
+    return parsed;
+  }
+}
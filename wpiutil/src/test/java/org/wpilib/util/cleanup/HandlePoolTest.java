@@ -0,0 +1,68 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.cleanup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HandlePoolTest {
+  private long m_next = 1;
+  private final List<Long> m_reset = new ArrayList<>();
+  private final List<Long> m_destroyed = new ArrayList<>();
+
+  private HandlePool createPool(int maxIdle) {
+    return new HandlePool("test", maxIdle, () -> m_next++, m_reset::add, m_destroyed::add);
+  }
+
+  @Test
+  void reusesReleasedHandles() {
+    try (HandlePool pool = createPool(2)) {
+      long a = pool.acquire();
+      long b = pool.acquire();
+      assertEquals(0, pool.getHits());
+      assertEquals(2, pool.getMisses());
+
+      pool.release(a);
+      assertEquals(List.of(a), m_reset);
+      assertEquals(1, pool.getIdleCount());
+      assertEquals(a, pool.acquire());
+      assertEquals(1, pool.getHits());
+
+      pool.release(a);
+      pool.release(b);
+      pool.release(100);
+      assertEquals(List.of(100L), m_destroyed);
+      assertEquals(2, pool.getIdleCount());
+    }
+    assertEquals(3, m_destroyed.size());
+  }
+
+  @Test
+  void releaseAfterCloseDestroys() {
+    HandlePool pool = createPool(4);
+    long a = pool.acquire();
+    pool.close();
+    pool.release(a);
+    assertEquals(List.of(a), m_destroyed);
+    assertEquals(0, pool.getIdleCount());
+  }
+
+  @Test
+  void explicitCleanIsNotLeak() {
+    try (HandlePool pool = createPool(4)) {
+      Object owner = new Object();
+      long a = pool.acquire();
+      var cleanable = pool.register(owner, a);
+      cleanable.clean();
+      cleanable.clean();
+      assertEquals(1, pool.getIdleCount());
+      assertEquals(0, pool.getLeaks());
+      assertEquals(a, pool.acquire());
+    }
+  }
+}
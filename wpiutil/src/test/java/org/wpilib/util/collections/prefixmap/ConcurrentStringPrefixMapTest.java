@@ -0,0 +1,126 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.collections.prefixmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentStringPrefixMapTest {
+  @Test
+  void putSplitsSharedPaths() {
+    var map = new ConcurrentStringPrefixMap<String>();
+    assertNull(map.put("/SmartDashboard/drive/speed", "speed"));
+    assertNull(map.put("/SmartDashboard/drive/angle", "angle"));
+    assertNull(map.put("/SmartDashboard", "root"));
+    assertNull(map.put("/Shuffleboard", "shuffle"));
+    assertEquals("root", map.put("/SmartDashboard", "newroot"));
+
+    assertEquals(4, map.size());
+    assertEquals("speed", map.get("/SmartDashboard/drive/speed"));
+    assertEquals("newroot", map.get("/SmartDashboard"));
+    assertNull(map.get("/SmartDashboard/drive"));
+    assertNull(map.get("/Smart"));
+    assertTrue(map.containsKey("/Shuffleboard"));
+    assertFalse(map.containsKey("/Shuffle"));
+    assertEquals(
+        List.of(
+            "/Shuffleboard",
+            "/SmartDashboard",
+            "/SmartDashboard/drive/angle",
+            "/SmartDashboard/drive/speed"),
+        List.copyOf(map.keySet()));
+  }
+
+  @Test
+  void matches() {
+    var map = new ConcurrentStringPrefixMap<String>();
+    map.put("", "all");
+    map.put("/SmartDashboard/", "sd");
+    map.put("/SmartDashboard/drive/", "drive");
+    map.put("/SmartDashboard/drive/speedy", "speedy");
+
+    assertEquals("drive", map.getLongestMatch("/SmartDashboard/drive/speed"));
+    assertEquals("all", map.getShortestMatch("/SmartDashboard/drive/speed"));
+    assertEquals("all", map.getLongestMatch("/Other"));
+    assertEquals("speedy", map.getLongestMatch("/SmartDashboard/drive/speedy/x"));
+
+    List<String> matches = new ArrayList<>();
+    map.forEachMatch("/SmartDashboard/drive/speed", matches::add);
+    assertEquals(List.of("all", "sd", "drive"), matches);
+
+    List<String> iterated = new ArrayList<>();
+    map.getAllMatches("/SmartDashboard/x").forEachRemaining(iterated::add);
+    assertEquals(List.of("all", "sd"), iterated);
+  }
+
+  @Test
+  void forEachWithPrefix() {
+    var map = new ConcurrentStringPrefixMap<Integer>();
+    map.put("/a/b/c", 1);
+    map.put("/a/b/d", 2);
+    map.put("/a/bc", 3);
+    map.put("/x", 4);
+
+    Map<String, Integer> found = new LinkedHashMap<>();
+    map.forEachWithPrefix("/a/b", found::put);
+    assertEquals(Map.of("/a/b/c", 1, "/a/b/d", 2, "/a/bc", 3), found);
+
+    found.clear();
+    map.forEachWithPrefix("/a/b/", found::put);
+    assertEquals(Map.of("/a/b/c", 1, "/a/b/d", 2), found);
+
+    found.clear();
+    map.forEachWithPrefix("/y", found::put);
+    assertTrue(found.isEmpty());
+  }
+
+  @Test
+  void removeMergesNodes() {
+    var map = new ConcurrentStringPrefixMap<Integer>();
+    map.put("/a/b/c", 1);
+    map.put("/a/b/d", 2);
+    map.put("/a/b", 3);
+
+    assertNull(map.remove("/a/"));
+    assertEquals(3, map.remove("/a/b"));
+    assertEquals(1, map.remove("/a/b/c"));
+    assertEquals(1, map.size());
+    assertEquals(2, map.get("/a/b/d"));
+    assertEquals(2, map.getLongestMatch("/a/b/d/e"));
+    assertEquals(2, map.remove("/a/b/d"));
+    assertTrue(map.isEmpty());
+    assertNull(map.getLongestMatch("/a/b/d"));
+  }
+
+  @Test
+  void concurrentWriters() throws InterruptedException {
+    var map = new ConcurrentStringPrefixMap<Integer>();
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int thread = t;
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  map.put("/thread" + thread + "/topic" + i, i);
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(4000, map.size());
+    assertEquals(999, map.get("/thread3/topic999"));
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class DoubleSpscRingBufferTest {
+  @Test
+  void offerPollTest() {
+    var buffer = new DoubleSpscRingBuffer(3);
+    assertEquals(4, buffer.capacity());
+    assertTrue(buffer.isEmpty());
+    assertThrows(NoSuchElementException.class, buffer::poll);
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(buffer.offer(i * 1.5, i * 10));
+    }
+    assertFalse(buffer.offer(100.0));
+    assertEquals(4, buffer.size());
+
+    assertEquals(0.0, buffer.peek());
+    assertEquals(0, buffer.peekTimestamp());
+    assertEquals(0.0, buffer.poll());
+    assertEquals(1.5, buffer.poll());
+    assertEquals(2, buffer.size());
+
+    buffer.clear();
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  void drainWrapTest() {
+    var buffer = new DoubleSpscRingBuffer(4);
+    buffer.offer(1.0, 1);
+    buffer.offer(2.0, 2);
+    buffer.offer(3.0, 3);
+    buffer.poll();
+    buffer.poll();
+    buffer.offer(4.0, 4);
+    buffer.offer(5.0, 5);
+    buffer.offer(6.0, 6);
+
+    double[] values = new double[3];
+    long[] timestamps = new long[3];
+    assertEquals(3, buffer.drainTo(values, timestamps));
+    assertArrayEquals(new double[] {3.0, 4.0, 5.0}, values);
+    assertArrayEquals(new long[] {3, 4, 5}, timestamps);
+    assertEquals(1, buffer.drainTo(values));
+    assertEquals(6.0, values[0]);
+    assertEquals(0, buffer.drainTo(values));
+  }
+
+  @Test
+  void producerConsumerTest() throws InterruptedException {
+    final int count = 100_000;
+    var buffer = new DoubleSpscRingBuffer(64);
+    var producer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < count; i++) {
+                while (!buffer.offer(i, i)) {
+                  Thread.yield();
+                }
+              }
+            });
+    producer.start();
+
+    double[] values = new double[16];
+    long[] timestamps = new long[16];
+    int expected = 0;
+    while (expected < count) {
+      int n = buffer.drainTo(values, timestamps);
+      if (n == 0) {
+        Thread.yield();
+      }
+      for (int i = 0; i < n; i++, expected++) {
+        assertEquals(expected, values[i]);
+        assertEquals(expected, timestamps[i]);
+      }
+    }
+    producer.join();
+    assertTrue(buffer.isEmpty());
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+class LongSpscRingBufferTest {
+  @Test
+  void offerPollTest() {
+    var buffer = new LongSpscRingBuffer(5);
+    assertEquals(8, buffer.capacity());
+    assertTrue(buffer.isEmpty());
+    assertThrows(NoSuchElementException.class, buffer::peek);
+    assertThrows(NoSuchElementException.class, buffer::peekTimestamp);
+
+    for (int i = 0; i < 8; i++) {
+      assertTrue(buffer.offer(Long.MAX_VALUE - i, i * 10));
+    }
+    assertFalse(buffer.offer(100));
+    assertEquals(8, buffer.size());
+
+    assertEquals(Long.MAX_VALUE, buffer.peek());
+    assertEquals(0, buffer.peekTimestamp());
+    assertEquals(Long.MAX_VALUE, buffer.poll());
+    assertEquals(10, buffer.peekTimestamp());
+    assertEquals(Long.MAX_VALUE - 1, buffer.poll());
+    assertEquals(6, buffer.size());
+
+    // space freed by the consumer is visible to the producer
+    assertTrue(buffer.offer(-1));
+    buffer.clear();
+    assertTrue(buffer.isEmpty());
+    assertThrows(NoSuchElementException.class, buffer::poll);
+  }
+
+  @Test
+  void drainWrapTest() {
+    var buffer = new LongSpscRingBuffer(4);
+    buffer.offer(1, 1);
+    buffer.offer(2, 2);
+    buffer.offer(3, 3);
+    buffer.poll();
+    buffer.poll();
+    buffer.offer(4, 4);
+    buffer.offer(5, 5);
+    buffer.offer(6, 6);
+
+    long[] values = new long[3];
+    long[] timestamps = new long[3];
+    assertEquals(3, buffer.drainTo(values, timestamps));
+    assertArrayEquals(new long[] {3, 4, 5}, values);
+    assertArrayEquals(new long[] {3, 4, 5}, timestamps);
+    assertEquals(1, buffer.drainTo(values));
+    assertEquals(6, values[0]);
+    assertEquals(0, buffer.drainTo(values));
+  }
+
+  @Test
+  void producerConsumerTest() throws InterruptedException {
+    final int count = 100_000;
+    var buffer = new LongSpscRingBuffer(64);
+    var producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < count; i++) {
+                while (!buffer.offer(i << 20, i)) {
+                  Thread.yield();
+                }
+              }
+            });
+    producer.start();
+
+    long expected = 0;
+    while (expected < count) {
+      if (buffer.isEmpty()) {
+        Thread.yield();
+        continue;
+      }
+      assertEquals(expected, buffer.peekTimestamp());
+      assertEquals(expected << 20, buffer.poll());
+      expected++;
+    }
+    producer.join();
+    assertTrue(buffer.isEmpty());
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.container;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.struct.Struct;
+import org.wpilib.util.struct.StructBuffer;
+
+class StructSpscRingBufferTest {
+  record Sample(double x, double y, int id) {}
+
+  private static final Struct<Sample> kStruct =
+      new Struct<>() {
+        @Override
+        public Class<Sample> getTypeClass() {
+          return Sample.class;
+        }
+
+        @Override
+        public String getTypeName() {
+          return "Sample";
+        }
+
+        @Override
+        public int getSize() {
+          return DOUBLE_SIZE * 2 + INT32_SIZE;
+        }
+
+        @Override
+        public String getSchema() {
+          return "double x; double y; int32 id";
+        }
+
+        @Override
+        public Sample unpack(ByteBuffer bb) {
+          return new Sample(bb.getDouble(), bb.getDouble(), bb.getInt());
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, Sample value) {
+          bb.putDouble(value.x());
+          bb.putDouble(value.y());
+          bb.putInt(value.id());
+        }
+      };
+
+  @Test
+  void offerPollTest() {
+    var buffer = new StructSpscRingBuffer<>(kStruct, 2);
+    assertTrue(buffer.offer(new Sample(1.0, 2.0, 3), 10));
+    assertTrue(buffer.offer(new Sample(4.0, 5.0, 6), 20));
+    assertFalse(buffer.offer(new Sample(7.0, 8.0, 9)));
+
+    assertEquals(new Sample(1.0, 2.0, 3), buffer.peek());
+    assertEquals(10, buffer.peekTimestamp());
+    assertEquals(new Sample(1.0, 2.0, 3), buffer.poll());
+    assertTrue(buffer.offer(new Sample(7.0, 8.0, 9), 30));
+
+    Sample[] values = new Sample[4];
+    long[] timestamps = new long[4];
+    assertEquals(2, buffer.drainTo(values, timestamps));
+    assertEquals(new Sample(4.0, 5.0, 6), values[0]);
+    assertEquals(new Sample(7.0, 8.0, 9), values[1]);
+    assertArrayEquals(new long[] {20, 30, 0, 0}, timestamps);
+  }
+
+  @Test
+  void capacityOverflowTest() {
+    // 2^27 rounded capacity * 20 bytes does not fit in an int
+    assertThrows(
+        IllegalArgumentException.class, () -> new StructSpscRingBuffer<>(kStruct, (1 << 26) + 1));
+  }
+
+  @Test
+  void drainBytesTest() {
+    Sample[] samples = {
+      new Sample(1.0, 2.0, 3), new Sample(4.0, 5.0, 6), new Sample(7.0, 8.0, 9)
+    };
+    var buffer = new StructSpscRingBuffer<>(kStruct, 4);
+    buffer.offer(samples[0]);
+    buffer.offer(samples[1]);
+    buffer.poll();
+    buffer.poll();
+    for (Sample sample : samples) {
+      buffer.offer(sample);
+    }
+
+    ByteBuffer expected = StructBuffer.create(kStruct).writeArray(samples);
+    ByteBuffer out = ByteBuffer.allocate(10 * kStruct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(3, buffer.drainTo(out, null));
+    assertEquals(expected.position(), out.position());
+    assertEquals(expected.flip(), out.flip());
+  }
+}
@@ -0,0 +1,171 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.protobuf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import us.hebi.quickbuf.Descriptors;
+import us.hebi.quickbuf.RepeatedMessage;
+
+class ProtobufBufferTest {
+  static final class Point {
+    double m_x;
+    double m_y;
+
+    Point(double x, double y) {
+      m_x = x;
+      m_y = y;
+    }
+  }
+
+  static final class PointProto implements Protobuf<Point, ProtobufTestPoint> {
+    @Override
+    public Class<Point> getTypeClass() {
+      return Point.class;
+    }
+
+    @Override
+    public Descriptors.Descriptor getDescriptor() {
+      return ProtobufTestPoint.kDescriptor;
+    }
+
+    @Override
+    public ProtobufTestPoint createMessage() {
+      return ProtobufTestPoint.newInstance();
+    }
+
+    @Override
+    public Point unpack(ProtobufTestPoint msg) {
+      return new Point(msg.getX(), msg.getY());
+    }
+
+    @Override
+    public void unpackInto(Point out, ProtobufTestPoint msg) {
+      out.m_x = msg.getX();
+      out.m_y = msg.getY();
+    }
+
+    @Override
+    public void pack(ProtobufTestPoint msg, Point value) {
+      msg.setX(value.m_x);
+      msg.setY(value.m_y);
+    }
+  }
+
+  private static final PointProto kProto = new PointProto();
+
+  private static byte[] toBytes(ByteBuffer bb) {
+    byte[] out = new byte[bb.position()];
+    bb.flip().get(out);
+    return out;
+  }
+
+  @Test
+  void testTypeString() {
+    assertEquals(
+        "proto:wpi.proto.test.ProtobufTestPoint", ProtobufBuffer.create(kProto).getTypeString());
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    var buf = ProtobufBuffer.create(kProto);
+    byte[] data = toBytes(buf.write(new Point(1.5, -2.5)));
+    assertEquals(18, data.length);
+
+    Point out = buf.read(data);
+    assertEquals(1.5, out.m_x);
+    assertEquals(-2.5, out.m_y);
+
+    out = buf.read(ByteBuffer.wrap(data));
+    assertEquals(1.5, out.m_x);
+    assertEquals(-2.5, out.m_y);
+  }
+
+  @Test
+  void testReadAtOffset() throws IOException {
+    var buf = ProtobufBuffer.create(kProto);
+    byte[] point = toBytes(buf.write(new Point(3, 4)));
+    byte[] data = new byte[point.length + 4];
+    System.arraycopy(point, 0, data, 2, point.length);
+
+    Point out = buf.read(data, 2, point.length);
+    assertEquals(3, out.m_x);
+    assertEquals(4, out.m_y);
+  }
+
+  @Test
+  void testReadInto() throws IOException {
+    var buf = ProtobufBuffer.create(kProto);
+    byte[] data = toBytes(buf.write(new Point(5, 6)));
+
+    Point out = new Point(0, 0);
+    buf.readInto(out, data);
+    assertEquals(5, out.m_x);
+    assertEquals(6, out.m_y);
+
+    buf.readInto(out, ByteBuffer.wrap(toBytes(buf.write(new Point(7, 8)))));
+    assertEquals(7, out.m_x);
+    assertEquals(8, out.m_y);
+  }
+
+  @Test
+  void testReadMessage() throws IOException {
+    var buf = ProtobufBuffer.create(kProto);
+    byte[] first = toBytes(buf.write(new Point(1, 2)));
+    byte[] second = toBytes(buf.write(new Point(3, 4)));
+
+    ProtobufTestPoint msg = buf.readMessage(first);
+    assertEquals(1, msg.getX());
+    assertEquals(2, msg.getY());
+
+    // the same message is reused and fully replaced by the next read
+    assertSame(msg, buf.readMessage(ByteBuffer.wrap(second)));
+    assertEquals(3, msg.getX());
+    assertEquals(4, msg.getY());
+
+    byte[] data = new byte[first.length + 1];
+    System.arraycopy(first, 0, data, 1, first.length);
+    assertSame(msg, buf.readMessage(data, 1, first.length));
+    assertEquals(1, msg.getX());
+    assertEquals(2, msg.getY());
+  }
+
+  @Test
+  void testReadMessageClearsFields() throws IOException {
+    var buf = ProtobufBuffer.create(kProto);
+    buf.readMessage(toBytes(buf.write(new Point(1, 2))));
+
+    // an empty message must not keep the fields of the previous read
+    ProtobufTestPoint msg = buf.readMessage(new byte[0]);
+    assertEquals(0, msg.getX());
+    assertEquals(0, msg.getY());
+  }
+
+  @Test
+  void testPackCollection() {
+    RepeatedMessage<ProtobufTestPoint> msg =
+        RepeatedMessage.newEmptyInstance(ProtobufTestPoint::newInstance);
+    Protobuf.packCollection(msg, List.of(new Point(1, 2), new Point(3, 4)), kProto);
+    assertEquals(2, msg.length());
+    assertEquals(1, msg.get(0).getX());
+    assertEquals(4, msg.get(1).getY());
+
+    // repacking reuses the element messages and drops the extra ones
+    ProtobufTestPoint first = msg.get(0);
+    Protobuf.packCollection(msg, List.of(new Point(5, 6)), kProto);
+    assertEquals(1, msg.length());
+    assertSame(first, msg.get(0));
+    assertEquals(5, first.getX());
+    assertEquals(6, first.getY());
+
+    Protobuf.packCollection(msg, List.of(), kProto);
+    assertEquals(0, msg.length());
+  }
+}
@@ -0,0 +1,129 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.protobuf;
+
+import java.io.IOException;
+import us.hebi.quickbuf.Descriptors;
+import us.hebi.quickbuf.ProtoMessage;
+import us.hebi.quickbuf.ProtoSink;
+import us.hebi.quickbuf.ProtoSource;
+import us.hebi.quickbuf.ProtoUtil;
+import us.hebi.quickbuf.RepeatedByte;
+
+/**
+ * Hand-written equivalent of the quickbuf message generated for {@code message ProtobufTestPoint
+ * { double x = 1; double y = 2; }} in package wpi.proto.test, so tests don't need protoc. Also
+ * used by the ntcore tests.
+ */
+public final class ProtobufTestPoint extends ProtoMessage<ProtobufTestPoint> implements Cloneable {
+  // serialized FileDescriptorProto of test_point.proto
+  private static final RepeatedByte kDescriptorData =
+      ProtoUtil.decodeBase64(
+          91,
+          "ChB0ZXN0X3BvaW50LnByb3RvEg53cGkucHJvdG8udGVzdCIvChFQcm90b2J1ZlRlc3RQb2ludBIMCgF4GAEgASgB"
+              + "UgF4EgwKAXkYAiABKAFSAXliBnByb3RvMw==");
+
+  private static final Descriptors.FileDescriptor kFileDescriptor =
+      Descriptors.FileDescriptor.internalBuildGeneratedFileFrom(
+          "test_point.proto", "wpi.proto.test", kDescriptorData);
+
+  public static final Descriptors.Descriptor kDescriptor =
+      kFileDescriptor.internalContainedType(
+          36, 47, "ProtobufTestPoint", "wpi.proto.test.ProtobufTestPoint");
+
+  private double m_x;
+  private double m_y;
+
+  public static ProtobufTestPoint newInstance() {
+    return new ProtobufTestPoint();
+  }
+
+  public double getX() {
+    return m_x;
+  }
+
+  public ProtobufTestPoint setX(double value) {
+    bitField0_ |= 0x1;
+    m_x = value;
+    return this;
+  }
+
+  public double getY() {
+    return m_y;
+  }
+
+  public ProtobufTestPoint setY(double value) {
+    bitField0_ |= 0x2;
+    m_y = value;
+    return this;
+  }
+
+  @Override
+  public ProtobufTestPoint copyFrom(ProtobufTestPoint other) {
+    cachedSize = other.cachedSize;
+    bitField0_ = other.bitField0_;
+    m_x = other.m_x;
+    m_y = other.m_y;
+    return this;
+  }
+
+  @Override
+  public ProtobufTestPoint clear() {
+    cachedSize = -1;
+    bitField0_ = 0;
+    m_x = 0;
+    m_y = 0;
+    return this;
+  }
+
+  @Override
+  protected int computeSerializedSize() {
+    return Integer.bitCount(bitField0_ & 0x3) * 9;
+  }
+
+  @Override
+  public void writeTo(ProtoSink output) throws IOException {
+    if ((bitField0_ & 0x1) != 0) {
+      output.writeRawByte((byte) 9);
+      output.writeDoubleNoTag(m_x);
+    }
+    if ((bitField0_ & 0x2) != 0) {
+      output.writeRawByte((byte) 17);
+      output.writeDoubleNoTag(m_y);
+    }
+  }
+
+  @Override
+  public ProtobufTestPoint mergeFrom(ProtoSource input) throws IOException {
+    while (true) {
+      int tag = input.readTag();
+      switch (tag) {
+        case 0 -> {
+          return this;
+        }
+        case 9 -> setX(input.readDouble());
+        case 17 -> setY(input.readDouble());
+        default -> {
+          if (!input.skipField(tag)) {
+            return this;
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return obj instanceof ProtobufTestPoint other
+        && bitField0_ == other.bitField0_
+        && m_x == other.m_x
+        && m_y == other.m_y;
+  }
+
+  @Override
+  public ProtobufTestPoint clone() {
+    return new ProtobufTestPoint().copyFrom(this);
+  }
+}
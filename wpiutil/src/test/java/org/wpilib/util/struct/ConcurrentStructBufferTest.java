@@ -0,0 +1,122 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentStructBufferTest {
+  record Point(int x, double y) {}
+
+  static final class PointStruct implements Struct<Point> {
+    @Override
+    public Class<Point> getTypeClass() {
+      return Point.class;
+    }
+
+    @Override
+    public String getTypeName() {
+      return "Point";
+    }
+
+    @Override
+    public int getSize() {
+      return 12;
+    }
+
+    @Override
+    public String getSchema() {
+      return "int32 x; double y";
+    }
+
+    @Override
+    public Point unpack(ByteBuffer bb) {
+      return new Point(bb.getInt(), bb.getDouble());
+    }
+
+    @Override
+    public void pack(ByteBuffer bb, Point value) {
+      bb.putInt(value.x());
+      bb.putDouble(value.y());
+    }
+
+    @Override
+    public boolean isImmutable() {
+      return true;
+    }
+  }
+
+  @Test
+  void testPooling() {
+    var buf = ConcurrentStructBuffer.create(new PointStruct());
+    ByteBuffer bb = buf.write(new Point(1, 2.0));
+    assertEquals(12, bb.position());
+    buf.release(bb);
+    assertSame(bb, buf.write(new Point(3, 4.0)));
+
+    // arrays are rounded up to a power-of-two size class
+    ByteBuffer arr = buf.writeArray(List.of(new Point(1, 1), new Point(2, 2), new Point(3, 3)));
+    assertEquals(36, arr.position());
+    assertEquals(48, arr.capacity());
+    buf.release(arr);
+    assertSame(arr, buf.acquire(4));
+    assertNotSame(arr, buf.acquire(4));
+  }
+
+  @Test
+  void testAcquireOverflow() {
+    var buf = ConcurrentStructBuffer.create(new PointStruct());
+    assertThrows(IllegalArgumentException.class, () -> buf.acquire(Integer.MAX_VALUE / 12 + 1));
+  }
+
+  @Test
+  void testRoundTrip() {
+    var buf = ConcurrentStructBuffer.create(new PointStruct());
+    Point[] values = {new Point(1, 1.5), new Point(-2, 2.5)};
+    ByteBuffer bb = buf.writeArray(values);
+    byte[] data = new byte[bb.position()];
+    bb.flip().get(data);
+    buf.release(bb);
+    assertArrayEquals(values, buf.readArray(data));
+  }
+
+  @Test
+  void testConcurrentWriters() throws Exception {
+    var buf = ConcurrentStructBuffer.create(new PointStruct());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      Future<?>[] futures = new Future<?>[4];
+      for (int t = 0; t < futures.length; t++) {
+        int id = t;
+        futures[t] =
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 10000; i++) {
+                    Point value = new Point(id, i);
+                    ByteBuffer bb = buf.write(value);
+                    bb.flip();
+                    assertEquals(value, buf.read(bb));
+                    buf.release(bb);
+                  }
+                });
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
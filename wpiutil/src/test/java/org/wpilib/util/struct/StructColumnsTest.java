@@ -0,0 +1,91 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StructColumnsTest {
+  record Inner(double x, int y) implements StructSerializable {
+    public static final Struct<Inner> struct = StructGenerator.genRecord(Inner.class);
+  }
+
+  record Outer(short id, Inner a, boolean flag, float f, long big) {}
+
+  private static final Struct<Outer> kStruct = StructGenerator.genRecord(Outer.class);
+
+  private static byte[] toBytes(ByteBuffer bb) {
+    byte[] out = new byte[bb.position()];
+    bb.flip().get(out);
+    return out;
+  }
+
+  @Test
+  void testColumnNames() {
+    var columns = StructColumns.create(kStruct);
+    assertEquals(List.of("id", "a.x", "a.y", "flag", "f", "big"), columns.getColumnNames());
+    assertEquals(2, columns.getColumnIndex("a.y"));
+    assertEquals(-1, columns.getColumnIndex("a"));
+    assertThrows(IllegalArgumentException.class, () -> columns.getColumn("z"));
+  }
+
+  @Test
+  void testMatchesWriteArray() {
+    Outer[] values = new Outer[100];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new Outer((short) -i, new Inner(i * 0.25, i * 1000), i % 3 == 0, i / 8f, -i);
+    }
+    byte[] expected = toBytes(StructBuffer.create(kStruct).writeArray(values));
+
+    var columns = StructColumns.create(kStruct);
+    columns.setSize(values.length);
+    double[] id = columns.getColumn("id");
+    double[] x = columns.getColumn("a.x");
+    double[] y = columns.getColumn("a.y");
+    double[] flag = columns.getColumn("flag");
+    double[] f = columns.getColumn("f");
+    double[] big = columns.getColumn("big");
+    for (int i = 0; i < values.length; i++) {
+      id[i] = values[i].id();
+      x[i] = values[i].a().x();
+      y[i] = values[i].a().y();
+      flag[i] = values[i].flag() ? 1 : 0;
+      f[i] = values[i].f();
+      big[i] = values[i].big();
+    }
+    assertArrayEquals(expected, toBytes(columns.write()));
+  }
+
+  @Test
+  void testReadRoundTrip() {
+    Outer[] values = {
+      new Outer((short) 1, new Inner(1.5, -2), true, 2.5f, 3),
+      new Outer((short) -4, new Inner(-5.5, 6), false, -7.5f, -8)
+    };
+    byte[] data = toBytes(StructBuffer.create(kStruct).writeArray(values));
+
+    var columns = StructColumns.create(kStruct);
+    columns.read(data);
+    assertEquals(2, columns.size());
+    assertArrayEquals(new double[] {1.5, -5.5}, columns.getColumn("a.x"));
+    assertArrayEquals(new double[] {1, 0}, columns.getColumn("flag"));
+    assertArrayEquals(data, toBytes(columns.write()));
+  }
+
+  @Test
+  void testGrow() {
+    var columns = StructColumns.create(kStruct, 1);
+    columns.getColumn("id")[0] = 5;
+    columns.setSize(10);
+    assertEquals(10, columns.size());
+    assertEquals(5, columns.getColumn("id")[0]);
+    assertEquals(10 * kStruct.getSize(), columns.write().position());
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StructFieldAccessorTest {
+  private StructDescriptorDatabase db;
+
+  @BeforeEach
+  public void init() {
+    db = new StructDescriptorDatabase();
+  }
+
+  @Test
+  void testMatchesDynamicStruct() {
+    var desc =
+        assertDoesNotThrow(
+            () -> db.add("test", "int8 a:4; uint8 b:4; int16 c; uint32 d; float e; double f[2]"));
+    var dynamic = DynamicStruct.allocate(desc);
+    dynamic.setIntField(desc.findFieldByName("a"), -3);
+    dynamic.setIntField(desc.findFieldByName("b"), 9);
+    dynamic.setIntField(desc.findFieldByName("c"), -1234);
+    dynamic.setIntField(desc.findFieldByName("d"), 0xfedcba98L);
+    dynamic.setFloatField(desc.findFieldByName("e"), 1.5f);
+    dynamic.setDoubleField(desc.findFieldByName("f"), 2.25, 1);
+
+    for (var field : desc.getFields()) {
+      if (field.isInt() || field.isUint()) {
+        assertEquals(
+            dynamic.getIntField(field), StructFieldAccessor.create(field).getInt(dynamic));
+      }
+    }
+    assertEquals(1.5, StructFieldAccessor.create(desc.findFieldByName("e")).getDouble(dynamic));
+    assertEquals(
+        2.25, StructFieldAccessor.create(desc.findFieldByName("f"), 1).getDouble(dynamic));
+  }
+
+  @Test
+  void testNestedPath() {
+    var inner = assertDoesNotThrow(() -> db.add("inner", "int32 x; double y"));
+    var outer = assertDoesNotThrow(() -> db.add("outer", "bool flag; inner a[2]"));
+    var dynamic = DynamicStruct.allocate(outer);
+    var element = DynamicStruct.allocate(inner);
+    element.setDoubleField(inner.findFieldByName("y"), 7.5);
+    dynamic.setStructField(outer.findFieldByName("a"), element, 1);
+
+    var accessor = StructFieldAccessor.create(outer, "a[1].y");
+    assertEquals(1 + 12 + 4, accessor.getOffset());
+    assertEquals(7.5, accessor.getDouble(dynamic));
+    assertThrows(IllegalArgumentException.class, () -> StructFieldAccessor.create(outer, "a"));
+    assertThrows(IllegalArgumentException.class, () -> StructFieldAccessor.create(outer, "a.z"));
+    assertThrows(
+        ArrayIndexOutOfBoundsException.class, () -> StructFieldAccessor.create(outer, "a[2].y"));
+  }
+
+  @Test
+  void testBulk() {
+    var desc = assertDoesNotThrow(() -> db.add("test", "uint16 a; float b"));
+    ByteBuffer data = ByteBuffer.allocate(1 + 4 * desc.getSize());
+    data.put((byte) 0);
+    for (int i = 0; i < 4; i++) {
+      var dynamic = DynamicStruct.wrap(desc, data);
+      dynamic.setIntField(desc.findFieldByName("a"), 65535 - i);
+      dynamic.setFloatField(desc.findFieldByName("b"), i * 0.5f);
+      data.position(data.position() + desc.getSize());
+    }
+    data.position(1);
+
+    double[] a = new double[3];
+    assertEquals(4, StructFieldAccessor.create(desc, "a").getDoubles(data, a));
+    assertArrayEquals(new double[] {65535, 65534, 65533}, a);
+
+    double[] b = new double[5];
+    StructFieldAccessor.create(desc, "b").getDoubles(data, 1, b, 1, 4);
+    assertArrayEquals(new double[] {0, 0, 0.5, 1.0, 1.5}, b);
+
+    long[] ints = new long[4];
+    StructFieldAccessor.create(desc, "a").getInts(data, 1, ints, 0, 4);
+    assertArrayEquals(new long[] {65535, 65534, 65533, 65532}, ints);
+  }
+}
@@ -179,4 +179,56 @@ class StructGeneratorTest {
   void testHigherOrderRecordDoubleUnpack() {
     testStructDoubleUnpack(HigherOrderRecord.create());
   }
+
+  @Test
+  void testHigherOrderRecordLayout() {
+    ByteBuffer buffer = ByteBuffer.allocate(HigherOrderRecord.struct.getSize());
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    HigherOrderRecord.struct.pack(
+        buffer,
+        new HigherOrderRecord(
+            new CustomRecord(-5, true, 2.5, 'z', (short) -2),
+            CustomEnum.C,
+            AnimalEnum.Cat,
+            -7L,
+            (byte) 9));
+    assertEquals(32, buffer.position());
+
+    // fields are packed in declaration order at fixed offsets, nested structs inline
+    assertEquals(-5, buffer.getInt(0));
+    assertEquals(1, buffer.get(4));
+    assertEquals(2.5, buffer.getDouble(5));
+    assertEquals('z', buffer.getChar(13));
+    assertEquals(-2, buffer.getShort(15));
+    assertEquals(CustomEnum.C.ordinal(), buffer.get(17));
+    assertEquals(32, buffer.getInt(18));
+    assertEquals(AnimalEnum.Cat.ordinal(), buffer.get(22));
+    assertEquals(-7L, buffer.getLong(23));
+    assertEquals(9, buffer.get(31));
+  }
+
+  @Test
+  void testEnumVariantsRoundTrip() {
+    for (CustomEnum value : CustomEnum.values()) {
+      testStructRoundTrip(value);
+    }
+    for (AnimalEnum value : AnimalEnum.values()) {
+      testStructRoundTrip(value);
+    }
+  }
+
+  @Test
+  void testUnpackAtOffset() {
+    HigherOrderRecord value = HigherOrderRecord.create();
+    int size = HigherOrderRecord.struct.getSize();
+    ByteBuffer buffer = ByteBuffer.allocate(3 + size * 2).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.position(3);
+    HigherOrderRecord.struct.pack(buffer, value);
+    HigherOrderRecord.struct.pack(buffer, value);
+    assertEquals(3 + size * 2, buffer.position());
+
+    buffer.position(3 + size);
+    assertEquals(value, HigherOrderRecord.struct.unpack(buffer));
+    assertEquals(3 + size * 2, buffer.position());
+  }
 }
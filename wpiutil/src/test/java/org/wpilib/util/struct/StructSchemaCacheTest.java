@@ -0,0 +1,81 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("AvoidEscapedUnicodeCharacters")
+class StructSchemaCacheTest {
+  @Test
+  void testFingerprint() {
+    assertEquals(
+        StructSchemaCache.fingerprint("double x; double y"),
+        StructSchemaCache.fingerprint("double x; double y"));
+    assertNotEquals(
+        StructSchemaCache.fingerprint("double x; double y"),
+        StructSchemaCache.fingerprint("double y; double x"));
+  }
+
+  private static long fnv1a(byte[] data) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : data) {
+      hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  @Test
+  void testFingerprintHashesUtf8() {
+    // standard FNV-1a 64 test vectors
+    assertEquals(0xcbf29ce484222325L, StructSchemaCache.fingerprint(""));
+    assertEquals(0xaf63dc4c8601ec8cL, StructSchemaCache.fingerprint("a"));
+    assertEquals(0x85944171f73967e8L, StructSchemaCache.fingerprint("foobar"));
+
+    // 1, 2, 3 and 4 byte sequences, plus an unpaired surrogate
+    String[] schemas = {"double x", "int8 \u00e9", "int8 \u4e2d", "int8 \ud83d\ude00", "\ud83d"};
+    for (String schema : schemas) {
+      assertEquals(
+          fnv1a(schema.getBytes(StandardCharsets.UTF_8)),
+          StructSchemaCache.fingerprint(schema),
+          schema);
+    }
+  }
+
+  @Test
+  void testSharedAcrossDatabases() {
+    String schema = "enum {a=1, b=2} int8 e; double cachetest";
+    var desc1 = assertDoesNotThrow(() -> new StructDescriptorDatabase().add("foo", schema));
+    assertTrue(StructSchemaCache.contains(StructSchemaCache.fingerprint(schema)));
+    var desc2 = assertDoesNotThrow(() -> new StructDescriptorDatabase().add("bar", schema));
+
+    // descriptors are per-database, but the parse result is shared
+    assertNotSame(desc1, desc2);
+    assertEquals(desc1.getFingerprint(), desc2.getFingerprint());
+    assertSame(
+        desc1.findFieldByName("e").getEnumValues(), desc2.findFieldByName("e").getEnumValues());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> desc1.findFieldByName("e").getEnumValues().put("c", 3L));
+  }
+
+  @Test
+  void testReAdd() {
+    var db = new StructDescriptorDatabase();
+    var desc = assertDoesNotThrow(() -> db.add("test", "int32 a; int16 b"));
+    assertSame(desc, assertDoesNotThrow(() -> db.add("test", "int32 a; int16 b")));
+    assertEquals(6, desc.getSize());
+    assertDoesNotThrow(() -> db.add("test", "int32 a"));
+    assertEquals(4, desc.getSize());
+  }
+}
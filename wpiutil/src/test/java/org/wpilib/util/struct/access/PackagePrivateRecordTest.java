@@ -0,0 +1,49 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package org.wpilib.util.struct.access;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+import org.wpilib.util.struct.Struct;
+import org.wpilib.util.struct.StructGenerator;
+
+// Records outside org.wpilib.util.struct that aren't public, as commonly declared in robot code
+class PackagePrivateRecordTest {
+  record Inner(int a, double b) {}
+
+  private record Outer(Inner inner, boolean flag, long c) {}
+
+  @Test
+  void testPackagePrivateRoundTrip() {
+    Struct<Inner> struct = StructGenerator.genRecord(Inner.class);
+    assertEquals(12, struct.getSize());
+    assertEquals("int32 a;float64 b;", struct.getSchema());
+
+    ByteBuffer buffer = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    struct.pack(buffer, new Inner(7, 2.5));
+    assertEquals(7, buffer.getInt(0));
+    assertEquals(2.5, buffer.getDouble(4));
+    buffer.rewind();
+    assertEquals(new Inner(7, 2.5), struct.unpack(buffer));
+  }
+
+  @Test
+  void testPrivateNestedRoundTrip() {
+    StructGenerator.addCustomStruct(Inner.class, StructGenerator.genRecord(Inner.class), false);
+    Struct<Outer> struct = StructGenerator.genRecord(Outer.class);
+    assertEquals(21, struct.getSize());
+
+    Outer value = new Outer(new Inner(-3, 1.25), true, 1L << 40);
+    ByteBuffer buffer = ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+    struct.pack(buffer, value);
+    assertEquals(-3, buffer.getInt(0));
+    assertEquals(1, buffer.get(12));
+    buffer.rewind();
+    assertEquals(value, struct.unpack(buffer));
+  }
+}